@@ -0,0 +1,167 @@
+/**
+ * FPTree class.
+ *
+ * @version 1.1
+ *
+ * Log:
+ *		  1.0 Start version of class (as FPTreeNode and FPTHeaderList).
+ *		  1.1 Nodes held in parallel arrays, items held as integer ranks.
+ */
+package Data;
+
+public class FPTree{
+
+	private int[] item, count, parent, nodeLink, firstChild, nextSibling;
+
+	private int[] head, itemCount;
+
+	private int size;
+
+	/**
+	 * FPTree method.
+	 * Constructor.
+	 * Method used to initialise an empty tree (just the root) for
+	 * items ranked 0 to items - 1. Rank 0 is the most frequent item,
+	 * and a path from the root always holds increasing ranks.
+	 */
+	public FPTree(int items){
+		int capacity = 64;
+		item = new int[capacity];
+		count = new int[capacity];
+		parent = new int[capacity];
+		nodeLink = new int[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		head = new int[items];
+		itemCount = new int[items];
+		for (int i = 0; i < items; i++){
+			head[i] = -1;
+		}
+		//Root node...
+		item[0] = -1;
+		parent[0] = -1;
+		nodeLink[0] = -1;
+		firstChild[0] = -1;
+		nextSibling[0] = -1;
+		size = 1;
+	}
+
+	/**
+	 * addPath method.
+	 * Method used to add a transaction (or a prefix path of a
+	 * conditional pattern base) to the tree. Nodes already on the
+	 * path have their count increased, new nodes are linked into
+	 * the header table for their item.
+	 * PRE: The ranks must be in increasing order.
+	 * POST: The path has been added to the tree.
+	 */
+	final public void addPath(int[] ranks, int length, int c){
+		int node = 0;
+		int child, rank;
+		for (int i = 0; i < length; i++){
+			rank = ranks[i];
+			//Find the child holding this item...
+			child = firstChild[node];
+			while (child != -1 && item[child] != rank){
+				child = nextSibling[child];
+			}
+			if (child == -1){
+				//Item not yet a child of this node so add it...
+				child = newNode(rank, node);
+			}
+			count[child] = count[child] + c;
+			itemCount[rank] = itemCount[rank] + c;
+			node = child;
+		}
+	}
+
+	/**
+	 * newNode method.
+	 * Method used to add a node as the first child of a parent node
+	 * and as the first node in its item's node links.
+	 */
+	final private int newNode(int rank, int p){
+		if (size == item.length){
+			grow();
+		}
+		int node = size;
+		size++;
+		item[node] = rank;
+		count[node] = 0;
+		parent[node] = p;
+		firstChild[node] = -1;
+		nextSibling[node] = firstChild[p];
+		firstChild[p] = node;
+		nodeLink[node] = head[rank];
+		head[rank] = node;
+		return node;
+	}
+
+	/**
+	 * grow method.
+	 * Method used to double the capacity of the node arrays.
+	 */
+	final private void grow(){
+		int capacity = item.length * 2;
+		item = copy(item, capacity);
+		count = copy(count, capacity);
+		parent = copy(parent, capacity);
+		nodeLink = copy(nodeLink, capacity);
+		firstChild = copy(firstChild, capacity);
+		nextSibling = copy(nextSibling, capacity);
+	}
+
+	final private int[] copy(int[] values, int capacity){
+		int[] temp = new int[capacity];
+		System.arraycopy(values, 0, temp, 0, size);
+		return temp;
+	}
+
+	/**
+	 * getHead method.
+	 * Method used to get the first node holding an item, or -1
+	 * if the item is not in the tree. The other nodes holding the
+	 * item follow from getNodeLink.
+	 */
+	final public int getHead(int rank){
+		return head[rank];
+	}
+
+	final public int getNodeLink(int node){
+		return nodeLink[node];
+	}
+
+	/**
+	 * getParent method.
+	 * Method used to get the parent of a node. The root is node 0.
+	 */
+	final public int getParent(int node){
+		return parent[node];
+	}
+
+	final public int getItem(int node){
+		return item[node];
+	}
+
+	final public int getCount(int node){
+		return count[node];
+	}
+
+	/**
+	 * getItemCount method.
+	 * Method used to get the total count of an item in the tree,
+	 * which is the frequency of the item in the transactions the
+	 * tree was built from.
+	 */
+	final public int getItemCount(int rank){
+		return itemCount[rank];
+	}
+
+	final public int getNumberItems(){
+		return head.length;
+	}
+
+	final public int getNumberNodes(){
+		return size;
+	}
+}
\ No newline at end of file
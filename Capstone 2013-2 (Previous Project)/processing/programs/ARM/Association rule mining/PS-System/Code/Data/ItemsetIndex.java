@@ -0,0 +1,234 @@
+/**
+ * ItemsetIndex class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class ItemsetIndex{
+
+	//Value of each itemset, by its sorted items...
+	private HashMap values;
+
+	//Prefix trie of the sorted itemsets, with nodes held in parallel arrays (node 0 is the root)...
+	private int[] item, value, firstChild, nextSibling;
+
+	private int size;
+
+	//Results of a trie search...
+	private int[] found;
+
+	private int f1;
+
+	/**
+	 * ItemsetIndex method.
+	 * Constructor.
+	 * Method used to initialise an empty index of itemsets. Each
+	 * itemset is indexed with a value (such as its position in a
+	 * list), found from the itemset with a hash lookup. The itemsets
+	 * are also held in a prefix trie so that their supersets and
+	 * subsets can be found without scanning every itemset.
+	 */
+	public ItemsetIndex(){
+		values = new HashMap();
+		int capacity = 64;
+		item = new int[capacity];
+		value = new int[capacity];
+		firstChild = new int[capacity];
+		nextSibling = new int[capacity];
+		item[0] = -1;
+		value[0] = -1;
+		firstChild[0] = -1;
+		nextSibling[0] = -1;
+		size = 1;
+	}
+
+	/**
+	 * add method.
+	 * Method used to add an itemset and its value to the index. The
+	 * items may be in any order.
+	 * PRE: The value must not be negative.
+	 * POST: The itemset has been added and true returned, or false
+	 *       returned if the itemset was already in the index (its
+	 *       value is not changed).
+	 */
+	final public boolean add(int[] itemset, int v){
+		int[] items = sorted(itemset);
+		Key key = new Key(items);
+		if (values.containsKey(key)){
+			return false;
+		}
+		values.put(key, v);
+		int node = 0;
+		int child;
+		for (int i = 0; i < items.length; i++){
+			//Find the child holding this item...
+			child = firstChild[node];
+			while (child != -1 && item[child] != items[i]){
+				child = nextSibling[child];
+			}
+			if (child == -1){
+				child = newNode(items[i], node);
+			}
+			node = child;
+		}
+		value[node] = v;
+		return true;
+	}
+
+	/**
+	 * get method.
+	 * Method used to get the value of an itemset, or -1 if the
+	 * itemset is not in the index.
+	 */
+	final public int get(int[] itemset){
+		Integer v = (Integer)values.get(new Key(sorted(itemset)));
+		if (v == null){
+			return -1;
+		}
+		return v;
+	}
+
+	/**
+	 * getSupersets method.
+	 * Method used to get the values of the itemsets in the index
+	 * that hold every item of an itemset and one more item, in
+	 * increasing order.
+	 */
+	final public int[] getSupersets(int[] itemset){
+		found = new int[8];
+		f1 = 0;
+		findSupersets(0, sorted(itemset), 0, false);
+		int[] supersets = Arrays.copyOf(found, f1);
+		found = null;
+		Arrays.sort(supersets);
+		return supersets;
+	}
+
+	/**
+	 * findSupersets method.
+	 * Method used to walk the trie below a node, matching the items
+	 * of an itemset from a position. One item that is not in the
+	 * itemset may be passed over (extra), and the walk stops at the
+	 * node holding the last item of a superset.
+	 */
+	final private void findSupersets(int node, int[] items, int pos, boolean extra){
+		if (extra && pos == items.length){
+			if (value[node] != -1){
+				addFound(value[node]);
+			}
+			return;
+		}
+		for (int child = firstChild[node]; child != -1; child = nextSibling[child]){
+			if (pos < items.length && item[child] == items[pos]){
+				findSupersets(child, items, pos + 1, extra);
+			}
+			else if (!extra && (pos == items.length || item[child] < items[pos])){
+				//Items are sorted, so the extra item must come before the next item of the itemset...
+				findSupersets(child, items, pos, true);
+			}
+		}
+	}
+
+	/**
+	 * hasSubset method.
+	 * Method used to check if the index holds an itemset whose items
+	 * are all in an itemset, other than the itemset itself.
+	 */
+	final public boolean hasSubset(int[] itemset){
+		int[] items = sorted(itemset);
+		return findSubset(0, items, 0, 0);
+	}
+
+	/**
+	 * findSubset method.
+	 * Method used to walk the trie below a node (at a depth), only
+	 * following the items of an itemset from a position on.
+	 */
+	final private boolean findSubset(int node, int[] items, int pos, int depth){
+		if (node != 0 && value[node] != -1 && depth < items.length){
+			return true;
+		}
+		for (int child = firstChild[node]; child != -1; child = nextSibling[child]){
+			for (int i = pos; i < items.length; i++){
+				if (item[child] == items[i]){
+					if (findSubset(child, items, i + 1, depth + 1)){
+						return true;
+					}
+					break;
+				}
+			}
+		}
+		return false;
+	}
+
+	final public int size(){
+		return values.size();
+	}
+
+	final private void addFound(int v){
+		if (f1 == found.length){
+			found = Arrays.copyOf(found, f1 * 2);
+		}
+		found[f1] = v;
+		f1++;
+	}
+
+	final private static int[] sorted(int[] itemset){
+		int[] items = itemset.clone();
+		Arrays.sort(items);
+		return items;
+	}
+
+	/**
+	 * newNode method.
+	 * Method used to add a node as the first child of a parent node.
+	 */
+	final private int newNode(int i, int p){
+		if (size == item.length){
+			int capacity = item.length * 2;
+			item = Arrays.copyOf(item, capacity);
+			value = Arrays.copyOf(value, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			nextSibling = Arrays.copyOf(nextSibling, capacity);
+		}
+		int node = size;
+		size++;
+		item[node] = i;
+		value[node] = -1;
+		firstChild[node] = -1;
+		nextSibling[node] = firstChild[p];
+		firstChild[p] = node;
+		return node;
+	}
+
+	/**
+	 * Key class.
+	 * The sorted items of an itemset, as a hash key.
+	 */
+	final private static class Key{
+
+		private int[] items;
+
+		private int hash;
+
+		Key(int[] itemset){
+			items = itemset;
+			hash = Arrays.hashCode(itemset);
+		}
+
+		public int hashCode(){
+			return hash;
+		}
+
+		public boolean equals(Object other){
+			return other instanceof Key && Arrays.equals(items, ((Key)other).items);
+		}
+	}
+}
\ No newline at end of file
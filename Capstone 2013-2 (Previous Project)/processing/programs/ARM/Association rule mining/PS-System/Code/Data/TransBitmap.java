@@ -0,0 +1,119 @@
+/**
+ * TransBitmap class.
+ *
+ * @version 1.1
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ *		  1.1 Transaction lists of a bitmap.
+ */
+package Data;
+
+public class TransBitmap{
+
+	/**
+	 * create method.
+	 * Method used to create an empty bitmap of a number of
+	 * transactions. Bit i of word i / 64 is set when transaction i
+	 * holds the item (or itemset) the bitmap is for.
+	 */
+	final public static long[] create(int transactions){
+		return new long[(transactions + 63) >>> 6];
+	}
+
+	final public static void set(long[] bitmap, int transaction){
+		bitmap[transaction >>> 6] |= 1L << transaction;
+	}
+
+	final public static boolean get(long[] bitmap, int transaction){
+		return (bitmap[transaction >>> 6] & (1L << transaction)) != 0;
+	}
+
+	/**
+	 * and method.
+	 * Method used to get the transactions held in both of two
+	 * bitmaps, as a new bitmap.
+	 */
+	final public static long[] and(long[] bitmap1, long[] bitmap2){
+		int w1 = bitmap1.length;
+		long[] bitmap = new long[w1];
+		for (int i = 0; i < w1; i++){
+			bitmap[i] = bitmap1[i] & bitmap2[i];
+		}
+		return bitmap;
+	}
+
+	/**
+	 * andInto method.
+	 * Method used to remove the transactions not in a second bitmap
+	 * from a first bitmap.
+	 */
+	final public static void andInto(long[] bitmap1, long[] bitmap2){
+		int w1 = bitmap1.length;
+		for (int i = 0; i < w1; i++){
+			bitmap1[i] = bitmap1[i] & bitmap2[i];
+		}
+	}
+
+	/**
+	 * orInto method.
+	 * Method used to add the transactions of a second bitmap to a
+	 * first bitmap.
+	 */
+	final public static void orInto(long[] bitmap1, long[] bitmap2){
+		int w1 = bitmap1.length;
+		for (int i = 0; i < w1; i++){
+			bitmap1[i] = bitmap1[i] | bitmap2[i];
+		}
+	}
+
+	/**
+	 * count method.
+	 * Method used to count the transactions in a bitmap, which is
+	 * the frequency of the item (or itemset) the bitmap is for.
+	 */
+	final public static int count(long[] bitmap){
+		int c = 0;
+		int w1 = bitmap.length;
+		for (int i = 0; i < w1; i++){
+			c = c + Long.bitCount(bitmap[i]);
+		}
+		return c;
+	}
+
+	/**
+	 * andCount method.
+	 * Method used to count the transactions held in both of two
+	 * bitmaps, without creating their intersection.
+	 */
+	final public static int andCount(long[] bitmap1, long[] bitmap2){
+		int c = 0;
+		int w1 = bitmap1.length;
+		for (int i = 0; i < w1; i++){
+			c = c + Long.bitCount(bitmap1[i] & bitmap2[i]);
+		}
+		return c;
+	}
+
+	/**
+	 * toTransactions method.
+	 * Method used to list the transactions in a bitmap, in increasing
+	 * order (a tidset).
+	 */
+	final public static int[] toTransactions(long[] bitmap){
+		int[] tids = new int[count(bitmap)];
+		int t1 = 0;
+		long word;
+		int w1 = bitmap.length;
+		for (int i = 0; i < w1; i++){
+			word = bitmap[i];
+			while (word != 0){
+				tids[t1] = (i << 6) + Long.numberOfTrailingZeros(word);
+				t1++;
+				//Clear the lowest set bit...
+				word = word & (word - 1);
+			}
+		}
+		return tids;
+	}
+}
\ No newline at end of file
@@ -3,14 +3,16 @@
  * 
  * Start Date: 08 December 2006
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Vertical bitmaps of the transactions holding each item.
  */
 package Data;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 public class TransRecords{
 	
@@ -24,6 +26,12 @@ public class TransRecords{
 	
 	private int LTP;
 
+	//Bitmap of the transactions holding each item (by index), built when first needed...
+	private long[][] bitmaps;
+
+	//Bitmaps returned by getMatches, by item ID...
+	private HashMap matchBitmaps;
+
 	/**
 	 * TransRecords method.
 	 * Constructor.
@@ -51,6 +59,7 @@ public class TransRecords{
 	 * POST: The new entries have been added to the lists.
 	 */
 	final public void addData(ArrayList r, ArrayList names, ArrayList val1, ArrayList val2, ArrayList aID, ArrayList all){
+		clearBitmaps();
 		String[] temp;
 		String t;
 		int s, a;
@@ -98,6 +107,7 @@ public class TransRecords{
 	}
 	
 	final public void addData(ArrayList r, ArrayList names, ArrayList val1, ArrayList val2, ArrayList aID){
+		clearBitmaps();
 		String[] temp;
 		String t;
 		int s, a;
@@ -138,6 +148,7 @@ public class TransRecords{
 	}
 
 	final public void addData(ArrayList r, ArrayList names, ArrayList val1, ArrayList val2){
+		clearBitmaps();
 		String[] temp;
 		String t;
 		int s, a;
@@ -177,6 +188,7 @@ public class TransRecords{
 	}
 	
 	final public void addData(Object[] r, String[] names, String[] val1, String[] val2, int[] id){
+		clearBitmaps();
 		String[] temp;
 		String t;
 		int a, s;
@@ -217,6 +229,7 @@ public class TransRecords{
 	}
 
 	final public void addExtra(ArrayList t, ArrayList i, ArrayList d){
+		clearBitmaps();
 		int i1, i2, i3, i4;
 		int s1, s2, s3, s4, s5;
 		i1 = attNames.length;
@@ -283,6 +296,7 @@ public class TransRecords{
 	 * POST: The transactions have been added to the list.
 	 */
 	final public void addRec(ArrayList r){
+		clearBitmaps();
 		String[] temp;
 		int s;
 		s = r.size();
@@ -300,6 +314,7 @@ public class TransRecords{
 	 * POST: The item names have been added to the list.
 	 */
 	final public void addNames(ArrayList names){
+		clearBitmaps();
 		String temp;
 		int s;
 		s = names.size();
@@ -311,6 +326,7 @@ public class TransRecords{
 	}
 	
 	final public void addIDs(ArrayList ids){
+		clearBitmaps();
 		int a, s;
 		s = ids.size();
 		attIDs = new int[s];
@@ -465,14 +481,78 @@ public class TransRecords{
 		return match;
 	}
 	
-	final public ArrayList getMatches(int id){
-		ArrayList matches = new ArrayList();
+	/**
+	 * getBitmap method.
+	 * Method used to get the bitmap of the transactions that hold an
+	 * item (have a "1" value for it). The bitmaps of all the items are
+	 * built with one pass of the transactions when first needed.
+	 * PRE: The index of the item in the list of items must be specified.
+	 * POST: The bitmap has been returned (and must not be modified).
+	 */
+	final public long[] getBitmap(int index){
+		if (bitmaps == null){
+			buildBitmaps();
+		}
+		return bitmaps[index];
+	}
+
+	/**
+	 * buildBitmaps method.
+	 * Method used to turn the transaction records into one bitmap per
+	 * item (a vertical layout of the dataset).
+	 */
+	final private void buildBitmaps(){
+		String[] trans;
+		int a1 = attNames.length;
+		int r1 = records.length;
+		int t1;
+		bitmaps = new long[a1][];
+		for (int i = 0; i < a1; i++){
+			bitmaps[i] = TransBitmap.create(r1);
+		}
+		for (int i = 0; i < r1; i++){
+			trans = (String[])records[i];
+			t1 = Math.min(trans.length, a1);
+			for (int j = 0; j < t1; j++){
+				if (trans[j].equals("1")){
+					TransBitmap.set(bitmaps[j], i);
+				}
+			}
+		}
+	}
+
+	/**
+	 * clearBitmaps method.
+	 * Method used to discard the bitmaps when the transactions or items
+	 * change.
+	 */
+	final private void clearBitmaps(){
+		bitmaps = null;
+		matchBitmaps = null;
+	}
+
+	/**
+	 * getMatches method.
+	 * Method used to get the bitmap of the transactions that hold an
+	 * item or, for an abstract item, any of its descendants.
+	 * PRE: The ID of the item must be specified.
+	 * POST: The bitmap has been returned (and must not be modified).
+	 */
+	final public long[] getMatches(int id){
+		if (matchBitmaps == null){
+			matchBitmaps = new HashMap();
+		}
+		long[] matches = (long[])matchBitmaps.get(id);
+		if (matches != null){
+			return matches;
+		}
+		matches = TransBitmap.create(records.length);
 		int[] desc;
 		int a1, a2, a3;
 		a1 = attIDs.length;
 		for (int i = 0; i < a1; i++){
 			if (attIDs[i] == id){
-				matches.add(i);
+				TransBitmap.orInto(matches, getBitmap(i));
 				break;
 			}
 		}
@@ -484,7 +564,7 @@ public class TransRecords{
 				for (int j = 0; j < a2; j++){
 					for (int k = 0; k < a1; k++){
 						if (attIDs[k] == desc[j]){
-							matches.add(k);
+							TransBitmap.orInto(matches, getBitmap(k));
 							break;
 						}
 					}
@@ -492,8 +572,28 @@ public class TransRecords{
 				break;
 			}
 		}
+		matchBitmaps.put(id, matches);
 		return matches;
 	}
+
+	/**
+	 * getSupportCount method.
+	 * Method used to count the transactions that hold every item of
+	 * an itemset (or, for abstract items, one of their descendants).
+	 */
+	final public int getSupportCount(int[] itemset){
+		if (itemset.length == 1){
+			return TransBitmap.count(getMatches(itemset[0]));
+		}
+		if (itemset.length == 2){
+			return TransBitmap.andCount(getMatches(itemset[0]), getMatches(itemset[1]));
+		}
+		long[] matches = TransBitmap.and(getMatches(itemset[0]), getMatches(itemset[1]));
+		for (int i = 2; i < itemset.length; i++){
+			TransBitmap.andInto(matches, getMatches(itemset[i]));
+		}
+		return TransBitmap.count(matches);
+	}
 	
 	final public int[] getMatches(int[] ids){
 		ArrayList matches = new ArrayList();
@@ -554,6 +654,7 @@ public class TransRecords{
 	 * POST: The list are cleared, releasing memory.
 	 */
 	final public void clearData(){
+		clearBitmaps();
 		records = null;
 		attNames = null;
 		attValues1 = null;
@@ -570,6 +671,7 @@ public class TransRecords{
 	 * POST: The list of transaction records has been cleared.
 	 */
 	final public void clearRecords(){
+		clearBitmaps();
 		records = null;
 	}
 
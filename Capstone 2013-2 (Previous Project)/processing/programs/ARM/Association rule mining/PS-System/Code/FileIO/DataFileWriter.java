@@ -3,10 +3,11 @@
  * 
  * Start Date: 22 December 2006
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Frequent closed itemsets and association rules written a row at a time, with TSV versions.
  */
 package FileIO;
 
@@ -20,10 +21,12 @@ import java.io.IOException;
 import java.text.NumberFormat;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 
 import Data.CandidateList;
 import Data.FCItemsetList;
 import Data.FItemsetList;
+import Data.ItemsetIndex;
 import Data.TransRecords;
 import Data.AssociationRuleList;
 
@@ -267,18 +270,22 @@ public class DataFileWriter{
 		String ci = "Closed Itemsets";
 		String g = "Generators";
 		String s = "Support";
-		ArrayList list = collapseList(fcl, tr.getNames());
-		//Data table contents...
-		ArrayList items = (ArrayList)list.get(0);
-		ArrayList gens = (ArrayList)list.get(1);
-		ArrayList supps = (ArrayList)list.get(2);
-		int maxItemLength = (Integer)list.get(3);
-		int maxGenLength = (Integer)list.get(4);
+		String[] names = tr.getNames();
+		ArrayList fitems = fcl.getFreqClosed();
+		ArrayList supports = fcl.getSupports();
+		//Data table rows, by closed itemset...
+		int[][] list = collapseList(fitems);
+		int[] rows = list[0];
+		int[] next = list[1];
+		int maxItemLength = 0;
+		int maxGenLength = 0;
+		int genLength;
+		String items;
 		int currentLength = 0;
 		int[] item;
-		ArrayList fitems;
 		ArrayList lengthCount = new ArrayList();
-		ArrayList uniqueFCI = new ArrayList();
+		//The same closed itemset (not only an equal one) is counted once...
+		IdentityHashMap uniqueFCI = new IdentityHashMap();
 
 		try{
 			file = new File(filename);
@@ -323,8 +330,8 @@ public class DataFileWriter{
 			lengthCount.clear();
 			currentLength = 0;
 			for (int i = 0; i < fitems.size(); i++){
-				if (uniqueFCI.indexOf((int[])((Object[])fitems.get(i))[1]) == -1){
-					uniqueFCI.add((int[])((Object[])fitems.get(i))[1]);
+				if (!uniqueFCI.containsKey((int[])((Object[])fitems.get(i))[1])){
+					uniqueFCI.put((int[])((Object[])fitems.get(i))[1], Boolean.TRUE);
 					item = ((int[])((Object[])fitems.get(i))[1]);
 					if (item.length > currentLength){
 						for (int j = item.length - 1; j > currentLength; j--){
@@ -353,6 +360,18 @@ public class DataFileWriter{
 			bwriter.write("--------------------------------------------------------------------------------------------------------------------------");
 			bwriter.newLine();
 
+			//Find the longest closed itemset and generators...
+			for (int i = 0; i < rows.length; i++){
+				item = (int[])((Object[])fitems.get(rows[i]))[1];
+				maxItemLength = Math.max(maxItemLength, itemNames(item, names).length() + 2);
+				genLength = -2;
+				for (int j = rows[i]; j != -1; j = next[j]){
+					item = (int[])((Object[])fitems.get(j))[0];
+					genLength = genLength + itemNames(item, names).length() + 4;
+				}
+				maxGenLength = Math.max(maxGenLength, genLength);
+			}
+
 			//Data table header...
 			if (maxItemLength < ci.length()){
 				bwriter.write(ci + "    ");
@@ -379,17 +398,76 @@ public class DataFileWriter{
 			bwriter.write(s);
 			bwriter.newLine();
 
-			//Data table contents...
-			for (int i = 0; i < items.size(); i++){
-				bwriter.write((String)items.get(i));
-				for (int j = ((String)items.get(i)).length(); j < maxItemLength; j++){
+			//Data table contents, written a row at a time...
+			for (int i = 0; i < rows.length; i++){
+				items = "[" + itemNames((int[])((Object[])fitems.get(rows[i]))[1], names) + "]";
+				bwriter.write(items);
+				for (int j = items.length(); j < maxItemLength; j++){
 					bwriter.write(" ");
 				}
-				bwriter.write("    " + (String)gens.get(i));
-				for (int j = ((String)gens.get(i)).length(); j < maxGenLength; j++){
+				bwriter.write("    ");
+				genLength = -2;
+				for (int j = rows[i]; j != -1; j = next[j]){
+					items = "[" + itemNames((int[])((Object[])fitems.get(j))[0], names) + "]";
+					if (j != rows[i]){
+						bwriter.write("  ");
+					}
+					bwriter.write(items);
+					genLength = genLength + items.length() + 2;
+				}
+				for (int j = genLength; j < maxGenLength; j++){
 					bwriter.write(" ");
 				}
-				bwriter.write("    " + (Float)supps.get(i));
+				bwriter.write("    " + (Float)supports.get(rows[i]));
+				bwriter.newLine();
+			}
+
+			closeFile();
+			return true;
+		}
+		catch (IOException ioe){
+			return false;
+		}
+	}
+
+	/**
+	 * writeFrequentClosedItemsetsTSV method.
+	 * Method used to write the frequent closed itemsets, their
+	 * generators and support values to an external file as tab
+	 * separated values, for reading by other programs. The first line
+	 * holds the column names and each line after it holds a closed
+	 * itemset (its item names separated by commas), its generators
+	 * (separated by semicolons) and its support.
+	 * PRE: The frequent closed itemsets are to be written to file
+	 *      and the list of frequent closed itemsets must be specified.
+	 * POST: The frequent closed itemsets, their generators and
+	 *       supports have been written to the previously specified
+	 *       file.
+	 */
+	final public boolean writeFrequentClosedItemsetsTSV(TransRecords tr, FCItemsetList fcl){
+		String[] names = tr.getNames();
+		ArrayList fitems = fcl.getFreqClosed();
+		ArrayList supports = fcl.getSupports();
+		int[][] list = collapseList(fitems);
+		int[] rows = list[0];
+		int[] next = list[1];
+		try{
+			file = new File(filename);
+			fwriter = new FileWriter(file, append);
+			bwriter = new BufferedWriter(fwriter);
+			file.createNewFile();
+
+			bwriter.write("Closed Itemset\tGenerators\tSupport");
+			bwriter.newLine();
+			for (int i = 0; i < rows.length; i++){
+				bwriter.write(itemNames((int[])((Object[])fitems.get(rows[i]))[1], names) + "\t");
+				for (int j = rows[i]; j != -1; j = next[j]){
+					if (j != rows[i]){
+						bwriter.write(";");
+					}
+					bwriter.write(itemNames((int[])((Object[])fitems.get(j))[0], names));
+				}
+				bwriter.write("\t" + (Float)supports.get(rows[i]));
 				bwriter.newLine();
 			}
 
@@ -452,6 +530,63 @@ public class DataFileWriter{
 		}
 	}
 
+	/**
+	 * writeAssociationRulesTSV method.
+	 * Method used to write the discovered association rules to an
+	 * external file as tab separated values, for reading by other
+	 * programs. The first line holds the column names and each line
+	 * after it holds the rule set of a rule (EB, EE, AB or AE for the
+	 * exact basis, all exact, approximate basis and all approximate
+	 * rules), its antecedent and consequent (item names separated by
+	 * commas), its support and its confidence.
+	 * PRE: The association rules are to be written to file and the
+	 *      list of association rules must be specified.
+	 * POST: The association rules, their supports and confidences
+	 *       have been written to the previously specified file.
+	 */
+	final public boolean writeAssociationRulesTSV(AssociationRuleList arl, TransRecords tr){
+		try{
+			file = new File(filename);
+			fwriter = new FileWriter(file, append);
+			bwriter = new BufferedWriter(fwriter);
+			file.createNewFile();
+
+			bwriter.write("Rule Set\tAntecedent\tConsequent\tSupport\tConfidence");
+			bwriter.newLine();
+			writeRuleRows("EB", arl.getExactMinMaxBasis(), arl.getExactMinMaxBasisSup(), null, tr);
+			writeRuleRows("EE", arl.getExactAll(), arl.getExactAllSup(), null, tr);
+			writeRuleRows("AB", arl.getApproxMinMaxBasis(), arl.getApproxMinMaxBasisSup(), arl.getApproxMinMaxBasisCon(), tr);
+			writeRuleRows("AE", arl.getApproxAll(), arl.getApproxAllSup(), arl.getApproxAllCon(), tr);
+
+			closeFile();
+			return true;
+		}
+		catch (IOException ioe){
+			return false;
+		}
+	}
+
+	/**
+	 * writeRuleRows method.
+	 * Method used to write a rule set as tab separated values, a row
+	 * at a time, with a confidence of 1.0 for exact rules (which have
+	 * no confidences).
+	 */
+	final private void writeRuleRows(String ruleSet, ArrayList rules, ArrayList sups, ArrayList cons, TransRecords tr) throws IOException{
+		Object[] rule;
+		for (int i = 0; i < rules.size(); i++){
+			rule = (Object[])rules.get(i);
+			bwriter.write(ruleSet + "\t" + tr.getNames((int[])rule[0]) + "\t" + tr.getNames((int[])rule[1]) + "\t" + (Float)sups.get(i) + "\t");
+			if (cons == null){
+				bwriter.write("1.0");
+			}
+			else{
+				bwriter.write("" + (Float)cons.get(i));
+			}
+			bwriter.newLine();
+		}
+	}
+
 	final private boolean writeARToFile(String sourcePath, AssociationRuleList arl, TransRecords tr, int mode, long processTime, String[] nodelist, Object[] names, ArrayList ID, ArrayList Node, boolean desc){
 		String ebr = "Exact Basis Rules";
 		String ear = "Exact Association Rules";
@@ -469,9 +604,6 @@ public class DataFileWriter{
 		String bDis = "A Distance";
 		String cDis = "C Distance";
 		String tDis = "Total Distance";
-		String description1 = "", description2 = "";
-		String[] descriptionList1, descriptionList2;
-		int maxRuleLength = 0;
 		ArrayList eb = arl.getExactMinMaxBasis();
 		ArrayList ebs = arl.getExactMinMaxBasisSup();
 		ArrayList ebcov = arl.getExactMinMaxBasisCov();
@@ -486,7 +618,6 @@ public class DataFileWriter{
 		ArrayList aas = arl.getApproxAllSup();
 		ArrayList aac = arl.getApproxAllCon();
 		ArrayList aacov = arl.getApproxAllCov();
-		ArrayList rules = new ArrayList();
 		
 		ArrayList div, dis;
 		float[] d, d2;
@@ -1534,268 +1665,28 @@ public class DataFileWriter{
 			bwriter.newLine();
 
 			//Put all the exact basis rules together...
-			div = arl.getExactMinMaxBasisDiv();
-			dis = arl.getExactMinMaxBasisDis();
-			for (int i = 0; i < eb.size(); i++){
-				if (desc){
-					description1 = tr.getNames((int[])((Object[])eb.get(i))[0]);
-					descriptionList1 = description1.split(",");
-					description1 = "";
-					for (int j = 0; j < descriptionList1.length; j++){
-						if (j == 0){
-							description1 = (String)Node.get(ID.indexOf(descriptionList1[j]));
-						}
-						else{
-							description1 = description1 + ","+ Node.get(ID.indexOf(descriptionList1[j]));
-						}
-					}
-					description2 = tr.getNames((int[])((Object[])eb.get(i))[1]);
-					descriptionList2 = description2.split(",");
-					description2 = "";
-					for (int j = 0; j < descriptionList2.length; j++){
-						if (j == 0){
-							description2 = (String)Node.get(ID.indexOf(descriptionList2[j]));
-						}
-						else{
-							description2 = description2 + ","+ Node.get(ID.indexOf(descriptionList2[j]));
-						}
-					}
-					rules.add(description1 + " ==> " + description2);
-				}
-				else{
-					rules.add(tr.getNames((int[])((Object[])eb.get(i))[0]) + " ==> " + tr.getNames((int[])((Object[])eb.get(i))[1]));
-				}
-				if (((String)rules.get(i)).length() > maxRuleLength){
-					maxRuleLength = ((String)rules.get(i)).length();
-				}
-			}
-			if (ebr.length() > maxRuleLength){
-				bwriter.write(ebr + "    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-				maxRuleLength = ebr.length();
-			}
-			else{
-				bwriter.write(ebr);
-				for (int i = ebr.length(); i < maxRuleLength; i++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-			}
-			for (int i = 0; i < rules.size(); i++){
-				d = (float[])div.get(i);
-				d2 = (float[])dis.get(i);
-				bwriter.write((String)rules.get(i));
-				for (int j = ((String)rules.get(i)).length(); j < maxRuleLength; j++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    ");
-				bwriter.write("" + formatter.format((Float)ebs.get(i)) + "\t\t1.0");//\t\t" + formatter.format(((float[])ebcov.get(i))[0]) + "%\t" + formatter.format(((float[])ebcov.get(i))[1]) + "%\t" + formatter.format(((float[])ebcov.get(i))[2]) + "%\t" + formatter.format(d[0]) + "\t" + formatter.format(d[1]) + "\t" + formatter.format(d[2]) + "\t\t" + formatter2.format(d2[0]) + "\t\t" + formatter2.format(d2[1]) + "\t\t" + formatter2.format(d2[2]) + "\t\t" + formatter2.format(d2[3]));
-				bwriter.newLine();
-			}
-			rules.clear();
-			maxRuleLength = 0;
+			writeRuleTable(ebr, eb, ebs, null, tr, ID, Node, desc, formatter);
 			bwriter.newLine();
 			bwriter.write("----------------------------------------------------------------------------------------------------");
 			bwriter.newLine();
 			bwriter.newLine();
 
 			//Put all the exact rules together...
-			div = arl.getExactAllDiv();
-			dis = arl.getExactAllDis();
-			for (int i = 0; i < ea.size(); i++){
-				if (desc){
-					description1 = tr.getNames((int[])((Object[])ea.get(i))[0]);
-					descriptionList1 = description1.split(",");
-					description1 = "";
-					for (int j = 0; j < descriptionList1.length; j++){
-						if (j == 0){
-							description1 = (String)Node.get(ID.indexOf(descriptionList1[j]));
-						}
-						else{
-							description1 = description1 + ","+ Node.get(ID.indexOf(descriptionList1[j]));
-						}
-					}
-					description2 = tr.getNames((int[])((Object[])ea.get(i))[1]);
-					descriptionList2 = description2.split(",");
-					description2 = "";
-					for (int j = 0; j < descriptionList2.length; j++){
-						if (j == 0){
-							description2 = (String)Node.get(ID.indexOf(descriptionList2[j]));
-						}
-						else{
-							description2 = description2 + ","+ Node.get(ID.indexOf(descriptionList2[j]));
-						}
-					}
-					rules.add(description1 + " ==> " + description2);
-				}
-				else{
-					rules.add(tr.getNames((int[])((Object[])ea.get(i))[0]) + " ==> " + tr.getNames((int[])((Object[])ea.get(i))[1]));
-				}
-				if (((String)rules.get(i)).length() > maxRuleLength){
-					maxRuleLength = ((String)rules.get(i)).length();
-				}
-			}
-			if (ear.length() > maxRuleLength){
-				bwriter.write(ear + "    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-				maxRuleLength = ear.length();
-			}
-			else{
-				bwriter.write(ear);
-				for (int i = ear.length(); i < maxRuleLength; i++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-			}
-			for (int i = 0; i < rules.size(); i++){
-				d = (float[])div.get(i);
-				d2 = (float[])dis.get(i);
-				bwriter.write((String)rules.get(i));
-				for (int j = ((String)rules.get(i)).length(); j < maxRuleLength; j++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    ");
-				bwriter.write("" + formatter.format((Float)eas.get(i)) + "\t\t1.0");//\t\t" + formatter.format(((float[])eacov.get(i))[0]) + "%\t" + formatter.format(((float[])eacov.get(i))[1]) + "%\t" + formatter.format(((float[])eacov.get(i))[2])  + "%\t" + formatter.format(d[0]) + "\t" + formatter.format(d[1]) + "\t" + formatter.format(d[2]) + "\t\t" + formatter2.format(d2[0]) + "\t\t" + formatter2.format(d2[1]) + "\t\t" + formatter2.format(d2[2]) + "\t\t" + formatter2.format(d2[3]));
-				bwriter.newLine();
-			}
-			rules.clear();
-			maxRuleLength = 0;
+			writeRuleTable(ear, ea, eas, null, tr, ID, Node, desc, formatter);
 			bwriter.newLine();
 			bwriter.write("----------------------------------------------------------------------------------------------------");
 			bwriter.newLine();
 			bwriter.newLine();
 
 			//Put all the approximate basis rules together...
-			div = arl.getApproxMinMaxBasisDiv();
-			dis = arl.getApproxMinMaxBasisDis();
-			for (int i = 0; i < ab.size(); i++){
-				if (desc){
-					description1 = tr.getNames((int[])((Object[])ab.get(i))[0]);
-					descriptionList1 = description1.split(",");
-					description1 = "";
-					for (int j = 0; j < descriptionList1.length; j++){
-						if (j == 0){
-							description1 = (String)Node.get(ID.indexOf(descriptionList1[j]));
-						}
-						else{
-							description1 = description1 + ","+ Node.get(ID.indexOf(descriptionList1[j]));
-						}
-					}
-					description2 = tr.getNames((int[])((Object[])ab.get(i))[1]);
-					descriptionList2 = description2.split(",");
-					description2 = "";
-					for (int j = 0; j < descriptionList2.length; j++){
-						if (j == 0){
-							description2 = (String)Node.get(ID.indexOf(descriptionList2[j]));
-						}
-						else{
-							description2 = description2 + ","+ Node.get(ID.indexOf(descriptionList2[j]));
-						}
-					}
-					rules.add(description1 + " ==> " + description2);
-				}
-				else{
-					rules.add(tr.getNames((int[])((Object[])ab.get(i))[0]) + " ==> " + tr.getNames((int[])((Object[])ab.get(i))[1]));
-				}
-				if (((String)rules.get(i)).length() > maxRuleLength){
-					maxRuleLength = ((String)rules.get(i)).length();
-				}
-			}
-			if (abr.length() > maxRuleLength){
-				bwriter.write(abr + "    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-				maxRuleLength = abr.length();
-			}
-			else{
-				bwriter.write(abr);
-				for (int i = abr.length(); i < maxRuleLength; i++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-			}
-			for (int i = 0; i < rules.size(); i++){
-				d = (float[])div.get(i);
-				d2 = (float[])dis.get(i);
-				bwriter.write((String)rules.get(i));
-				for (int j = ((String)rules.get(i)).length(); j < maxRuleLength; j++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    ");
-				bwriter.write("" + formatter.format((Float)abs.get(i)) + "\t\t" + formatter.format((Float)abc.get(i)));// + "\t\t" + formatter.format(((float[])abcov.get(i))[0]) + "%\t" + formatter.format(((float[])abcov.get(i))[1]) + "%\t" + formatter.format(((float[])abcov.get(i))[2]) + "%\t" + formatter.format(d[0]) + "\t" + formatter.format(d[1]) + "\t" + formatter.format(d[2]) + "\t\t" + formatter2.format(d2[0]) + "\t\t" + formatter2.format(d2[1]) + "\t\t" + formatter2.format(d2[2]) + "\t\t" + formatter2.format(d2[3]));
-				bwriter.newLine();
-			}
-			rules.clear();
-			maxRuleLength = 0;
+			writeRuleTable(abr, ab, abs, abc, tr, ID, Node, desc, formatter);
 			bwriter.newLine();
 			bwriter.write("----------------------------------------------------------------------------------------------------");
 			bwriter.newLine();
 			bwriter.newLine();
 
 			//Put all the approximate rules together...
-			div = arl.getApproxAllDiv();
-			dis = arl.getApproxAllDis();
-			for (int i = 0; i < aa.size(); i++){
-				if (desc){
-					description1 = tr.getNames((int[])((Object[])aa.get(i))[0]);
-					descriptionList1 = description1.split(",");
-					description1 = "";
-					for (int j = 0; j < descriptionList1.length; j++){
-						if (j == 0){
-							description1 = (String)Node.get(ID.indexOf(descriptionList1[j]));
-						}
-						else{
-							description1 = description1 + ","+ Node.get(ID.indexOf(descriptionList1[j]));
-						}
-					}
-					description2 = tr.getNames((int[])((Object[])aa.get(i))[1]);
-					descriptionList2 = description2.split(",");
-					description2 = "";
-					for (int j = 0; j < descriptionList2.length; j++){
-						if (j == 0){
-							description2 = (String)Node.get(ID.indexOf(descriptionList2[j]));
-						}
-						else{
-							description2 = description2 + ","+ Node.get(ID.indexOf(descriptionList2[j]));
-						}
-					}
-					rules.add(description1 + " ==> " + description2);
-				}
-				else{
-					rules.add(tr.getNames((int[])((Object[])aa.get(i))[0]) + " ==> " + tr.getNames((int[])((Object[])aa.get(i))[1]));
-				}
-				if (((String)rules.get(i)).length() > maxRuleLength){
-					maxRuleLength = ((String)rules.get(i)).length();
-				}
-			}
-			if (aar.length() > maxRuleLength){
-				bwriter.write(aar + "    " + sup + "\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-				maxRuleLength = aar.length();
-			}
-			else{
-				bwriter.write(aar);
-				for (int i = aar.length(); i < maxRuleLength; i++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    " + sup +"\t\t" + con);// + "\t" + coA + "\t" + coC + "\t" + coR + "\t" + ld + "\t" + chr + "\t" + tot + "\t" + aDis + "\t" + bDis + "\t" + cDis + "\t" + tDis);
-				bwriter.newLine();
-			}
-			for (int i = 0; i < rules.size(); i++){
-				d = (float[])div.get(i);
-				d2 = (float[])dis.get(i);
-				bwriter.write((String)rules.get(i));
-				for (int j = ((String)rules.get(i)).length(); j < maxRuleLength; j++){
-					bwriter.write(" ");
-				}
-				bwriter.write("    ");
-				bwriter.write("" + formatter.format((Float)aas.get(i)) + "\t\t" + formatter.format((Float)aac.get(i)));// + "\t\t" + formatter.format(((float[])aacov.get(i))[0]) + "%\t" + formatter.format(((float[])aacov.get(i))[1]) + "%\t" + formatter.format(((float[])aacov.get(i))[2]) + "%\t" + formatter.format(d[0]) + "\t" + formatter.format(d[1]) + "\t" + formatter.format(d[2]) + "\t\t" + formatter2.format(d2[0]) + "\t\t" + formatter2.format(d2[1]) + "\t\t" + formatter2.format(d2[2]) + "\t\t" + formatter2.format(d2[3]));
-				bwriter.newLine();
-			}
-			rules.clear();
-			maxRuleLength = 0;
+			writeRuleTable(aar, aa, aas, aac, tr, ID, Node, desc, formatter);
 			bwriter.newLine();
 			bwriter.write("====================================================================================================");
 /*			bwriter.newLine();
@@ -1881,6 +1772,83 @@ public class DataFileWriter{
 		}
 	}
 
+	/**
+	 * writeRuleTable method.
+	 * Method used to write a table of association rules, with their
+	 * supports and confidences (1.0 for exact rules, which have no
+	 * confidences), a row at a time. The length of the longest rule
+	 * is found first so that only one rule is held at a time.
+	 * PRE: The rules are to be written to the open file.
+	 * POST: The table header and a row for each rule have been
+	 *       written to the file.
+	 */
+	final private void writeRuleTable(String title, ArrayList rules, ArrayList sups, ArrayList cons, TransRecords tr, ArrayList ID, ArrayList Node, boolean desc, NumberFormat formatter) throws IOException{
+		String sup = "Support";
+		String con = "Confidence";
+		String rule;
+		int size = rules.size();
+		int maxRuleLength = title.length();
+		//Find the longest rule...
+		for (int i = 0; i < size; i++){
+			rule = ruleText((Object[])rules.get(i), tr, ID, Node, desc);
+			if (rule.length() > maxRuleLength){
+				maxRuleLength = rule.length();
+			}
+		}
+		bwriter.write(title);
+		for (int i = title.length(); i < maxRuleLength; i++){
+			bwriter.write(" ");
+		}
+		bwriter.write("    " + sup + "\t\t" + con);
+		bwriter.newLine();
+		for (int i = 0; i < size; i++){
+			rule = ruleText((Object[])rules.get(i), tr, ID, Node, desc);
+			bwriter.write(rule);
+			for (int j = rule.length(); j < maxRuleLength; j++){
+				bwriter.write(" ");
+			}
+			bwriter.write("    ");
+			if (cons == null){
+				bwriter.write("" + formatter.format((Float)sups.get(i)) + "\t\t1.0");
+			}
+			else{
+				bwriter.write("" + formatter.format((Float)sups.get(i)) + "\t\t" + formatter.format((Float)cons.get(i)));
+			}
+			bwriter.newLine();
+		}
+	}
+
+	/**
+	 * ruleText method.
+	 * Method used to get a rule as the names (or descriptions) of the
+	 * items of its antecedent and consequent.
+	 */
+	final private String ruleText(Object[] rule, TransRecords tr, ArrayList ID, ArrayList Node, boolean desc){
+		if (desc){
+			return descriptions(tr.getNames((int[])rule[0]), ID, Node) + " ==> " + descriptions(tr.getNames((int[])rule[1]), ID, Node);
+		}
+		return tr.getNames((int[])rule[0]) + " ==> " + tr.getNames((int[])rule[1]);
+	}
+
+	/**
+	 * descriptions method.
+	 * Method used to translate a list of item names (separated by
+	 * commas) into their english descriptions.
+	 */
+	final private String descriptions(String names, ArrayList ID, ArrayList Node){
+		String[] descriptionList = names.split(",");
+		String description = "";
+		for (int j = 0; j < descriptionList.length; j++){
+			if (j == 0){
+				description = (String)Node.get(ID.indexOf(descriptionList[j]));
+			}
+			else{
+				description = description + ","+ Node.get(ID.indexOf(descriptionList[j]));
+			}
+		}
+		return description;
+	}
+
 	/**
 	 * writeBinaryDataFile method.
 	 * Method used to write the generated binary dataset to
@@ -1984,130 +1952,66 @@ public class DataFileWriter{
 	 * collapseList method.
 	 * Method used to take a list based on generators and
 	 * convert/collapse it into a list based on closed itemsets.
-	 * PRE: A copy of the list of frequent closed itemsets is to be
-	 *      made in which the order based on the closed itemsets
-	 *      instead of the generators and the list of closed
-	 *      itemsets is to be specified.
-	 * POST: A copy of the closed itemset has been made and has its
-	 *       order based on the itemsets and has been returned.
+	 * PRE: The list of frequent closed itemsets (by generator) is
+	 *      to be collapsed and must be specified.
+	 * POST: The position of the first generator of each closed
+	 *       itemset, in the order the closed itemsets first appear,
+	 *       and the position of the next generator of the same closed
+	 *       itemset after each generator (-1 for the last) have been
+	 *       returned.
 	 */
-	final private ArrayList collapseList(FCItemsetList fcl, String[] list1){
-		String items = "";
-		int iLength = 0;
-		int gLength = 0;
-		ArrayList itemList = new ArrayList();
-		ArrayList ids = new ArrayList();
-		ArrayList item = new ArrayList();
-		ArrayList gen = new ArrayList();
-		ArrayList sup = new ArrayList();
-		ArrayList itemsets = fcl.getFreqClosed();
-		ArrayList supports = fcl.getSupports();
-		for (int i = 0; i < itemsets.size(); i++){
-			Object[] entry = (Object[])itemsets.get(i);
-			int index = locater(ids, (int[])entry[1]);
+	final private int[][] collapseList(ArrayList itemsets){
+		int size = itemsets.size();
+		int[] first = new int[size];
+		int[] last = new int[size];
+		int[] next = new int[size];
+		int rows = 0;
+		int index;
+		int[] closed;
+		ItemsetIndex ids = new ItemsetIndex();
+		for (int i = 0; i < size; i++){
+			closed = (int[])((Object[])itemsets.get(i))[1];
+			next[i] = -1;
+			//An empty closed itemset is never matched to an earlier one...
+			index = -1;
+			if (closed.length > 0 && !ids.add(closed, rows)){
+				index = ids.get(closed);
+			}
 			if (index != -1){
-				//Item already in list...
-				int[] d3 = (int[])entry[0];
-				items = "";
-				for (int j = 0; j < d3.length; j++){
-					if (items.length() == 0){
-						items = "" + list1[d3[j] - 1];
-					}
-					else{
-						items = items + "," + list1[d3[j] - 1];
-					}
-				}
-				gen.set(index, ((String)gen.get(index)) + "  [" + items + "]");
-				if (((String)gen.get(index)).length() > gLength){
-					gLength = ((String)gen.get(index)).length();
-				}
+				//Closed itemset already in list...
+				next[last[index]] = i;
+				last[index] = i;
 			}
 			else{
-				//item not in list, so add to list...
-				ids.add((int[])entry[1]);
-				int[] d1 = (int[])entry[1];
-				items = "";
-				for (int j = 0; j < d1.length; j++){
-					if (items.length() == 0){
-						items = "" + list1[d1[j] - 1];
-					}
-					else{
-						items = items + "," + list1[d1[j] - 1];
-					}
-				}
-				item.add("[" + items + "]");
-				if ((items.length() + 2) > iLength){
-					iLength = items.length() + 2;
-				}
-				int[] d2 = (int[])entry[0];
-				items = "";
-				for (int j = 0; j < d2.length; j++){
-					if (items.length() == 0){
-						items = "" + list1[d2[j] - 1];
-					}
-					else{
-						items = items + "," + list1[d2[j] - 1];
-					}
-				}
-				gen.add("[" + items + "]");
-				sup.add((Float)supports.get(i));
-				if ((items.length() + 2) > gLength){
-					gLength = items.length() + 2;
-				}
+				//Closed itemset not in list, so add to list...
+				first[rows] = i;
+				last[rows] = i;
+				rows++;
 			}
 		}
-		itemList.add(item);
-		itemList.add(gen);
-		itemList.add(sup);
-		itemList.add(iLength);
-		itemList.add(gLength);
-		return itemList;
+		int[][] list = new int[2][];
+		list[0] = new int[rows];
+		System.arraycopy(first, 0, list[0], 0, rows);
+		list[1] = next;
+		return list;
 	}
-	
-	final private int locater (ArrayList list1, int[] set1){
-		int index = -1;
-		int size1 = list1.size();
-		int[] set2;
-		for (int i = 0; i < size1; i++){
-			set2 = (int[])list1.get(i);
-			if (compare(set1, set2)){
-				//Matched so this set already in the list...
-				index = i;
-				break;
-			}
-		}
-		return index;
-	}
-		
-	final protected boolean compare(int[] entry1, int[] entry2){
-		boolean match = false;
-		int l1 = entry1.length;
-		int l2 = entry2.length;
-		if (l1 == l2){
-			for (int i = 0; i < l1; i++){
-				match = false;
-				for (int j = 0; j < l2; j++){
-					if (entry1[i] == entry2[j]){
-						match = true;
-						break;
-					}
-				}
-				if (!match){
-					return false;
-				}
-			}
-			if (match){
-				return true;
-			}
-			else{
-				return false;
+
+	/**
+	 * itemNames method.
+	 * Method used to get the names of the items of an itemset,
+	 * separated by commas.
+	 */
+	final private String itemNames(int[] itemset, String[] list1){
+		StringBuilder items = new StringBuilder();
+		for (int j = 0; j < itemset.length; j++){
+			if (items.length() != 0){
+				items.append(',');
 			}
+			items.append(list1[itemset[j] - 1]);
 		}
-		else{
-			return false;
-		}
+		return items.toString();
 	}
-	
+
 	final private float[] summation(ArrayList cov, int index){
 		float[] values = new float[3];
 		float sum = 0, min = Float.MAX_VALUE, max = 0;
@@ -161,12 +161,15 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 //		fisAlgorithms.add("Frequent Pattern Tree (FP-Tree) Algorithm");
 //		fisAlgorithms.add("Rapid Association Rule Mining (RARM) - N/A");
 //		fisAlgorithms.add("Modified-2 Apriori Algorithm");
+//		fisAlgorithms.add("Eclat Algorithm - Zaki");
+//		fisAlgorithms.add("dEclat (Diffset) Algorithm - Zaki & Gouda");
 		fisAlgorithms.add("Non-Derivable Itemset Algorithm - Calders & Goethals");
 
 		cisAlgorithms = new Vector();
 		cisAlgorithms.add("Pasquier's CLOSE+ Algorithm");
 //		cisAlgorithms.add("Yue Xu's ClosureGen Algorithm");
 //		cisAlgorithms.add("Modified CLOSE+ Algorithm");
+		cisAlgorithms.add("Direct Closed Itemset Algorithm");
 
 		arsAlgorithms = new Vector();
 		arsAlgorithms.add("Min-max Association Rules");
@@ -792,6 +795,14 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
 										Float.valueOf(minSupportField.getText()).floatValue(), 10);
 						}
+						else if (fiaBox.getSelectedItem().equals("Eclat Algorithm - Zaki")){
+							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
+										Float.valueOf(minSupportField.getText()).floatValue(), 12);
+						}
+						else if (fiaBox.getSelectedItem().equals("dEclat (Diffset) Algorithm - Zaki & Gouda")){
+							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
+										Float.valueOf(minSupportField.getText()).floatValue(), 13);
+						}
 						else if (fiaBox.getSelectedItem().equals("Non-Derivable Itemset Algorithm - Calders & Goethals")){
 							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
 										Float.valueOf(minSupportField.getText()).floatValue(), 11);
@@ -840,6 +851,14 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
 										msl, 10);
 						}
+						else if (fiaBox.getSelectedItem().equals("Eclat Algorithm - Zaki")){
+							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
+										(Float)msl.get(1), 12);
+						}
+						else if (fiaBox.getSelectedItem().equals("dEclat (Diffset) Algorithm - Zaki & Gouda")){
+							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
+										(Float)msl.get(1), 13);
+						}
 						else if (fiaBox.getSelectedItem().equals("Non-Derivable Itemset Algorithm - Calders & Goethals")){
 							bfis.build(this, tr, Float.valueOf(minConfidenceField.getText()).floatValue(),
 										msl, 11);
@@ -918,7 +937,7 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 			if (tr != null || loadedFI){
 				if (fl != null){
 					clearMem(3);
-					bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf);
+					bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf, tr);
 					if (msl == null){
 						if (fciaBox.getSelectedItem().equals("Yue Xu's ClosureGen Algorithm")){
 							bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
@@ -932,6 +951,10 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 							bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
 										Float.valueOf(minSupportField.getText()).floatValue(), 3);
 						}
+						else if (fciaBox.getSelectedItem().equals("Direct Closed Itemset Algorithm")){
+							bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
+										Float.valueOf(minSupportField.getText()).floatValue(), 4);
+						}
 					}
 					else{
 						if ((Integer)msl.get(0) != 3){
@@ -947,6 +970,10 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 								bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
 												(Float)msl.get(1) / (float)tr.getNumberRecs(), 3);
 							}
+							else if (fciaBox.getSelectedItem().equals("Direct Closed Itemset Algorithm")){
+								bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
+												(Float)msl.get(1) / (float)tr.getNumberRecs(), 4);
+							}
 						}
 						else{
 							if (fciaBox.getSelectedItem().equals("Yue Xu's ClosureGen Algorithm")){
@@ -961,6 +988,10 @@ public class ARMMainGui extends JFrame implements ActionListener, ItemListener{
 								bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
 												(Integer)msl.get(1) / (float)tr.getNumberRecs(), 3);
 							}
+							else if (fciaBox.getSelectedItem().equals("Direct Closed Itemset Algorithm")){
+								bfcis.build(this, fl, Float.valueOf(minConfidenceField.getText()).floatValue(),
+												(Integer)msl.get(1) / (float)tr.getNumberRecs(), 4);
+							}
 						}
 					}
 				}
@@ -3,10 +3,11 @@
  * 
  * Start Date: 01 December 2006
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Frequent closed itemsets and association rules also saved as TSV files.
  */
 package GUI;
 
@@ -148,21 +149,27 @@ public class ARMMainNoGui{
 	/**
 	 * saveFrequentClosedItemsets method.
 	 * Method used to allow a user to specify where they wish to save a
-	 * copy of the frequent closed itemsets that where found in the dataset.
+	 * copy of the frequent closed itemsets that where found in the dataset,
+	 * with a TSV copy alongside it.
 	 */
 	final private void saveFrequentClosedItemsets(String in, String out){
 		dfw = new DataFileWriter(out);
 		dfw.writeFrequentClosedItemsets(in, tr, fcl, processTimeBFC);
+		dfw = new DataFileWriter(out.replaceAll("\\.txt$", ".tsv"));
+		dfw.writeFrequentClosedItemsetsTSV(tr, fcl);
 	}
 
 	/**
 	 * saveExtractedRules method.
 	 * Method used to allow a user to specify where they wish to save a
-	 * copy of the association rules that where extracted from the dataset.
+	 * copy of the association rules that where extracted from the dataset,
+	 * with a TSV copy alongside it.
 	 */
 	final private void saveExtractedRules(String in, String out, int id){
 		dfw = new DataFileWriter(out);
 		dfw.writeAssociationRules(in, arl, tr, id, processTimeAR, tr.getAllNodes(), attNames);
+		dfw = new DataFileWriter(out.replaceAll("\\.txt$", ".tsv"));
+		dfw.writeAssociationRulesTSV(arl, tr);
 	}
 
 	/**
@@ -473,7 +480,7 @@ public class ARMMainNoGui{
 						saveFrequentItemsets(dataFile, outputBase + dir + "FrequentItemsets-" + id3 +".txt");
 						System.out.println("Attempting to extract frequent closed itemsets from data file");
 						clearMem(3);
-						bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf);
+						bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf, tr);
 						bfcis.build(this, fl, mincon, minsup, id2, 1);
 						if (tr != null && fl != null && (fcl != null || nonderivableRun)){
 							saveFrequentClosedItemsets(dataFile, outputBase + dir + "FrequentClosedItemsets-" + id3 +".txt");
@@ -631,7 +638,7 @@ public class ARMMainNoGui{
 				if (tr != null){// && checkValues(msl, mincon)){
 					clearMem(2);
 					bfis = new BuildFrequentItemsets();
-					if (id1 == 1 || id1 == 8 || id1 == 9){
+					if (id1 == 1 || id1 == 8 || id1 == 9 || id1 == 12 || id1 == 13){
 						bfis.build(this, tr, mincon, (Float)msl.get(1), id1, 2);
 					}
 					else{
@@ -648,7 +655,7 @@ public class ARMMainNoGui{
 						saveFrequentItemsets(dataFile, outputBase + dir + "FrequentItemsets-" + id3 +".txt");
 						System.out.println("Attempting to extract frequent closed itemsets from data file");
 						clearMem(3);
-						bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf);
+						bfcis = new BuildFrequentClosedItemsets(attNames, attLeaf, tr);
 						if ((Integer)msl.get(0) != 3){
 							bfcis.build(this, fl, mincon, (Float)msl.get(1) / (float)tr.getNumberRecs(), id2, 2);
 						}
@@ -3,27 +3,30 @@
  * 
  * Start Date: 18 December 2006
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Prefix-join candidate generation, support counted from
+ *		      transaction bitmaps.
  */
 package Processing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 
 import Processing.BuildFrequentItemsets;
-import Processing.Operations;
 
 import Data.TransRecords;
 import Data.CandidateList;
 import Data.FItemsetList;
+import Data.TransBitmap;
 
 public class AprioriAlgorithm{
 
 	private BuildFrequentItemsets bfi;
-	
-	private Operations ops;
 
 	private CandidateList cl;
 
@@ -41,7 +44,12 @@ public class AprioriAlgorithm{
 	
 	private Object[] cTransList;
 
-	private String trl;
+	//Bitmap of the transactions holding each frequent itemset, and the two
+	//frequent itemsets each candidate was joined from...
+	private ArrayList fBitmaps, cParents;
+
+	//Stem of each item, by item ID...
+	private int[] stems;
 
 	/**
 	 * AprioriAlgorithm method.
@@ -54,7 +62,6 @@ public class AprioriAlgorithm{
 		bfi = owner;
 		cl = new CandidateList();
 		fl = new FItemsetList();
-		ops = new Operations();
 	}
 
 	/**
@@ -104,6 +111,8 @@ public class AprioriAlgorithm{
 			fTransList.clear();
 			fTransList = null;
 		}
+		fBitmaps = null;
+		cParents = null;
 	}
 
 	/**
@@ -136,98 +145,73 @@ public class AprioriAlgorithm{
 	 * Method used to determine the candidates to be the frequent
 	 * itemsets for this dataset. The generation of candidates is
 	 * based on the frequent itemsets already generated of length
-	 * n-1.
+	 * n-1, which are held in order with their items in order. Two
+	 * itemsets that share all but their last item are joined into a
+	 * candidate, so each candidate is generated once and the
+	 * candidates are in order. A candidate is kept only if all of
+	 * its other sub itemsets are frequent and its two last items do
+	 * not share a stem (the other items were already checked in the
+	 * sub itemsets).
 	 */
 	final private void candidates(TransRecords tr, byte itemsetSize){
 		candidates = new ArrayList();
-		int[] tc, fp1, fp2;
-		boolean match = true;
-		String i1, i2;
-		int f1, c1, c2, p1, p2, index;
-		//Generate list of possible candidates...
+		cParents = new ArrayList();
+		int[] tc, fp1, fp2, sub;
+		boolean match;
+		int f1, p1, index;
 		f1 = frequent.size();
+		p1 = itemsetSize - 1;
+		//Hash the frequent itemsets for the sub itemset checks...
+		HashSet frequentSet = new HashSet(f1 * 2);
 		for (int i = 0; i < f1; i++){
-			fp1 = (int[])frequent.get(i);
-			for (int j = 0; j < f1; j++){
-				if (i != j){
-					fp2 = (int[])frequent.get(j);
-					tc = ops.unionRule(fp1, fp2);
-					if (tc.length == itemsetSize){
-						//Valid length candidate...
-						candidates.add(tc);
-					}
-				}
-			}
+			frequentSet.add(new ItemsetKey((int[])frequent.get(i)));
 		}
-		//Remove invalid candidate itemsets...
-		c1 = candidates.size();
-		for (int i = 0; i < c1; i++){
-			fp1 = (int[])candidates.get(i);
-			//Remove duplicate candidate itemsets...
-			for (int j = 0; j < c1; j++){
-				if (i != j){
-					fp2 = (int[])candidates.get(j);
-					if (ops.compare(fp1, fp2)){
-						//Entries match, remove entry at j...
-						candidates.remove(j);
-						c1--;
-						j--;
-					}
+		for (int i = 0; i < f1; i++){
+			fp1 = (int[])frequent.get(i);
+			for (int j = i + 1; j < f1; j++){
+				fp2 = (int[])frequent.get(j);
+				if (!samePrefix(fp1, fp2, p1 - 1)){
+					//Itemsets are in order so no later itemset shares the prefix...
+					break;
 				}
-			}
-			//Remove candidates which do not have frequent sub itemsets...
-			p1 = fp1.length;
-			for (int j = 0; j < p1; j++){
-				fp2 = new int[p1 - 1];
-				index = 0;
-				for (int k = 0; k < p1; k++){
-					if (j != k){
-						fp2[index] = fp1[k];
-						index++;
-					}
+				if (stems[fp1[p1 - 1]] == stems[fp2[p1 - 1]]){
+					continue;
 				}
-				match = false;
-				for (int k = 0; k < f1; k++){
-					if (ops.compare(fp2, (int[])frequent.get(k))){
-						match = true;
-						break;
+				tc = new int[itemsetSize];
+				System.arraycopy(fp1, 0, tc, 0, p1);
+				tc[p1] = fp2[p1 - 1];
+				//Check the sub itemsets without each of the prefix items...
+				match = true;
+				for (int k = 0; k < p1 - 1 && match; k++){
+					sub = new int[p1];
+					index = 0;
+					for (int l = 0; l < itemsetSize; l++){
+						if (l != k){
+							sub[index] = tc[l];
+							index++;
+						}
 					}
+					match = frequentSet.contains(new ItemsetKey(sub));
 				}
-				if (!match){
-					candidates.remove(i);
-					c1--;
-					i--;
-					break;
+				if (match){
+					candidates.add(tc);
+					cParents.add(new int[]{i, j});
 				}
 			}
-			if (match){
-				//Remove an candidate that contains two or more expanded attributes from the same stem...
-				for (int j = 0; j < p1; j++){
-					i1 = tr.getName(fp1[j]);
-					c2 = i1.lastIndexOf('_');
-					if (c2 != -1){
-						i1 = i1.substring(0, c2);
-					}
-					for (int k = 0; k < p1; k++){
-						if (j != k){
-							i2 = tr.getName(fp1[k]);
-							c2 = i2.lastIndexOf('_');
-							if (c2 != -1){
-								i2 = i2.substring(0, c2);
-							}
-							if (i1.equals(i2)){
-								//These items share the same stem...
-								candidates.remove(i);
-								c1--;
-								i--;
-								j = p1;
-								break;
-							}
-						}
-					}
-				}
+		}
+	}
+
+	/**
+	 * samePrefix method.
+	 * Method used to check if two itemsets share their first items.
+	 */
+	final private boolean samePrefix(int[] itemset1, int[] itemset2, int length){
+		for (int i = 0; i < length; i++){
+			if (itemset1[i] != itemset2[i]){
+				return false;
 			}
 		}
+		return true;
 	}
 
 	/**
@@ -244,51 +228,27 @@ public class AprioriAlgorithm{
 	 * were considered.
 	 */
 	final private void prune(TransRecords tr, float minSup, byte itemsetSize){
-		boolean incCount = true;
-		String[] trans;
-		int[] can;
-		int t1, c1, c2, n1, i1 = -1;
+		int c1;
 		c1 = candidates.size();
 		cCounters = new int[c1];
 		cSupports = new float[c1];
 		cTransList = new Object[c1];
-		for (int i = 0; i < c1; i++){
-			cCounters[i] = 0;
-		}
 		//Determine candidate frequency...
-		Object[] temp = tr.getRec();
-		String[] name = tr.getNames();
-		int[] ids = tr.getIDs();
-		t1 = temp.length;
-		n1 = name.length;
-		//Check all transactions...
-		for (int i = 0; i < t1; i++){
-			trans = (String[])temp[i];
-			//Check all candidates...
-			for (int j = 0; j < c1; j++){
-				can = (int[])candidates.get(j);
-				c2 = can.length;
-				//Check all items are present in this transaction...
-				for (int k = 0; k < c2; k++){
-					i1 = -1;
-					for (int l = 0; l < n1; l++){
-						if (ids[l] == can[k]){
-							i1 = l;
-							break;
-						}
-					}
-					if (i1 != -1 && trans[i1].equals("0")){
-						incCount = false;
-						break;
-					}
-				}
-				if (incCount){
-					//All candidate items present...
-					cCounters[j] = cCounters[j] + 1;
-				}
-				incCount = true;
+		int[] parents;
+		if (itemsetSize == 1){
+			numberStems(tr);
+			for (int i = 0; i < c1; i++){
+				cCounters[i] = TransBitmap.count(tr.getBitmap(i));
+			}
+		}
+		else{
+			//A candidate's transactions are those of both itemsets it was joined from...
+			for (int i = 0; i < c1; i++){
+				parents = (int[])cParents.get(i);
+				cCounters[i] = TransBitmap.andCount((long[])fBitmaps.get(parents[0]), (long[])fBitmaps.get(parents[1]));
 			}
 		}
+		ArrayList bitmaps = new ArrayList();
 
 		//Determine frequent itemset...
 		frequent = new ArrayList();
@@ -297,9 +257,9 @@ public class AprioriAlgorithm{
 		fTransList = new ArrayList();
 		int transCount = tr.getNumberRecs();
 		float support;
+		bfi.messageBox("Generating " + itemsetSize + " item list (Evaluating " + c1 + " Candidates)");
 		//For each candidate...
 		for (int i = 0; i < c1; i++){
-			bfi.messageBox("Generating " + itemsetSize + " item list (Evaluating Candidate " + (i + 1) + " of " + c1);
 			//Determine the support level...
 			if (minSupMode == 1 || minSupMode == 2){
 				support = (float)cCounters[i] / (float)transCount;
@@ -309,6 +269,7 @@ public class AprioriAlgorithm{
 					frequent.add((int[])candidates.get(i));
 					fCounters.add(cCounters[i]);
 					fSupport.add(support);
+					bitmaps.add(candidateBitmap(tr, i, itemsetSize));
 				}
 			}
 			else{
@@ -319,6 +280,7 @@ public class AprioriAlgorithm{
 					frequent.add((int[])candidates.get(i));
 					fCounters.add(cCounters[i]);
 					fSupport.add(support);
+					bitmaps.add(candidateBitmap(tr, i, itemsetSize));
 				}
 			}
 		}
@@ -328,6 +290,45 @@ public class AprioriAlgorithm{
 		if (frequent.size() > 0){
 			fl.addEntry(frequent, fCounters, fSupport, fTransList);
 		}
+		fBitmaps = bitmaps;
+	}
+
+	/**
+	 * candidateBitmap method.
+	 * Method used to get the bitmap of the transactions holding a
+	 * candidate, to join it with other frequent itemsets.
+	 */
+	final private long[] candidateBitmap(TransRecords tr, int index, byte itemsetSize){
+		if (itemsetSize == 1){
+			return tr.getBitmap(index);
+		}
+		int[] parents = (int[])cParents.get(index);
+		return TransBitmap.and((long[])fBitmaps.get(parents[0]), (long[])fBitmaps.get(parents[1]));
+	}
+
+	/**
+	 * numberStems method.
+	 * Method used to number the stems of the items, so that candidates
+	 * holding two items from the same stem can be removed.
+	 */
+	final private void numberStems(TransRecords tr){
+		int[] ids = tr.getIDs();
+		int n1 = ids.length;
+		stems = new int[tr.getMaxID() + 1];
+		HashMap stemIDs = new HashMap();
+		String stem;
+		int c2;
+		for (int i = 0; i < n1; i++){
+			stem = tr.getName(ids[i]);
+			c2 = stem.lastIndexOf('_');
+			if (c2 != -1){
+				stem = stem.substring(0, c2);
+			}
+			if (!stemIDs.containsKey(stem)){
+				stemIDs.put(stem, stemIDs.size());
+			}
+			stems[ids[i]] = (Integer)stemIDs.get(stem);
+		}
 	}
 
 	/**
@@ -381,4 +382,28 @@ public class AprioriAlgorithm{
 	final private void printFrequentItemsets(){
 		fl.printData();
 	}
+
+	/**
+	 * ItemsetKey class.
+	 * Class used to hash an itemset by its items.
+	 */
+	final private static class ItemsetKey{
+
+		private int[] items;
+
+		private int hash;
+
+		ItemsetKey(int[] itemset){
+			items = itemset;
+			hash = Arrays.hashCode(itemset);
+		}
+
+		public int hashCode(){
+			return hash;
+		}
+
+		public boolean equals(Object other){
+			return other instanceof ItemsetKey && Arrays.equals(items, ((ItemsetKey)other).items);
+		}
+	}
 }
\ No newline at end of file
@@ -3,10 +3,11 @@
  * 
  * Start Date: 02 January 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Direct closed itemset mining from the transactions (code 4).
  */
 package Processing;
 
@@ -20,8 +21,10 @@ import GUI.ARMMainNoGui;
 import Processing.CLOSEAlgorithm;
 import Processing.ModCLOSEAlgorithm;
 import Processing.ClosureGenAlgorithm;
+import Processing.DirectClosedAlgorithm;
 
 import Data.FItemsetList;
+import Data.TransRecords;
 
 public class BuildFrequentClosedItemsets{
 
@@ -37,8 +40,12 @@ public class BuildFrequentClosedItemsets{
 
 	private ClosureGenAlgorithm closeg;
 
+	private DirectClosedAlgorithm dca;
+
 	private FItemsetList fl;
 
+	private TransRecords tr;
+
 	private long startTime, endTime;
 
 	private float minCon, minSup;
@@ -55,8 +62,20 @@ public class BuildFrequentClosedItemsets{
 	 * implemented algorithms chosen/specified by the user.
 	 */
 	public BuildFrequentClosedItemsets(Object[] names, Object[] leaves){
+		this(names, leaves, null);
+	}
+
+	/**
+	 * BuildFrequentClosedItemsets method.
+	 * Constructor.
+	 * Method used to initialise this class with the transactions the
+	 * frequent itemsets were built from, which the direct closed
+	 * itemset algorithm mines instead of the frequent itemsets.
+	 */
+	public BuildFrequentClosedItemsets(Object[] names, Object[] leaves, TransRecords rec){
 		attNames = names;
 		attLeaf = leaves;
+		tr = rec;
 	}
 
 	/**
@@ -74,6 +93,10 @@ public class BuildFrequentClosedItemsets{
 			closea.clearData();
 			closea = null;
 		}
+		if (dca != null){
+			dca.clearData();
+			dca = null;
+		}
 		System.gc();
 	}
 
@@ -133,6 +156,18 @@ public class BuildFrequentClosedItemsets{
 						mclosea.runAlgorithm(fl, minCon, minSup);
 						owner1.freqClosedPassback(mclosea.getFreqClosed());
 					}
+					else if (algorithmCode == 4){
+						if (tr == null){
+							stat = "The direct closed itemset algorithm needs the transactions of the data file";
+							updateGui();
+							return;
+						}
+						dca = new DirectClosedAlgorithm(bfci);
+						stat = "Running Direct Closed Itemset Algorithm";
+						updateGui();
+						dca.runAlgorithm(tr, minCon, minSup);
+						owner1.freqClosedPassback(dca.getFreqClosed());
+					}
 					endTime = System.currentTimeMillis();
 					stat = "Finished generating frequent closed itemsets. Total generation time: " + (endTime - startTime) + " ms";
 					updateGui();
@@ -192,6 +227,16 @@ public class BuildFrequentClosedItemsets{
 				mclosea.runAlgorithm(fl, minCon, minSup);
 				owner2.freqClosedPassback(mclosea.getFreqClosed());
 			}
+			else if (algorithmCode == 4){
+				if (tr == null){
+					System.out.println("The direct closed itemset algorithm needs the transactions of the data file");
+					return;
+				}
+				dca = new DirectClosedAlgorithm(bfci);
+				System.out.println("Running Direct Closed Itemset Algorithm");
+				dca.runAlgorithm(tr, minCon, minSup);
+				owner2.freqClosedPassback(dca.getFreqClosed());
+			}
 			endTime = System.currentTimeMillis();
 			System.out.println("Finished generating frequent closed itemsets. Total generation time: " + (endTime - startTime) + " ms");
 			owner2.timingPassbackBFC(endTime - startTime);
@@ -3,10 +3,11 @@
  * 
  * Start Date: 11 December 2006
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Eclat and dEclat algorithms (codes 12 and 13).
  */
 package Processing;
 
@@ -31,6 +32,7 @@ import Processing.ML_T2L1CrossAlgorithm;
 import Processing.NonDerivableAlgorithm; //For the project students to use to implement Non-Derivable Itemset Mining
 
 import Processing.FPTreeAlgorithm;
+import Processing.EclatAlgorithm;
 
 import Data.TransRecords;
 
@@ -62,6 +64,8 @@ public class BuildFrequentItemsets{
 
 	private FPTreeAlgorithm fpt;
 
+	private EclatAlgorithm ea;
+
 	private NonDerivableAlgorithm nda;
 
 	private TransRecords tr;
@@ -240,7 +244,11 @@ public class BuildFrequentItemsets{
 						stat = "Running FP-Tree Algorithm";
 						updateGui();
 						fpt.runAlgorithm(tr, minCon, minSup);
+						determineLeafAtts();
 						owner1.multiLevelStat(false);
+						owner1.attCountPassback(attCount);
+						owner1.attNamesPassback(attNames);
+						owner1.attLeafPassback(attLeaf);
 						owner1.candidatePassback(fpt.getCandidateLists());
 						owner1.frequentPassback(fpt.getFrequentItemsets());
 					}
@@ -275,6 +283,20 @@ public class BuildFrequentItemsets{
 						owner1.candidatePassback(nda.getCandidateLists());
 						owner1.frequentPassback(nda.getFrequentItemsets());
 					}
+					else if (algorithmCode == 12 || algorithmCode == 13){
+						//Eclat (tidsets) or dEclat (diffsets)...
+						ea = new EclatAlgorithm(bfi, algorithmCode == 13);
+						stat = "Running " + (algorithmCode == 13 ? "dEclat" : "Eclat") + " Algorithm";
+						updateGui();
+						ea.runAlgorithm(tr, minCon, minSup);
+						determineLeafAtts();
+						owner1.multiLevelStat(false);
+						owner1.attCountPassback(attCount);
+						owner1.attNamesPassback(attNames);
+						owner1.attLeafPassback(attLeaf);
+						owner1.candidatePassback(ea.getCandidateLists());
+						owner1.frequentPassback(ea.getFrequentItemsets());
+					}
 					endTime = System.currentTimeMillis();
 					stat = "Finished generating frequent itemsets. Total generation time: " + (endTime - startTime) + " ms";
 					updateGui();
@@ -420,6 +442,9 @@ public class BuildFrequentItemsets{
 					else if (algorithmCode == 11){
 						//Non-Derivable Itemset Mining (Calders & Goethals)...
 					}
+					else if (algorithmCode == 12 || algorithmCode == 13){
+						//Eclat / dEclat...
+					}
 					endTime = System.currentTimeMillis();
 					stat = "Finished generating frequent itemsets. Total generation time: " + (endTime - startTime) + " ms";
 					updateGui();
@@ -557,7 +582,11 @@ public class BuildFrequentItemsets{
 				fpt = new FPTreeAlgorithm(bfi);
 				System.out.println("Running FP-Tree Algorithm");
 				fpt.runAlgorithm(tr, minCon, minSup);
+				determineLeafAtts();
 				owner2.multiLevelStat(false);
+				owner2.attCountPassback(attCount);
+				owner2.attNamesPassback(attNames);
+				owner2.attLeafPassback(attLeaf);
 				owner2.candidatePassback(fpt.getCandidateLists());
 				owner2.frequentPassback(fpt.getFrequentItemsets());
 			}
@@ -590,6 +619,19 @@ public class BuildFrequentItemsets{
 				owner2.candidatePassback(nda.getCandidateLists());
 				owner2.frequentPassback(nda.getFrequentItemsets());
 			}
+			else if (algorithmCode == 12 || algorithmCode == 13){
+				//Eclat (tidsets) or dEclat (diffsets)...
+				ea = new EclatAlgorithm(bfi, algorithmCode == 13);
+				System.out.println("Running " + (algorithmCode == 13 ? "dEclat" : "Eclat") + " Algorithm");
+				ea.runAlgorithm(tr, minCon, minSup);
+				determineLeafAtts();
+				owner2.multiLevelStat(false);
+				owner2.attCountPassback(attCount);
+				owner2.attNamesPassback(attNames);
+				owner2.attLeafPassback(attLeaf);
+				owner2.candidatePassback(ea.getCandidateLists());
+				owner2.frequentPassback(ea.getFrequentItemsets());
+			}
 			endTime = System.currentTimeMillis();
 			System.out.println("Finished generating frequent itemsets. Total generation time: " + (endTime - startTime) + " ms");
 			owner2.timingPassbackBF(endTime - startTime);
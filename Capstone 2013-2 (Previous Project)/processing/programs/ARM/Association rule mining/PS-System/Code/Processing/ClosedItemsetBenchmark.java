@@ -0,0 +1,194 @@
+/**
+ * ClosedItemsetBenchmark class.
+ *
+ * @version 1.1
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ *		  1.1 Checks the closed itemset summaries match as well.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+import FileIO.DataFileReader;
+
+import Processing.AprioriAlgorithm;
+import Processing.CLOSEAlgorithm;
+import Processing.DirectClosedAlgorithm;
+
+import Data.FCItemsetList;
+import Data.TransRecords;
+
+public class ClosedItemsetBenchmark{
+
+	/**
+	 * main method.
+	 * Method used to time the mining of the frequent closed itemsets
+	 * and their generators from a data file at decreasing minimum
+	 * supports, both by the Apriori algorithm followed by the CLOSE+
+	 * algorithm and by the direct closed itemset algorithm, and to
+	 * check that both give the same list and the same summary.
+	 * Run with: java Processing.ClosedItemsetBenchmark [data file] [min support ...]
+	 * The data file defaults to the mushroom-bin data (from the Build
+	 * directory) and its .names file must be alongside it.
+	 */
+	public static void main(String[] args){
+		String dataFile = "../../mushroom-bin.data";
+		float[] minSups = {0.5f, 0.4f, 0.3f, 0.2f, 0.15f, 0.1f, 0.05f};
+		if (args.length > 0){
+			dataFile = args[0];
+		}
+		if (args.length > 1){
+			minSups = new float[args.length - 1];
+			for (int i = 1; i < args.length; i++){
+				minSups[i - 1] = Float.valueOf(args[i]).floatValue();
+			}
+		}
+		TransRecords tr = loadData(dataFile);
+		if (tr == null){
+			System.out.println("Unable to load data file: " + dataFile);
+			return;
+		}
+		System.out.println(dataFile + ": " + tr.getNumberRecs() + " transactions, " + tr.getIDs().length + " items");
+		BuildFrequentItemsets bfi = new BuildFrequentItemsets();
+		BuildFrequentClosedItemsets bfci = new BuildFrequentClosedItemsets(null, null, tr);
+		//Warm up both paths at the highest min support...
+		run(tr, bfi, bfci, minSups[0], false);
+		System.out.println("MinSup\tFrequent\tClosed\tApriori ms\tCLOSE+ ms\tTotal ms\tDirect ms\tSpeedup\tSame");
+		for (int i = 0; i < minSups.length; i++){
+			run(tr, bfi, bfci, minSups[i], true);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * run method.
+	 * Method used to mine the closed itemsets at one min support with
+	 * both approaches and print the timings.
+	 */
+	final private static void run(TransRecords tr, BuildFrequentItemsets bfi, BuildFrequentClosedItemsets bfci, float minSup, boolean print){
+		long t0, t1, t2, t3;
+		System.gc();
+		t0 = System.nanoTime();
+		AprioriAlgorithm aa = new AprioriAlgorithm(bfi);
+		aa.runAlgorithm(tr, 0.5f, minSup);
+		t1 = System.nanoTime();
+		CLOSEAlgorithm closea = new CLOSEAlgorithm(bfci);
+		closea.runAlgorithm(aa.getFrequentItemsets(), 0.5f, minSup);
+		t2 = System.nanoTime();
+		int frequent = aa.getFrequentItemsets().getTotalFrequent();
+		FCItemsetList expected = closea.getFreqClosed();
+		aa.clearData();
+		System.gc();
+		t3 = System.nanoTime();
+		DirectClosedAlgorithm dca = new DirectClosedAlgorithm(bfci);
+		dca.runAlgorithm(tr, 0.5f, minSup);
+		long t4 = System.nanoTime();
+		if (print){
+			long apriori = (t1 - t0) / 1000000;
+			long close = (t2 - t1) / 1000000;
+			long direct = Math.max(1, (t4 - t3) / 1000000);
+			System.out.println(minSup + "\t" + frequent + "\t" + expected.getTotalFreqClosed() + "\t" + apriori + "\t" + close + "\t" +
+								(apriori + close) + "\t" + direct + "\t" + String.format("%.1f", (float)(apriori + close) / (float)direct) + "x\t" + (sameList(expected, dca.getFreqClosed()) && sameSummary(expected, dca.getFreqClosed())));
+		}
+		closea.clearData();
+		dca.clearData();
+	}
+
+	/**
+	 * sameList method.
+	 * Method used to check that two closed itemset lists hold the same
+	 * generators, closed itemsets and supports in the same order.
+	 */
+	final private static boolean sameList(FCItemsetList list1, FCItemsetList list2){
+		ArrayList f1 = list1.getFreqClosed();
+		ArrayList f2 = list2.getFreqClosed();
+		ArrayList s1 = list1.getSupports();
+		ArrayList s2 = list2.getSupports();
+		if (f1.size() != f2.size()){
+			return false;
+		}
+		for (int i = 0; i < f1.size(); i++){
+			Object[] e1 = (Object[])f1.get(i);
+			Object[] e2 = (Object[])f2.get(i);
+			if (!Arrays.equals((int[])e1[0], (int[])e2[0]) || !Arrays.equals((int[])e1[1], (int[])e2[1]) || !s1.get(i).equals(s2.get(i))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * sameSummary method.
+	 * Method used to check that two closed itemset lists give the same
+	 * number of closed itemsets of each length in their summaries,
+	 * which count a closed itemset once however many generators refer
+	 * to it.
+	 */
+	final private static boolean sameSummary(FCItemsetList list1, FCItemsetList list2){
+		return Arrays.equals(countClosed(list1), countClosed(list2));
+	}
+
+	/**
+	 * countClosed method.
+	 * Method used to count the closed itemsets of each length in a
+	 * list as its summary does, telling them apart by reference.
+	 */
+	final private static int[] countClosed(FCItemsetList list){
+		ArrayList fitems = list.getFreqClosed();
+		IdentityHashMap unique = new IdentityHashMap();
+		int[] counts = new int[1];
+		int[] item;
+		for (int i = 0; i < fitems.size(); i++){
+			item = (int[])((Object[])fitems.get(i))[1];
+			if (unique.put(item, Boolean.TRUE) == null){
+				if (item.length >= counts.length){
+					counts = Arrays.copyOf(counts, item.length + 1);
+				}
+				counts[item.length]++;
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * loadData method.
+	 * Method used to load a data file and its .names file into the
+	 * transaction records, as the data checker does for a clean file.
+	 */
+	final static TransRecords loadData(String dataFile){
+		DataFileReader dfr = new DataFileReader();
+		if (!dfr.setupReader(dataFile) || !dfr.readDataFile()){
+			return null;
+		}
+		dfr.closeFile();
+		ArrayList entries = dfr.getEntryList();
+		if (!dfr.setupReader(dataFile.replaceAll("\\.data", "\\.names")) || !dfr.readInfoFile()){
+			return null;
+		}
+		dfr.closeFile();
+		String trans;
+		String[] record;
+		ArrayList records = new ArrayList();
+		for (int i = 0; i < entries.size(); i++){
+			trans = ((String)entries.get(i)).trim();
+			if (trans.length() == 0){
+				continue;
+			}
+			if (trans.charAt(trans.length() - 1) == '.'){
+				trans = trans.substring(0, trans.length() - 1);
+			}
+			record = trans.split(",");
+			for (int j = 0; j < record.length; j++){
+				record[j] = record[j].trim();
+			}
+			records.add(record);
+		}
+		TransRecords tr = new TransRecords();
+		tr.addData(records, dfr.getAttNameList(), dfr.getAttValueList(), dfr.getAttAltValueList(), dfr.getAttIDList());
+		return tr;
+	}
+}
\ No newline at end of file
@@ -3,20 +3,23 @@
  * 
  * Start Date: 08 January 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Supersets and duplicate generators found through an index.
  */
 package Processing;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import Processing.BuildFrequentClosedItemsets;
 
 import Data.FItemsetList;
 import Data.FCItemsetList;
 import Data.TransRecList;
+import Data.ItemsetIndex;
 
 public class ClosureGenAlgorithm{
 
@@ -34,6 +37,9 @@ public class ClosureGenAlgorithm{
 
 	private float currentSupport;
 
+	//Number of each item, so that itemsets can be indexed...
+	private HashMap itemNumbers;
+
 	/**
 	 * ClosureGenAlgroithm method.
 	 * Constructor.
@@ -89,6 +95,7 @@ public class ClosureGenAlgorithm{
 			fcl.clearData();
 			fcl = null;
 		}
+		itemNumbers = null;
 /*		if (trl != null){
 			trl.clearData();
 			trl = null;
@@ -113,6 +120,7 @@ public class ClosureGenAlgorithm{
 		prevGenList = new ArrayList();
 
 		closedItemsets = new ArrayList();
+		itemNumbers = new HashMap();
 
 		itemsetSize = 1;
 		System.out.println("Itemset Size: " + itemsetSize);
@@ -353,30 +361,33 @@ public class ClosureGenAlgorithm{
 	final private void closureGen(){
 		ArrayList data, generators;
 		String[] cis;
-		String itemset, superset;
+		int[] supersets;
 		boolean noSuperset = true;
 		boolean closedItemset = false;
 
 		//See if Ck is empty or not.
 		if (candidates.size() != 0 && candidates != null){
+			//Index Ck so that the supsets of an itemset are found without scanning it.
+			ItemsetIndex index = new ItemsetIndex();
+			for (int j = 0; j < candidates.size(); j++){
+				index.add(toItemset((String)candidates.get(j)), j);
+			}
 			for (int i = 0; i < prevCandidates.size(); i++){
 				//For each itemset in Ck-1.
-				itemset = (String)prevCandidates.get(i);
-				for (int j = 0; j < candidates.size(); j++){
-					//For each itemset in Ck.
-					superset = (String)candidates.get(j);
-					if (isSuperset(itemset, superset)){
-						//The itemset from Ck-1 is a subset of this set from Ck...
-						noSuperset = false;
-						if (transRecComparer((ArrayList)prevTransMap.get(i), (ArrayList)transMap.get(j))){
-							//The itemset from Ck-1 is a potential closed itemset...
-							closedItemset = true;
-						}
-						else{
-							//The itemset from Ck-1 is not a closed itemset...
-							closedItemset = false;
-							j = candidates.size();
-						}
+				supersets = index.getSupersets(toItemset((String)prevCandidates.get(i)));
+				for (int k = 0; k < supersets.length; k++){
+					//For each supset in Ck.
+					int j = supersets[k];
+					//The itemset from Ck-1 is a subset of this set from Ck...
+					noSuperset = false;
+					if (transRecComparer((ArrayList)prevTransMap.get(i), (ArrayList)transMap.get(j))){
+						//The itemset from Ck-1 is a potential closed itemset...
+						closedItemset = true;
+					}
+					else{
+						//The itemset from Ck-1 is not a closed itemset...
+						closedItemset = false;
+						k = supersets.length;
 					}
 				}
 				if (closedItemset || noSuperset){
@@ -645,83 +656,45 @@ public class ClosureGenAlgorithm{
 	 * duplicateRemover method.
 	 * Method that removes duplicate generator entries in a given list. Duplicates
 	 * include those generators that have exactly the same items/attributes but in
-	 * a different order.
+	 * a different order, and generators that are a supset of another generator.
+	 * The generators are indexed so that neither is found by comparing every pair.
 	 */
 	final private ArrayList duplicateRemover(ArrayList generatorList){
-		ArrayList list = generatorList;;
-		boolean match = false;
-		String[] gen1, gen2;
+		ArrayList list = generatorList;
+		ItemsetIndex index = new ItemsetIndex();
+		Object[] itemsets = new Object[list.size()];
+		boolean[] keep = new boolean[list.size()];
 		for (int i = 0; i < list.size(); i++){
-			gen1 = ((String)list.get(i)).split(",");
-			for (int j = (i + 1); j < list.size(); j++){
-				gen2 = ((String)list.get(j)).split(",");
-				if (gen1.length == gen2.length){
-					//Length of generators are equal so check for duplication...
-					for (int a = 0; a < gen1.length; a++){
-						for (int b = 0; b < gen2.length; b++){
-							if (gen1[a].equals(gen2[b])){
-								match = true;
-								b = gen2.length;
-							}
-							else{
-								match = false;
-							}
-						}
-						if (match == false){
-							//This item/attribute from gen1 was not found in gen2...
-							a = gen1.length;
-						}
-					}
-					if (match){
-						//Duplication, so remove the second entry...
-						list.remove(j);
-						j--;
-					}
-				}
-				else if (gen1.length > gen2.length){
-					//Length of 1 is greater than 2, see if 1 is a supset of 2...
-					if (isSuperset((String)list.get(j), (String)list.get(i))){
-						list.remove(i);
-						i--;
-					}
-				}
-				else if (gen1.length < gen2.length){
-					//Length of 2 is greater than 1, see if 2 is a supset of 1...
-					if (isSuperset((String)list.get(i), (String)list.get(j))){
-						list.remove(j);
-						j--;
-					}
-				}
+			itemsets[i] = toItemset((String)list.get(i));
+			//Only the first of the generators with the same items is kept...
+			keep[i] = index.add((int[])itemsets[i], i);
+		}
+		for (int i = list.size() - 1; i >= 0; i--){
+			if (!keep[i] || index.hasSubset((int[])itemsets[i])){
+				list.remove(i);
 			}
 		}
 		return list;
 	}
 
 	/**
-	 * isSuperset method.
-	 * Method used to determine if one itemset is the supset of the other.
-	 * In this case itemset 2 is being tested to see if it is the supset of
-	 * itemset 1.
+	 * toItemset method.
+	 * Method used to turn an itemset held as a string into the
+	 * numbers of its items, as used by the itemset index.
 	 */
-	final private boolean isSuperset(String set, String sSet){
-		boolean match = false;
-		String[] set1 = set.split(",");
-		String[] set2 = sSet.split(",");
-		for (int i = 0; i < set1.length; i++){
-			for (int j = 0; j < set2.length; j++){
-				if (set1[i].equals(set2[j])){
-					match = true;
-					j = set2.length;
-				}
-				else{
-					match = false;
-				}
-			}
-			if (match == false){
-				i = set1.length;
+	final private int[] toItemset(String set){
+		String[] items = set.split(",");
+		int[] itemset = new int[items.length];
+		Integer number;
+		for (int i = 0; i < items.length; i++){
+			number = (Integer)itemNumbers.get(items[i]);
+			if (number == null){
+				number = itemNumbers.size();
+				itemNumbers.put(items[i], number);
 			}
+			itemset[i] = number;
 		}
-		return match;
+		return itemset;
 	}
 
 	/**
@@ -0,0 +1,24 @@
+/**
+ * ConfidenceInterestingness class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import Processing.RuleExtractor;
+import Processing.RuleInterestingness;
+
+public class ConfidenceInterestingness implements RuleInterestingness{
+
+	/**
+	 * isInteresting method.
+	 * Method used to keep a candidate rule when its confidence
+	 * reaches the minimum confidence.
+	 */
+	final public boolean isInteresting(RuleExtractor extractor, int[] generator, int[] closedItemset, float confidence, float minCon){
+		return confidence >= minCon;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+/**
+ * CoverageInterestingness class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import Processing.RuleExtractor;
+import Processing.RuleInterestingness;
+
+public class CoverageInterestingness implements RuleInterestingness{
+
+	/**
+	 * isInteresting method.
+	 * Method used to keep a candidate rule when the coverage of the
+	 * whole rule (as a percentage of the attributes) reaches the
+	 * minimum confidence (as a percentage), instead of its
+	 * confidence.
+	 */
+	final public boolean isInteresting(RuleExtractor extractor, int[] generator, int[] closedItemset, float confidence, float minCon){
+		return extractor.measureCoverage(generator, closedItemset)[2] >= (minCon * (float)100);
+	}
+}
\ No newline at end of file
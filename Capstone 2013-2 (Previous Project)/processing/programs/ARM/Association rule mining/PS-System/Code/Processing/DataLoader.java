@@ -3,10 +3,11 @@
  * 
  * Start Date: 15 March 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Messages may be passed from more than one thread.
  */
 package Processing;
 
@@ -743,7 +744,7 @@ public class DataLoader{
 	 * to generate the frequent closed itemsets to store
 	 * messages to pass back to the user.
 	 */
-	final public void messageBox(String message){
+	final public synchronized void messageBox(String message){
 		stat = statBackup + "   " + message;
 		updateGui();
 	}
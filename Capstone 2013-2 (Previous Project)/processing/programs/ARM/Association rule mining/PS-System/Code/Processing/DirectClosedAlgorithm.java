@@ -0,0 +1,454 @@
+/**
+ * DirectClosedAlgorithm class.
+ *
+ * @version 1.1
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ *		  1.1 Generators of the same closed itemset share one array of it.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import Processing.BuildFrequentClosedItemsets;
+
+import Data.TransRecords;
+import Data.TransBitmap;
+import Data.FCItemsetList;
+
+public class DirectClosedAlgorithm{
+
+	private BuildFrequentClosedItemsets bfci;
+
+	private FCItemsetList fcl;
+
+	private int minSupMode = 1;
+
+	private int minCount, transCount;
+
+	//Item ID, stem, frequency and bitmap of each frequent item, in item ID order...
+	private int[] itemIDs, itemStems, itemCounts;
+
+	private long[][] itemBitmaps;
+
+	/**
+	 * DirectClosedAlgorithm method.
+	 * Constructor.
+	 * Method used to initialise this class.
+	 */
+	public DirectClosedAlgorithm(BuildFrequentClosedItemsets owner){
+		bfci = owner;
+	}
+
+	/**
+	 * clearData method.
+	 * Method used to destroy and clear the variables that hold the
+	 * data and references that were used to perform the construction
+	 * of the frequent closed itemsets. This is to free up memory.
+	 */
+	final public void clearData(){
+		if (fcl != null){
+			fcl.clearData();
+			fcl = null;
+		}
+		itemBitmaps = null;
+	}
+
+	/**
+	 * runAlgorithm method.
+	 * Method that oversees the mining of the frequent closed itemsets
+	 * and their generators straight from the transactions, without
+	 * first finding every frequent itemset. The generators (itemsets
+	 * whose support is less than that of each of their subsets, as
+	 * well as every frequent item) are found depth-first from the item
+	 * bitmaps, with the branch of each frequent item mined in parallel.
+	 * The closed itemset of a generator holds every item whose bitmap
+	 * holds the generator's transactions. As with the CLOSE+ algorithm
+	 * run on the Apriori itemsets, no itemset holds two items from the
+	 * same stem, and the same closed itemsets and generators result.
+	 */
+	final public void runAlgorithm(TransRecords tr, float minCon, float minSup){
+		fcl = new FCItemsetList();
+		transCount = tr.getNumberRecs();
+		if (minSupMode == 1 || minSupMode == 2){
+			//Smallest frequency whose support reaches the threshold...
+			minCount = Math.max(1, (int)Math.floor(minSup * transCount));
+			while ((float)minCount / (float)transCount < minSup){
+				minCount++;
+			}
+			while (minCount > 1 && (float)(minCount - 1) / (float)transCount >= minSup){
+				minCount--;
+			}
+		}
+		else{
+			minCount = Math.max(1, (int)Math.ceil(minSup));
+		}
+		bfci.messageBox("Finding frequent items");
+		findItems(tr);
+		int f1 = itemIDs.length;
+		if (f1 != 0){
+			bfci.messageBox("Mining the generators and closed itemsets of " + f1 + " frequent items");
+			BranchTask[] tasks = new BranchTask[f1];
+			ForkJoinPool pool = new ForkJoinPool();
+			try{
+				for (int i = 0; i < f1; i++){
+					tasks[i] = new BranchTask(i);
+					pool.execute(tasks[i]);
+				}
+				for (int i = 0; i < f1; i++){
+					tasks[i].join();
+				}
+			}
+			finally{
+				pool.shutdown();
+			}
+			buildList(tasks);
+		}
+		itemBitmaps = null;
+	}
+
+	/**
+	 * findItems method.
+	 * Method used to count the frequency of every item from its bitmap
+	 * and keep the frequent items, with the stem of each.
+	 */
+	final private void findItems(TransRecords tr){
+		int[] ids = tr.getIDs();
+		int i1 = ids.length;
+		int[] counts = new int[i1];
+		int f1 = 0;
+		for (int i = 0; i < i1; i++){
+			counts[i] = TransBitmap.count(tr.getBitmap(i));
+			if (counts[i] >= minCount){
+				f1++;
+			}
+		}
+		itemIDs = new int[f1];
+		itemStems = new int[f1];
+		itemCounts = new int[f1];
+		itemBitmaps = new long[f1][];
+		HashMap stems = new HashMap();
+		String stem;
+		int c2;
+		f1 = 0;
+		for (int i = 0; i < i1; i++){
+			if (counts[i] < minCount){
+				continue;
+			}
+			itemIDs[f1] = ids[i];
+			itemCounts[f1] = counts[i];
+			itemBitmaps[f1] = tr.getBitmap(i);
+			//Items sharing a stem are expanded values of one attribute...
+			stem = tr.getName(ids[i]);
+			c2 = stem.lastIndexOf('_');
+			if (c2 != -1){
+				stem = stem.substring(0, c2);
+			}
+			if (!stems.containsKey(stem)){
+				stems.put(stem, stems.size());
+			}
+			itemStems[f1] = (Integer)stems.get(stem);
+			f1++;
+		}
+	}
+
+	/**
+	 * buildList method.
+	 * Method that takes the generators and closed itemsets found in
+	 * every branch and enters them in the closed itemset list. The
+	 * closed itemsets are ordered by length then item ID, each with
+	 * its generators ordered the same way, as the CLOSE+ algorithm
+	 * orders them. As with CLOSE+, every generator of a closed itemset
+	 * refers to the same array of it, since the closed itemsets are
+	 * told apart by reference when they are counted and viewed.
+	 */
+	final private void buildList(BranchTask[] tasks){
+		ArrayList entries = new ArrayList();
+		for (int i = 0; i < tasks.length; i++){
+			entries.addAll(tasks[i].entries);
+		}
+		Collections.sort(entries, new Comparator<Object[]>(){
+			public int compare(Object[] e1, Object[] e2){
+				int c = compareItemsets((int[])e1[1], (int[])e2[1]);
+				if (c == 0){
+					c = compareItemsets((int[])e1[0], (int[])e2[0]);
+				}
+				return c;
+			}
+		});
+		//Each closed itemset, by its items...
+		HashMap closures = new HashMap();
+		Key key;
+		int[] closed;
+		Object[] entry;
+		Object[] freqClosed;
+		int e1 = entries.size();
+		for (int i = 0; i < e1; i++){
+			entry = (Object[])entries.get(i);
+			key = new Key((int[])entry[1]);
+			closed = (int[])closures.get(key);
+			if (closed == null){
+				closed = (int[])entry[1];
+				closures.put(key, closed);
+			}
+			freqClosed = new Object[2];
+			freqClosed[0] = entry[0];
+			freqClosed[1] = closed;
+			fcl.addEntry(freqClosed, (float)(Integer)entry[2] / (float)transCount);
+		}
+	}
+
+	/**
+	 * compareItemsets method.
+	 * Method used to order two itemsets (of sorted item IDs) by length
+	 * and then by item ID.
+	 */
+	final private static int compareItemsets(int[] i1, int[] i2){
+		if (i1.length != i2.length){
+			return i1.length < i2.length ? -1 : 1;
+		}
+		for (int k = 0; k < i1.length; k++){
+			if (i1[k] != i2[k]){
+				return i1[k] < i2[k] ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * BranchTask class.
+	 * The mining of the generators whose first (lowest ID) item is
+	 * one frequent item, and of their closed itemsets.
+	 */
+	private class BranchTask extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		private int first;
+
+		//Generator, closed itemset (both of item IDs) and frequency of each pair found...
+		private ArrayList entries;
+
+		//Frequency of each generator of the branch, by its item positions...
+		private HashMap generators;
+
+		//Work space for intersecting bitmaps...
+		private long[] buffer;
+
+		BranchTask(int item){
+			first = item;
+		}
+
+		/**
+		 * compute method.
+		 * Method used to mine the branch depth-first. The branches
+		 * below each generator are mined from the highest item down,
+		 * so every subset of an itemset in this branch has already
+		 * been found (if it is a generator) when the itemset is tested.
+		 */
+		protected void compute(){
+			entries = new ArrayList();
+			generators = new HashMap();
+			buffer = new long[itemBitmaps[first].length];
+			int[] itemset = new int[1];
+			itemset[0] = first;
+			//Every frequent item is a generator...
+			generators.put(new Key(itemset), itemCounts[first]);
+			mine(itemset, itemBitmaps[first], itemCounts[first]);
+			generators = null;
+			buffer = null;
+		}
+
+		/**
+		 * mine method.
+		 * Method used to add the closed itemsets of a generator, then
+		 * find the generators that extend it by one later item and
+		 * mine each of them in turn.
+		 */
+		final private void mine(int[] generator, long[] bitmap, int c){
+			addClosed(generator, bitmap, c);
+			int g1 = generator.length;
+			int f1 = itemIDs.length;
+			int last = generator[g1 - 1];
+			int[] extension;
+			int[] counts = new int[f1];
+			boolean[] extend = new boolean[f1];
+			int c1;
+			for (int y = last + 1; y < f1; y++){
+				if (sharesStem(generator, y)){
+					continue;
+				}
+				c1 = TransBitmap.andCount(bitmap, itemBitmaps[y]);
+				//A generator's support must be less than its subset's...
+				if (c1 < minCount || c1 == c){
+					continue;
+				}
+				extension = new int[g1 + 1];
+				System.arraycopy(generator, 0, extension, 0, g1);
+				extension[g1] = y;
+				if (isGenerator(extension, c1)){
+					generators.put(new Key(extension), c1);
+					counts[y] = c1;
+					extend[y] = true;
+				}
+			}
+			for (int y = f1 - 1; y > last; y--){
+				if (extend[y]){
+					extension = new int[g1 + 1];
+					System.arraycopy(generator, 0, extension, 0, g1);
+					extension[g1] = y;
+					mine(extension, TransBitmap.and(bitmap, itemBitmaps[y]), counts[y]);
+				}
+			}
+		}
+
+		/**
+		 * isGenerator method.
+		 * Method used to determine if an itemset's support is less than
+		 * the support of each of its subsets one item shorter (the
+		 * subset without the last item has already been checked). The
+		 * subsets holding the first item are generators of this branch
+		 * if they are generators at all. The subset without the first
+		 * item belongs to another branch, so its frequency is counted.
+		 */
+		final private boolean isGenerator(int[] itemset, int c){
+			int i1 = itemset.length;
+			int[] subset = new int[i1 - 1];
+			Integer s;
+			for (int i = 1; i < i1 - 1; i++){
+				System.arraycopy(itemset, 0, subset, 0, i);
+				System.arraycopy(itemset, i + 1, subset, i, i1 - i - 1);
+				s = (Integer)generators.get(new Key(subset));
+				if (s == null || s <= c){
+					return false;
+				}
+			}
+			if (i1 == 2){
+				return itemCounts[itemset[1]] > c;
+			}
+			System.arraycopy(itemBitmaps[itemset[1]], 0, buffer, 0, buffer.length);
+			for (int i = 2; i < i1; i++){
+				TransBitmap.andInto(buffer, itemBitmaps[itemset[i]]);
+			}
+			return TransBitmap.count(buffer) > c;
+		}
+
+		/**
+		 * addClosed method.
+		 * Method used to find the closed itemsets of a generator: the
+		 * generator and every item (not sharing a stem with it) found in
+		 * all of its transactions. Should two such items share a stem,
+		 * each gives a different closed itemset.
+		 */
+		final private void addClosed(int[] generator, long[] bitmap, int c){
+			int f1 = itemIDs.length;
+			int g1 = generator.length;
+			int[] ids = new int[g1];
+			for (int i = 0; i < g1; i++){
+				ids[i] = itemIDs[generator[i]];
+			}
+			//Items of the closure beyond the generator, grouped by stem...
+			ArrayList groups = new ArrayList();
+			HashMap groupStems = new HashMap();
+			ArrayList group;
+			int n1 = g1;
+			for (int y = 0; y < f1; y++){
+				if (itemCounts[y] < c || sharesStem(generator, y)){
+					continue;
+				}
+				if (TransBitmap.andCount(bitmap, itemBitmaps[y]) == c){
+					group = (ArrayList)groupStems.get(itemStems[y]);
+					if (group == null){
+						group = new ArrayList();
+						groupStems.put(itemStems[y], group);
+						groups.add(group);
+						n1++;
+					}
+					group.add(itemIDs[y]);
+				}
+			}
+			int[] closed = new int[n1];
+			System.arraycopy(ids, 0, closed, 0, g1);
+			addClosed(ids, closed, groups, 0, c);
+		}
+
+		/**
+		 * addClosed method.
+		 * Method used to choose an item from each remaining stem group
+		 * of a closure and add the resulting closed itemset.
+		 */
+		final private void addClosed(int[] generator, int[] closed, ArrayList groups, int g, int c){
+			if (g == groups.size()){
+				int[] itemset = closed.clone();
+				Arrays.sort(itemset);
+				Object[] entry = new Object[3];
+				entry[0] = generator;
+				entry[1] = itemset;
+				entry[2] = c;
+				entries.add(entry);
+				return;
+			}
+			ArrayList group = (ArrayList)groups.get(g);
+			for (int i = 0; i < group.size(); i++){
+				closed[generator.length + g] = (Integer)group.get(i);
+				addClosed(generator, closed, groups, g + 1, c);
+			}
+		}
+	}
+
+	/**
+	 * sharesStem method.
+	 * Method used to check if an item shares its stem with any item
+	 * of an itemset.
+	 */
+	final private boolean sharesStem(int[] itemset, int item){
+		int stem = itemStems[item];
+		for (int i = 0; i < itemset.length; i++){
+			if (itemStems[itemset[i]] == stem){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * getFreqClosed method.
+	 * Method that passes back a reference to the object instance that holds the
+	 * list of closed itemsets and generators. This allows the GUI component to
+	 * access this data and present it to the user for viewing.
+	 */
+	final public FCItemsetList getFreqClosed(){
+		return fcl;
+	}
+
+	/**
+	 * Key class.
+	 * The items (or item positions) of an itemset, as a hash key.
+	 */
+	final private static class Key{
+
+		private int[] items;
+
+		private int hash;
+
+		Key(int[] itemset){
+			items = itemset.clone();
+			hash = Arrays.hashCode(items);
+		}
+
+		public int hashCode(){
+			return hash;
+		}
+
+		public boolean equals(Object other){
+			return other instanceof Key && Arrays.equals(items, ((Key)other).items);
+		}
+	}
+}
\ No newline at end of file
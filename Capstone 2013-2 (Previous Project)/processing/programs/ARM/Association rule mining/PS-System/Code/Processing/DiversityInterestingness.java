@@ -0,0 +1,25 @@
+/**
+ * DiversityInterestingness class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import Processing.RuleExtractor;
+import Processing.RuleInterestingness;
+
+public class DiversityInterestingness implements RuleInterestingness{
+
+	/**
+	 * isInteresting method.
+	 * Method used to keep a candidate rule when the total diversity
+	 * of the rule reaches the minimum confidence, instead of its
+	 * confidence.
+	 */
+	final public boolean isInteresting(RuleExtractor extractor, int[] generator, int[] closedItemset, float confidence, float minCon){
+		return extractor.measureDiversity(generator, closedItemset)[2] >= minCon;
+	}
+}
\ No newline at end of file
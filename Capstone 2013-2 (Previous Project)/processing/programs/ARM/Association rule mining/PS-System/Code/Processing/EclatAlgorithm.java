@@ -0,0 +1,434 @@
+/**
+ * EclatAlgorithm class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import Processing.BuildFrequentItemsets;
+
+import Data.TransRecords;
+import Data.TransBitmap;
+import Data.CandidateList;
+import Data.FItemsetList;
+
+public class EclatAlgorithm{
+
+	private BuildFrequentItemsets bfi;
+
+	private CandidateList cl;
+
+	private FItemsetList fl;
+
+	private int minSupMode = 1;
+
+	private int minCount, transCount;
+
+	//Mine with diffsets (dEclat) rather than tidsets (Eclat)...
+	private boolean diffsets;
+
+	private ArrayList candidates;
+
+	private int[] cCounters;
+
+	private float[] cSupports;
+
+	private Object[] cTransList;
+
+	//Item ID, stem, frequency and tidset of each frequent item, in item ID order...
+	private int[] itemIDs, itemStems, itemCounts;
+
+	private int[][] itemTids;
+
+	/**
+	 * EclatAlgorithm method.
+	 * Constructor.
+	 * Method used to initialise this class and setup the variables
+	 * to hold the candidates for frequent itemset status and the
+	 * actual frequent itemsets. If diff is true the itemsets are
+	 * mined with diffsets (dEclat), otherwise with tidsets (Eclat).
+	 */
+	public EclatAlgorithm(BuildFrequentItemsets owner, boolean diff){
+		bfi = owner;
+		diffsets = diff;
+		cl = new CandidateList();
+		fl = new FItemsetList();
+	}
+
+	/**
+	 * clearData method.
+	 * Method used to destroy and clear the variables that hold the
+	 * data and references that were used to perform the construction
+	 * of the frequent itemsets. This is to free up memory.
+	 */
+	final public void clearData(){
+		if (cl != null){
+			cl.clearData();
+			cl = null;
+		}
+		if (fl != null){
+			fl.clearData();
+			fl = null;
+		}
+		itemTids = null;
+	}
+
+	/**
+	 * runAlgorithm method.
+	 * Method that oversees the execution of the Eclat algorithm for
+	 * generating frequent itemsets. The frequent items are found from
+	 * the item bitmaps of the dataset, then each item's equivalence
+	 * class (the itemsets starting with the item) is mined depth-first
+	 * by intersecting transaction lists, with the classes mined in
+	 * parallel. No candidates are kept beyond the length 1 items.
+	 */
+	final public void runAlgorithm(TransRecords tr, float minCon, float minSup){
+		bfi.messageBox("Generating 1 item list");
+		transCount = tr.getNumberRecs();
+		if (minSupMode == 1 || minSupMode == 2){
+			//Smallest frequency whose support reaches the threshold...
+			minCount = Math.max(1, (int)Math.floor(minSup * transCount));
+			while ((float)minCount / (float)transCount < minSup){
+				minCount++;
+			}
+			while (minCount > 1 && (float)(minCount - 1) / (float)transCount >= minSup){
+				minCount--;
+			}
+		}
+		else{
+			minCount = Math.max(1, (int)Math.ceil(minSup));
+		}
+		createSet(tr);
+		prune(tr);
+		int f1 = itemIDs.length;
+		if (f1 != 0){
+			bfi.messageBox("Mining the equivalence classes of " + f1 + " frequent items");
+			ClassTask[] tasks = new ClassTask[f1];
+			ForkJoinPool pool = new ForkJoinPool();
+			try{
+				for (int i = 0; i < f1; i++){
+					tasks[i] = new ClassTask(i);
+					pool.execute(tasks[i]);
+				}
+				for (int i = 0; i < f1; i++){
+					tasks[i].join();
+				}
+			}
+			finally{
+				pool.shutdown();
+			}
+			addLevels(tasks);
+		}
+		itemTids = null;
+	}
+
+	/**
+	 * createSet method.
+	 * Method used to create the initial list of length 1 candidates
+	 * from the loaded dataset.
+	 */
+	final private void createSet(TransRecords tr){
+		int[] t;
+		int[] ids = tr.getIDs();
+		int n1 = ids.length;
+		candidates = new ArrayList(n1);
+		for (int i = 0; i < n1; i++){
+			t = new int[1];
+			t[0] = ids[i];
+			candidates.add(i, t);
+		}
+	}
+
+	/**
+	 * prune method.
+	 * Method used to count the frequency of every length 1 candidate
+	 * from its bitmap and remember them all so that the user can view
+	 * the items that were considered. The tidset of each frequent item
+	 * is kept for mining its equivalence class.
+	 */
+	final private void prune(TransRecords tr){
+		int c1 = candidates.size();
+		cCounters = new int[c1];
+		cSupports = new float[c1];
+		cTransList = new Object[c1];
+		int f1 = 0;
+		for (int i = 0; i < c1; i++){
+			cCounters[i] = TransBitmap.count(tr.getBitmap(i));
+			cSupports[i] = (float)cCounters[i] / (float)transCount;
+			if (cCounters[i] >= minCount){
+				f1++;
+			}
+		}
+		itemIDs = new int[f1];
+		itemStems = new int[f1];
+		itemCounts = new int[f1];
+		itemTids = new int[f1][];
+		HashMap stems = new HashMap();
+		String stem;
+		int c2;
+		f1 = 0;
+		for (int i = 0; i < c1; i++){
+			if (cCounters[i] < minCount){
+				continue;
+			}
+			itemIDs[f1] = ((int[])candidates.get(i))[0];
+			itemCounts[f1] = cCounters[i];
+			itemTids[f1] = TransBitmap.toTransactions(tr.getBitmap(i));
+			//Items sharing a stem are expanded values of one attribute...
+			stem = tr.getName(itemIDs[f1]);
+			c2 = stem.lastIndexOf('_');
+			if (c2 != -1){
+				stem = stem.substring(0, c2);
+			}
+			if (!stems.containsKey(stem)){
+				stems.put(stem, stems.size());
+			}
+			itemStems[f1] = (Integer)stems.get(stem);
+			f1++;
+		}
+		if (c1 > 0){
+			cl.addEntry(candidates, cCounters, cSupports, cTransList);
+		}
+	}
+
+	/**
+	 * intersect method.
+	 * Method used to get the transactions held in both of two sorted
+	 * transaction lists.
+	 */
+	final private static int[] intersect(int[] tids1, int[] tids2){
+		int[] tids = new int[Math.min(tids1.length, tids2.length)];
+		int i = 0, j = 0, t1 = 0;
+		while (i < tids1.length && j < tids2.length){
+			if (tids1[i] < tids2[j]){
+				i++;
+			}
+			else if (tids1[i] > tids2[j]){
+				j++;
+			}
+			else{
+				tids[t1] = tids1[i];
+				t1++;
+				i++;
+				j++;
+			}
+		}
+		return t1 == tids.length ? tids : Arrays.copyOf(tids, t1);
+	}
+
+	/**
+	 * minus method.
+	 * Method used to get the transactions of a first sorted transaction
+	 * list that are not in a second.
+	 */
+	final private static int[] minus(int[] tids1, int[] tids2){
+		int[] tids = new int[tids1.length];
+		int i = 0, j = 0, t1 = 0;
+		while (i < tids1.length){
+			if (j == tids2.length || tids1[i] < tids2[j]){
+				tids[t1] = tids1[i];
+				t1++;
+				i++;
+			}
+			else if (tids1[i] > tids2[j]){
+				j++;
+			}
+			else{
+				i++;
+				j++;
+			}
+		}
+		return t1 == tids.length ? tids : Arrays.copyOf(tids, t1);
+	}
+
+	/**
+	 * addLevels method.
+	 * Method used to add the frequent itemsets of each length to the
+	 * frequent itemset list. Each class is mined in item ID order, so
+	 * joining the classes in order keeps the itemsets of each length
+	 * ordered by item ID as the Apriori algorithm orders them.
+	 */
+	final private void addLevels(ClassTask[] tasks){
+		ArrayList items, counts, supports, levelItems, levelCounts;
+		int l1 = 0;
+		for (int i = 0; i < tasks.length; i++){
+			l1 = Math.max(l1, tasks[i].frequent.size());
+		}
+		for (int l = 0; l < l1; l++){
+			items = new ArrayList();
+			counts = new ArrayList();
+			supports = new ArrayList();
+			for (int i = 0; i < tasks.length; i++){
+				if (l >= tasks[i].frequent.size()){
+					continue;
+				}
+				levelItems = (ArrayList)tasks[i].frequent.get(l);
+				levelCounts = (ArrayList)tasks[i].fCounters.get(l);
+				items.addAll(levelItems);
+				counts.addAll(levelCounts);
+				for (int j = 0; j < levelCounts.size(); j++){
+					supports.add((float)(Integer)levelCounts.get(j) / (float)transCount);
+				}
+			}
+			fl.addEntry(items, counts, supports, new ArrayList());
+		}
+	}
+
+	/**
+	 * ClassTask class.
+	 * The mining of the equivalence class of one frequent item, which
+	 * is every frequent itemset whose first (lowest ID) item it is.
+	 */
+	private class ClassTask extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		private int item;
+
+		//Frequent itemsets (of item IDs) and their frequencies, by length...
+		private ArrayList frequent, fCounters;
+
+		ClassTask(int first){
+			item = first;
+			frequent = new ArrayList();
+			fCounters = new ArrayList();
+		}
+
+		/**
+		 * compute method.
+		 * Method used to join the item with each later frequent item
+		 * that does not share its stem, then mine the frequent pairs
+		 * depth-first. With diffsets, a pair keeps the transactions
+		 * of the item that are missing the later item.
+		 */
+		protected void compute(){
+			int[] itemset = new int[1];
+			itemset[0] = item;
+			addItemset(itemset, itemCounts[item]);
+			int f1 = itemIDs.length;
+			int[] items = new int[f1];
+			int[][] sets = new int[f1][];
+			int[] counts = new int[f1];
+			int[] set;
+			int n1 = 0, c;
+			for (int j = item + 1; j < f1; j++){
+				if (itemStems[j] == itemStems[item]){
+					continue;
+				}
+				if (diffsets){
+					set = minus(itemTids[item], itemTids[j]);
+					c = itemCounts[item] - set.length;
+				}
+				else{
+					set = intersect(itemTids[item], itemTids[j]);
+					c = set.length;
+				}
+				if (c >= minCount){
+					items[n1] = j;
+					sets[n1] = set;
+					counts[n1] = c;
+					n1++;
+				}
+			}
+			if (n1 > 0){
+				mine(itemset, items, sets, counts, n1);
+			}
+		}
+
+		/**
+		 * mine method.
+		 * Method used to mine an equivalence class depth-first. Each
+		 * member extends the prefix to a frequent itemset, and joining
+		 * it with the later members gives the class of that itemset.
+		 * The diffset of a join is the later member's diffset less the
+		 * member's, and its frequency is the member's frequency less
+		 * the diffset's size.
+		 */
+		final private void mine(int[] prefix, int[] items, int[][] sets, int[] counts, int n1){
+			int p1 = prefix.length;
+			int[] itemset, set, cItems, cCounts;
+			int[][] cSets;
+			int c, c1;
+			for (int a = 0; a < n1; a++){
+				itemset = new int[p1 + 1];
+				System.arraycopy(prefix, 0, itemset, 0, p1);
+				itemset[p1] = items[a];
+				addItemset(itemset, counts[a]);
+				cItems = new int[n1 - a - 1];
+				cSets = new int[n1 - a - 1][];
+				cCounts = new int[n1 - a - 1];
+				c1 = 0;
+				for (int b = a + 1; b < n1; b++){
+					//The members already hold no stem of the prefix...
+					if (itemStems[items[b]] == itemStems[items[a]]){
+						continue;
+					}
+					if (diffsets){
+						set = minus(sets[b], sets[a]);
+						c = counts[a] - set.length;
+					}
+					else{
+						set = intersect(sets[a], sets[b]);
+						c = set.length;
+					}
+					if (c >= minCount){
+						cItems[c1] = items[b];
+						cSets[c1] = set;
+						cCounts[c1] = c;
+						c1++;
+					}
+				}
+				if (c1 > 0){
+					mine(itemset, cItems, cSets, cCounts, c1);
+				}
+			}
+		}
+
+		/**
+		 * addItemset method.
+		 * Method used to add a frequent itemset (of item positions) to
+		 * the list for its length, as a list of item IDs.
+		 */
+		final private void addItemset(int[] itemset, int c){
+			int i1 = itemset.length;
+			int[] ids = new int[i1];
+			for (int i = 0; i < i1; i++){
+				ids[i] = itemIDs[itemset[i]];
+			}
+			while (frequent.size() < i1){
+				frequent.add(new ArrayList());
+				fCounters.add(new ArrayList());
+			}
+			((ArrayList)frequent.get(i1 - 1)).add(ids);
+			((ArrayList)fCounters.get(i1 - 1)).add(c);
+		}
+	}
+
+	/**
+	 * getFrequentItemsets method.
+	 * Method used to get and pass back a reference to the data class
+	 * that holds the frequent itemsets generated by this algorithm.
+	 */
+	final public FItemsetList getFrequentItemsets(){
+		return fl;
+	}
+
+	/**
+	 * getCandidateLists method.
+	 * Method used to get and pass back a reference to the data class
+	 * that holds the candidates that were considered to be frequent
+	 * itemsets.
+	 */
+	final public CandidateList getCandidateLists(){
+		return cl;
+	}
+}
\ No newline at end of file
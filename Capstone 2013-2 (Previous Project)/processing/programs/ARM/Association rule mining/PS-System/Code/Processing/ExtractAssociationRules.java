@@ -3,10 +3,12 @@
  * 
  * Start Date: 24 January 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.2
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Messages may be passed from more than one thread.
+ *		  1.2 Diversity and coverage versions select rules with a RuleInterestingness.
  */
 package Processing;
 
@@ -17,22 +19,13 @@ import java.util.ArrayList;
 import GUI.ARMMainGui;
 import GUI.ARMMainNoGui;
 
+import Processing.RuleExtractor;
 import Processing.MinMaxAssociationRuleExtractor;
-import Processing.MinMaxAssociationRuleExtractorDiv;
-import Processing.MinMaxAssociationRuleExtractorCov;
-
 import Processing.ReliableRuleExtractor;
-import Processing.ReliableRuleExtractorDiv;
-import Processing.ReliableRuleExtractorCov;
-import Processing.ReliableRuleExtractor2;
-
 import Processing.ModMinMaxAssociationRuleExtractor;
-import Processing.ModMinMaxAssociationRuleExtractorDiv;
-import Processing.ModMinMaxAssociationRuleExtractorCov;
-
 import Processing.ModReliableRuleExtractor;
-import Processing.ModReliableRuleExtractorDiv;
-import Processing.ModReliableRuleExtractorCov;
+import Processing.CoverageInterestingness;
+import Processing.DiversityInterestingness;
 
 import Processing.NonDerivableRuleExtractor; //For the project students to use to implement Non-Derivable Association Rule Mining
 
@@ -47,31 +40,7 @@ public class ExtractAssociationRules{
 
 	private ExtractAssociationRules ears;
 
-	private MinMaxAssociationRuleExtractor mmare;
-	
-	private MinMaxAssociationRuleExtractorDiv mmared;
-	
-	private MinMaxAssociationRuleExtractorCov mmarec;
-
-	private ReliableRuleExtractor rere;
-	
-	private ReliableRuleExtractorDiv rered;
-	
-	private ReliableRuleExtractorCov rerec;
-	
-	private ReliableRuleExtractor2 rere2;
-
-	private ModMinMaxAssociationRuleExtractor mare;
-	
-	private ModMinMaxAssociationRuleExtractorDiv mared;
-	
-	private ModMinMaxAssociationRuleExtractorCov marec;
-
-	private ModReliableRuleExtractor mrre;
-	
-	private ModReliableRuleExtractorDiv mrred;
-	
-	private ModReliableRuleExtractorCov mrrec;
+	private RuleExtractor rex;
 
 	private NonDerivableRuleExtractor ndre;
 
@@ -117,33 +86,9 @@ public class ExtractAssociationRules{
 	 * memory for other parts of the program.
 	 */
 	final public void clearData(){
-		if (mmare != null){
-			mmare.clearData();
-			mmare = null;
-		}
-		if (rere != null){
-			rere.clearData();
-			rere = null;
-		}
-		if (rere2 != null){
-			rere2.clearData();
-			rere2 = null;
-		}
-		if (mrre != null){
-			mrre.clearData();
-			mrre = null;
-		}
-		if (mare != null){
-			mare.clearData();
-			mare = null;
-		}
-		if (mmared != null){
-			mmared.clearData();
-			mmared = null;
-		}
-		if (mmarec != null){
-			mmarec.clearData();
-			mmarec = null;
+		if (rex != null){
+			rex.clearData();
+			rex = null;
 		}
 		System.gc();
 	}
@@ -189,95 +134,104 @@ public class ExtractAssociationRules{
 					updateGui();
 					startTime = System.currentTimeMillis();
 					if (algorithmCode == 1){
-						rere = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 						stat = "Running Yue Xu's ReliableExactRule Algorithm";
 						updateGui();
-						rere.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(rere.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 2){
-						mmare = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 						stat = "Running Pasquier's Min-max Algorithm";
 						updateGui();
-						mmare.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mmare.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 3){
-						mrre = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
 						stat = "Running Modified Yue's ReliableExactRule with HRR Algorithm";
 						updateGui();
-						mrre.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mrre.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 4){
-						mare = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
 						stat = "Running Modified Pasquier's Min-max with HRR Algorithm";
 						updateGui();
-						mare.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mare.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 5){
-						rere2 = new ReliableRuleExtractor2(ears, attNames, attLeaf, MTH, LTP);
+						//Version 2 extracts the same rules as ReliableExactRule...
+						rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 						stat = "Running Yue Xu's ReliableExactRule - 2 Algorithm";
 						updateGui();
-						rere2.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(rere2.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 6){
-						mmared = new MinMaxAssociationRuleExtractorDiv(ears, attNames, attLeaf, MTH, LTP);
+						rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex.setInterestingness(new DiversityInterestingness());
 						stat = "Running Pasquier's Min-max Algorithm - Diversity version";
 						updateGui();
-						mmared.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mmared.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 7){
-						mmarec = new MinMaxAssociationRuleExtractorCov(ears, attNames, attLeaf, MTH, LTP);
+						rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex.setInterestingness(new CoverageInterestingness());
 						stat = "Running Pasquier's Min-max Algorithm - Coverage version";
 						updateGui();
-						mmarec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mmarec.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 8){
-						mared = new ModMinMaxAssociationRuleExtractorDiv(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex.setInterestingness(new DiversityInterestingness());
 						stat = "Running Modified Pasquier's Min-max with HRR Algorithm - Diversity version";
 						updateGui();
-						mared.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mared.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 9){
-						marec = new ModMinMaxAssociationRuleExtractorCov(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex.setInterestingness(new CoverageInterestingness());
 						stat = "Running Modified Pasquier's Min-max with HRR Algorithm - Coverage version";
 						updateGui();
-						marec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(marec.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 10){
-						rered = new ReliableRuleExtractorDiv(ears, attNames, attLeaf, MTH, LTP);
+						rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex.setInterestingness(new DiversityInterestingness());
 						stat = "Running Yue Xu's ReliableExactRule Algorithm - Diversity version";
 						updateGui();
-						rered.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(rered.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 11){
-						rerec = new ReliableRuleExtractorCov(ears, attNames, attLeaf, MTH, LTP);
+						rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+						rex.setInterestingness(new CoverageInterestingness());
 						stat = "Running Yue Xu's ReliableExactRule Algorithm - Coverage version";
 						updateGui();
-						rerec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(rerec.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 12){
-						mrred = new ModReliableRuleExtractorDiv(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex.setInterestingness(new DiversityInterestingness());
 						stat = "Running Modified Yue's ReliableExactRule with HRR Algorithm - Diversity version";
 						updateGui();
-						mrred.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mrred.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 13){
-						mrrec = new ModReliableRuleExtractorCov(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+						rex.setInterestingness(new CoverageInterestingness());
 						stat = "Running Modified Yue's ReliableExactRule with HRR Algorithm - Coverage version";
 						updateGui();
-						mrrec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-						owner1.assocRulePassback(mrrec.getAssocRules());
+						rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+						owner1.assocRulePassback(rex.getAssocRules());
 					}
 					else if (algorithmCode == 14){
 						ndre = new NonDerivableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
@@ -334,82 +288,91 @@ public class ExtractAssociationRules{
 			System.out.println("Preparing to extract association rules");
 			startTime = System.currentTimeMillis();
 			if (algorithmCode == 1){
-				rere = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 				System.out.println("Running Yue Xu's ReliableExactRule Algorithm");
-				rere.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(rere.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 2){
-				mmare = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 				System.out.println("Running Pasquier's Min-max Algorithm");
-				mmare.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mmare.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 3){
-				mrre = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
 				System.out.println("Running Modified Yue's ReliableExactRule Algorithm");
-				mrre.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mrre.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 4){
-				mare = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
 				System.out.println("Running Modified Pasquier's Min-max Algorithm");
-				mare.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mare.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 5){
-				rere2 = new ReliableRuleExtractor2(ears, attNames, attLeaf, MTH, LTP);
+				//Version 2 extracts the same rules as ReliableExactRule...
+				rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
 				System.out.println("Running Yue Xu's ReliableExactRule - 2 Algorithm");
-				rere2.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(rere2.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 6){
-				mmared = new MinMaxAssociationRuleExtractorDiv(ears, attNames, attLeaf, MTH, LTP);
+				rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex.setInterestingness(new DiversityInterestingness());
 				System.out.println("Running Pasquier's Min-max Algorithm - Diversity version");
-				mmared.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mmared.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 7){
-				mmarec = new MinMaxAssociationRuleExtractorCov(ears, attNames, attLeaf, MTH, LTP);
+				rex = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex.setInterestingness(new CoverageInterestingness());
 				System.out.println("Running Pasquier's Min-max Algorithm - Coverage version");
-				mmarec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mmarec.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 8){
-				mared = new ModMinMaxAssociationRuleExtractorDiv(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex.setInterestingness(new DiversityInterestingness());
 				System.out.println("Running Modified Pasquier's Min-max Algorithm - Diversity Version");
-				mared.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mared.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 9){
-				marec = new ModMinMaxAssociationRuleExtractorCov(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModMinMaxAssociationRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex.setInterestingness(new CoverageInterestingness());
 				System.out.println("Running Modified Pasquier's Min-max Algorithm - Coverage Version");
-				marec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(marec.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 10){
-				rered = new ReliableRuleExtractorDiv(ears, attNames, attLeaf, MTH, LTP);
+				rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex.setInterestingness(new DiversityInterestingness());
 				System.out.println("Running Yue Xu's ReliableExactRule Algorithm - Diversity version");
-				rered.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(rered.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 11){
-				rerec = new ReliableRuleExtractorCov(ears, attNames, attLeaf, MTH, LTP);
+				rex = new ReliableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
+				rex.setInterestingness(new CoverageInterestingness());
 				System.out.println("Running Yue Xu's ReliableExactRule Algorithm - Coverage version");
-				rerec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(rerec.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 12){
-				mrred = new ModReliableRuleExtractorDiv(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex.setInterestingness(new DiversityInterestingness());
 				System.out.println("Running Modified Yue's ReliableExactRule Algorithm - Diversity version");
-				mrred.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mrred.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 13){
-				mrrec = new ModReliableRuleExtractorCov(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex = new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
+				rex.setInterestingness(new CoverageInterestingness());
 				System.out.println("Running Modified Yue's ReliableExactRule Algorithm - Coverage version");
-				mrrec.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
-				owner2.assocRulePassback(mrrec.getAssocRules());
+				rex.runAlgorithm(fcl, minCon, minSup, ebRules, eeRules, abRules, aeRules, attCount, multiLevel);
+				owner2.assocRulePassback(rex.getAssocRules());
 			}
 			else if (algorithmCode == 14){
 				ndre = new NonDerivableRuleExtractor(ears, attNames, attLeaf, MTH, LTP);
@@ -435,7 +398,7 @@ public class ExtractAssociationRules{
 	 * to generate the frequent closed itemsets to store
 	 * messages to pass back to the user.
 	 */
-	final public void messageBox(String message){
+	final public synchronized void messageBox(String message){
 		stat = message;
 		updateGui();
 	}
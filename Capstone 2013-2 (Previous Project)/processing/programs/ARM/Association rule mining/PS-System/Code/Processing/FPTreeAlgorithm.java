@@ -1,31 +1,31 @@
 /**
  * FPTreeAlgorithm class.
- * 
+ *
  * Start Date: 26 March 2008
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 FP-Growth mining of the FP-Tree.
  */
 package Processing;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 
 import Processing.BuildFrequentItemsets;
-import Processing.Operations;
 
 import Data.TransRecords;
 import Data.CandidateList;
 import Data.FItemsetList;
-import Data.FPTreeNode;
-import Data.FPTHeaderList;
+import Data.FPTree;
 
 public class FPTreeAlgorithm{
 
 	private BuildFrequentItemsets bfi;
-	
-	private Operations ops;
 
 	private CandidateList cl;
 
@@ -33,19 +33,20 @@ public class FPTreeAlgorithm{
 
 	private int minSupMode = 1;
 
-	private byte itemsetSize;
+	private int minCount, transCount;
+
+	private ArrayList candidates, frequent, fCounters, fSupport;
 
-	private ArrayList candidates, frequent, fCounters, fSupport, fTransList;
-	
 	private int[] cCounters;
-	
+
 	private float[] cSupports;
-	
+
 	private Object[] cTransList;
 
-	private FPTreeNode root, cNode;
+	//Item ID and stem of each frequent item, by rank (rank 0 is the most frequent)...
+	private int[] rankIDs, rankStems;
 
-	private FPTHeaderList headerlist;
+	private FPTree root;
 
 	/**
 	 * FPTreeAlgorithm method.
@@ -58,7 +59,6 @@ public class FPTreeAlgorithm{
 		bfi = owner;
 		cl = new CandidateList();
 		fl = new FItemsetList();
-		ops = new Operations();
 	}
 
 	/**
@@ -76,30 +76,46 @@ public class FPTreeAlgorithm{
 			fl.clearData();
 			fl = null;
 		}
+		root = null;
 	}
 
 	/**
 	 * runAlgorithm method.
-	 * Method that oversees the execution of the Apriori algorithm
-	 * for generating frequent itemsets. This method stops when
-	 * there are no frequent itemsets generated at the previous
-	 * itemset length or the length of the itemsets is going to
-	 * exceed the total number of items/attributes within a
-	 * transaction.
+	 * Method that oversees the execution of the FP-Growth algorithm
+	 * for generating frequent itemsets. The frequent items are found
+	 * with one pass of the dataset, the FP-Tree is built with a second
+	 * pass and the frequent itemsets are then mined from the tree by
+	 * recursively building conditional FP-Trees. No candidates are
+	 * generated beyond the length 1 items.
 	 */
 	final public void runAlgorithm(TransRecords tr, float minCon, float minSup){
 		bfi.messageBox("Generating 1 item list");
-		headerlist = new FPTHeaderList();
+		transCount = tr.getNumberRecs();
+		if (minSupMode == 1 || minSupMode == 2){
+			//Smallest frequency whose support reaches the threshold...
+			minCount = Math.max(1, (int)Math.floor(minSup * transCount));
+			while ((float)minCount / (float)transCount < minSup){
+				minCount++;
+			}
+			while (minCount > 1 && (float)(minCount - 1) / (float)transCount >= minSup){
+				minCount--;
+			}
+		}
+		else{
+			minCount = Math.max(1, (int)Math.ceil(minSup));
+		}
 		createSet(tr);
-		prune(tr, minSup, 1);
-		if (frequent.size() != 0){
+		int[] columns = prune(tr);
+		frequent = new ArrayList();
+		fCounters = new ArrayList();
+		fSupport = new ArrayList();
+		if (columns.length != 0){
 			//Create the root of the FP-Tree...
 			bfi.messageBox("Generating FP-Tree structure");
-			root = new FPTreeNode("root", 0, 1);
-			buildTree(tr);
+			buildTree(tr, columns);
 			bfi.messageBox("Finished generating FP-Tree structure, extracting frequent itemsets");
-			extractFI();
-//			headerlist.print();
+			extractFI(root, new int[0]);
+			addLevels();
 		}
 	}
 
@@ -122,216 +138,243 @@ public class FPTreeAlgorithm{
 
 	/**
 	 * prune method.
-	 * Method used to prune off any candidates that are not
-	 * frequent enough to be frequent itemsets. Each candidate
-	 * is checked and the frequeny of the itemset is determined.
-	 * From the frequency, the candidate itemset's support is
-	 * generated. Only if this support is greater the the user
-	 * specified threshold will the candidate become a frequent
-	 * itemset. Otherwise the candidate will not become a frequent
-	 * itemset. Regardless of which outcome, all candidates will be
-	 * remembered so that the user can view all of the itemsets that
-	 * were considered.
+	 * Method used to count the frequency of every length 1 candidate
+	 * with one pass of the dataset and remember them all so that the
+	 * user can view the items that were considered. The frequent items
+	 * are ranked by decreasing frequency, which is the order they are
+	 * added to the FP-Tree paths.
+	 * POST: The columns of the frequent items, by rank, have been
+	 *       returned.
 	 */
-	final private void prune(TransRecords tr, float minSup, int itemsetSize){
-		boolean incCount = true;
+	final private int[] prune(TransRecords tr){
 		String[] trans;
-		int[] can;
-		int f1, f2, t1, c1, c2, n1, i1 = -1;
-		c1 = candidates.size();
+		int c1 = candidates.size();
 		cCounters = new int[c1];
 		cSupports = new float[c1];
 		cTransList = new Object[c1];
-		for (int i = 0; i < c1; i++){
-			cCounters[i] = 0;
-		}
 		//Determine candidate frequency...
 		Object[] temp = tr.getRec();
-		String[] name = tr.getNames();
-		int[] ids = tr.getIDs();
-		t1 = temp.length;
-		n1 = name.length;
-		//Check all transactions...
+		int t1 = temp.length;
 		for (int i = 0; i < t1; i++){
 			trans = (String[])temp[i];
-			//Check all candidates...
 			for (int j = 0; j < c1; j++){
-				can = (int[])candidates.get(j);
-				c2 = can.length;
-				//Check all items are present in this transaction...
-				for (int k = 0; k < c2; k++){
-					i1 = -1;
-					for (int l = 0; l < n1; l++){
-						if (ids[l] == can[k]){
-							i1 = l;
-							break;
-						}
-					}
-					if (i1 != -1 && trans[i1].equals("0")){
-						incCount = false;
-						break;
-					}
-				}
-				if (incCount){
-					//All candidate items present...
+				if (!trans[j].equals("0")){
 					cCounters[j] = cCounters[j] + 1;
 				}
-				incCount = true;
 			}
 		}
-		
-		//Determine frequent itemset...
-		frequent = new ArrayList();
-		fCounters = new ArrayList();
-		fSupport = new ArrayList();
-		fTransList = new ArrayList();
-		int transCount = tr.getNumberRecs();
-		float support;
-		//For each candidate...
-		c2 = candidates.size();
-		for (int i = 0; i < c2; i++){
-//			bfi.messageBox("Generating " + itemsetSize + " item list (Evaluating Candidate " + (i + 1) + " of " + candidates.size());
-			//Determine the support level...
-			if (minSupMode == 1 || minSupMode == 2){
-				support = (float)(cCounters[i]) / (float)transCount;
-				cSupports[i] = support;
-				if (support >= minSup){
-					//Candidate support high enough to be frequent item...
-					f1 = frequent.size();
-					if (f1 == 0){
-						//First item in list...
-						frequent.add((int[])candidates.get(i));
-						fCounters.add(cCounters[i]);
-						fSupport.add(support);
-						headerlist.addItem((String)candidates.get(i));
-					}
-					else{
-						//Sort so that frequent items are in decreasing order...
-						f2 = fCounters.size();
-						for (int j = 0; j < f2; j++){
-							if ((Integer)fCounters.get(j) < cCounters[i]){
-								//Insert new item at this position and break out of loop...
-								frequent.add(j, (String)candidates.get(i));
-								fCounters.add(j, cCounters[i]);
-								fSupport.add(j, support);
-								headerlist.addItem(j, (String)candidates.get(i));
-								break;
-							}
-							else if (j == f2 - 1){
-								//Reached the end of the list so add new item at the end...
-								frequent.add((String)candidates.get(i));
-								fCounters.add(cCounters[i]);
-								fSupport.add(support);
-								headerlist.addItem((String)candidates.get(i));
-								break;
-							}
-						}
-					}
-				}
+		//Rank the frequent items, most frequent first (ties in column order)...
+		long[] order = new long[c1];
+		int f1 = 0;
+		for (int i = 0; i < c1; i++){
+			cSupports[i] = (float)cCounters[i] / (float)transCount;
+			if (cCounters[i] >= minCount){
+				order[f1] = ((long)(transCount - cCounters[i]) << 32) | i;
+				f1++;
 			}
-			else{
-				support = (float)(cCounters[i]) / (float)transCount;
-				cSupports[i] = support;
-				if ((float)(cCounters[i]) >= minSup){
-					//Candidate support/frequency high enough to be frequent item...
-					f1 = frequent.size();
-					if (f1 == 0){
-						//First item in list...
-						frequent.add((String)candidates.get(i));
-						fCounters.add(cCounters[i]);
-						fSupport.add(support);
-						headerlist.addItem((String)candidates.get(i));
-					}
-					else{
-						//Sort so that frequent items are in decreasing order...
-						f2 = fCounters.size();
-						for (int j = 0; j < f2; j++){
-							if ((Integer)fCounters.get(j) < cCounters[i]){
-								//Insert new item at this position and break out of loop...
-								frequent.add(j, (String)candidates.get(i));
-								fCounters.add(j, cCounters[i]);
-								fSupport.add(j, support);
-								headerlist.addItem(j, (String)candidates.get(i));
-								break;
-							}
-							else if (j == f2 - 1){
-								//Reached the end of the list so add new item at the end...
-								frequent.add((String)candidates.get(i));
-								fCounters.add(cCounters[i]);
-								fSupport.add(support);
-								headerlist.addItem((String)candidates.get(i));
-								break;
-							}
-						}
-					}
-				}
+		}
+		Arrays.sort(order, 0, f1);
+		int[] columns = new int[f1];
+		rankIDs = new int[f1];
+		rankStems = new int[f1];
+		HashMap stems = new HashMap();
+		String stem;
+		int c2;
+		for (int i = 0; i < f1; i++){
+			columns[i] = (int)order[i];
+			rankIDs[i] = ((int[])candidates.get(columns[i]))[0];
+			//Items sharing a stem are expanded values of one attribute...
+			stem = tr.getName(rankIDs[i]);
+			c2 = stem.lastIndexOf('_');
+			if (c2 != -1){
+				stem = stem.substring(0, c2);
 			}
+			if (!stems.containsKey(stem)){
+				stems.put(stem, stems.size());
+			}
+			rankStems[i] = (Integer)stems.get(stem);
 		}
-		if (candidates.size() > 0){
+		if (c1 > 0){
 			cl.addEntry(candidates, cCounters, cSupports, cTransList);
 		}
-		if (frequent.size() > 0){
-			fl.addEntry(frequent, fCounters, fSupport, fTransList);
-		}
+		return columns;
 	}
 
-	final private void buildTree(TransRecords tr){
-		int t1, n1, i1 = -1;
+	/**
+	 * buildTree method.
+	 * Method used to build the FP-Tree by adding the frequent items
+	 * of each transaction as a path, in rank order.
+	 */
+	final private void buildTree(TransRecords tr, int[] columns){
 		String[] trans;
 		Object[] temp = tr.getRec();
-		String[] name = tr.getNames();
-		t1 = temp.length;
-		n1 = name.length;
-		int transCount = tr.getNumberRecs();
-		
-
+		int f1 = columns.length;
+		int[] path = new int[f1];
+		int p1;
+		root = new FPTree(f1);
 		//For each transaction/record...
-//		System.out.println("S");
-		for (int i = 0; i < t1; i++){
-//			System.out.println("1 - " + i);
+		for (int i = 0; i < temp.length; i++){
 			trans = (String[])temp[i];
-			cNode = root;
-			for (int j = 0; j < frequent.size(); j++){
-//				System.out.println("2 - " + j);
-				i1 = -1;
-				for (int k = 0; k < n1; k++){
-					if (name[k].equals((String)frequent.get(j))){
-						i1 = k;
-						break;
-					}
+			p1 = 0;
+			for (int j = 0; j < f1; j++){
+				if (!trans[columns[j]].equals("0")){
+					//Frequent item is present in this transaction so add to the path...
+					path[p1] = j;
+					p1++;
 				}
-				if (i1 != -1 && trans[i1].equals("1")){
-					//Frequent item is present in this transaction so add to the tree...
-//					System.out.println("3");
-					if (cNode.childPresent((String)frequent.get(j))){
-//						System.out.println("4");
-						//Item already exists as a child of the current node, so update the child...
-						cNode = cNode.getChild((String)frequent.get(j));
-						cNode.incCount();
-						cNode.updateSupport(transCount);
+			}
+			if (p1 > 0){
+				root.addPath(path, p1, 1);
+			}
+		}
+	}
+
+	/**
+	 * extractFI method.
+	 * Method used to mine the frequent itemsets from an FP-Tree. Each
+	 * frequent item of the tree extends the suffix to a new frequent
+	 * itemset. The paths leading to the item form its conditional
+	 * pattern base, which is built into a conditional FP-Tree and mined
+	 * in turn for the itemsets ending in the new suffix. As with the
+	 * Apriori algorithm, no itemset holds two items from the same stem.
+	 */
+	final private void extractFI(FPTree tree, int[] suffix){
+		int s1 = suffix.length;
+		int[] itemset, path = new int[tree.getNumberItems()];
+		int[] counts;
+		int node, parent, p1, c;
+		boolean conditional;
+		FPTree cTree;
+		for (int rank = tree.getNumberItems() - 1; rank >= 0; rank--){
+			if (tree.getItemCount(rank) < minCount || sharesStem(suffix, rank)){
+				continue;
+			}
+			itemset = new int[s1 + 1];
+			System.arraycopy(suffix, 0, itemset, 0, s1);
+			itemset[s1] = rank;
+			addItemset(itemset, tree.getItemCount(rank));
+			if (rank == 0){
+				continue;
+			}
+			//Count the items of the conditional pattern base...
+			counts = new int[rank];
+			conditional = false;
+			for (node = tree.getHead(rank); node != -1; node = tree.getNodeLink(node)){
+				c = tree.getCount(node);
+				for (parent = tree.getParent(node); parent > 0; parent = tree.getParent(parent)){
+					counts[tree.getItem(parent)] = counts[tree.getItem(parent)] + c;
+				}
+			}
+			for (int i = 0; i < rank; i++){
+				if (counts[i] >= minCount && !sharesStem(itemset, i)){
+					conditional = true;
+				}
+				else{
+					counts[i] = 0;
+				}
+			}
+			if (!conditional){
+				continue;
+			}
+			//Build the conditional FP-Tree from the frequent items of each path...
+			cTree = new FPTree(rank);
+			for (node = tree.getHead(rank); node != -1; node = tree.getNodeLink(node)){
+				p1 = 0;
+				for (parent = tree.getParent(node); parent > 0; parent = tree.getParent(parent)){
+					if (counts[tree.getItem(parent)] != 0){
+						path[p1] = tree.getItem(parent);
+						p1++;
 					}
-					else{
-//						System.out.println("5");
-						//Item does not exist as a child of the current node and needs to be added...
-//						System.out.println("5-1");
-						cNode.addChild((String)frequent.get(j), 1, transCount);
-//						System.out.println("5-2");
-						cNode = cNode.getChild((String)frequent.get(j));
-						headerlist.addNode(cNode, (String)frequent.get(j));
-//						System.out.println("5-3");
+				}
+				if (p1 > 0){
+					//Paths are walked leaf to root, so reverse into rank order...
+					for (int i = 0, j = p1 - 1; i < j; i++, j--){
+						int t = path[i];
+						path[i] = path[j];
+						path[j] = t;
 					}
+					cTree.addPath(path, p1, tree.getCount(node));
 				}
-//				System.out.println("2E");
 			}
-//			System.out.println("1E");
+			extractFI(cTree, itemset);
 		}
 	}
 
-	final private void extractFI(){
-//		frequent = new ArrayList();
-//		fCounters = new ArrayList();
-//		fSupport = new ArrayList();
-//		fTransList = new ArrayList();
+	/**
+	 * sharesStem method.
+	 * Method used to check if an item shares its stem with any item
+	 * of an itemset.
+	 */
+	final private boolean sharesStem(int[] itemset, int rank){
+		int stem = rankStems[rank];
+		for (int i = 0; i < itemset.length; i++){
+			if (rankStems[itemset[i]] == stem){
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * addItemset method.
+	 * Method used to add a frequent itemset (of ranks) to the list for
+	 * its length, as a sorted list of item IDs.
+	 */
+	final private void addItemset(int[] itemset, int c){
+		int i1 = itemset.length;
+		int[] ids = new int[i1];
+		for (int i = 0; i < i1; i++){
+			ids[i] = rankIDs[itemset[i]];
+		}
+		Arrays.sort(ids);
+		while (frequent.size() < i1){
+			frequent.add(new ArrayList());
+			fCounters.add(new ArrayList());
+			fSupport.add(new ArrayList());
+		}
+		((ArrayList)frequent.get(i1 - 1)).add(ids);
+		((ArrayList)fCounters.get(i1 - 1)).add(c);
+		((ArrayList)fSupport.get(i1 - 1)).add((float)c / (float)transCount);
+	}
+
+	/**
+	 * addLevels method.
+	 * Method used to add the frequent itemsets of each length to the
+	 * frequent itemset list, ordered by item ID as the Apriori algorithm
+	 * orders them.
+	 */
+	final private void addLevels(){
+		ArrayList items, counts, supports;
+		Integer[] order;
+		int f1 = frequent.size();
+		for (int i = 0; i < f1; i++){
+			final ArrayList level = (ArrayList)frequent.get(i);
+			order = new Integer[level.size()];
+			for (int j = 0; j < order.length; j++){
+				order[j] = j;
+			}
+			Arrays.sort(order, new Comparator<Integer>(){
+				public int compare(Integer a, Integer b){
+					int[] i1 = (int[])level.get(a);
+					int[] i2 = (int[])level.get(b);
+					for (int k = 0; k < i1.length; k++){
+						if (i1[k] != i2[k]){
+							return i1[k] < i2[k] ? -1 : 1;
+						}
+					}
+					return 0;
+				}
+			});
+			items = new ArrayList(order.length);
+			counts = new ArrayList(order.length);
+			supports = new ArrayList(order.length);
+			for (int j = 0; j < order.length; j++){
+				items.add(level.get(order[j]));
+				counts.add(((ArrayList)fCounters.get(i)).get(order[j]));
+				supports.add(((ArrayList)fSupport.get(i)).get(order[j]));
+			}
+			fl.addEntry(items, counts, supports, new ArrayList());
+		}
 	}
 
 	/**
@@ -3,10 +3,11 @@
  * 
  * Start Date: 24 July 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Support counted from transaction bitmaps.
  */
 package Processing;
 
@@ -483,49 +484,14 @@ public class ML_T2L1CrossAlgorithm{
 	 * were considered.
 	 */
 	final private void prune(TransRecords tr, float minSup, byte itemsetSize){
-		ArrayList matches;
-		int incCount = 0;
-		String[] trans;
-		int[] can;
-		int t1, t2, c1, c2, n1, m1;
+		int c1;
 		c1 = candidates.size();
 		cCounters = new int[c1];
 		cSupports = new float[c1];
 		cTransList = new Object[c1];
-		for (int i = 0; i < c1; i++){
-			cCounters[i] = 0;
-		}
-		//Determine candidate frequency...
-		Object[] temp = tr.getRec();
-		String[] name = tr.getNames();
-		int[] ids = tr.getIDs();
-		t1 = temp.length;
-		n1 = name.length;
-		//Check all transactions...
-		for (int i = 0; i < t1; i++){
-			trans = (String[])temp[i];
-			t2 = trans.length;
-			//Check all candidates...
-			for (int j = 0; j < c1; j++){
-				can = (int[])candidates.get(j);
-				c2 = can.length;
-				//Check all items are present in this transaction...
-				for (int k = 0; k < c2; k++){
-					matches = tr.getMatches(can[k]);
-					m1 = matches.size();
-					for (int l = 0; l < m1; l++){
-						if (((Integer)matches.get(l) < t2) && (trans[(Integer)matches.get(l)].equals("1"))){
-							incCount++;
-							break;
-						}
-					}
-				}
-				if (incCount == c2){
-					//All candidates present, increase counter...
-					cCounters[j] = cCounters[j] + 1;
-				}
-				incCount = 0;
-			}
+		//Determine candidate frequency from the bitmaps of the transactions holding each item...
+		for (int j = 0; j < c1; j++){
+			cCounters[j] = tr.getSupportCount((int[])candidates.get(j));
 		}
 
 		//Determine frequent itemset...
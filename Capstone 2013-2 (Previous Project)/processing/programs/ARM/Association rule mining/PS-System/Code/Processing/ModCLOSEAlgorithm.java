@@ -3,20 +3,23 @@
  * 
  * Start Date: 02 January 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.1
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Subsets, supersets and generators found through an index.
  */
 package Processing;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import Processing.BuildFrequentClosedItemsets;
 import Processing.Operations;
 
 import Data.FItemsetList;
 import Data.FCItemsetList;
+import Data.ItemsetIndex;
 
 public class ModCLOSEAlgorithm{
 
@@ -36,6 +39,12 @@ public class ModCLOSEAlgorithm{
 
 	private ArrayList tempAssociations, tempSupports;
 
+	//Position of each frequent itemset in the list of its length...
+	private ItemsetIndex itemsetIndex;
+
+	//Positions of the generators with each support...
+	private HashMap genSupports;
+
 	private Object[] attNames, attLeaf, freqClosed;
 
 	private int[] currentItem;
@@ -101,6 +110,8 @@ public class ModCLOSEAlgorithm{
 			fcl.clearData();
 			fcl = null;
 		}
+		itemsetIndex = null;
+		genSupports = null;
 	}
 
 	/**
@@ -121,11 +132,13 @@ public class ModCLOSEAlgorithm{
 		ciSupport = new ArrayList();
 		generators = new ArrayList();
 		gSupport = new ArrayList();
+		genSupports = new HashMap();
 		itemsetSize = 1;
 
 		frequentItems = flist.getFrequent();
 		freqSupport = flist.getSupports();
 		f1 = frequentItems.size();
+		buildIndex();
 		for (int i = 0; i < f1; i++){
 			itemList = (ArrayList)frequentItems.get(i);
 			supportList = (ArrayList)freqSupport.get(i);
@@ -159,19 +172,17 @@ public class ModCLOSEAlgorithm{
 			//1-itemset, therefore automatically is a generator...
 			if (isLeaf(currentItem)){
 				//Test to see if the generator is composed of only leaf/bottom items...
-				generators.add(currentItem);
-				gSupport.add(currentSupport);
+				addGenerator();
 			}
 		}
 		else{
 			//Larger than 1-itemset so search through subsets...
 			Object[] itemSubset = genSubsets();
-			ArrayList subsetFreqItemList = (ArrayList)frequentItems.get(itemsetSize - 2);
 			ArrayList subsetSupportList = (ArrayList)freqSupport.get(itemsetSize - 2);
 			size = itemSubset.length;
 			for (int i = 0; i < size; i++){
 				//For all the subsets that are possible from the current itemset...
-				int index = matchSet(subsetFreqItemList, (int[])itemSubset[i]);
+				int index = itemsetIndex.get((int[])itemSubset[i]);
 				if (index != -1){
 					//Get the support of the current itemset's subset...
 					float subsetSupport = (Float)subsetSupportList.get(index);
@@ -186,8 +197,7 @@ public class ModCLOSEAlgorithm{
 				//Itemset is a valid generator...
 				if (isLeaf(currentItem)){
 					//Test to see if the generator is composed of only leaf/bottom items...
-					generators.add(currentItem);
-					gSupport.add(currentSupport);
+					addGenerator();
 				}
 			}
 		}
@@ -230,9 +240,14 @@ public class ModCLOSEAlgorithm{
 	 * closed itemset.
 	 */
 	final private void determineGenerators(){
-		int size1 = generators.size();
-		//Now process the generator list and see if each generator is a subset...
-		for (int i = 0; i < size1; i++){
+		ArrayList equal = (ArrayList)genSupports.get(currentSupport);
+		if (equal == null){
+			return;
+		}
+		int size1 = equal.size();
+		//Now process the generators with equal support and see if each generator is a subset...
+		for (int k = 0; k < size1; k++){
+			int i = (Integer)equal.get(k);
 			int[] genCom = (int[])generators.get(i);
 			if (ops.subset(currentItem, genCom)){
 				//Generator is a subset of the current closed itemset...
@@ -295,20 +310,16 @@ public class ModCLOSEAlgorithm{
 	 * that list.
 	 */
 	final private ArrayList genSupersets(){
-		int size;
-		int[] set1;
 		ArrayList supersetFreqItemList = (ArrayList)frequentItems.get(itemsetSize);
 		ArrayList supersetSupportList = (ArrayList)freqSupport.get(itemsetSize);
 		ArrayList supersetInfo = new ArrayList();
 		ArrayList supersetsItems = new ArrayList();
 		ArrayList supersetsSupport = new ArrayList();
-		size = supersetFreqItemList.size();
-		for (int i = 0; i < size; i++){
-			set1 = (int[])supersetFreqItemList.get(i);
-			if (ops.supset(set1, currentItem)){
-				supersetsItems.add(set1);
-				supersetsSupport.add((Float)supersetSupportList.get(i));
-			}
+		//Positions of the supersets in the list of the next length...
+		int[] supersets = itemsetIndex.getSupersets(currentItem);
+		for (int i = 0; i < supersets.length; i++){
+			supersetsItems.add((int[])supersetFreqItemList.get(supersets[i]));
+			supersetsSupport.add((Float)supersetSupportList.get(supersets[i]));
 		}
 		supersetInfo.add(supersetsItems);
 		supersetInfo.add(supersetsSupport);
@@ -316,23 +327,37 @@ public class ModCLOSEAlgorithm{
 	}
 
 	/**
-	 * matchSet method.
-	 * Method used to determine the index position of a given set in
-	 * a list of sets. Used when a subset of a generator is built and
-	 * the subset needs to be found in the list of frequent itemsets of
-	 * that length so that the support can be determined. In this case
-	 * set2 is the generator's subset.
+	 * buildIndex method.
+	 * Method used to index the frequent itemsets by their position in
+	 * the list of their length, so that the support of a generator's
+	 * subset and the supersets of an itemset are found without
+	 * scanning the lists.
 	 */
-	final private int matchSet(ArrayList list1, int[] set2){
-		int[] set1;
-		int size = list1.size();
-		for (int i = 0; i < size; i++){
-			set1 = (int[])list1.get(i);
-			if (ops.compare(set1, set2)){
-				return i;
+	final private void buildIndex(){
+		ArrayList list;
+		itemsetIndex = new ItemsetIndex();
+		for (int i = 0; i < frequentItems.size(); i++){
+			list = (ArrayList)frequentItems.get(i);
+			for (int j = 0; j < list.size(); j++){
+				itemsetIndex.add((int[])list.get(j), j);
 			}
 		}
-		return -1;
+	}
+
+	/**
+	 * addGenerator method.
+	 * Method used to add the current itemset to the list of generators,
+	 * and to the generators with its support.
+	 */
+	final private void addGenerator(){
+		ArrayList equal = (ArrayList)genSupports.get(currentSupport);
+		if (equal == null){
+			equal = new ArrayList();
+			genSupports.put(currentSupport, equal);
+		}
+		equal.add(generators.size());
+		generators.add(currentItem);
+		gSupport.add(currentSupport);
 	}
 
 	final private boolean isLeaf(int[] gen){
@@ -3,10 +3,13 @@
  * 
  * Start Date: 30 November 2007
  * @author Gavin Shaw
- * @version 1.0
+ * @version 1.3
  *
  * Log:
  *		  1.0 Start version of class.
+ *		  1.1 Rule diversity and distance measured by RuleMetrics.
+ *		  1.2 Rule sets extracted and measured by RuleExtractionEngine.
+ *		  1.3 Rule sets, worker and coverage kept by RuleExtractor.
  */
 package Processing;
 
@@ -16,52 +19,15 @@ import java.util.ArrayList;
 
 import Processing.ExtractAssociationRules;
 import Processing.DataLoader;
-import Processing.Operations;
+import Processing.RuleExtractor;
 
-import Data.FCItemsetList;
-import Data.AssociationRuleList;
-
-public class ModReliableRuleExtractor{
-
-	private ExtractAssociationRules ears;
-
-	private DataLoader dl;
-   
-   private Operations ops;
-
-	private FCItemsetList fcl;
-
-	private AssociationRuleList arl;
-
-	private ArrayList exactMinMaxRule, exactMinMaxSup, exactMinMaxCov, exactMinMaxDiv, exactMinMaxDis;
-	
-	private ArrayList allExactRule, allExactSup, allExactCov, allExactDiv, allExactDis;
-
-	private ArrayList approxMinMaxRule, approxMinMaxSup, approxMinMaxCon, approxMinMaxCov, approxMinMaxDiv, approxMinMaxDis;
-	
-	private ArrayList allApproxRule, allApproxSup, allApproxCon, allApproxCov, allApproxDiv, allApproxDis;
-
-	private ArrayList masterAntecedent, masterConsequent, masterRule, masterAbstractRule;
-
-	private ArrayList masterRuleSet, masterAbstractRuleSet;
+public class ModReliableRuleExtractor extends RuleExtractor{
 
 	private ArrayList eMMRCopy, eMMSCopy;
 
 	private ArrayList MinMaxApproxBasis, MinMaxApproxSupp, MinMaxApproxConf;
 
-	private Object[] attNames, attLeaf, abstractAtts, supset, basis;
-
-	private float[] coverage, diversity, distance;
-
-	private float con, sup;
-
-	private int attCount, MTH, LTP;
-
-	private int ebLeaf = 0, eeLeaf = 0, abLeaf = 0, aeLeaf = 0;
-
-	private int ebAbstract = 0, eeAbstract = 0, abAbstract = 0, aeAbstract = 0;
-
-	private boolean multiLevel;
+	private Object[] abstractAtts, supset;
 
 	/**
 	 * ModReliableRuleExtractor method.
@@ -72,12 +38,8 @@ public class ModReliableRuleExtractor{
 	 * back to the user while running).
 	 */
 	public ModReliableRuleExtractor(ExtractAssociationRules owner, Object[] names, Object[] leaves, Object[] table, int h, int l){
-		ears = owner;
-		attNames = names;
-		attLeaf = leaves;
+		super("mod reliable", owner, names, leaves, h, l);
 		abstractAtts = table;
-		MTH = h;
-		LTP = l;
 	}
 
 	/**
@@ -88,168 +50,24 @@ public class ModReliableRuleExtractor{
 	 * not be going to the GUI.
 	 */
 	public ModReliableRuleExtractor(DataLoader owner){
-		dl = owner;
+		super("mod reliable", owner);
 	}
 
 	/**
-	 * clearData method.
-	 * Method used to clear the data, variables and objects held
-	 * by this class when they are no longer needed. This frees
-	 * memory for other parts of the program.
+	 * createExtractor method.
+	 * Method used to create a new extractor of this kind, with the
+	 * same owner, attributes and thresholds.
 	 */
-	final public void clearData(){
-		if (exactMinMaxRule != null){
-			exactMinMaxRule.clear();
-			exactMinMaxRule = null;
-		}
-		if (exactMinMaxSup != null){
-			exactMinMaxSup.clear();
-			exactMinMaxSup = null;
-		}
-		if (exactMinMaxCov != null){
-			exactMinMaxCov.clear();
-			exactMinMaxCov = null;
-		}
-		if (exactMinMaxDiv != null){
-			exactMinMaxDiv.clear();
-			exactMinMaxDiv = null;
-		}
-		if (exactMinMaxDis != null){
-			exactMinMaxDis.clear();
-			exactMinMaxDis = null;
-		}
-		if (allExactRule != null){
-			allExactRule.clear();
-			allExactRule = null;
-		}
-		if (allExactSup != null){
-			allExactSup.clear();
-			allExactSup = null;
-		}
-		if (allExactCov != null){
-			allExactCov.clear();
-			allExactCov = null;
-		}
-		if (allExactDiv != null){
-			allExactDiv.clear();
-			allExactDiv = null;
-		}
-		if (allExactDis != null){
-			allExactDis.clear();
-			allExactDis = null;
-		}
-		if (approxMinMaxRule != null){
-			approxMinMaxRule.clear();
-			approxMinMaxRule = null;
-		}
-		if (approxMinMaxSup != null){
-			approxMinMaxSup.clear();
-			approxMinMaxSup = null;
-		}
-		if (approxMinMaxCon != null){
-			approxMinMaxCon.clear();
-			approxMinMaxCon = null;
-		}
-		if (approxMinMaxCov != null){
-			approxMinMaxCov.clear();
-			approxMinMaxCov = null;
-		}
-		if (approxMinMaxDiv != null){
-			approxMinMaxDiv.clear();
-			approxMinMaxDiv = null;
-		}
-		if (approxMinMaxDis != null){
-			approxMinMaxDis.clear();
-			approxMinMaxDis = null;
-		}
-		if (allApproxRule != null){
-			allApproxRule.clear();
-			allApproxRule = null;
-		}
-		if (allApproxSup != null){
-			allApproxSup.clear();
-			allApproxSup = null;
-		}
-		if (allApproxCon != null){
-			allApproxCon.clear();
-			allApproxCon = null;
-		}
-		if (allApproxCov != null){
-			allApproxCov.clear();
-			allApproxCov = null;
-		}
-		if (allApproxDiv != null){
-			allApproxDiv.clear();
-			allApproxDiv = null;
-		}
-		if (allApproxDis != null){
-			allApproxDis.clear();
-			allApproxDis = null;
-		}
+	final protected RuleExtractor createExtractor(){
+		return new ModReliableRuleExtractor(ears, attNames, attLeaf, abstractAtts, MTH, LTP);
 	}
 
 	/**
-	 * runAlgorithm method.
-	 * Method that initialises and starts the running of the
-	 * association rule mining algorithms to mine the dataset
-	 * for the association rules within.
-	 */
-	final public void runAlgorithm(FCItemsetList list, float minCon, float minSup, boolean eb, boolean ee, boolean ab, boolean ae, int ac, boolean ml){
-		arl = new AssociationRuleList(((int[])attNames[1]).length);
-		fcl = list;
-		con = minCon;
-		sup = minSup;
-
-		attCount = ac;
-		multiLevel = ml;
-		
-		ops = new Operations();
-
-		if (ears != null){
-			if (eb){
-				ears.messageBox("Generating mod reliable exact basis rules");
-				exactRule();
-			}
-			if (ee){
-				ears.messageBox("Generating all exact rules");
-				exactRecon();
-			}
-			if (ab){
-				ears.messageBox("Generating min-max approximate basis rules");
-				minmaxApprox();
-			}
-			if (ae){
-				ears.messageBox("Generating all approximate rules");
-				approxRecon();
-			}
-		}
-		else if (dl != null){
-			if (eb){
-				dl.messageBox("Generating mod reliable exact basis rules");
-				exactRule();
-			}
-			if (ee){
-				dl.messageBox("Generating all exact rules");
-				exactRecon();
-			}
-			if (ab){
-				dl.messageBox("Generating min-max approximate basis rules");
-				minmaxApprox();
-			}
-			if (ae){
-				dl.messageBox("Generating all approximate rules");
-				approxRecon();
-			}
-		}
-//		printData();
-	}
-
-	/**
-	 * exactRule method.
+	 * exactBasis method.
 	 * Method used to run the algorithm for determining/extracting
 	 * the exact association basis contained within the dataset.
 	 */
-	final private void exactRule(){
+	final protected void exactBasis(){
 		exactMinMaxRule = new ArrayList();
 		exactMinMaxSup = new ArrayList();
 		exactMinMaxCov = new ArrayList();
@@ -331,9 +149,7 @@ public class ModReliableRuleExtractor{
 					basis[1] = ops.removeGen((int[])genEntry1.get(j), entry1);
 					if (!ops.rulePresent(exactMinMaxRule, (int[])basis[0], (int[])basis[1])){
 						determineCoverage(basis, 1);
-						determineDiversity(basis, 1);
 						determineDistribution(basis, 1);
-						determineDistance(basis, 1);
 						exactMinMaxRule.add(basis);
 						exactMinMaxSup.add((Float)s.get(i));
 						exactMinMaxCov.add(coverage);
@@ -357,7 +173,7 @@ public class ModReliableRuleExtractor{
 	 * Method used to run the algorithm for determining/extracting
 	 * the expanded set of exact rules based on the exact basis.
 	 */
-	final private void exactRecon(){
+	final protected void exactRecon(){
 		allExactRule = new ArrayList();
 		allExactSup = new ArrayList();
 		allExactCov = new ArrayList();
@@ -407,9 +223,7 @@ public class ModReliableRuleExtractor{
 						basis[1] = (int[])subsetList.get(j);
 						basisSupport = (Float)eMMSCopy.get(i);
 						determineCoverage(basis, 2);
-						determineDiversity(basis, 2);
 						determineDistribution(basis, 2);
-						determineDistance(basis, 2);
 						allExactRule.add(basis);
 						allExactSup.add(basisSupport);
 						allExactCov.add(coverage);
@@ -427,9 +241,7 @@ public class ModReliableRuleExtractor{
 						basis[1] = negSubset;
 						basisSupport = (Float)eMMSCopy.get(i);
 						determineCoverage(basis, 2);
-						determineDiversity(basis, 2);
 						determineDistribution(basis, 2);
-						determineDistance(basis, 2);
 						allExactRule.add(basis);
 						allExactSup.add(basisSupport);
 						allExactCov.add(coverage);
@@ -482,11 +294,11 @@ public class ModReliableRuleExtractor{
 	}
 
 	/**
-	 * minmaxApprox method.
+	 * approxBasis method.
 	 * Method used to run the algorithm for determining/extracting
 	 * the approximate min-max basis contained within the dataset.
 	 */
-	final private void minmaxApprox(){
+	final protected void approxBasis(){
 		approxMinMaxRule = new ArrayList();
 		approxMinMaxSup = new ArrayList();
 		approxMinMaxCon = new ArrayList();
@@ -520,7 +332,7 @@ public class ModReliableRuleExtractor{
 				//Go through the list of generators...
 				generator1 = (int[])((Object[])genList.get(j))[0];	//g1
 				//g1's closedItemset is a subset of f1, confidence is larger than minconf
-				if (ops.subsetNE(closedItemset1, (int[])((Object[])genList.get(j))[1]) && ((((Float)s.get(i) / (Float)supList.get(j))) >= con)){
+				if (ops.subsetNE(closedItemset1, (int[])((Object[])genList.get(j))[1]) && isInteresting(generator1, closedItemset1, (Float)s.get(i) / (Float)supList.get(j))){
 					newRule = true;
 					for (int k = 0; k < size2; k++){
 						//Go through the list of generators...
@@ -587,9 +399,7 @@ public class ModReliableRuleExtractor{
 							basisSupport = (Float)s.get(i);
 							basisConfedence = ((Float)s.get(i) / (Float)supList.get(j));
 							determineCoverage(basis, 3);
-							determineDiversity(basis, 3);
 							determineDistribution(basis, 3);
-							determineDistance(basis, 3);
 							approxMinMaxRule.add(basis);
 							approxMinMaxSup.add(basisSupport);
 							approxMinMaxCon.add(basisConfedence);
@@ -615,7 +425,7 @@ public class ModReliableRuleExtractor{
 	 * the expanded set of approximate rules based on the
 	 * approximate basis.
 	 */
-	final private void approxRecon(){
+	final protected void approxRecon(){
 		allApproxRule = new ArrayList();
 		allApproxSup = new ArrayList();
 		allApproxCon = new ArrayList();
@@ -810,9 +620,7 @@ public class ModReliableRuleExtractor{
 									ruleSupport = (Float)MinMaxApproxSupp.get(i);
 									ruleConfedence = (Float)MinMaxApproxConf.get(i);
 									determineCoverage(basis, 4);
-									determineDiversity(basis, 4);
 									determineDistribution(basis, 4);
-									determineDistance(basis, 4);
 									allApproxRule.add(basis);
 									allApproxSup.add(ruleSupport);
 									allApproxCon.add(ruleConfedence);
@@ -856,9 +664,7 @@ public class ModReliableRuleExtractor{
 							ruleSupport = rsup;
 							ruleConfedence = rcon;
 							determineCoverage(basis, 4);
-							determineDiversity(basis, 4);
 							determineDistribution(basis, 4);
-							determineDistance(basis, 4);
 							allApproxRule.add(basis);
 							allApproxSup.add(ruleSupport);
 							allApproxCon.add(ruleConfedence);
@@ -882,9 +688,7 @@ public class ModReliableRuleExtractor{
 						ruleSupport = rsup;
 						ruleConfedence = rcon;
 						determineCoverage(basis, 4);
-						determineDiversity(basis, 4);
 						determineDistribution(basis, 4);
-						determineDistance(basis, 4);
 						allApproxRule.add(basis);
 						allApproxSup.add(ruleSupport);
 						allApproxCon.add(ruleConfedence);
@@ -971,651 +775,6 @@ public class ModReliableRuleExtractor{
 		return supset;
 	}
 
-	/**
-	 * getAssocRules method.
-	 * Method used to return the discovered association rules/basis
-	 * to the parent class for further use.
-	 */
-	final public AssociationRuleList getAssocRules(){
-		return arl;
-	}
-
-	final private void determineCoverage(Object[] basis, int ruleSet){
-		int[] entry;
-		int size1, size2;
-//		coverage = new float[3];
-		ArrayList rA, rC, rR;
-		rA = new ArrayList();
-		rC = new ArrayList();
-		rR = new ArrayList();
-
-		if (attCount > 0 && !multiLevel){
-			//Any rule that falls in this category is a leaf rule as there is only one level in the dataset...
-			coverage[0] = (float)((int[])basis[0]).length / (float)attCount * (float)100;
-			coverage[1] = (float)((int[])basis[1]).length / (float)attCount * (float)100;
-			coverage[2] = ((float)((int[])basis[0]).length + ((int[])basis[1]).length) / (float)attCount * (float)100;
-			entry = (int[])basis[0];
-			size1 = entry.length;
-			for (int x = 0; x < size1; x++){
-				if (masterAntecedent.indexOf(entry[x]) == -1){
-					masterAntecedent.add(entry[x]);
-				}
-				if (masterRule.indexOf(entry[x]) == -1){
-					masterRule.add(entry[x]);
-				}
-				if (masterRuleSet.indexOf(entry[x]) == -1){
-					masterRuleSet.add(entry[x]);
-				}
-			}
-			entry = (int[])basis[1];
-			size1 = entry.length;
-			for (int x = 0; x < size1; x++){
-				if (masterConsequent.indexOf(entry[x]) == -1){
-					masterConsequent.add(entry[x]);
-				}
-				if (masterRule.indexOf(entry[x]) == -1){
-					masterRule.add(entry[x]);
-				}
-				if (masterRuleSet.indexOf(entry[x]) == -1){
-					masterRuleSet.add(entry[x]);
-				}
-			}
-			//Update the 'leaf' rule count...
-			if (ruleSet == 1){
-				ebLeaf++;
-			}
-			else if (ruleSet == 2){
-				eeLeaf++;
-			}
-			else if (ruleSet == 3){
-				abLeaf++;
-			}
-			else{
-				aeLeaf++;
-			}
-		}
-		else if (attCount > 0 && multiLevel){
-			//Rules are from a multi-level dataset...
-			//Determine if rule is a 'leaf' rule or abstract rule...
-			if (allLeaf(basis)){
-				//All items in the rule are leaves, so rule is a leaf rule...
-				if (ruleSet == 1){
-					ebLeaf++;
-				}
-				else if (ruleSet == 2){
-					eeLeaf++;
-				}
-				else if (ruleSet == 3){
-					abLeaf++;
-				}
-				else{
-					aeLeaf++;
-				}
-				coverage[0] = (float)((int[])basis[0]).length / (float)attCount * (float)100;
-				coverage[1] = (float)((int[])basis[1]).length / (float)attCount * (float)100;
-				coverage[2] = ((float)((int[])basis[0]).length + ((int[])basis[1]).length) / (float)attCount * (float)100;
-				//Antecedent...
-				entry = (int[])basis[0];
-				size1 = entry.length;
-				for (int x = 0; x < size1; x++){
-					if (masterAntecedent.indexOf(entry[x]) == -1){
-						masterAntecedent.add(entry[x]);
-					}
-					if (masterRule.indexOf(entry[x]) == -1){
-						masterRule.add(entry[x]);
-					}
-					if (masterRuleSet.indexOf(entry[x]) == -1){
-						masterRuleSet.add(entry[x]);
-					}
-				}
-				//Consequent...
-				entry = (int[])basis[1];
-				size1 = entry.length;
-				for (int x = 0; x < size1; x++){
-					if (masterConsequent.indexOf(entry[x]) == -1){
-						masterConsequent.add(entry[x]);
-					}
-					if (masterRule.indexOf(entry[x]) == -1){
-						masterRule.add(entry[x]);
-					}
-					if (masterRuleSet.indexOf(entry[x]) == -1){
-						masterRuleSet.add(entry[x]);
-					}
-				}
-			}
-			else{
-				//At least one item in the rule is abstract (non leaf)...
-				//This means that the rule is abstract...
-				if (ruleSet == 1){
-					ebAbstract++;
-				}
-				else if (ruleSet == 2){
-					eeAbstract++;
-				}
-				else if (ruleSet == 3){
-					abAbstract++;
-				}
-				else{
-					aeAbstract++;
-				}
-				//Antecedent...
-				entry = (int[])basis[0];
-				size1 = entry.length;
-				for (int x = 0; x < size1; x++){
-					if (ops.present((int[])attLeaf[1], entry[x])){
-						//Attribute matched exactly, so this item is a leaf...
-						if (masterAbstractRule.indexOf(entry[x]) == -1){
-							masterAbstractRule.add(entry[x]);
-						}
-						if (masterAbstractRuleSet.indexOf(entry[x]) == -1){
-							masterAbstractRuleSet.add(entry[x]);
-						}
-						if (rA.indexOf(entry[x]) == -1){
-							rA.add(entry[x]);
-						}
-						if (rR.indexOf(entry[x]) == -1){
-							rR.add(entry[x]);
-						}
-						if (masterAntecedent.indexOf(entry[x]) == -1){
-							masterAntecedent.add(entry[x]);
-						}
-						if (masterRule.indexOf(entry[x]) == -1){
-							masterRule.add(entry[x]);
-						}
-						if (masterRuleSet.indexOf(entry[x]) == -1){
-							masterRuleSet.add(entry[x]);
-						}
-					}
-					else{
-						//No match, attribute is abstract (not a leaf)...
-						size2 = ((int[])attLeaf[1]).length;
-						for (int y = 0; y < size2; y++){
-							if (ops.present((int[])((Object[])attLeaf[2])[y], entry[x])){
-								if (masterAbstractRule.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterAbstractRule.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterAbstractRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterAbstractRuleSet.add(((int[])attLeaf[1])[y]);
-								}
-								if (rA.indexOf(((int[])attLeaf[1])[y]) == -1){
-									rA.add(((int[])attLeaf[1])[y]);
-								}
-								if (rR.indexOf(((int[])attLeaf[1])[y]) == -1){
-									rR.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterAntecedent.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterAntecedent.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterRule.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterRule.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterRuleSet.add(((int[])attLeaf[1])[y]);
-								}
-							}
-						}
-					}
-				}
-				//Consequent...
-				entry = (int[])basis[1];
-				size1 = entry.length;
-				for (int x = 0; x < size1; x++){
-					if (ops.present((int[])attLeaf[1], entry[x])){
-						//Attribute matched exactly, so this item is a leaf...
-						if (masterAbstractRule.indexOf(entry[x]) == -1){
-							masterAbstractRule.add(entry[x]);
-						}
-						if (masterAbstractRuleSet.indexOf(entry[x]) == -1){
-							masterAbstractRuleSet.add(entry[x]);
-						}
-						if (rC.indexOf(entry[x]) == -1){
-							rC.add(entry[x]);
-						}
-						if (rR.indexOf(entry[x]) == -1){
-							rR.add(entry[x]);
-						}
-						if (masterConsequent.indexOf(entry[x]) == -1){
-							masterConsequent.add(entry[x]);
-						}
-						if (masterRule.indexOf(entry[x]) == -1){
-							masterRule.add(entry[x]);
-						}
-						if (masterRuleSet.indexOf(entry[x]) == -1){
-							masterRuleSet.add(entry[x]);
-						}
-					}
-					else{
-						//No match, attribute is abstract (not a leaf)...
-						size2 = ((int[])attLeaf[1]).length;
-						for (int y = 0; y < size2; y++){
-							if (ops.present((int[])((Object[])attLeaf[2])[y], entry[x])){
-								if (masterAbstractRule.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterAbstractRule.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterAbstractRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterAbstractRuleSet.add(((int[])attLeaf[1])[y]);
-								}
-								if (rC.indexOf(((int[])attLeaf[1])[y]) == -1){
-									rC.add(((int[])attLeaf[1])[y]);
-								}
-								if (rC.indexOf(((int[])attLeaf[1])[y]) == -1){
-									rC.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterConsequent.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterConsequent.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterRule.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterRule.add(((int[])attLeaf[1])[y]);
-								}
-								if (masterRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
-									masterRuleSet.add(((int[])attLeaf[1])[y]);
-								}
-							}
-						}
-					}
-				}
-				coverage[0] = (float)rA.size() / (float)attCount * (float)100;
-				coverage[1] = (float)rC.size() / (float)attCount * (float)100;
-				coverage[2] = ((float)rA.size() + rC.size()) / (float)attCount * (float)100;
-			}
-		}
-		else{
-			coverage[0] = -1;
-			coverage[1] = -1;
-			coverage[2] = -1;
-		}
-	}
-	
-	final private void determineDistribution(Object[] basis, int ruleSet){
-		int size, index, node;
-		int[] p;
-		int[] attIDs = (int[])attNames[1];
-		p = (int[])basis[0];
-		size = p.length;
-		for (int i = 0; i< size; i++){
-			node = p[i];
-			index = ops.present(attIDs, node, 1);
-			arl.updateNodeFreqs(index, ruleSet, 1);
-		}
-		p = (int[])basis[1];
-		size = p.length;
-		for (int i = 0; i< size; i++){
-			node = p[i];
-			index = ops.present(attIDs, node, 2);
-			arl.updateNodeFreqs(index, ruleSet, 2);
-		}
-	}
-	
-	final private void determineDistance(Object[] basis, int ruleset){
-		int length;
-		float d1 = 0, d2 = 0, d3 = 0, dist = 0;
-		float[] r2;
-		Object[] rule2;
-		if (ruleset == 1){
-			//Exact basis...
-			length = exactMinMaxRule.size();
-			for (int i = 0; i < length; i++){
-				//Calculate the distance between R1 & R2...
-				rule2 = (Object[])exactMinMaxRule.get(i);
-				//Calculate X1Y1 - X2Y2...
-				d1 = determineDiversity(ops.xor(ops.unionRule((int[])basis[0], (int[])basis[1]), ops.unionRule((int[])rule2[0], (int[])rule2[1])));
-				//Calculate X1 - X2...
-				d2 = determineDiversity(ops.xor((int[])basis[0], (int[])rule2[0]));
-				//Calculate Y1 - Y2...
-				d3 = determineDiversity(ops.xor((int[])basis[1], (int[])rule2[1]));
-				//Calculate the distance...
-				dist = d1 + d2 + d3;
-				
-				//Update the distance for R1...
-				distance[0] = distance[0] + d1;
-				distance[1] = distance[1] + d2;
-				distance[2] = distance[2] + d3;
-				distance[3] = distance[3] + dist;
-				//Update the distance for R2...
-				r2 = (float[])exactMinMaxDis.get(i);
-				r2[0] = r2[0] + d1;
-				r2[1] = r2[1] + d2;
-				r2[2] = r2[2] + d3;
-				r2[3] = r2[3] + dist;
-				exactMinMaxDis.set(i, r2);
-			}
-		}
-		else if (ruleset == 2){
-			//Exact expanded...
-			length = allExactRule.size();
-			if (length > 0){
-				for (int i = 0; i < length; i++){
-					//Calculate the distance between R1 & R2...
-					rule2 = (Object[])allExactRule.get(i);
-					//Calculate X1Y1 - X2Y2...
-					d1 = determineDiversity(ops.xor(ops.unionRule((int[])basis[0], (int[])basis[1]), ops.unionRule((int[])rule2[0], (int[])rule2[1])));
-					//Calculate X1 - X2...
-					d2 = determineDiversity(ops.xor((int[])basis[0], (int[])rule2[0]));
-					//Calculate Y1 - Y2...
-					d3 = determineDiversity(ops.xor((int[])basis[1], (int[])rule2[1]));
-					//Calculate the distance...
-					dist = d1 + d2 + d3;
-
-					//Update the distance for R1...
-					distance[0] = distance[0] + d1;
-					distance[1] = distance[1] + d2;
-					distance[2] = distance[2] + d3;
-					distance[3] = distance[3] + dist;
-					//Update the distance for R2...
-					r2 = (float[])allExactDis.get(i);
-					r2[0] = r2[0] + d1;
-					r2[1] = r2[1] + d2;
-					r2[2] = r2[2] + d3;
-					r2[3] = r2[3] + dist;
-					allExactDis.set(i, r2);
-				}
-			}
-			else{
-				//First rule for this set, so init distance to 0...
-				distance[0] = 0;
-				distance[1] = 0;
-				distance[2] = 0;
-				distance[3] = 0;
-			}
-		}
-		else if (ruleset == 3){
-			//Approx basis...
-			length = approxMinMaxRule.size();
-			for (int i = 0; i < length; i++){
-				//Calculate the distance between R1 & R2...
-				rule2 = (Object[])approxMinMaxRule.get(i);
-				//Calculate X1Y1 - X2Y2...
-				d1 = determineDiversity(ops.xor(ops.unionRule((int[])basis[0], (int[])basis[1]), ops.unionRule((int[])rule2[0], (int[])rule2[1])));
-				//Calculate X1 - X2...
-				d2 = determineDiversity(ops.xor((int[])basis[0], (int[])rule2[0]));
-				//Calculate Y1 - Y2...
-				d3 = determineDiversity(ops.xor((int[])basis[1], (int[])rule2[1]));
-				//Calculate the distance...
-				dist = d1 + d2 + d3;
-				
-				//Update the distance for R1...
-				distance[0] = distance[0] + d1;
-				distance[1] = distance[1] + d2;
-				distance[2] = distance[2] + d3;
-				distance[3] = distance[3] + dist;
-				//Update the distance for R2...
-				r2 = (float[])approxMinMaxDis.get(i);
-				r2[0] = r2[0] + d1;
-				r2[1] = r2[1] + d2;
-				r2[2] = r2[2] + d3;
-				r2[3] = r2[3] + dist;
-				approxMinMaxDis.set(i, r2);
-			}
-		}
-		else{
-			//Approx expanded...
-			length = allApproxRule.size();
-			for (int i = 0; i < length; i++){
-				//Calculate the distance between R1 & R2...
-				rule2 = (Object[])allApproxRule.get(i);
-				//Calculate X1Y1 - X2Y2...
-				d1 = determineDiversity(ops.xor(ops.unionRule((int[])basis[0], (int[])basis[1]), ops.unionRule((int[])rule2[0], (int[])rule2[1])));
-				//Calculate X1 - X2...
-				d2 = determineDiversity(ops.xor((int[])basis[0], (int[])rule2[0]));
-				//Calculate Y1 - Y2...
-				d3 = determineDiversity(ops.xor((int[])basis[1], (int[])rule2[1]));
-				//Calculate the distance...
-				dist = d1 + d2 + d3;
-				
-				//Update the distance for R1...
-				distance[0] = distance[0] + d1;
-				distance[1] = distance[1] + d2;
-				distance[2] = distance[2] + d3;
-				distance[3] = distance[3] + dist;
-				//Update the distance for R2...
-				r2 = (float[])allApproxDis.get(i);
-				r2[0] = r2[0] + d1;
-				r2[1] = r2[1] + d2;
-				r2[2] = r2[2] + d3;
-				r2[3] = r2[3] + dist;
-				allApproxDis.set(i, r2);
-			}
-		}
-	}
-
-	final private float determineDiversity(int[] basis){
-		int l1 = basis.length;
-		if (l1 == 0){
-			return (float)0.0;
-		}
-		else if (l1 == 1){
-			return (float)1.0;
-		}
-		else{
-			String[] items = new String[l1];
-			int index;
-			for (int i = 0; i < l1; i++){
-				index = ops.present((int[])attNames[1], basis[i], 1);
-				if (index != -1){
-					items[i] = ((String[])attNames[0])[index];
-				}
-			}
-			String[] node1, node2;
-			int level1, level2, count = 0, len = items.length;
-			int d1, d2;
-			float ldsum = 0, chrsum = 0;
-			for (int i = 0; i < len; i++){
-				node1 = items[i].split("-");
-				level1 = node1.length;
-				for (int j = i + 1; j < len; j++){
-					node2 = items[j].split("-");
-					level2 = node2.length;
-					//Calculate LD (Level Distance/Diversity)...
-					ldsum = ldsum + (float)(Math.abs(level1 - level2)) / (float)(MTH - 1);
-					//Calculate CHR (Closeness of Hierarchical Relationship)...
-					d1 = level1;
-					d2 = level2;
-					if (node1[0].equals(node2[0])){
-						//The two nodes have an ancestor in common...
-						d1--;
-						d2--;
-						int runs;
-						if (level1 <= level2){
-							runs = level1;
-						}
-						else{
-							runs = level2;
-						}
-						for (int k = 1; k < runs; k++){
-							if (node1[k].equals(node2[k])){
-								//Still common ancestor...
-								d1--;
-								d2--;
-							}
-							else{
-								//No longer common ancestor...
-								break;
-							}
-						}
-					}
-					else{
-						//The two nodes have no ancestor in common...
-					}
-					chrsum = chrsum + ((float)1 - (((float)MTH - ((float)(d1 + d2) / (float)2)) / (float)MTH));
-					count++;
-				}
-			}
-			ldsum = ldsum / (float)count;
-			chrsum = chrsum / (float)count;
-			return (((float)0.5 * ldsum) + ((float)0.5 * chrsum));
-		}
-	}
-	
-	final private float calculateDistance(int[] items){
-		float result = 0, dist = 0;
-		int d1, d2, m, t, index;
-		String[] n1, n2;
-		int level1, level2, runs, length = items.length;
-		if (length == 0){
-			return (float)0.0;
-		}
-		else if (length == 1){
-			return (float)1.0;
-		}
-		else{
-			for (int i = 0; i < length; i++){
-				//Get the name of the first item...
-				index = ops.present((int[])attNames[1], items[i], 1);
-				if (index != -1){
-					n1 = ((String[])attNames[0])[index].split("-");
-					for (int j = (i + 1); j < length; j++){
-						//Get the name of the second item...
-						index = ops.present((int[])attNames[1], items[j], 1);
-						if (index != -1){
-							n2 = ((String[])attNames[0])[index].split("-");
-							//Determine the distance between these two items...
-							level1 = n1.length;
-							level2 = n2.length;
-							d1 = level1;
-							d2 = level2;
-							if (n1.equals(n2)){
-								//The two items have a common ancestor...
-								d1--;
-								d2--;
-
-								if (level1 <= level2){
-									runs = level1;
-								}
-								else{
-									runs = level2;
-								}
-								for (int k = 1; k < runs; k++){
-									if (n1[k].equals(n2[k])){
-										//Still common ancestor...
-										d1--;
-										d2--;
-									}
-									else{
-										//No longer common ancestor...
-										break;
-									}
-								}
-
-								if (d1 > d2){
-									m = d1;
-								}
-								else{
-									m = d2;
-								}
-								t = d1 + d2;
-								dist = (float)1 - ((float)1 / (float)(((m + t) + 1) / 2));
-							}
-							else{
-								//The two items have no common ancestor, therefore distance is one...
-								dist = 1;
-							}
-							//Sum up the new distance...
-							result = result + dist;
-						}
-						else{
-							dist = 1;
-						}
-					}
-				}
-				else{
-					dist = 1;
-				}
-			}
-			result = result / (float)(length * (length - 1));
-			return result;
-		}
-	}
-	
-	final private void determineDiversity(Object[] basis, int ruleSet){
-		diversity[0] = 0;
-		diversity[1] = 0;
-		diversity[2] = 0;
-		String[] items = new String[((int[])basis[0]).length + ((int[])basis[1]).length];
-		int[] part = (int[])basis[0];
-		int l1 = part.length, l2;
-		int index;
-		for (int i = 0; i < l1; i++){
-			index = ops.present((int[])attNames[1], part[i], 1);
-			if (index != -1){
-				items[i] = ((String[])attNames[0])[index];
-			}
-		}
-
-		part = (int[])basis[1];
-		l2 = part.length;
-		for (int i = 0; i < l2; i++){
-			index = ops.present((int[])attNames[1], part[i], 1);
-			if (index != -1){
-				items[l1 + i] = ((String[])attNames[0])[index];
-			}
-		}
-		
-		String[] node1, node2;
-		int level1, level2, count = 0, len = items.length;
-		int d1, d2;
-		float ldsum = 0, chrsum = 0;
-		for (int i = 0; i < len; i++){
-			node1 = items[i].split("-");
-			level1 = node1.length;
-			for (int j = i + 1; j < len; j++){
-				node2 = items[j].split("-");
-				level2 = node2.length;
-				//Calculate LD (Level Distance/Diversity)...
-				ldsum = ldsum + (float)(Math.abs(level1 - level2)) / (float)(MTH - 1);
-				//Calculate CHR (Closeness of Hierarchical Relationship)...
-				d1 = level1;
-				d2 = level2;
-				if (node1[0].equals(node2[0])){
-					//The two nodes have an ancestor in common...
-					d1--;
-					d2--;
-					int runs;
-					if (level1 <= level2){
-						runs = level1;
-					}
-					else{
-						runs = level2;
-					}
-					for (int k = 1; k < runs; k++){
-						if (node1[k].equals(node2[k])){
-							//Still common ancestor...
-							d1--;
-							d2--;
-						}
-						else{
-							//No longer common ancestor...
-							break;
-						}
-					}
-				}
-				else{
-					//The two nodes have no ancestor in common...
-				}
-				chrsum = chrsum + ((float)1 - (((float)MTH - ((float)(d1 + d2) / (float)2)) / (float)MTH));
-				count++;
-			}
-		}
-		ldsum = ldsum / (float)count;
-		chrsum = chrsum / (float)count;
-		diversity[0] = ldsum;
-		diversity[1] = chrsum;
-		diversity[2] = (float)0.5 * ldsum + (float)0.5 * chrsum;
-	}
-
-	final private boolean allLeaf(Object[] rule){
-		int[] part;
-
-		part = (int[])rule[0];
-		if (!ops.subset((int[])attLeaf[1], part)){
-			return false;
-		}
-		part = (int[])rule[1];
-		if (!ops.subset((int[])attLeaf[1], part)){
-			return false;
-		}
-		return true;
-	}
-
 	final private int[] getGeneratorItems(){
 		ArrayList items = new ArrayList();
 		int[] itemset, itemlist;
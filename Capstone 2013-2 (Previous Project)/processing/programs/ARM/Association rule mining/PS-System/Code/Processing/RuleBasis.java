@@ -0,0 +1,58 @@
+/**
+ * RuleBasis interface.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of interface.
+ */
+package Processing;
+
+import java.util.ArrayList;
+
+import Processing.RuleMetrics;
+
+public interface RuleBasis{
+
+	/**
+	 * extractRuleSet method.
+	 * Method used to extract one of the rule sets: the exact basis
+	 * (1), all of the exact rules (2), the approximate basis (3) or
+	 * all of the approximate rules (4). All of the exact and all of
+	 * the approximate rules are found from the exact basis. The
+	 * diversity and distance of the rules are filled in once the rule
+	 * set is complete.
+	 */
+	public void extractRuleSet(int ruleSet);
+
+	/**
+	 * createWorker method.
+	 * Method used to create a second extractor over the same frequent
+	 * closed itemsets, settings and rule list, with its own work
+	 * space, so that a rule set can be extracted at the same time as
+	 * another.
+	 */
+	public RuleBasis createWorker();
+
+	/**
+	 * getRuleSet method.
+	 * Method used to get the lists of a rule set (1 to 4): its rules,
+	 * supports, confidences (null for exact rules), coverage,
+	 * diversity and distance.
+	 */
+	public ArrayList[] getRuleSet(int ruleSet);
+
+	/**
+	 * setRuleSet method.
+	 * Method used to hold the lists of a rule set (1 to 4) extracted
+	 * by another extractor, in the order given by getRuleSet.
+	 */
+	public void setRuleSet(int ruleSet, ArrayList[] lists);
+
+	/**
+	 * getMetrics method.
+	 * Method used to get the diversity and distance measures over the
+	 * attributes of the dataset.
+	 */
+	public RuleMetrics getMetrics();
+}
\ No newline at end of file
@@ -0,0 +1,203 @@
+/**
+ * RuleExtractionBenchmark class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import Processing.ClosedItemsetBenchmark;
+import Processing.DirectClosedAlgorithm;
+import Processing.ExtractAssociationRules;
+import Processing.MinMaxAssociationRuleExtractor;
+import Processing.ReliableRuleExtractor;
+import Processing.RuleExtractionEngine;
+
+import Data.AssociationRuleList;
+import Data.FCItemsetList;
+import Data.TransRecords;
+
+public class RuleExtractionBenchmark{
+
+	/**
+	 * main method.
+	 * Method used to time the extraction of all four rule sets (with
+	 * their coverage, diversity and distance) from the frequent
+	 * closed itemsets of a data file at decreasing minimum supports,
+	 * by the min-max and reliable extractors, on one thread and on
+	 * every processor, and to check that both give the same rules.
+	 * Run with: java Processing.RuleExtractionBenchmark [data file] [min support ...]
+	 * The data file defaults to the mushroom-bin data (from the Build
+	 * directory) and its .names file must be alongside it.
+	 */
+	public static void main(String[] args){
+		String dataFile = "../../mushroom-bin.data";
+		float[] minSups = {0.6f, 0.5f, 0.45f, 0.4f};
+		if (args.length > 0){
+			dataFile = args[0];
+		}
+		if (args.length > 1){
+			minSups = new float[args.length - 1];
+			for (int i = 1; i < args.length; i++){
+				minSups[i - 1] = Float.valueOf(args[i]).floatValue();
+			}
+		}
+		TransRecords tr = ClosedItemsetBenchmark.loadData(dataFile);
+		if (tr == null){
+			System.out.println("Unable to load data file: " + dataFile);
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		System.out.println(dataFile + ": " + tr.getNumberRecs() + " transactions, " + tr.getIDs().length + " items, " + threads + " processors");
+		Object[] attNames = attributes(tr, false);
+		Object[] attLeaf = attributes(tr, true);
+		int attCount = ((int[])attLeaf[1]).length;
+		ExtractAssociationRules ears = new ExtractAssociationRules(attCount, false, attNames, attLeaf, tr.getAbstractTable(), tr.getMTH(), tr.getLTP());
+		BuildFrequentClosedItemsets bfci = new BuildFrequentClosedItemsets(null, null, tr);
+		//Warm up both extractors at the highest min support...
+		run(tr, ears, bfci, attNames, attLeaf, attCount, minSups[0], threads, false);
+		System.out.println("MinSup\tClosed\tExtractor\tRules\t1 thread ms\t" + threads + " threads ms\tSpeedup\tSame");
+		for (int i = 0; i < minSups.length; i++){
+			run(tr, ears, bfci, attNames, attLeaf, attCount, minSups[i], threads, true);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * run method.
+	 * Method used to mine the closed itemsets at one min support and
+	 * time the extraction of their rules by each extractor.
+	 */
+	final private static void run(TransRecords tr, ExtractAssociationRules ears, BuildFrequentClosedItemsets bfci, Object[] attNames, Object[] attLeaf,
+									int attCount, float minSup, int threads, boolean print){
+		DirectClosedAlgorithm dca = new DirectClosedAlgorithm(bfci);
+		dca.runAlgorithm(tr, 0.5f, minSup);
+		FCItemsetList fcl = dca.getFreqClosed();
+		long[] time = new long[2];
+		AssociationRuleList[] rules = new AssociationRuleList[2];
+		String[] names = {"MinMax", "Reliable"};
+		for (int i = 0; i < names.length; i++){
+			for (int j = 0; j < 2; j++){
+				RuleExtractionEngine engine;
+				if (j == 0){
+					engine = new RuleExtractionEngine(1);
+				}
+				else{
+					engine = new RuleExtractionEngine(threads);
+				}
+				System.gc();
+				long t0 = System.nanoTime();
+				if (i == 0){
+					MinMaxAssociationRuleExtractor mmare = new MinMaxAssociationRuleExtractor(ears, attNames, attLeaf, tr.getMTH(), tr.getLTP());
+					mmare.setEngine(engine);
+					mmare.runAlgorithm(fcl, 0.5f, minSup, true, true, true, true, attCount, false);
+					rules[j] = mmare.getAssocRules();
+				}
+				else{
+					ReliableRuleExtractor rere = new ReliableRuleExtractor(ears, attNames, attLeaf, tr.getMTH(), tr.getLTP());
+					rere.setEngine(engine);
+					rere.runAlgorithm(fcl, 0.5f, minSup, true, true, true, true, attCount, false);
+					rules[j] = rere.getAssocRules();
+				}
+				time[j] = Math.max(1, (System.nanoTime() - t0) / 1000000);
+			}
+			if (print){
+				int count = rules[1].getExactMinMaxBasisSize() + rules[1].getExactAllSize() + rules[1].getApproxMinMaxBasisSize() + rules[1].getApproxAllSize();
+				System.out.println(minSup + "\t" + fcl.getTotalFreqClosed() + "\t" + names[i] + "\t" + count + "\t" + time[0] + "\t" + time[1] + "\t" +
+									String.format("%.1f", (float)time[0] / (float)time[1]) + "x\t" + sameRules(rules[0], rules[1]));
+			}
+		}
+		dca.clearData();
+	}
+
+	/**
+	 * sameRules method.
+	 * Method used to check that two rule lists hold the same rules,
+	 * supports, diversity and distance in the same order.
+	 */
+	final private static boolean sameRules(AssociationRuleList list1, AssociationRuleList list2){
+		return sameSet(list1.getExactMinMaxBasis(), list1.getExactMinMaxBasisSup(), list1.getExactMinMaxBasisDiv(), list1.getExactMinMaxBasisDis(),
+							list2.getExactMinMaxBasis(), list2.getExactMinMaxBasisSup(), list2.getExactMinMaxBasisDiv(), list2.getExactMinMaxBasisDis()) &&
+				sameSet(list1.getExactAll(), list1.getExactAllSup(), list1.getExactAllDiv(), list1.getExactAllDis(),
+							list2.getExactAll(), list2.getExactAllSup(), list2.getExactAllDiv(), list2.getExactAllDis()) &&
+				sameSet(list1.getApproxMinMaxBasis(), list1.getApproxMinMaxBasisSup(), list1.getApproxMinMaxBasisDiv(), list1.getApproxMinMaxBasisDis(),
+							list2.getApproxMinMaxBasis(), list2.getApproxMinMaxBasisSup(), list2.getApproxMinMaxBasisDiv(), list2.getApproxMinMaxBasisDis()) &&
+				sameSet(list1.getApproxAll(), list1.getApproxAllSup(), list1.getApproxAllDiv(), list1.getApproxAllDis(),
+							list2.getApproxAll(), list2.getApproxAllSup(), list2.getApproxAllDiv(), list2.getApproxAllDis());
+	}
+
+	final private static boolean sameSet(ArrayList r1, ArrayList s1, ArrayList dv1, ArrayList ds1, ArrayList r2, ArrayList s2, ArrayList dv2, ArrayList ds2){
+		if (r1.size() != r2.size()){
+			return false;
+		}
+		for (int i = 0; i < r1.size(); i++){
+			Object[] rule1 = (Object[])r1.get(i);
+			Object[] rule2 = (Object[])r2.get(i);
+			if (!Arrays.equals((int[])rule1[0], (int[])rule2[0]) || !Arrays.equals((int[])rule1[1], (int[])rule2[1]) || !s1.get(i).equals(s2.get(i)) ||
+					!Arrays.equals((float[])dv1.get(i), (float[])dv2.get(i)) || !Arrays.equals((float[])ds1.get(i), (float[])ds2.get(i))){
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * attributes method.
+	 * Method used to get the names, IDs and ancestors of the
+	 * attributes of the transaction records, or of only the leaf
+	 * attributes (those that are not an ancestor of another), as the
+	 * frequent itemset builder passes them to the rule extractors.
+	 */
+	final private static Object[] attributes(TransRecords tr, boolean leaves){
+		String[] names = tr.getNames();
+		int[] ids = tr.getIDs();
+		int n1 = names.length;
+		int[][] match = new int[n1][];
+		for (int i = 0; i < n1; i++){
+			match[i] = tr.getAncestors(ids[i]);
+		}
+		boolean[] keep = new boolean[n1];
+		Arrays.fill(keep, true);
+		if (leaves){
+			for (int i = 0; i < n1; i++){
+				for (int j = 0; j < match.length && keep[i]; j++){
+					for (int k = 0; i != j && k < match[j].length; k++){
+						if (match[j][k] == ids[i]){
+							//Item at i is an ancestor of the item at j...
+							keep[i] = false;
+							break;
+						}
+					}
+				}
+			}
+		}
+		ArrayList tname = new ArrayList();
+		ArrayList tid = new ArrayList();
+		ArrayList tmatch = new ArrayList();
+		for (int i = 0; i < n1; i++){
+			if (keep[i]){
+				tname.add(names[i]);
+				tid.add(ids[i]);
+				tmatch.add(match[i]);
+			}
+		}
+		String[] name = new String[tname.size()];
+		int[] id = new int[tname.size()];
+		Object[] ancestors = new Object[tname.size()];
+		for (int i = 0; i < name.length; i++){
+			name[i] = (String)tname.get(i);
+			id[i] = (Integer)tid.get(i);
+			ancestors[i] = tmatch.get(i);
+		}
+		Object[] atts = new Object[3];
+		atts[0] = name;
+		atts[1] = id;
+		atts[2] = ancestors;
+		return atts;
+	}
+}
\ No newline at end of file
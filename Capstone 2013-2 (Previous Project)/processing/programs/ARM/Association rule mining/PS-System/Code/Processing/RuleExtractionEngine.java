@@ -0,0 +1,120 @@
+/**
+ * RuleExtractionEngine class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import Processing.RuleBasis;
+import Processing.RuleMetrics;
+
+public class RuleExtractionEngine{
+
+	private int threads;
+
+	/**
+	 * RuleExtractionEngine method.
+	 * Constructor.
+	 * Method used to set up the engine to run on every processor.
+	 */
+	public RuleExtractionEngine(){
+		threads = Runtime.getRuntime().availableProcessors();
+	}
+
+	/**
+	 * RuleExtractionEngine method.
+	 * Constructor.
+	 * Method used to set up the engine to run on a number of threads
+	 * (one runs every stage in turn).
+	 */
+	public RuleExtractionEngine(int t){
+		threads = Math.max(1, t);
+	}
+
+	/**
+	 * runAlgorithm method.
+	 * Method used to extract the chosen rule sets with a rule basis
+	 * (a rule extractor) and then measure them. The exact rules are
+	 * extracted by the extractor at the same time as the approximate
+	 * rules are extracted by a worker created from it: first the two
+	 * bases, then all of the exact rules and all of the approximate
+	 * rules, which need the exact basis. The extractor then holds
+	 * the rule sets of the worker, and the diversity and distance of
+	 * the rules of each rule set are measured in parallel.
+	 */
+	final public void runAlgorithm(RuleBasis extractor, boolean eb, boolean ee, boolean ab, boolean ae){
+		RuleBasis worker = extractor.createWorker();
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try{
+			run(pool, extractor, eb ? 1 : 0, worker, ab ? 3 : 0);
+			if (eb){
+				//All of the approximate rules are checked against the exact basis...
+				worker.setRuleSet(1, extractor.getRuleSet(1));
+			}
+			run(pool, extractor, ee ? 2 : 0, worker, ae ? 4 : 0);
+			if (ab){
+				extractor.setRuleSet(3, worker.getRuleSet(3));
+			}
+			if (ae){
+				extractor.setRuleSet(4, worker.getRuleSet(4));
+			}
+			boolean[] extracted = {eb, ee, ab, ae};
+			RuleMetrics metrics = extractor.getMetrics();
+			ArrayList[] lists;
+			for (int i = 0; i < extracted.length; i++){
+				if (extracted[i]){
+					lists = extractor.getRuleSet(i + 1);
+					metrics.measureRuleSet(pool, lists[0], lists[4], lists[5]);
+				}
+			}
+		}
+		finally{
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * run method.
+	 * Method used to extract a rule set with each of two rule bases
+	 * at the same time (no rule set is extracted for 0).
+	 */
+	final private void run(ForkJoinPool pool, RuleBasis basis1, int ruleSet1, RuleBasis basis2, int ruleSet2){
+		ExtractTask task1 = new ExtractTask(basis1, ruleSet1);
+		ExtractTask task2 = new ExtractTask(basis2, ruleSet2);
+		pool.execute(task1);
+		pool.execute(task2);
+		task1.join();
+		task2.join();
+	}
+
+	/**
+	 * ExtractTask class.
+	 * The extraction of one rule set by a rule basis.
+	 */
+	private static class ExtractTask extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		private RuleBasis basis;
+
+		private int ruleSet;
+
+		ExtractTask(RuleBasis b, int r){
+			basis = b;
+			ruleSet = r;
+		}
+
+		protected void compute(){
+			if (ruleSet != 0){
+				basis.extractRuleSet(ruleSet);
+			}
+		}
+	}
+}
\ No newline at end of file
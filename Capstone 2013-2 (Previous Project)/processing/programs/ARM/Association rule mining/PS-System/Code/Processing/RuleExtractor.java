@@ -0,0 +1,767 @@
+/**
+ * RuleExtractor class.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ */
+package Processing;
+
+import java.util.ArrayList;
+
+import Processing.ExtractAssociationRules;
+import Processing.DataLoader;
+import Processing.Operations;
+import Processing.RuleMetrics;
+import Processing.RuleBasis;
+import Processing.RuleExtractionEngine;
+import Processing.RuleInterestingness;
+import Processing.ConfidenceInterestingness;
+
+import Data.FCItemsetList;
+import Data.AssociationRuleList;
+
+public abstract class RuleExtractor implements RuleBasis{
+
+	protected ExtractAssociationRules ears;
+
+	protected DataLoader dl;
+
+	protected Operations ops;
+
+	protected RuleMetrics metrics;
+
+	private RuleExtractionEngine engine;
+
+	protected RuleInterestingness interestingness = new ConfidenceInterestingness();
+
+	protected FCItemsetList fcl;
+
+	protected AssociationRuleList arl;
+
+	protected ArrayList exactMinMaxRule, exactMinMaxSup, exactMinMaxCov, exactMinMaxDiv, exactMinMaxDis;
+
+	protected ArrayList allExactRule, allExactSup, allExactCov, allExactDiv, allExactDis;
+
+	protected ArrayList approxMinMaxRule, approxMinMaxSup, approxMinMaxCon, approxMinMaxCov, approxMinMaxDiv, approxMinMaxDis;
+
+	protected ArrayList allApproxRule, allApproxSup, allApproxCon, allApproxCov, allApproxDiv, allApproxDis;
+
+	protected ArrayList masterAntecedent, masterConsequent, masterRule, masterAbstractRule;
+
+	protected ArrayList masterRuleSet, masterAbstractRuleSet;
+
+	protected Object[] attNames, attLeaf;
+
+	protected Object[] basis;
+
+	protected float[] coverage, diversity, distance;
+
+	protected float con, sup;
+
+	protected int attCount, MTH, LTP;
+
+	protected int ebLeaf = 0, eeLeaf = 0, abLeaf = 0, aeLeaf = 0;
+
+	protected int ebAbstract = 0, eeAbstract = 0, abAbstract = 0, aeAbstract = 0;
+
+	protected boolean multiLevel;
+
+	private String basisName;
+
+	/**
+	 * RuleExtractor method.
+	 * Constructor.
+	 * Initialises this class and sets up a link to the object/class
+	 * that called this class. This allows this class to access its
+	 * parent and use methods contained within it (mainly to report
+	 * back to the user while running). The name of the basis is
+	 * used in the messages to the user.
+	 */
+	public RuleExtractor(String name, ExtractAssociationRules owner, Object[] names, Object[] leaves, int h, int l){
+		basisName = name;
+		ears = owner;
+		attNames = names;
+		attLeaf = leaves;
+		MTH = h;
+		LTP = l;
+	}
+
+	/**
+	 * RuleExtractor method.
+	 * Constructor.
+	 * Default constructor used when extracting association rules from
+	 * a data file which contains multiple datasets and thus results will
+	 * not be going to the GUI.
+	 */
+	public RuleExtractor(String name, DataLoader owner){
+		basisName = name;
+		dl = owner;
+	}
+
+	/**
+	 * clearData method.
+	 * Method used to clear the data, variables and objects held
+	 * by this class when they are no longer needed. This frees
+	 * memory for other parts of the program.
+	 */
+	final public void clearData(){
+		if (exactMinMaxRule != null){
+			exactMinMaxRule.clear();
+			exactMinMaxRule = null;
+		}
+		if (exactMinMaxSup != null){
+			exactMinMaxSup.clear();
+			exactMinMaxSup = null;
+		}
+		if (exactMinMaxCov != null){
+			exactMinMaxCov.clear();
+			exactMinMaxCov = null;
+		}
+		if (exactMinMaxDiv != null){
+			exactMinMaxDiv.clear();
+			exactMinMaxDiv = null;
+		}
+		if (exactMinMaxDis != null){
+			exactMinMaxDis.clear();
+			exactMinMaxDis = null;
+		}
+		if (allExactRule != null){
+			allExactRule.clear();
+			allExactRule = null;
+		}
+		if (allExactSup != null){
+			allExactSup.clear();
+			allExactSup = null;
+		}
+		if (allExactCov != null){
+			allExactCov.clear();
+			allExactCov = null;
+		}
+		if (allExactDiv != null){
+			allExactDiv.clear();
+			allExactDiv = null;
+		}
+		if (allExactDis != null){
+			allExactDis.clear();
+			allExactDis = null;
+		}
+		if (approxMinMaxRule != null){
+			approxMinMaxRule.clear();
+			approxMinMaxRule = null;
+		}
+		if (approxMinMaxSup != null){
+			approxMinMaxSup.clear();
+			approxMinMaxSup = null;
+		}
+		if (approxMinMaxCon != null){
+			approxMinMaxCon.clear();
+			approxMinMaxCon = null;
+		}
+		if (approxMinMaxCov != null){
+			approxMinMaxCov.clear();
+			approxMinMaxCov = null;
+		}
+		if (approxMinMaxDiv != null){
+			approxMinMaxDiv.clear();
+			approxMinMaxDiv = null;
+		}
+		if (approxMinMaxDis != null){
+			approxMinMaxDis.clear();
+			approxMinMaxDis = null;
+		}
+		if (allApproxRule != null){
+			allApproxRule.clear();
+			allApproxRule = null;
+		}
+		if (allApproxSup != null){
+			allApproxSup.clear();
+			allApproxSup = null;
+		}
+		if (allApproxCon != null){
+			allApproxCon.clear();
+			allApproxCon = null;
+		}
+		if (allApproxCov != null){
+			allApproxCov.clear();
+			allApproxCov = null;
+		}
+		if (allApproxDiv != null){
+			allApproxDiv.clear();
+			allApproxDiv = null;
+		}
+		if (allApproxDis != null){
+			allApproxDis.clear();
+			allApproxDis = null;
+		}
+	}
+
+	/**
+	 * runAlgorithm method.
+	 * Method that initialises and starts the running of the
+	 * association rule mining algorithms to mine the dataset
+	 * for the association rules within.
+	 */
+	final public void runAlgorithm(FCItemsetList list, float minCon, float minSup, boolean eb, boolean ee, boolean ab, boolean ae, int ac, boolean ml){
+		arl = new AssociationRuleList(((int[])attNames[1]).length);
+		fcl = list;
+		con = minCon;
+		sup = minSup;
+
+		attCount = ac;
+		multiLevel = ml;
+
+		ops = new Operations();
+		metrics = new RuleMetrics(attNames, MTH);
+
+		if (engine == null){
+			engine = new RuleExtractionEngine();
+		}
+		if (ears != null || dl != null){
+			engine.runAlgorithm(this, eb, ee, ab, ae);
+		}
+	}
+
+	/**
+	 * setEngine method.
+	 * Method used to set the engine that runs the extraction, in
+	 * place of one running on every processor.
+	 */
+	final public void setEngine(RuleExtractionEngine e){
+		engine = e;
+	}
+
+	/**
+	 * setInterestingness method.
+	 * Method used to set the measure that decides which candidate
+	 * rules are kept in the approximate basis, in place of their
+	 * confidence.
+	 */
+	final public void setInterestingness(RuleInterestingness i){
+		interestingness = i;
+	}
+
+	/**
+	 * extractRuleSet method.
+	 * Method used to extract one of the rule sets: the exact basis
+	 * (1), all of the exact rules (2), the approximate basis (3) or
+	 * all of the approximate rules (4).
+	 */
+	final public void extractRuleSet(int ruleSet){
+		if (ruleSet == 1){
+			messageBox("Generating " + basisName + " exact basis rules");
+			exactBasis();
+		}
+		else if (ruleSet == 2){
+			messageBox("Generating all exact rules");
+			exactRecon();
+		}
+		else if (ruleSet == 3){
+			messageBox("Generating min-max approximate basis rules");
+			approxBasis();
+		}
+		else if (ruleSet == 4){
+			messageBox("Generating all approximate rules");
+			approxRecon();
+		}
+	}
+
+	/**
+	 * exactBasis method.
+	 * Method used to run the algorithm for determining/extracting
+	 * the exact basis contained within the dataset.
+	 */
+	abstract protected void exactBasis();
+
+	/**
+	 * exactRecon method.
+	 * Method used to run the algorithm for determining/extracting
+	 * the expanded set of exact rules based on the exact basis.
+	 */
+	abstract protected void exactRecon();
+
+	/**
+	 * approxBasis method.
+	 * Method used to run the algorithm for determining/extracting
+	 * the approximate basis contained within the dataset, keeping
+	 * the candidate rules found interesting.
+	 */
+	abstract protected void approxBasis();
+
+	/**
+	 * approxRecon method.
+	 * Method used to run the algorithm for determining/extracting
+	 * the expanded set of approximate rules based on the
+	 * approximate basis.
+	 */
+	abstract protected void approxRecon();
+
+	/**
+	 * createExtractor method.
+	 * Method used to create a new extractor of the same kind, with
+	 * the same owner, attributes and thresholds.
+	 */
+	abstract protected RuleExtractor createExtractor();
+
+	/**
+	 * createWorker method.
+	 * Method used to create a second extractor over the same frequent
+	 * closed itemsets, settings and rule list, with its own work
+	 * space, so that the approximate rules can be extracted at the
+	 * same time as the exact rules.
+	 */
+	final public RuleBasis createWorker(){
+		RuleExtractor worker = createExtractor();
+		worker.dl = dl;
+		worker.interestingness = interestingness;
+		worker.arl = arl;
+		worker.fcl = fcl;
+		worker.con = con;
+		worker.sup = sup;
+		worker.attCount = attCount;
+		worker.multiLevel = multiLevel;
+		worker.ops = new Operations();
+		worker.metrics = new RuleMetrics(attNames, MTH);
+		return worker;
+	}
+
+	/**
+	 * getRuleSet method.
+	 * Method used to get the lists of a rule set (1 to 4): its rules,
+	 * supports, confidences (null for exact rules), coverage,
+	 * diversity and distance.
+	 */
+	final public ArrayList[] getRuleSet(int ruleSet){
+		if (ruleSet == 1){
+			return new ArrayList[]{exactMinMaxRule, exactMinMaxSup, null, exactMinMaxCov, exactMinMaxDiv, exactMinMaxDis};
+		}
+		else if (ruleSet == 2){
+			return new ArrayList[]{allExactRule, allExactSup, null, allExactCov, allExactDiv, allExactDis};
+		}
+		else if (ruleSet == 3){
+			return new ArrayList[]{approxMinMaxRule, approxMinMaxSup, approxMinMaxCon, approxMinMaxCov, approxMinMaxDiv, approxMinMaxDis};
+		}
+		else{
+			return new ArrayList[]{allApproxRule, allApproxSup, allApproxCon, allApproxCov, allApproxDiv, allApproxDis};
+		}
+	}
+
+	/**
+	 * setRuleSet method.
+	 * Method used to hold the lists of a rule set (1 to 4) extracted
+	 * by another extractor.
+	 */
+	final public void setRuleSet(int ruleSet, ArrayList[] lists){
+		if (ruleSet == 1){
+			exactMinMaxRule = lists[0];
+			exactMinMaxSup = lists[1];
+			exactMinMaxCov = lists[3];
+			exactMinMaxDiv = lists[4];
+			exactMinMaxDis = lists[5];
+		}
+		else if (ruleSet == 2){
+			allExactRule = lists[0];
+			allExactSup = lists[1];
+			allExactCov = lists[3];
+			allExactDiv = lists[4];
+			allExactDis = lists[5];
+		}
+		else if (ruleSet == 3){
+			approxMinMaxRule = lists[0];
+			approxMinMaxSup = lists[1];
+			approxMinMaxCon = lists[2];
+			approxMinMaxCov = lists[3];
+			approxMinMaxDiv = lists[4];
+			approxMinMaxDis = lists[5];
+		}
+		else{
+			allApproxRule = lists[0];
+			allApproxSup = lists[1];
+			allApproxCon = lists[2];
+			allApproxCov = lists[3];
+			allApproxDiv = lists[4];
+			allApproxDis = lists[5];
+		}
+	}
+
+	/**
+	 * getMetrics method.
+	 * Method used to get the diversity and distance measures over the
+	 * attributes of the dataset.
+	 */
+	final public RuleMetrics getMetrics(){
+		return metrics;
+	}
+
+	/**
+	 * messageBox method.
+	 * Method used to pass a message back to the owner of this class.
+	 */
+	final protected void messageBox(String message){
+		if (ears != null){
+			ears.messageBox(message);
+		}
+		else if (dl != null){
+			dl.messageBox(message);
+		}
+	}
+
+	/**
+	 * getAssocRules method.
+	 * Method used to return the discovered association rules/basis
+	 * to the parent class for further use.
+	 */
+	final public AssociationRuleList getAssocRules(){
+		return arl;
+	}
+
+	/**
+	 * isInteresting method.
+	 * Method used to decide whether the candidate approximate rule
+	 * from a generator to a closed itemset is kept, given its
+	 * confidence.
+	 */
+	final protected boolean isInteresting(int[] generator, int[] closedItemset, float confidence){
+		return interestingness.isInteresting(this, generator, closedItemset, confidence, con);
+	}
+
+	/**
+	 * measureCoverage method.
+	 * Method used to measure the coverage of a candidate rule from a
+	 * generator to a closed itemset, without counting the rule in
+	 * the coverage of its rule set.
+	 */
+	final float[] measureCoverage(int[] generator, int[] closedItemset){
+		Object[] rule = new Object[2];
+		rule[0] = generator;
+		rule[1] = ops.removeGen(generator, closedItemset);
+		coverage = new float[3];
+		determineCoverage(rule, 3, false);
+		return coverage;
+	}
+
+	/**
+	 * measureDiversity method.
+	 * Method used to measure the diversity of a candidate rule from a
+	 * generator to a closed itemset.
+	 */
+	final float[] measureDiversity(int[] generator, int[] closedItemset){
+		float[] d = new float[3];
+		metrics.determineDiversity(generator, ops.removeGen(generator, closedItemset), d);
+		return d;
+	}
+
+	/**
+	 * determineCoverage method.
+	 * Method used to determine the coverage of a rule and count it
+	 * in the coverage of its rule set.
+	 */
+	final protected void determineCoverage(Object[] basis, int ruleSet){
+		determineCoverage(basis, ruleSet, true);
+	}
+
+	/**
+	 * determineCoverage method.
+	 * Method used to determine the coverage of a rule, counting it
+	 * in the coverage of its rule set only when asked to.
+	 */
+	final private void determineCoverage(Object[] basis, int ruleSet, boolean count){
+		int[] entry;
+		int size1, size2;
+//		coverage = new float[3];
+		ArrayList rA, rC, rR;
+		rA = new ArrayList();
+		rC = new ArrayList();
+		rR = new ArrayList();
+
+		if (attCount > 0 && !multiLevel){
+			//Any rule that falls in this category is a leaf rule as there is only one level in the dataset...
+			coverage[0] = (float)((int[])basis[0]).length / (float)attCount * (float)100;
+			coverage[1] = (float)((int[])basis[1]).length / (float)attCount * (float)100;
+			coverage[2] = ((float)((int[])basis[0]).length + ((int[])basis[1]).length) / (float)attCount * (float)100;
+			if (count){
+				entry = (int[])basis[0];
+				size1 = entry.length;
+				for (int x = 0; x < size1; x++){
+					if (masterAntecedent.indexOf(entry[x]) == -1){
+						masterAntecedent.add(entry[x]);
+					}
+					if (masterRule.indexOf(entry[x]) == -1){
+						masterRule.add(entry[x]);
+					}
+					if (masterRuleSet.indexOf(entry[x]) == -1){
+						masterRuleSet.add(entry[x]);
+					}
+				}
+				entry = (int[])basis[1];
+				size1 = entry.length;
+				for (int x = 0; x < size1; x++){
+					if (masterConsequent.indexOf(entry[x]) == -1){
+						masterConsequent.add(entry[x]);
+					}
+					if (masterRule.indexOf(entry[x]) == -1){
+						masterRule.add(entry[x]);
+					}
+					if (masterRuleSet.indexOf(entry[x]) == -1){
+						masterRuleSet.add(entry[x]);
+					}
+				}
+				//Update the 'leaf' rule count...
+				if (ruleSet == 1){
+					ebLeaf++;
+				}
+				else if (ruleSet == 2){
+					eeLeaf++;
+				}
+				else if (ruleSet == 3){
+					abLeaf++;
+				}
+				else{
+					aeLeaf++;
+				}
+			}
+		}
+		else if (attCount > 0 && multiLevel){
+			//Rules are from a multi-level dataset...
+			//Determine if rule is a 'leaf' rule or abstract rule...
+			if (allLeaf(basis)){
+				//All items in the rule are leaves, so rule is a leaf rule...
+				coverage[0] = (float)((int[])basis[0]).length / (float)attCount * (float)100;
+				coverage[1] = (float)((int[])basis[1]).length / (float)attCount * (float)100;
+				coverage[2] = ((float)((int[])basis[0]).length + ((int[])basis[1]).length) / (float)attCount * (float)100;
+				if (count){
+					if (ruleSet == 1){
+						ebLeaf++;
+					}
+					else if (ruleSet == 2){
+						eeLeaf++;
+					}
+					else if (ruleSet == 3){
+						abLeaf++;
+					}
+					else{
+						aeLeaf++;
+					}
+					//Antecedent...
+					entry = (int[])basis[0];
+					size1 = entry.length;
+					for (int x = 0; x < size1; x++){
+						if (masterAntecedent.indexOf(entry[x]) == -1){
+							masterAntecedent.add(entry[x]);
+						}
+						if (masterRule.indexOf(entry[x]) == -1){
+							masterRule.add(entry[x]);
+						}
+						if (masterRuleSet.indexOf(entry[x]) == -1){
+							masterRuleSet.add(entry[x]);
+						}
+					}
+					//Consequent...
+					entry = (int[])basis[1];
+					size1 = entry.length;
+					for (int x = 0; x < size1; x++){
+						if (masterConsequent.indexOf(entry[x]) == -1){
+							masterConsequent.add(entry[x]);
+						}
+						if (masterRule.indexOf(entry[x]) == -1){
+							masterRule.add(entry[x]);
+						}
+						if (masterRuleSet.indexOf(entry[x]) == -1){
+							masterRuleSet.add(entry[x]);
+						}
+					}
+				}
+			}
+			else{
+				//At least one item in the rule is abstract (non leaf)...
+				//This means that the rule is abstract...
+				if (count){
+					if (ruleSet == 1){
+						ebAbstract++;
+					}
+					else if (ruleSet == 2){
+						eeAbstract++;
+					}
+					else if (ruleSet == 3){
+						abAbstract++;
+					}
+					else{
+						aeAbstract++;
+					}
+				}
+				//Antecedent...
+				entry = (int[])basis[0];
+				size1 = entry.length;
+				for (int x = 0; x < size1; x++){
+					if (ops.present((int[])attLeaf[1], entry[x])){
+						//Attribute matched exactly, so this item is a leaf...
+						if (rA.indexOf(entry[x]) == -1){
+							rA.add(entry[x]);
+						}
+						if (rR.indexOf(entry[x]) == -1){
+							rR.add(entry[x]);
+						}
+						if (count){
+							if (masterAbstractRule.indexOf(entry[x]) == -1){
+								masterAbstractRule.add(entry[x]);
+							}
+							if (masterAbstractRuleSet.indexOf(entry[x]) == -1){
+								masterAbstractRuleSet.add(entry[x]);
+							}
+							if (masterAntecedent.indexOf(entry[x]) == -1){
+								masterAntecedent.add(entry[x]);
+							}
+							if (masterRule.indexOf(entry[x]) == -1){
+								masterRule.add(entry[x]);
+							}
+							if (masterRuleSet.indexOf(entry[x]) == -1){
+								masterRuleSet.add(entry[x]);
+							}
+						}
+					}
+					else{
+						//No match, attribute is abstract (not a leaf)...
+						size2 = ((int[])attLeaf[1]).length;
+						for (int y = 0; y < size2; y++){
+							if (ops.present((int[])((Object[])attLeaf[2])[y], entry[x])){
+								if (rA.indexOf(((int[])attLeaf[1])[y]) == -1){
+									rA.add(((int[])attLeaf[1])[y]);
+								}
+								if (rR.indexOf(((int[])attLeaf[1])[y]) == -1){
+									rR.add(((int[])attLeaf[1])[y]);
+								}
+								if (count){
+									if (masterAbstractRule.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterAbstractRule.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterAbstractRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterAbstractRuleSet.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterAntecedent.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterAntecedent.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterRule.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterRule.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterRuleSet.add(((int[])attLeaf[1])[y]);
+									}
+								}
+							}
+						}
+					}
+				}
+				//Consequent...
+				entry = (int[])basis[1];
+				size1 = entry.length;
+				for (int x = 0; x < size1; x++){
+					if (ops.present((int[])attLeaf[1], entry[x])){
+						//Attribute matched exactly, so this item is a leaf...
+						if (rC.indexOf(entry[x]) == -1){
+							rC.add(entry[x]);
+						}
+						if (rR.indexOf(entry[x]) == -1){
+							rR.add(entry[x]);
+						}
+						if (count){
+							if (masterAbstractRule.indexOf(entry[x]) == -1){
+								masterAbstractRule.add(entry[x]);
+							}
+							if (masterAbstractRuleSet.indexOf(entry[x]) == -1){
+								masterAbstractRuleSet.add(entry[x]);
+							}
+							if (masterConsequent.indexOf(entry[x]) == -1){
+								masterConsequent.add(entry[x]);
+							}
+							if (masterRule.indexOf(entry[x]) == -1){
+								masterRule.add(entry[x]);
+							}
+							if (masterRuleSet.indexOf(entry[x]) == -1){
+								masterRuleSet.add(entry[x]);
+							}
+						}
+					}
+					else{
+						//No match, attribute is abstract (not a leaf)...
+						size2 = ((int[])attLeaf[1]).length;
+						for (int y = 0; y < size2; y++){
+							if (ops.present((int[])((Object[])attLeaf[2])[y], entry[x])){
+								if (rC.indexOf(((int[])attLeaf[1])[y]) == -1){
+									rC.add(((int[])attLeaf[1])[y]);
+								}
+								if (rC.indexOf(((int[])attLeaf[1])[y]) == -1){
+									rC.add(((int[])attLeaf[1])[y]);
+								}
+								if (count){
+									if (masterAbstractRule.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterAbstractRule.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterAbstractRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterAbstractRuleSet.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterConsequent.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterConsequent.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterRule.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterRule.add(((int[])attLeaf[1])[y]);
+									}
+									if (masterRuleSet.indexOf(((int[])attLeaf[1])[y]) == -1){
+										masterRuleSet.add(((int[])attLeaf[1])[y]);
+									}
+								}
+							}
+						}
+					}
+				}
+				coverage[0] = (float)rA.size() / (float)attCount * (float)100;
+				coverage[1] = (float)rC.size() / (float)attCount * (float)100;
+				coverage[2] = ((float)rA.size() + rC.size()) / (float)attCount * (float)100;
+			}
+		}
+		else{
+			coverage[0] = -1;
+			coverage[1] = -1;
+			coverage[2] = -1;
+		}
+	}
+
+	/**
+	 * determineDistribution method.
+	 * Method used to count the items of a rule in the node
+	 * distribution of its rule set.
+	 */
+	final protected void determineDistribution(Object[] basis, int ruleSet){
+		int size, index, node;
+		int[] p;
+		int[] attIDs = (int[])attNames[1];
+		p = (int[])basis[0];
+		size = p.length;
+		for (int i = 0; i< size; i++){
+			node = p[i];
+			index = ops.present(attIDs, node, 1);
+			arl.updateNodeFreqs(index, ruleSet, 1);
+		}
+		p = (int[])basis[1];
+		size = p.length;
+		for (int i = 0; i< size; i++){
+			node = p[i];
+			index = ops.present(attIDs, node, 2);
+			arl.updateNodeFreqs(index, ruleSet, 2);
+		}
+	}
+
+	final private boolean allLeaf(Object[] rule){
+		int[] part;
+
+		part = (int[])rule[0];
+		if (!ops.subset((int[])attLeaf[1], part)){
+			return false;
+		}
+		part = (int[])rule[1];
+		if (!ops.subset((int[])attLeaf[1], part)){
+			return false;
+		}
+		return true;
+	}
+}
\ No newline at end of file
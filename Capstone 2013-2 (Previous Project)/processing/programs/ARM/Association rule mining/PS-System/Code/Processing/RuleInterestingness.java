@@ -0,0 +1,23 @@
+/**
+ * RuleInterestingness interface.
+ *
+ * @version 1.0
+ *
+ * Log:
+ *		  1.0 Start version of interface.
+ */
+package Processing;
+
+import Processing.RuleExtractor;
+
+public interface RuleInterestingness{
+
+	/**
+	 * isInteresting method.
+	 * Method used to decide whether a candidate approximate basis
+	 * rule, from a generator to a closed itemset, is kept by a rule
+	 * extractor, given the confidence of the rule and the minimum
+	 * confidence set by the user.
+	 */
+	public boolean isInteresting(RuleExtractor extractor, int[] generator, int[] closedItemset, float confidence, float minCon);
+}
\ No newline at end of file
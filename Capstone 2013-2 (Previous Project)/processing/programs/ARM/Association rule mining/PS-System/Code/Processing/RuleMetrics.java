@@ -0,0 +1,436 @@
+/**
+ * RuleMetrics class.
+ *
+ * @version 1.1
+ *
+ * Log:
+ *		  1.0 Start version of class.
+ *		  1.1 Rule sets measured in parallel once complete.
+ */
+package Processing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class RuleMetrics{
+
+	//Position of each item ID in the attribute names...
+	private int[] itemIndex;
+
+	//Hierarchy level and path (node names as numbers) of each attribute...
+	private int[] level;
+
+	private int[][] path;
+
+	private int MTH;
+
+	//Work space of the rules measured one at a time...
+	private Measure measure;
+
+	/**
+	 * RuleMetrics method.
+	 * Constructor.
+	 * Method used to set up the diversity and distance measures of
+	 * the rules over the attributes of a dataset (names and IDs) with
+	 * a maximum tree height. Each attribute name is split into its
+	 * path of nodes once, rather than each time two items are
+	 * compared.
+	 */
+	public RuleMetrics(Object[] names, int h){
+		String[] attNames = (String[])names[0];
+		int[] attIDs = (int[])names[1];
+		int count = attIDs.length;
+		MTH = h;
+		int maxID = 0;
+		for (int i = 0; i < count; i++){
+			if (attIDs[i] > maxID){
+				maxID = attIDs[i];
+			}
+		}
+		itemIndex = new int[maxID + 1];
+		for (int i = 0; i <= maxID; i++){
+			itemIndex[i] = -1;
+		}
+		//Go backwards so that the first position of an ID is kept...
+		for (int i = count - 1; i >= 0; i--){
+			if (attIDs[i] >= 0){
+				itemIndex[attIDs[i]] = i;
+			}
+		}
+		HashMap nodes = new HashMap();
+		String[] node;
+		Integer n;
+		level = new int[count];
+		path = new int[count][];
+		for (int i = 0; i < count; i++){
+			node = attNames[i].split("-");
+			level[i] = node.length;
+			path[i] = new int[node.length];
+			for (int j = 0; j < node.length; j++){
+				n = (Integer)nodes.get(node[j]);
+				if (n == null){
+					n = nodes.size();
+					nodes.put(node[j], n);
+				}
+				path[i][j] = n;
+			}
+		}
+		measure = new Measure();
+	}
+
+	/**
+	 * determineDiversity method.
+	 * Method used to determine the diversity of a rule over all of
+	 * the pairs of its items, as the level distance (0), the
+	 * closeness of hierarchical relationship (1) and their average
+	 * (2).
+	 */
+	final public void determineDiversity(int[] antecedent, int[] consequent, float[] diversity){
+		measure.diversity(positions(antecedent), positions(consequent), diversity);
+	}
+
+	/**
+	 * measureRuleSet method.
+	 * Method used to determine the diversity and distance of every
+	 * rule of a complete rule set, filling in the diversity and
+	 * distance held for each rule. The distance of a rule is summed
+	 * over every other rule in the set, as the diversity of the items
+	 * in only one of the two rules (0), in only one of the two
+	 * antecedents (1), in only one of the two consequents (2) and the
+	 * sum of these (3). The rules are split into blocks that are
+	 * measured at the same time on the pool. Each pair is measured
+	 * from both of its rules so that a block only writes the totals
+	 * of its own rules, and each total is summed in rule set order
+	 * with the later rule of a pair as R1, as when the rules were
+	 * measured one by one while being extracted.
+	 */
+	final public void measureRuleSet(ForkJoinPool pool, ArrayList rules, ArrayList diversities, ArrayList distances){
+		int length = rules.size();
+		if (length == 0){
+			return;
+		}
+		//Find the attribute positions of every rule once...
+		int[][] antecedents = new int[length][];
+		int[][] consequents = new int[length][];
+		Object[] rule;
+		for (int i = 0; i < length; i++){
+			rule = (Object[])rules.get(i);
+			antecedents[i] = positions((int[])rule[0]);
+			consequents[i] = positions((int[])rule[1]);
+		}
+		int blocks = Math.min(length, pool.getParallelism() * 4);
+		BlockTask[] tasks = new BlockTask[blocks];
+		for (int i = 0; i < blocks; i++){
+			tasks[i] = new BlockTask(antecedents, consequents, diversities, distances, (int)((long)length * i / blocks), (int)((long)length * (i + 1) / blocks));
+			pool.execute(tasks[i]);
+		}
+		for (int i = 0; i < blocks; i++){
+			tasks[i].join();
+		}
+	}
+
+	/**
+	 * positions method.
+	 * Method used to get the attribute positions of the items of a
+	 * part of a rule, in the same order.
+	 */
+	final private int[] positions(int[] part){
+		int[] p = new int[part.length];
+		for (int i = 0; i < part.length; i++){
+			p[i] = position(part[i]);
+		}
+		return p;
+	}
+
+	/**
+	 * position method.
+	 * Method used to get the position of an item in the attribute
+	 * names. Every item of a rule must be a named attribute.
+	 */
+	final private int position(int item){
+		int p = -1;
+		if (item >= 0 && item < itemIndex.length){
+			p = itemIndex[item];
+		}
+		if (p == -1){
+			throw new IllegalArgumentException("Item " + item + " is not a named attribute");
+		}
+		return p;
+	}
+
+	final private static boolean isSet(long[] bits, int p){
+		return (bits[p >>> 6] & (1L << p)) != 0;
+	}
+
+	final private static void setBits(long[] bits, int[] positions){
+		for (int i = 0; i < positions.length; i++){
+			bits[positions[i] >>> 6] |= 1L << positions[i];
+		}
+	}
+
+	final private static void clearBits(long[] bits, int[] positions){
+		for (int i = 0; i < positions.length; i++){
+			bits[positions[i] >>> 6] &= ~(1L << positions[i]);
+		}
+	}
+
+	/**
+	 * Measure class.
+	 * The work space used to measure rules on one thread: a bitset
+	 * (by attribute position) of each part of the two rules being
+	 * compared, so each comparison only looks at the items of the two
+	 * rules and creates no new sets, and the attribute positions of
+	 * the set being measured.
+	 */
+	private class Measure{
+
+		private long[] x1Bits, y1Bits, x2Bits, y2Bits;
+
+		private int[] set;
+
+		private int setSize;
+
+		private float ldSum, chrSum;
+
+		private int pairCount;
+
+		Measure(){
+			int words = (level.length + 63) >>> 6;
+			x1Bits = new long[words];
+			y1Bits = new long[words];
+			x2Bits = new long[words];
+			y2Bits = new long[words];
+			set = new int[16];
+		}
+
+		/**
+		 * diversity method.
+		 * Method used to determine the diversity of a rule (as
+		 * attribute positions).
+		 */
+		final void diversity(int[] x, int[] y, float[] diversity){
+			setSize = 0;
+			for (int i = 0; i < x.length; i++){
+				addToSet(x[i]);
+			}
+			for (int i = 0; i < y.length; i++){
+				addToSet(y[i]);
+			}
+			sumPairs();
+			ldSum = ldSum / (float)pairCount;
+			chrSum = chrSum / (float)pairCount;
+			diversity[0] = ldSum;
+			diversity[1] = chrSum;
+			diversity[2] = (float)0.5 * ldSum + (float)0.5 * chrSum;
+		}
+
+		/**
+		 * distance method.
+		 * Method used to determine the distance between two rules (as
+		 * attribute positions), R1 and R2, as the diversity of the
+		 * items in only one of the two rules (0), in only one of the
+		 * two antecedents (1) and in only one of the two consequents
+		 * (2).
+		 */
+		final void distance(int[] x1, int[] y1, int[] x2, int[] y2, float[] d){
+			setBits(x1Bits, x1);
+			setBits(y1Bits, y1);
+			setBits(x2Bits, x2);
+			setBits(y2Bits, y2);
+			//Calculate X1Y1 - X2Y2...
+			setSize = 0;
+			for (int j = 0; j < x1.length; j++){
+				if (!isSet(x2Bits, x1[j]) && !isSet(y2Bits, x1[j])){
+					addToSet(x1[j]);
+				}
+			}
+			for (int j = 0; j < y1.length; j++){
+				//The union does not repeat consequent items that are in the antecedent...
+				if (!isSet(x1Bits, y1[j]) && !isSet(x2Bits, y1[j]) && !isSet(y2Bits, y1[j])){
+					addToSet(y1[j]);
+				}
+			}
+			for (int j = 0; j < x2.length; j++){
+				if (!isSet(x1Bits, x2[j]) && !isSet(y1Bits, x2[j])){
+					addToSet(x2[j]);
+				}
+			}
+			for (int j = 0; j < y2.length; j++){
+				if (!isSet(x2Bits, y2[j]) && !isSet(x1Bits, y2[j]) && !isSet(y1Bits, y2[j])){
+					addToSet(y2[j]);
+				}
+			}
+			d[0] = setDiversity();
+			//Calculate X1 - X2...
+			setSize = 0;
+			for (int j = 0; j < x1.length; j++){
+				if (!isSet(x2Bits, x1[j])){
+					addToSet(x1[j]);
+				}
+			}
+			for (int j = 0; j < x2.length; j++){
+				if (!isSet(x1Bits, x2[j])){
+					addToSet(x2[j]);
+				}
+			}
+			d[1] = setDiversity();
+			//Calculate Y1 - Y2...
+			setSize = 0;
+			for (int j = 0; j < y1.length; j++){
+				if (!isSet(y2Bits, y1[j])){
+					addToSet(y1[j]);
+				}
+			}
+			for (int j = 0; j < y2.length; j++){
+				if (!isSet(y1Bits, y2[j])){
+					addToSet(y2[j]);
+				}
+			}
+			d[2] = setDiversity();
+			clearBits(x1Bits, x1);
+			clearBits(y1Bits, y1);
+			clearBits(x2Bits, x2);
+			clearBits(y2Bits, y2);
+		}
+
+		/**
+		 * setDiversity method.
+		 * Method used to determine the diversity of the items in the
+		 * set, which is 0 for no items and 1 for a single item.
+		 */
+		final private float setDiversity(){
+			if (setSize == 0){
+				return (float)0.0;
+			}
+			else if (setSize == 1){
+				return (float)1.0;
+			}
+			sumPairs();
+			ldSum = ldSum / (float)pairCount;
+			chrSum = chrSum / (float)pairCount;
+			return (((float)0.5 * ldSum) + ((float)0.5 * chrSum));
+		}
+
+		/**
+		 * sumPairs method.
+		 * Method used to sum the level distance (LD) and closeness of
+		 * hierarchical relationship (CHR) of each pair of items in the
+		 * set, in order.
+		 */
+		final private void sumPairs(){
+			int[] node1, node2;
+			int level1, level2, runs;
+			int d1, d2;
+			ldSum = 0;
+			chrSum = 0;
+			pairCount = 0;
+			for (int i = 0; i < setSize; i++){
+				node1 = path[set[i]];
+				level1 = level[set[i]];
+				for (int j = i + 1; j < setSize; j++){
+					node2 = path[set[j]];
+					level2 = level[set[j]];
+					//Calculate LD (Level Distance/Diversity)...
+					ldSum = ldSum + (float)(Math.abs(level1 - level2)) / (float)(MTH - 1);
+					//Calculate CHR (Closeness of Hierarchical Relationship)...
+					d1 = level1;
+					d2 = level2;
+					if (node1[0] == node2[0]){
+						//The two nodes have an ancestor in common...
+						d1--;
+						d2--;
+						if (level1 <= level2){
+							runs = level1;
+						}
+						else{
+							runs = level2;
+						}
+						for (int k = 1; k < runs; k++){
+							if (node1[k] == node2[k]){
+								//Still common ancestor...
+								d1--;
+								d2--;
+							}
+							else{
+								//No longer common ancestor...
+								break;
+							}
+						}
+					}
+					chrSum = chrSum + ((float)1 - (((float)MTH - ((float)(d1 + d2) / (float)2)) / (float)MTH));
+					pairCount++;
+				}
+			}
+		}
+
+		final private void addToSet(int p){
+			if (setSize == set.length){
+				int[] bigger = new int[setSize * 2];
+				System.arraycopy(set, 0, bigger, 0, setSize);
+				set = bigger;
+			}
+			set[setSize] = p;
+			setSize++;
+		}
+	}
+
+	/**
+	 * BlockTask class.
+	 * The measuring of a block of rules (from the first rule up to
+	 * but not including the last) against every rule of the set.
+	 */
+	private class BlockTask extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		//Attribute positions of the antecedent and consequent of every rule of the set...
+		private int[][] antecedents, consequents;
+
+		private ArrayList diversities, distances;
+
+		private int first, last;
+
+		BlockTask(int[][] x, int[][] y, ArrayList divs, ArrayList dists, int f, int l){
+			antecedents = x;
+			consequents = y;
+			diversities = divs;
+			distances = dists;
+			first = f;
+			last = l;
+		}
+
+		protected void compute(){
+			Measure m = new Measure();
+			float[] d = new float[3];
+			float[] distance;
+			float dist;
+			int length = antecedents.length;
+			for (int i = first; i < last; i++){
+				m.diversity(antecedents[i], consequents[i], (float[])diversities.get(i));
+				distance = (float[])distances.get(i);
+				distance[0] = 0;
+				distance[1] = 0;
+				distance[2] = 0;
+				distance[3] = 0;
+				for (int j = 0; j < length; j++){
+					if (j < i){
+						m.distance(antecedents[i], consequents[i], antecedents[j], consequents[j], d);
+					}
+					else if (j > i){
+						m.distance(antecedents[j], consequents[j], antecedents[i], consequents[i], d);
+					}
+					else{
+						continue;
+					}
+					dist = d[0] + d[1] + d[2];
+					distance[0] = distance[0] + d[0];
+					distance[1] = distance[1] + d[1];
+					distance[2] = distance[2] + d[2];
+					distance[3] = distance[3] + dist;
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -114,11 +114,17 @@ public class PatternCounter {
 
     /**
      * Reads closed itemsets and their support values from text files generated
-     * by ARM.
+     * by ARM. The TSV file is read when ARM has written one, otherwise the
+     * report is parsed.
      * @throws FileNotFoundException
      * @throws IOException 
      */
     private void readItemsets() throws FileNotFoundException, IOException {
+        File tsvFile = new File(armDirectory + "\\FrequentClosedItemsets-2.tsv");
+        if (tsvFile.exists()) {
+            readItemsetsTSV(tsvFile);
+            return;
+        }
         BufferedReader reader = new BufferedReader(new FileReader(armDirectory + "\\FrequentClosedItemsets-2.txt"));
         String line = "";
 
@@ -146,6 +152,29 @@ public class PatternCounter {
         System.out.println("Read in " + itemsets.size() + " patterns & pattern weights");
     }
 
+    /**
+     * Reads closed itemsets and their support values from a TSV file
+     * generated by ARM: a header line, then one closed itemset per line with
+     * its items, generators and support separated by tabs.
+     * @param tsvFile
+     * @throws FileNotFoundException
+     * @throws IOException 
+     */
+    private void readItemsetsTSV(File tsvFile) throws FileNotFoundException, IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(tsvFile));
+        // skip header line
+        String line = reader.readLine();
+
+        while ((line = reader.readLine()) != null) {
+            String[] columns = line.split("\t");
+            if (columns.length == 3 && !columns[0].isEmpty()) {
+                itemsets.add(new ClosedPattern(columns[0], new BigDecimal(columns[2])));
+            }
+        }
+        reader.close();
+        System.out.println("Read in " + itemsets.size() + " patterns & pattern weights");
+    }
+
     /**
      * Ignores closed itemsets that are one single word, unless the number of
      * remaining itemsets would be less than MIN_ITEMSETS.
@@ -18,13 +18,29 @@ public class CapstoneDBConnection {
     private static final String USER = "root";
     private static final String PASS = "password";
 
+    // The schema the capstone tables are kept in
+    private static final String DEFAULT_SCHEMA = "capstone";
+
     private static Statement statement;
     private static Connection con;
 
+    private final String schema;
+
     /**
      * Create connection to the capstone database
      */
     public CapstoneDBConnection() {
+        this(DEFAULT_SCHEMA);
+    }
+
+    /**
+     * Create connection to the database server, keeping the capstone tables in another schema
+     *
+     * @param schema the schema to create and use in place of capstone
+     */
+    public CapstoneDBConnection(String schema) {
+        this.schema = schema;
+
         try {
             // Register JDBC driver
             Class.forName(JDBC_DRIVER);
@@ -46,6 +62,15 @@ public class CapstoneDBConnection {
         return con;
     }
 
+    /**
+     * Returns the schema the capstone tables are kept in
+     *
+     * @return the schema, capstone unless another was given
+     */
+    public String getSchema() {
+        return schema;
+    }
+
     /**
      * Create tables for storing LDA (Mallet) output
      */
@@ -88,21 +113,21 @@ public class CapstoneDBConnection {
         try {
             // Create the database
             statement = con.createStatement();
-            String sql = "DROP DATABASE IF EXISTS capstone";
+            String sql = "DROP DATABASE IF EXISTS " + schema;
             statement.executeUpdate(sql);
-            sql = "CREATE DATABASE capstone";
+            sql = "CREATE DATABASE " + schema;
             statement.executeUpdate(sql);
 
             // Create the table tags table
             statement = con.createStatement();
-            sql = "CREATE TABLE capstone.tags "
+            sql = "CREATE TABLE " + schema + ".tags "
                     + "(TAG_ID INTEGER NOT NULL, "
                     + "TAG_VAL VARCHAR(100) NOT NULL, "
                     + "PRIMARY KEY(TAG_ID));";
             statement.executeUpdate(sql);
 
             // Create the movie tags table
-            sql = "CREATE TABLE capstone.movie_tags "
+            sql = "CREATE TABLE " + schema + ".movie_tags "
                     + "(USER_ID INTEGER NOT NULL, "
                     + "MOVIE_ID INTEGER NOT NULL, "
                     + "TAG_ID INTEGER NOT NULL, "
@@ -110,14 +135,14 @@ public class CapstoneDBConnection {
             statement.executeUpdate(sql);
 
             // Create the movie genres table
-            sql = "CREATE TABLE capstone.movie_genres"
+            sql = "CREATE TABLE " + schema + ".movie_genres"
                     + "(MOVIE_ID INTEGER NOT NULL,"
                     + "GENRE_VAL VARCHAR(100) NOT NULL,"
                     + "PRIMARY KEY (MOVIE_ID, GENRE_VAL));";
             statement.executeUpdate(sql);
 
             // Create the movie ratings table (all users)
-            sql = "CREATE TABLE capstone.movie_ratings"
+            sql = "CREATE TABLE " + schema + ".movie_ratings"
                     + "(USER_ID INTEGER NOT NULL,"
                     + "MOVIE_ID INTEGER NOT NULL,"
                     + "RATING_VAL DECIMAL(2,1) NOT NULL,"
@@ -125,7 +150,7 @@ public class CapstoneDBConnection {
             statement.executeUpdate(sql);
 
             // Create the final movie ratings table (only for users with enough data)
-            sql = "CREATE TABLE capstone.movie_ratings_final"
+            sql = "CREATE TABLE " + schema + ".movie_ratings_final"
                     + "(USER_ID INTEGER NOT NULL,"
                     + "MOVIE_ID INTEGER NOT NULL,"
                     + "RATING_VAL DECIMAL(2,1) NOT NULL,"
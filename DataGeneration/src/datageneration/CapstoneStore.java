@@ -0,0 +1,85 @@
+package datageneration;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Storage for the capstone schema, so the data generation pipeline can run against MySQL or a
+ * local store without a database.<p>
+ *
+ * Profiles are named by the folder their documents are written to (eg. userTags), and a profile's
+ * artifacts are the tags or categories that make up each user's document.
+ *
+ * @author Jordan & Michael
+ */
+public interface CapstoneStore {
+
+    /**
+     * Create the store's tables, replacing any that already exist.
+     *
+     * @throws IOException
+     * @throws SQLException
+     */
+    void create() throws IOException, SQLException;
+
+    /**
+     * Read .dat files into the store's tables.
+     *
+     * @param files The .dat files to read
+     * @throws IOException
+     * @throws SQLException
+     */
+    void load(String[] files) throws IOException, SQLException;
+
+    /**
+     * Open the artifacts of one or more profiles, one per row, ordered by user. Every user with a
+     * tagged movie has at least one row, users whose artifacts are missing have null artifacts.
+     *
+     * @param profiles The profiles to read, all of a user's artifacts are read together
+     * @return The artifacts, which must be closed once read
+     * @throws IOException
+     * @throws SQLException
+     */
+    ArtifactCursor openArtifacts(String[] profiles) throws IOException, SQLException;
+
+    /**
+     * Create the final ratings table from the ratings of the given users.
+     *
+     * @param userIds The users whose ratings are kept
+     * @throws IOException
+     * @throws SQLException
+     */
+    void createFinalRatings(List<Integer> userIds) throws IOException, SQLException;
+
+    /**
+     * Release the store.
+     */
+    void close();
+
+    /**
+     * Reads artifacts a row at a time.
+     */
+    interface ArtifactCursor extends AutoCloseable {
+
+        /**
+         * Move to the next row.
+         *
+         * @return False once there are no more rows
+         */
+        boolean next() throws IOException, SQLException;
+
+        /**
+         * Get the user of the current row.
+         */
+        int getUserId() throws SQLException;
+
+        /**
+         * Get the artifact of the current row, or null if there is none.
+         */
+        String getArtifact() throws SQLException;
+
+        @Override
+        void close() throws SQLException;
+    }
+}
@@ -0,0 +1,275 @@
+package datageneration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stores the capstone schema as columnar snapshot files in a local directory, one file per table,
+ * so the pipeline can run on a single machine without a database.<p>
+ *
+ * The tables are the ones ReadInDat reads from the .dat files, named after the MySQL tables (eg.
+ * capstone.movie_tags.cols). Joins are done in memory: the rows of movie_tags are ordered by user,
+ * and tags and genres are found by binary search of their sorted IDs.
+ *
+ * @author Jordan & Michael
+ */
+public class ColumnarStore implements CapstoneStore {
+
+    // Tables read by the pipeline
+    private static final String MOVIE_TAGS = "capstone.movie_tags",
+            TAGS = "capstone.tags",
+            MOVIE_GENRES = "capstone.movie_genres",
+            MOVIE_RATINGS = "capstone.movie_ratings",
+            MOVIE_RATINGS_FINAL = "capstone.movie_ratings_final";
+
+    // Columns of the ratings tables
+    private static final String[] RATING_COLUMNS = {"USER_ID", "MOVIE_ID", "RATING_VAL"};
+    private static final int[] RATING_TYPES = {ColumnarTable.INT, ColumnarTable.INT,
+        ColumnarTable.FLOAT};
+
+    // Directory holding the table files
+    private final File directory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory The directory holding the table files
+     */
+    public ColumnarStore(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the file of a table
+     *
+     * @param table The table name, eg. capstone.movie_tags
+     * @return The table's file
+     */
+    public File getTableFile(String table) {
+        return new File(directory, table + ".cols");
+    }
+
+    @Override
+    public void create() throws IOException {
+        directory.mkdirs();
+
+        File[] tables = directory.listFiles();
+
+        for (File table : tables == null ? new File[0] : tables) {
+            if (table.getName().endsWith(".cols") && !table.delete()) {
+                throw new IOException("Could not delete " + table);
+            }
+        }
+    }
+
+    @Override
+    public void load(String[] files) {
+        new ReadInDat(files, directory);
+    }
+
+    @Override
+    public ArtifactCursor openArtifacts(String[] profiles) throws IOException {
+        ColumnarTable movieTags = new ColumnarTable(getTableFile(MOVIE_TAGS));
+        int[] users = movieTags.getInts("USER_ID");
+        int[] movies = movieTags.getInts("MOVIE_ID");
+        int[] tags = movieTags.getInts("TAG_ID");
+
+        // Rows ordered by user, keeping the file order within each user
+        long[] order = sortRows(users, users.length);
+
+        boolean[] isTags = new boolean[profiles.length];
+        for (int i = 0; i < profiles.length; i++) {
+            if (profiles[i].equals(CreateTagsDocuments.FOLDER)) {
+                isTags[i] = true;
+            } else if (!profiles[i].equals(CreateCategoryDocuments.FOLDER)) {
+                throw new IllegalArgumentException("Unknown profile: " + profiles[i]);
+            }
+        }
+
+        return new JoinCursor(order, movies, tags, isTags);
+    }
+
+    @Override
+    public void createFinalRatings(List<Integer> userIds) throws IOException {
+        ColumnarTable ratings = new ColumnarTable(getTableFile(MOVIE_RATINGS));
+        int[] users = ratings.getInts("USER_ID");
+        int[] movies = ratings.getInts("MOVIE_ID");
+        float[] values = ratings.getFloats("RATING_VAL");
+
+        int[] keep = new int[userIds.size()];
+        for (int i = 0; i < keep.length; i++) {
+            keep[i] = userIds.get(i);
+        }
+        Arrays.sort(keep);
+
+        // Only keep the ratings of the given users, in place
+        int count = 0;
+        for (int row = 0; row < users.length; row++) {
+            if (Arrays.binarySearch(keep, users[row]) >= 0) {
+                users[count] = users[row];
+                movies[count] = movies[row];
+                values[count] = values[row];
+                count++;
+            }
+        }
+
+        ColumnarTable.write(getTableFile(MOVIE_RATINGS_FINAL), RATING_COLUMNS, RATING_TYPES,
+                new Object[]{users, movies, values}, count);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    /**
+     * Sort rows by a non-negative key, keeping rows with equal keys in order.
+     *
+     * @param keys The key of each row
+     * @param count The number of rows
+     * @return Each row as (key &lt;&lt; 32 | row), ascending
+     */
+    private static long[] sortRows(int[] keys, int count) {
+        long[] order = new long[count];
+
+        for (int row = 0; row < count; row++) {
+            order[row] = ((long) keys[row] << 32) | row;
+        }
+        Arrays.sort(order);
+
+        return order;
+    }
+
+    /**
+     * Get the key of a sorted row.
+     */
+    private static int keyOf(long sortedRow) {
+        return (int) (sortedRow >>> 32);
+    }
+
+    /**
+     * Get the row of a sorted row.
+     */
+    private static int rowOf(long sortedRow) {
+        return (int) sortedRow;
+    }
+
+    /**
+     * Find the first sorted row with a key.
+     *
+     * @return The position of the first row, or a negative number if no row has the key
+     */
+    private static int findFirst(long[] order, int key) {
+        int position = Arrays.binarySearch(order, (long) key << 32);
+
+        // No row can be exactly (key << 32 | 0) unless it is the first row with the key
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < order.length && keyOf(order[position]) == key ? position : -1;
+    }
+
+    /**
+     * Joins each user's tagged movies to their tags and genres, a user at a time.
+     */
+    private class JoinCursor implements ArtifactCursor {
+
+        private final long[] order;
+        private final int[] movies, tags;
+        private final boolean[] isTags;
+
+        // Lookup tables of the profiles being read
+        private long[] tagOrder, genreOrder;
+        private String[] tagValues, genreValues;
+
+        // The current user's artifacts
+        private final ArrayList<String> artifacts = new ArrayList<>();
+        private int userId, position, nextGroup;
+
+        JoinCursor(long[] order, int[] movies, int[] tags, boolean[] isTags)
+                throws IOException {
+            this.order = order;
+            this.movies = movies;
+            this.tags = tags;
+            this.isTags = isTags;
+
+            for (boolean tagProfile : isTags) {
+                if (tagProfile && tagOrder == null) {
+                    ColumnarTable table = new ColumnarTable(getTableFile(TAGS));
+                    tagOrder = sortRows(table.getInts("TAG_ID"), table.getRowCount());
+                    tagValues = table.getStrings("TAG_VAL");
+                } else if (!tagProfile && genreOrder == null) {
+                    ColumnarTable table = new ColumnarTable(getTableFile(MOVIE_GENRES));
+                    genreOrder = sortRows(table.getInts("MOVIE_ID"), table.getRowCount());
+                    genreValues = table.getStrings("GENRE_VAL");
+                }
+            }
+        }
+
+        @Override
+        public boolean next() {
+            position++;
+
+            while (position >= artifacts.size()) {
+                if (nextGroup >= order.length) {
+                    return false;
+                }
+                readUser();
+                position = 0;
+            }
+            return true;
+        }
+
+        /**
+         * Join the next user's rows to every profile.
+         */
+        private void readUser() {
+            artifacts.clear();
+            userId = keyOf(order[nextGroup]);
+
+            int end = nextGroup;
+            while (end < order.length && keyOf(order[end]) == userId) {
+                end++;
+            }
+
+            for (boolean tagProfile : isTags) {
+                for (int i = nextGroup; i < end; i++) {
+                    int row = rowOf(order[i]);
+
+                    if (tagProfile) {
+                        int tag = findFirst(tagOrder, tags[row]);
+                        artifacts.add(tag < 0 ? null : tagValues[rowOf(tagOrder[tag])]);
+                    } else {
+                        int genre = findFirst(genreOrder, movies[row]);
+
+                        // A movie with no genres is a single null, as a left join gives
+                        if (genre < 0) {
+                            artifacts.add(null);
+                        }
+                        for (; genre >= 0 && genre < genreOrder.length
+                                && keyOf(genreOrder[genre]) == movies[row]; genre++) {
+                            artifacts.add(genreValues[rowOf(genreOrder[genre])]);
+                        }
+                    }
+                }
+            }
+            nextGroup = end;
+        }
+
+        @Override
+        public int getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getArtifact() {
+            return artifacts.get(position);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package datageneration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+/**
+ * A table of the capstone schema held in a columnar snapshot file, as written by ReadInDat.<p>
+ *
+ * File layout (big endian): magic, version, row count, column count, then for each column its
+ * name (UTF), its type (int) and its values. INT and FLOAT columns are arrays of row count ints
+ * or floats; STRING columns are row count UTF strings.<p>
+ *
+ * The file is memory-mapped. INT and FLOAT columns are read straight from the mapping, STRING
+ * columns are decoded once when the table is opened. RecommendationEvaluation reads these files
+ * with its own copy of the reader, so a change to the layout must be made there too.
+ *
+ * @author Jordan & Michael
+ */
+public class ColumnarTable {
+
+    // Header of columnar snapshot files
+    public static final int MAGIC = 0x44415443, // "DATC"
+            VERSION = 1;
+
+    // Column types
+    public static final int INT = 0,
+            FLOAT = 1,
+            STRING = 2;
+
+    private final File file;
+    private final int rowCount;
+
+    // Column name to its type, and to its values (a buffer, or an array of strings)
+    private final HashMap<String, Integer> types = new HashMap<>();
+    private final HashMap<String, Object> columns = new HashMap<>();
+
+    /**
+     * Opens a snapshot file.
+     *
+     * @param file The snapshot file
+     * @throws IOException
+     */
+    public ColumnarTable(File file) throws IOException {
+        this.file = file;
+
+        MappedByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        DataInputStream in = new DataInputStream(new BufferInputStream(buffer));
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException(file + " is not a columnar snapshot");
+        }
+
+        rowCount = in.readInt();
+        int columnCount = in.readInt();
+
+        for (int i = 0; i < columnCount; i++) {
+            String name = in.readUTF();
+            int type = in.readInt();
+
+            types.put(name, type);
+
+            if (type == STRING) {
+                String[] values = new String[rowCount];
+
+                for (int row = 0; row < rowCount; row++) {
+                    values[row] = in.readUTF();
+                }
+                columns.put(name, values);
+            } else {
+                // Numeric columns are views of the mapping, the stream skips past them
+                ByteBuffer column = buffer.duplicate();
+                column.position(buffer.position());
+                column.limit(buffer.position() + rowCount * 4);
+                columns.put(name, column.slice());
+                buffer.position(buffer.position() + rowCount * 4);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot file.
+     *
+     * @param file The snapshot file to write
+     * @param names The name of each column
+     * @param types The type of each column
+     * @param values The values of each column: an int[], float[] or String[] of at least rowCount
+     * values
+     * @param rowCount The number of rows
+     * @throws IOException
+     */
+    public static void write(File file, String[] names, int[] types, Object[] values,
+            int rowCount) throws IOException {
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rowCount);
+            out.writeInt(names.length);
+
+            for (int i = 0; i < names.length; i++) {
+                out.writeUTF(names[i]);
+                out.writeInt(types[i]);
+
+                for (int row = 0; row < rowCount; row++) {
+                    switch (types[i]) {
+                        case INT:
+                            out.writeInt(((int[]) values[i])[row]);
+                            break;
+                        case FLOAT:
+                            out.writeFloat(((float[]) values[i])[row]);
+                            break;
+                        default:
+                            out.writeUTF(((String[]) values[i])[row]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return The row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the values of an INT column
+     *
+     * @param name The column name
+     * @return The values, in row order
+     * @throws IOException If the table has no such INT column
+     */
+    public int[] getInts(String name) throws IOException {
+        int[] values = new int[rowCount];
+        getColumn(name, INT).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Get the values of a FLOAT column
+     *
+     * @param name The column name
+     * @return The values, in row order
+     * @throws IOException If the table has no such FLOAT column
+     */
+    public float[] getFloats(String name) throws IOException {
+        float[] values = new float[rowCount];
+        getColumn(name, FLOAT).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Get the values of a STRING column
+     *
+     * @param name The column name
+     * @return The values, in row order (shared, so must not be modified)
+     * @throws IOException If the table has no such STRING column
+     */
+    public String[] getStrings(String name) throws IOException {
+        checkColumn(name, STRING);
+        return (String[]) columns.get(name);
+    }
+
+    /**
+     * Get a numeric column's mapped values.
+     */
+    private ByteBuffer getColumn(String name, int type) throws IOException {
+        checkColumn(name, type);
+        return ((ByteBuffer) columns.get(name)).duplicate();
+    }
+
+    /**
+     * Check that a column exists with a type.
+     */
+    private void checkColumn(String name, int type) throws IOException {
+        Integer actual = types.get(name);
+
+        if (actual == null || actual != type) {
+            throw new IOException(file + " has no column " + name + " of type " + type);
+        }
+    }
+
+    /**
+     * Writes a snapshot file a row at a time, so rows never need to be held in memory.<p>
+     *
+     * The row count isn't known until the end, so each column is first spilled to its own
+     * temporary file, and the files are joined by finish() once every row has been written.
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final File file;
+        private final String[] names;
+        private final int[] types;
+        private final File[] spillFiles;
+        private final DataOutputStream[] spills;
+        private int rowCount;
+
+        /**
+         * Constructor.
+         *
+         * @param file The snapshot file to write
+         * @param names The name of each column
+         * @param types The type of each column
+         * @throws IOException
+         */
+        public Writer(File file, String[] names, int[] types) throws IOException {
+            this.file = file;
+            this.names = names;
+            this.types = types;
+
+            spillFiles = new File[names.length];
+            spills = new DataOutputStream[names.length];
+
+            for (int i = 0; i < names.length; i++) {
+                spillFiles[i] = File.createTempFile("columnar-" + names[i], ".col");
+                spills[i] = new DataOutputStream(new BufferedOutputStream(
+                        new FileOutputStream(spillFiles[i]), 1 << 16));
+            }
+        }
+
+        /**
+         * Set an INT value of the current row.
+         *
+         * @param column The column index
+         * @param value The value
+         * @throws IOException
+         */
+        public void setInt(int column, int value) throws IOException {
+            spills[column].writeInt(value);
+        }
+
+        /**
+         * Set a FLOAT value of the current row.
+         *
+         * @param column The column index
+         * @param value The value
+         * @throws IOException
+         */
+        public void setFloat(int column, float value) throws IOException {
+            spills[column].writeFloat(value);
+        }
+
+        /**
+         * Set a STRING value of the current row.
+         *
+         * @param column The column index
+         * @param value The value
+         * @throws IOException
+         */
+        public void setString(int column, String value) throws IOException {
+            spills[column].writeUTF(value);
+        }
+
+        /**
+         * End the current row, once every column has been set.
+         */
+        public void endRow() {
+            rowCount++;
+        }
+
+        /**
+         * Get the number of rows written so far
+         *
+         * @return The row count
+         */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * Join the columns into the snapshot file.
+         *
+         * @throws IOException
+         */
+        public void finish() throws IOException {
+            for (DataOutputStream spill : spills) {
+                spill.close();
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(file), 1 << 16))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(rowCount);
+                out.writeInt(names.length);
+
+                byte[] buffer = new byte[1 << 16];
+
+                for (int i = 0; i < names.length; i++) {
+                    out.writeUTF(names[i]);
+                    out.writeInt(types[i]);
+
+                    try (InputStream in = new BufferedInputStream(
+                            new FileInputStream(spillFiles[i]))) {
+                        int read;
+
+                        while ((read = in.read(buffer)) > 0) {
+                            out.write(buffer, 0, read);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Delete the spilled columns.
+         *
+         * @throws IOException
+         */
+        @Override
+        public void close() throws IOException {
+            for (int i = 0; i < spills.length; i++) {
+                spills[i].close();
+                spillFiles[i].delete();
+            }
+        }
+    }
+
+    /**
+     * Reads a mapped buffer as a stream, advancing its position.
+     */
+    private static class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package datageneration;
 
+import java.io.File;
 import java.io.IOException;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
@@ -12,17 +12,23 @@ import java.sql.SQLException;
  */
 public abstract class CreateDocuments extends Documents {
 
+    // Seed of the shuffle of each user's artifacts, so exports can be repeated
+    static final long SHUFFLE_SEED = 2014;
+
+    // Exports every user's document in one pass (set while the super constructor runs)
+    private DocumentExporter exporter;
+
     /**
      * Extract, analyse and export data from database. This constructor functions more as a main
      * method (calling methods in order) than a typical object constructor which initialises fields.
      *
      * @param target What type of documents need to be created
-     * @param con Connection to the db
+     * @param store The store holding the capstone data
      * @throws IOException
      * @throws SQLException
      */
-    public CreateDocuments(String target, CapstoneDBConnection con) throws IOException, SQLException {
-        super(target, con);
+    public CreateDocuments(String target, CapstoneStore store) throws IOException, SQLException {
+        super(target, store);
     }
 
     /**
@@ -35,53 +41,27 @@ public abstract class CreateDocuments extends Documents {
      */
     @Override
     protected void makeDocuments(String target) throws IOException, SQLException {
-        
-        // Create the directory in which to place the files
-        createDirectory(target);
 
-        // create local copy of user ids
-        ResultSet userIds = getUserIds();
-
-        // Iterate over all user IDs and generate their document
-        while (userIds.next()) {
-            int currentUserId = userIds.getInt("USER_ID");
-            createUserDocument(currentUserId, getUserArtifacts(currentUserId));
-        }
+        // Stream every user's artifacts in one pass, writing documents in parallel
+        exporter = new DocumentExporter(getDocumentsStore(), new String[]{getFolder()},
+                SHUFFLE_SEED);
+        exporter.exportFiles(new File(getFolder()),
+                Runtime.getRuntime().availableProcessors());
     }
 
     /**
-     * Creates the directory for user tag documents if it does not already exist
+     * Getter method for the exporter, which holds the metrics of the export
      *
-     * @param target What type of documents need to be created
+     * @return The exporter of the documents
      */
-    @Override
-    protected void createDirectory(String target) {
-        // Depending on the target data, name the folder differently
-            if (target.equals("cat") || target.equals("all")) {
-            super.createDirectory("userTags");
-        }
-
-        if (target.equals("tag") || target.equals("all")) {
-            super.createDirectory("userCats");
-        }
+    protected DocumentExporter getExporter() {
+        return exporter;
     }
 
     /**
-     * Query the database for data about each user and return a set of results
+     * Get the folder the user documents are written to, which also names the profile
      *
-     * @param uID The user's ID
-     * @return A ResultSet object of query results
-     * @throws SQLException
-     */
-    abstract ResultSet getUserArtifacts(int uID) throws SQLException;
-
-    /**
-     * Generate, populate and store the document for each user
-     *
-     * @param uID The user's ID
-     * @param result A ResultSet object of query results
-     * @throws IOException
-     * @throws SQLException
+     * @return The folder name
      */
-    abstract void createUserDocument(int uID, ResultSet result) throws IOException, SQLException;
+    abstract String getFolder();
 }
@@ -1,5 +1,6 @@
 package datageneration;
 
+import java.io.File;
 import java.io.IOException;
 import java.sql.SQLException;
 
@@ -13,8 +14,8 @@ import java.sql.SQLException;
  */
 public class DataGeneration {
 
-    // Database connection instance
-    private static final CapstoneDBConnection con = new CapstoneDBConnection();
+    // Store holding the capstone data, MySQL or local snapshots
+    private static CapstoneStore store;
 
     // Files from which to retrieve information
     private static final String[] datFiles = {"user_ratedmovies.dat", "user_taggedmovies.dat",
@@ -24,6 +25,9 @@ public class DataGeneration {
     // If a merged folder is to be created, this will be its name
     private static final String nameOfMergedFolder = "mergedTagCatProfile";
 
+    // Folder the local store keeps its columnar snapshots in
+    private static final String snapshotFolder = "snapshots";
+
     // Parameters defining the extent of database creation and population to be performed
     private static String dBScope, dBStatus;
 
@@ -42,52 +46,80 @@ public class DataGeneration {
      * <b>Argument 2 - Status</b>:<br>
      * <b>noDb</b> - no db has been created<br>
      * <b>dbEmpty</b> - db already exists but is empty<br>
-     * <b>dbFull</b> - db exists and is already filled with data
+     * <b>dbFull</b> - db exists and is already filled with data<br>
+     * <b>snapshot</b> - no db is used, the .dat files are read into a local store of columnar
+     * snapshots<br>
+     * <b>snapshotFull</b> - no db is used, the local store is already filled with data<p>
+     *
+     * <b>Argument 3 - Output (optional)</b>:<br>
+     * <b>instances</b> - for the cat or tag scope, write the documents straight to a MALLET
+     * instance list (as import.bat would create) instead of a .dat file per user
      *
-     * @param args The command line arguments (expects two)
+     * @param args The command line arguments (expects two or three)
      * @throws java.io.IOException
      * @throws java.sql.SQLException
      */
     public static void main(String[] args) throws IOException, SQLException {
 
-        // This program accepts exactly two arguments
-        if (args.length == 2) {
+        // This program accepts two arguments, and an optional third
+        if (args.length == 2 || args.length == 3) {
 
             // First argument is the scope of the database process 
             // {Tags or Categories}
             dBScope = args[0];
 
             // Second argument is the status of the database prior to the process 
-            // {No Database, Empty Database or Fully Populated Database}
+            // {No Database, Empty Database or Fully Populated Database, or a local store}
             dBStatus = args[1];
 
+            // Snapshots are stored locally, everything else in the database
+            if (dBStatus.startsWith("snapshot")) {
+                store = new ColumnarStore(new File(snapshotFolder));
+            } else {
+                store = new MySQLStore(new CapstoneDBConnection());
+            }
+
             // Only do the required steps depending on the parameterised status of the database
-            if (!(dBStatus.equals("dbFull"))) {
+            if (!(dBStatus.equals("dbFull") || dBStatus.equals("snapshotFull"))) {
 
                 // check if database needs to be created
-                if (dBStatus.equals("noDb")) {
+                if (dBStatus.equals("noDb") || dBStatus.equals("snapshot")) {
                     // Create the database and tables
                     System.out.println("Creating database...");
-                    con.createDatabase();
+                    store.create();
                     System.out.println("DONE\n");
                 }
 
                 // database and tables exist -> read in required files
                 System.out.println("Filling database...");
-                ReadInDat rd = new ReadInDat(datFiles, con);
+                store.load(datFiles);
                 System.out.println("DONE\n");
             }
 
             // database is filled with tag data -> export documents
             System.out.println("Exporting documents...");
 
+            // Instance lists replace the documents, merging still needs the documents
+            if (args.length == 3 && args[2].equals("instances") && !dBScope.equals("all")) {
+                String folder = dBScope.equals("cat") ? CreateCategoryDocuments.FOLDER
+                        : CreateTagsDocuments.FOLDER;
+
+                DocumentExporter exporter = new DocumentExporter(store, new String[]{folder},
+                        CreateDocuments.SHUFFLE_SEED);
+                exporter.exportInstances(new File(folder)).save(new File(folder + ".mallet"));
+
+                System.out.println("DONE\n");
+                store.close();
+                return;
+            }
+
             // Create a Category or Tag Document object/s depending on the scope of the operation
             if (dBScope.equals("cat") || dBScope.equals("all")) {
-                CreateCategoryDocuments cd = new CreateCategoryDocuments(dBScope, con);
+                CreateCategoryDocuments cd = new CreateCategoryDocuments(dBScope, store);
             }
 
             if (dBScope.equals("tag") || dBScope.equals("all")) {
-                CreateTagsDocuments td = new CreateTagsDocuments(dBScope, con);
+                CreateTagsDocuments td = new CreateTagsDocuments(dBScope, store);
             }
 
             System.out.println("DONE\n");
@@ -95,16 +127,16 @@ public class DataGeneration {
             // merge documents and update ratings table if required
             if (dBScope.equals("all")) {
                 System.out.println("Merging documents...");
-                MergeDocuments md = new MergeDocuments(nameOfMergedFolder, con, foldersToMerge,
+                MergeDocuments md = new MergeDocuments(nameOfMergedFolder, store, foldersToMerge,
                         minIdealDataCount);
                 System.out.println("DONE\n");
 
                 System.out.println("Creating Final Ratings Table...");
-                FinaliseMovieRatings fmr = new FinaliseMovieRatings(con);
+                FinaliseMovieRatings fmr = new FinaliseMovieRatings(store);
                 fmr.createFinalRatingsTable();
                 System.out.println("DONE\n");
             }
-            con.shutDown();
+            store.close();
         }
     }
 }
@@ -0,0 +1,340 @@
+package datageneration;
+
+import cc.mallet.pipe.CharSequence2TokenSequence;
+import cc.mallet.pipe.Pipe;
+import cc.mallet.pipe.SerialPipes;
+import cc.mallet.pipe.Target2Label;
+import cc.mallet.pipe.TokenSequence2FeatureSequence;
+import cc.mallet.pipe.TokenSequenceLowercase;
+import cc.mallet.pipe.TokenSequenceRemoveStopwords;
+import cc.mallet.types.Instance;
+import cc.mallet.types.InstanceList;
+import cc.mallet.util.CharSequenceLexer;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports every user's artifacts in a single pass over the store, in place of a query per user.<p>
+ *
+ * The store streams one artifact per row, ordered by user ID, so only one user's artifacts are
+ * held at a time. Each user's artifacts are shuffled with a random
+ * generator seeded from the user ID, so an export is repeatable, and are then either written to
+ * the user's document by a bounded pool of writer threads or added to a MALLET instance list.<p>
+ *
+ * A user whose artifact is null (from an outer join) still gets a document, which may be empty,
+ * unless a minimum number of artifacts has been set.
+ *
+ * @author Jordan & Michael
+ */
+public class DocumentExporter {
+
+    // Spreads consecutive user IDs over unrelated seeds
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    // Documents waiting for a writer, per writer thread
+    private static final int QUEUED_PER_THREAD = 4;
+
+    private final CapstoneStore store;
+    private final String[] profiles;
+    private final long seed;
+
+    // Users with fewer artifacts are left out of the export
+    private int requiredArtifacts = 0;
+
+    // Metrics of the last export, of the users that were exported
+    private int userCount, maxArtifacts, minArtifacts, skippedCount;
+    private long artifactCount;
+
+    // The users that were exported, ascending
+    private ArrayList<Integer> userIds = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param store The store holding the capstone data
+     * @param profiles The profiles to export, several are merged into one document per user
+     * @param seed Seed of the shuffle of each user's artifacts
+     */
+    public DocumentExporter(CapstoneStore store, String[] profiles, long seed) {
+        this.store = store;
+        this.profiles = profiles;
+        this.seed = seed;
+    }
+
+    /**
+     * Set the fewest artifacts a user must have to be exported
+     *
+     * @param required The minimum number of artifacts (0 exports every user)
+     */
+    public void setRequiredArtifacts(int required) {
+        requiredArtifacts = required;
+    }
+
+    /**
+     * Write a document for each user to a directory, named by user ID, with one artifact per line.
+     *
+     * @param directory The directory to write the documents to
+     * @param threads The number of writer threads
+     * @throws IOException
+     * @throws SQLException
+     */
+    public void exportFiles(final File directory, int threads) throws IOException, SQLException {
+        directory.mkdirs();
+
+        // Writers run behind a short queue, the reader writes documents itself when it is full
+        final ThreadPoolExecutor writers = new ThreadPoolExecutor(threads, threads, 0,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(threads * QUEUED_PER_THREAD),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        // The first writer failure, reported once every document has been attempted
+        final IOException[] failure = new IOException[1];
+
+        try {
+            readUsers(new UserHandler() {
+                @Override
+                public void add(final int userId, final List<String> artifacts) {
+                    writers.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                writeDocument(new File(directory, userId + ".dat"), artifacts);
+                            } catch (IOException ex) {
+                                synchronized (failure) {
+                                    if (failure[0] == null) {
+                                        failure[0] = ex;
+                                    }
+                                }
+                            }
+                        }
+                    });
+                }
+            });
+        } finally {
+            writers.shutdown();
+
+            try {
+                writers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+    }
+
+    /**
+     * Build the MALLET instances of every user's document, piped as "mallet import-dir
+     * --keep-sequence --remove-stopwords" would pipe the files exportFiles writes.<p>
+     *
+     * Each instance's source is the file the document would have been written to, so the topic
+     * state still names each user.
+     *
+     * @param directory The directory the documents would be written to
+     * @return The instances, ready to train a topic model with
+     * @throws IOException
+     * @throws SQLException
+     */
+    public InstanceList exportInstances(final File directory) throws IOException, SQLException {
+        final InstanceList instances = new InstanceList(createImportPipe());
+        final String label = directory.getName();
+
+        readUsers(new UserHandler() {
+            @Override
+            public void add(int userId, List<String> artifacts) {
+                File document = new File(directory, userId + ".dat");
+
+                // One artifact per line, as in the document
+                StringBuilder text = new StringBuilder();
+                for (String artifact : artifacts) {
+                    text.append(artifact).append('\n');
+                }
+
+                instances.addThruPipe(new Instance(text.toString(), label, document.toURI(),
+                        document));
+            }
+        });
+
+        return instances;
+    }
+
+    /**
+     * Get the pipe of MALLET's import-dir command, keeping sequences and removing stop words.
+     *
+     * @return The pipe from document text to feature sequence
+     */
+    private static Pipe createImportPipe() {
+        ArrayList<Pipe> pipes = new ArrayList<>();
+
+        pipes.add(new Target2Label());
+        pipes.add(new CharSequence2TokenSequence(CharSequenceLexer.LEX_ALPHA));
+        pipes.add(new TokenSequenceLowercase());
+        pipes.add(new TokenSequenceRemoveStopwords(false, false));
+        pipes.add(new TokenSequence2FeatureSequence());
+
+        return new SerialPipes(pipes);
+    }
+
+    /**
+     * Stream the artifacts, handing over each user's shuffled artifacts once all have been read.
+     *
+     * @param handler Receives each user's artifacts
+     * @throws IOException
+     * @throws SQLException
+     */
+    private void readUsers(UserHandler handler) throws IOException, SQLException {
+        userCount = 0;
+        skippedCount = 0;
+        userIds = new ArrayList<>();
+        artifactCount = 0;
+        maxArtifacts = 0;
+        minArtifacts = Integer.MAX_VALUE;
+
+        try (CapstoneStore.ArtifactCursor rows = store.openArtifacts(profiles)) {
+            ArrayList<String> artifacts = new ArrayList<>();
+            int currentUser = 0;
+            boolean started = false;
+
+            while (rows.next()) {
+                int userId = rows.getUserId();
+
+                // The previous user's rows are complete
+                if (started && userId != currentUser) {
+                    addUser(handler, currentUser, artifacts);
+                    artifacts = new ArrayList<>();
+                }
+                currentUser = userId;
+                started = true;
+
+                String artifact = rows.getArtifact();
+                if (artifact != null) {
+                    artifacts.add(artifact);
+                }
+            }
+
+            if (started) {
+                addUser(handler, currentUser, artifacts);
+            }
+        }
+
+        if (userCount == 0) {
+            minArtifacts = 0;
+        }
+    }
+
+    /**
+     * Shuffle a user's artifacts, count them and hand them over if there are enough.
+     */
+    private void addUser(UserHandler handler, int userId, ArrayList<String> artifacts) {
+        if (artifacts.size() < requiredArtifacts) {
+            skippedCount++;
+            return;
+        }
+
+        Collections.shuffle(artifacts, new Random(seed ^ (userId * SEED_MIX)));
+
+        userCount++;
+        userIds.add(userId);
+        artifactCount += artifacts.size();
+        maxArtifacts = Math.max(maxArtifacts, artifacts.size());
+        minArtifacts = Math.min(minArtifacts, artifacts.size());
+
+        handler.add(userId, artifacts);
+    }
+
+    /**
+     * Write a user's document, with one artifact per line.
+     *
+     * @param document The file to write
+     * @param artifacts The user's artifacts in order
+     * @throws IOException
+     */
+    private static void writeDocument(File document, List<String> artifacts) throws IOException {
+        try (PrintWriter writer = new PrintWriter(document)) {
+            for (String artifact : artifacts) {
+                writer.println(artifact);
+            }
+
+            if (writer.checkError()) {
+                throw new IOException("Could not write " + document);
+            }
+        }
+    }
+
+    /**
+     * Get the number of users in the last export
+     *
+     * @return The number of users
+     */
+    public int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * Get the number of users left out of the last export for having too few artifacts
+     *
+     * @return The number of users skipped
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Get the users in the last export
+     *
+     * @return The user IDs, in the order of the query
+     */
+    public ArrayList<Integer> getUserIds() {
+        return userIds;
+    }
+
+    /**
+     * Get the number of artifacts in the last export
+     *
+     * @return The number of artifacts across all users
+     */
+    public long getArtifactCount() {
+        return artifactCount;
+    }
+
+    /**
+     * Get the most artifacts any one user had in the last export
+     *
+     * @return The largest number of artifacts
+     */
+    public int getMaxArtifacts() {
+        return maxArtifacts;
+    }
+
+    /**
+     * Get the fewest artifacts any one user had in the last export
+     *
+     * @return The smallest number of artifacts
+     */
+    public int getMinArtifacts() {
+        return minArtifacts;
+    }
+
+    /**
+     * Receives each user's artifacts as they are read.
+     */
+    private interface UserHandler {
+
+        /**
+         * Adds a user's artifacts, already shuffled.
+         */
+        void add(int userId, List<String> artifacts);
+    }
+}
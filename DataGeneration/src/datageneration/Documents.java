@@ -1,10 +1,7 @@
 package datageneration;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 
 /**
@@ -14,25 +11,19 @@ import java.sql.SQLException;
  */
 public abstract class Documents {
 
-    // Instance connection to the database
-    private CapstoneDBConnection con;
-
-    // An SQL resultset of unique IDs of each user
-    private static ResultSet userIds;
+    // Instance of the store the documents are read from
+    private CapstoneStore store;
 
     /**
      * Creates documents for each user and generates metrics.
      *
      * @param target What type of documents need to be created
-     * @param con Database connection instance
+     * @param store The store holding the capstone data
      * @throws java.io.IOException
      * @throws java.sql.SQLException
      */
-    public Documents(String target, CapstoneDBConnection con) throws IOException, SQLException {
-        this.con = con; // set connection field
-
-        // Query and store user IDs
-        collectUserIds();
+    public Documents(String target, CapstoneStore store) throws IOException, SQLException {
+        this.store = store; // set store field
 
         // Generate a document for each user from the targeted dataset
         makeDocuments(target);
@@ -42,81 +33,12 @@ public abstract class Documents {
     }
 
     /**
-     * Counts the number of users found in the movie_tags table
-     *
-     * @return The number of users found
-     * @throws SQLException
-     */
-    protected int countUsers() throws SQLException {
-
-        // Prepared statement for querying database
-        PreparedStatement prepStatement;
-
-        // Store the results of the query
-        ResultSet result;
-
-        // SQL query to count the number of users
-        prepStatement = con.getConnection().prepareStatement(
-                "SELECT COUNT(DISTINCT USER_ID) FROM capstone.movie_tags");
-
-        // Execute the query and store the results
-        result = prepStatement.executeQuery();
-
-        // Ensure resultset is set to the first record
-        result.first();
-
-        // Return the number of users
-        return result.getInt("COUNT(DISTINCT USER_ID)");
-    }
-
-    /**
-     * Creates a directory
-     *
-     * @param directoryName The name of the directory
-     */
-    protected void createDirectory(String directoryName) {
-        File directory = new File(directoryName);
-
-        // If the directory does not exist then create it
-        if (!directory.exists()) {
-            directory.mkdir();
-        }
-    }
-
-    /**
-     * Collects all the user IDs and stores them in the userIds ResultSet
-     */
-    protected void collectUserIds() {
-
-        // Prepared statement to query for user IDs
-        PreparedStatement prepStatement;
-
-        // Get all the unique user ids
-        try {
-            prepStatement = con.getConnection().prepareStatement(
-                    "SELECT DISTINCT USER_ID FROM capstone.movie_tags");
-            userIds = prepStatement.executeQuery();
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-        }
-    }
-
-    /**
-     * Getter method for connection
-     *
-     * @return Database connection instance
-     */
-    protected CapstoneDBConnection getDocumentsConnection() {
-        return con;
-    }
-
-    /**
-     * Getter method for userId
+     * Getter method for store
      *
-     * @return the user IDs in a ResultSet
+     * @return The store holding the capstone data
      */
-    protected ResultSet getUserIds() {
-        return userIds;
+    protected CapstoneStore getDocumentsStore() {
+        return store;
     }
 
     /**
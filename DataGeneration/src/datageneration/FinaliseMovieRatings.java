@@ -1,6 +1,6 @@
 package datageneration;
 
-import java.sql.PreparedStatement;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 
@@ -11,16 +11,16 @@ import java.util.ArrayList;
  */
 public class FinaliseMovieRatings {
 
-    // Database connection instance
-    private final CapstoneDBConnection con;
+    // Instance of the store holding the ratings
+    private final CapstoneStore store;
 
     /**
-     * Create a finalise movie ratings object and sets its connection
+     * Create a finalise movie ratings object and sets its store
      *
-     * @param con Database connection instance
+     * @param store The store holding the capstone data
      */
-    public FinaliseMovieRatings(CapstoneDBConnection con) {
-        this.con = con;
+    public FinaliseMovieRatings(CapstoneStore store) {
+        this.store = store;
     }
 
     /**
@@ -31,20 +31,11 @@ public class FinaliseMovieRatings {
         // Get ideal users
         ArrayList<Integer> userIdsToKeep = MergeDocuments.getIdealUsers();
 
-        for (Integer userId : userIdsToKeep) {
-            try {
-                String query;
-                PreparedStatement prepStatement;
-
-                // Insert data for ideal users, just take data from existing ratings table
-                query = "INSERT INTO capstone.movie_ratings_final "
-                        + "SELECT * FROM capstone.movie_ratings WHERE USER_ID = " + userId;
-                prepStatement = con.getConnection().prepareStatement(query);
-                prepStatement.executeUpdate();
-
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
+        // Insert data for ideal users, just take data from existing ratings table
+        try {
+            store.createFinalRatings(userIdsToKeep);
+        } catch (IOException | SQLException ex) {
+            ex.printStackTrace();
         }
     }
 }
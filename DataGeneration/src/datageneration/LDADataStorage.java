@@ -1,116 +1,324 @@
 package datageneration;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 /**
- * Store output of LDA execution in the database.<p>
- * 
+ * Store output of LDA execution in the database, or in the local store of columnar snapshots.<p>
+ *
+ * The files are streamed a line at a time. Database rows are inserted with typed parameters in
+ * batches of BATCH_ROWS, so memory use doesn't grow with the number of users or topics. A user's
+ * topics can be limited to the top k by proportion.<p>
+ *
+ * The snapshot tables are written to the same directory as ColumnarStore's, where the
+ * recommendation engine memory-maps capstone.lda_composition.cols in place of the MySQL table.<p>
+ *
  * This class is a utility class and not part of the main data generation class' functionality.
- * 
+ * Run with: java datageneration.LDADataStorage [topK] [snapshot], where a topK of 0 (the default)
+ * keeps every topic.
+ *
  * @author Jordan & Michael
  */
 public class LDADataStorage {
 
-    // Database connection instance
-    private static CapstoneDBConnection con;
+    // Rows added to a batch before it is executed
+    private static final int BATCH_ROWS = 10000;
 
     // Files to insert into database
     private static final String keysFile = "../LDA/mallet/data_keys.txt";
     private static final String compositionFile = "../LDA/mallet/data_composition.txt";
 
-    public static void main(String[] args) throws SQLException {
+    // Directory of the local store
+    private static final String snapshotFolder = "snapshots";
 
-        // Connection instance
-        con = new CapstoneDBConnection();
+    // Snapshot tables, named after the MySQL tables
+    private static final String KEYS_TABLE = "capstone.lda_keys",
+            COMPOSITION_TABLE = "capstone.lda_composition";
 
-        // Create tables for LDA data
-        con.createLDATables();
+    public static void main(String[] args) {
 
-        PreparedStatement prepStatement = null;
+        // Topics kept per user, 0 for all
+        int topK = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        boolean snapshot = args.length > 1 && args[1].equals("snapshot");
 
-        prepStatement = setupPreparedStatement("INSERT INTO "
-                + "capstone.LDA_keys(TOPIC, DIRICHLET_PARAMETER, DATA_PIECES) "
-                + "VALUES (?, ?, ?)", keysFile, prepStatement);
+        CapstoneDBConnection con = null;
 
-        prepStatement.executeBatch();
+        try {
+            TopicSink sink;
+
+            if (snapshot) {
+                File folder = new File(snapshotFolder);
+                folder.mkdirs();
+                sink = new SnapshotSink(new File(folder, KEYS_TABLE + ".cols"),
+                        new File(folder, COMPOSITION_TABLE + ".cols"));
+            } else {
+                // Connection instance
+                con = new CapstoneDBConnection();
 
-        prepStatement = setupPreparedStatement("INSERT INTO "
-                + "capstone.LDA_composition(USER_ID, TOPIC_ID, TOPIC_DISTRIBUTION) "
-                + "VALUES (?, ?, ?)", compositionFile, prepStatement);
+                // Create tables for LDA data
+                con.createLDATables();
+                sink = new DatabaseSink(con);
+            }
 
-        prepStatement.executeBatch();
+            try {
+                readKeys(keysFile, sink);
+                int rows = readComposition(compositionFile, topK, sink);
+                sink.finish();
 
+                System.out.println("Stored " + rows + " user topics");
+            } finally {
+                sink.close();
+            }
+        } catch (SQLException | IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (con != null) {
+                con.shutDown();
+            }
+        }
     }
 
     /**
-     * Dynamically generate prepared statement based on parameters
+     * Read the topic keys file, which has no header: topic, Dirichlet parameter, top words.
      *
-     * @param query The SQL query string
-     * @param location The filepath to be written to
-     * @param prepStatement Statement object to be returned
-     * @return The correct prepared statement
+     * @param location The filepath to be read
+     * @param sink Where the keys are stored
+     * @throws IOException
+     * @throws SQLException
      */
-    private static PreparedStatement setupPreparedStatement(String query, String location,
-            PreparedStatement prepStatement) {
-        try {
+    private static void readKeys(String location, TopicSink sink)
+            throws IOException, SQLException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(location))) {
             String line;
-            BufferedReader reader = new BufferedReader(new FileReader(location));
-            int columns = query.length() - query.replace("?", "").length();
-            prepStatement = con.getConnection().prepareStatement(query);
 
-            line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+
+                if (parts.length < 3) {
+                    continue;
+                }
+                sink.addKey(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]),
+                        parts[2].trim());
+            }
+        }
+    }
+
+    /**
+     * Read the document composition file: a header, then for each document its number, its name
+     * and (topic, proportion) pairs.
+     *
+     * @param location The filepath to be read
+     * @param topK Topics kept per user, 0 for all
+     * @param sink Where the topics are stored
+     * @return The number of user topics stored
+     * @throws IOException
+     * @throws SQLException
+     */
+    private static int readComposition(String location, int topK, TopicSink sink)
+            throws IOException, SQLException {
+        int rows = 0;
+
+        // A line's pairs, reused between lines
+        int[] topics = new int[0];
+        double[] proportions = new double[0];
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(location))) {
+            String line = reader.readLine();
 
             while ((line = reader.readLine()) != null) {
                 String[] parts = line.split("\t");
 
-                switch (location) {
-                    case keysFile:
-                        for (int i = 1; i <= columns; i++) {
-                            prepStatement.setString(i, parts[i - 1]);
-                        }
-                        prepStatement.addBatch();
-                        break;
-                    case compositionFile:
-
-                        // Extract user ID
-                        String userID = parts[1];
-                        String[] userNameParts = parts[1].split("/");
-                        userID = userNameParts[userNameParts.length - 1];
-                        userID = userID.substring(0, userID.indexOf("."));
-
-                        // Don't process metrics
-                        if (userID.equals("metrics")) {
-                            break;
-                        } else {
-
-                            // Set user ID in prepared statement
-                            prepStatement.setString(1, userID);
-
-                            // Track where (in the split row of results) we are currently looking
-                            int point = 2;
-
-                            // For the length of the split results, assign every other result 
-                            // between each of topic_id and topic_distribution
-                            while (point < parts.length) {
-                                prepStatement.setString(2, parts[point]);
-                                point++;
-                                prepStatement.setString(3, parts[point]);
-                                point++;
-
-                                prepStatement.addBatch();
-                            }
-                            break;
-                        }
+                if (parts.length < 2) {
+                    continue;
                 }
+
+                // Extract user ID, between the last separator and the extension
+                String name = parts[1];
+                int start = Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1;
+                int end = name.indexOf('.', start);
+                String userID = name.substring(start, end < 0 ? name.length() : end);
+
+                // Don't process metrics
+                if (userID.equals("metrics")) {
+                    continue;
+                }
+                int user = Integer.parseInt(userID);
+
+                int count = (parts.length - 2) / 2;
+                if (topics.length < count) {
+                    topics = new int[count];
+                    proportions = new double[count];
+                }
+
+                // Every other value is a topic ID, followed by its proportion
+                for (int i = 0; i < count; i++) {
+                    topics[i] = Integer.parseInt(parts[2 + i * 2]);
+                    proportions[i] = Double.parseDouble(parts[3 + i * 2]);
+                }
+
+                int kept = topK > 0 ? selectTop(topics, proportions, count, topK) : count;
+
+                for (int i = 0; i < kept; i++) {
+                    sink.addTopic(user, topics[i], proportions[i]);
+                }
+                rows += kept;
             }
-            return prepStatement;
-        } catch (SQLException | IOException e) {
-            e.printStackTrace();
         }
-        return prepStatement;
+        return rows;
+    }
+
+    /**
+     * Move the k topics with the highest proportions to the front, highest first.
+     *
+     * @param topics The topic of each pair
+     * @param proportions The proportion of each pair
+     * @param count The number of pairs
+     * @param k The number of pairs to keep
+     * @return The number of pairs kept
+     */
+    private static int selectTop(int[] topics, double[] proportions, int count, int k) {
+        int kept = Math.min(k, count);
+
+        for (int i = 0; i < kept; i++) {
+            int max = i;
+
+            for (int j = i + 1; j < count; j++) {
+                if (proportions[j] > proportions[max]) {
+                    max = j;
+                }
+            }
+
+            int topic = topics[i];
+            topics[i] = topics[max];
+            topics[max] = topic;
+
+            double proportion = proportions[i];
+            proportions[i] = proportions[max];
+            proportions[max] = proportion;
+        }
+        return kept;
+    }
+
+    /**
+     * Where the rows read from the LDA output are stored.
+     */
+    private interface TopicSink {
+
+        void addKey(int topic, double dirichlet, String words) throws IOException, SQLException;
+
+        void addTopic(int user, int topic, double proportion) throws IOException, SQLException;
+
+        void finish() throws IOException, SQLException;
+
+        void close() throws IOException, SQLException;
+    }
+
+    /**
+     * Inserts the rows into the LDA tables, in bounded batches.
+     */
+    private static class DatabaseSink implements TopicSink {
+
+        private final PreparedStatement keys, composition;
+        private int pendingKeys, pendingTopics;
+
+        DatabaseSink(CapstoneDBConnection con) throws SQLException {
+            keys = con.getConnection().prepareStatement("INSERT INTO "
+                    + "capstone.LDA_keys(TOPIC, DIRICHLET_PARAMETER, DATA_PIECES) "
+                    + "VALUES (?, ?, ?)");
+            composition = con.getConnection().prepareStatement("INSERT INTO "
+                    + "capstone.LDA_composition(USER_ID, TOPIC_ID, TOPIC_DISTRIBUTION) "
+                    + "VALUES (?, ?, ?)");
+        }
+
+        @Override
+        public void addKey(int topic, double dirichlet, String words) throws SQLException {
+            keys.setInt(1, topic);
+            keys.setDouble(2, dirichlet);
+            keys.setString(3, words);
+            keys.addBatch();
+
+            if (++pendingKeys == BATCH_ROWS) {
+                keys.executeBatch();
+                pendingKeys = 0;
+            }
+        }
+
+        @Override
+        public void addTopic(int user, int topic, double proportion) throws SQLException {
+            composition.setInt(1, user);
+            composition.setInt(2, topic);
+            composition.setDouble(3, proportion);
+            composition.addBatch();
+
+            if (++pendingTopics == BATCH_ROWS) {
+                composition.executeBatch();
+                pendingTopics = 0;
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            if (pendingKeys > 0) {
+                keys.executeBatch();
+            }
+            if (pendingTopics > 0) {
+                composition.executeBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            keys.close();
+            composition.close();
+        }
+    }
+
+    /**
+     * Writes the rows to columnar snapshot files.
+     */
+    private static class SnapshotSink implements TopicSink {
+
+        private final ColumnarTable.Writer keys, composition;
+
+        SnapshotSink(File keysTable, File compositionTable) throws IOException {
+            keys = new ColumnarTable.Writer(keysTable,
+                    new String[]{"TOPIC", "DIRICHLET_PARAMETER", "DATA_PIECES"},
+                    new int[]{ColumnarTable.INT, ColumnarTable.FLOAT, ColumnarTable.STRING});
+            composition = new ColumnarTable.Writer(compositionTable,
+                    new String[]{"USER_ID", "TOPIC_ID", "TOPIC_DISTRIBUTION"},
+                    new int[]{ColumnarTable.INT, ColumnarTable.INT, ColumnarTable.FLOAT});
+        }
+
+        @Override
+        public void addKey(int topic, double dirichlet, String words) throws IOException {
+            keys.setInt(0, topic);
+            keys.setFloat(1, (float) dirichlet);
+            keys.setString(2, words);
+            keys.endRow();
+        }
+
+        @Override
+        public void addTopic(int user, int topic, double proportion) throws IOException {
+            composition.setInt(0, user);
+            composition.setInt(1, topic);
+            composition.setFloat(2, (float) proportion);
+            composition.endRow();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            keys.finish();
+            composition.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            keys.close();
+            composition.close();
+        }
     }
 }
@@ -0,0 +1,159 @@
+package datageneration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Stores the capstone schema in the MySQL database of a CapstoneDBConnection.
+ *
+ * @author Jordan & Michael
+ */
+public class MySQLStore implements CapstoneStore {
+
+    // Each profile's folder, and the query of its artifacts (left joined so every user who tagged
+    // a movie still gets a document), with the schema as %1$s
+    private static final String[][] PROFILE_QUERIES = {
+        {CreateTagsDocuments.FOLDER, "SELECT USER_ID, TAG_VAL FROM %1$s.movie_tags "
+            + "LEFT JOIN %1$s.tags "
+            + "ON %1$s.movie_tags.TAG_ID = %1$s.tags.TAG_ID"},
+        {CreateCategoryDocuments.FOLDER, "SELECT USER_ID, GENRE_VAL FROM %1$s.movie_tags "
+            + "LEFT JOIN %1$s.movie_genres "
+            + "ON %1$s.movie_genres.MOVIE_ID = %1$s.movie_tags.MOVIE_ID"}};
+
+    // Database connection instance
+    private final CapstoneDBConnection con;
+
+    /**
+     * Constructor.
+     *
+     * @param con Database connection instance
+     */
+    public MySQLStore(CapstoneDBConnection con) {
+        this.con = con;
+    }
+
+    /**
+     * Getter method for connection
+     *
+     * @return Database connection instance
+     */
+    public CapstoneDBConnection getConnection() {
+        return con;
+    }
+
+    @Override
+    public void create() {
+        con.createDatabase();
+    }
+
+    @Override
+    public void load(String[] files) {
+        new ReadInDat(files, con);
+    }
+
+    @Override
+    public ArtifactCursor openArtifacts(String[] profiles) throws SQLException {
+        Connection connection = con.getConnection();
+        final Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+
+        // A forward only, read only statement with this fetch size is streamed by MySQL
+        if (connection.getMetaData().getDatabaseProductName().equals("MySQL")) {
+            statement.setFetchSize(Integer.MIN_VALUE);
+        }
+
+        final ResultSet rows = statement.executeQuery(getArtifactsQuery(profiles,
+                con.getSchema()));
+
+        return new ArtifactCursor() {
+            @Override
+            public boolean next() throws SQLException {
+                return rows.next();
+            }
+
+            @Override
+            public int getUserId() throws SQLException {
+                return rows.getInt(1);
+            }
+
+            @Override
+            public String getArtifact() throws SQLException {
+                return rows.getString(2);
+            }
+
+            @Override
+            public void close() throws SQLException {
+                statement.close();
+            }
+        };
+    }
+
+    /**
+     * Combine the queries of the profiles into one query of all a user's artifacts, ordered by
+     * user.
+     *
+     * @param profiles The profiles to read
+     * @param schema The schema holding the tables
+     * @return The SQL query
+     */
+    static String getArtifactsQuery(String[] profiles, String schema) {
+        if (profiles.length == 1) {
+            return getProfileQuery(profiles[0], schema) + " ORDER BY USER_ID";
+        }
+
+        StringBuilder query = new StringBuilder("SELECT * FROM (");
+
+        for (int i = 0; i < profiles.length; i++) {
+            if (i > 0) {
+                query.append(" UNION ALL ");
+            }
+            query.append(getProfileQuery(profiles[i], schema));
+        }
+
+        // Column names are taken from the first query, so order by position
+        return query.append(") AS merged ORDER BY 1").toString();
+    }
+
+    /**
+     * Get the unordered query of a profile's artifacts.
+     *
+     * @param profile The profile's folder
+     * @param schema The schema holding the tables
+     * @return The SQL query
+     */
+    private static String getProfileQuery(String profile, String schema) {
+        for (String[] profileQuery : PROFILE_QUERIES) {
+            if (profileQuery[0].equals(profile)) {
+                return String.format(profileQuery[1], schema);
+            }
+        }
+        throw new IllegalArgumentException("Unknown profile: " + profile);
+    }
+
+    @Override
+    public void createFinalRatings(List<Integer> userIds) throws SQLException {
+
+        // Insert data for ideal users, just take data from existing ratings table
+        String schema = con.getSchema();
+
+        try (PreparedStatement prepStatement = con.getConnection().prepareStatement(
+                "INSERT INTO " + schema + ".movie_ratings_final "
+                + "SELECT * FROM " + schema + ".movie_ratings WHERE USER_ID = ?")) {
+
+            for (Integer userId : userIds) {
+                prepStatement.setInt(1, userId);
+                prepStatement.addBatch();
+            }
+            prepStatement.executeBatch();
+        }
+    }
+
+    @Override
+    public void close() {
+        con.shutDown();
+    }
+}
@@ -1,20 +1,63 @@
 package datageneration;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 
 /**
- * Prepare supplied dataset for processing.
+ * Prepare supplied dataset for processing.<p>
+ *
+ * Each .dat file is streamed line by line, and only the required columns are cut out of each line
+ * and normalised, so memory use doesn't grow with the size of the file. The rows are then loaded in
+ * one of three ways:
+ * <ul>
+ * <li>MySQL - written to a temporary tab separated file and bulk loaded with LOAD DATA</li>
+ * <li>Other databases - inserted in batches of BATCH_ROWS rows</li>
+ * <li>No database - written to a columnar snapshot file, see SnapshotSink</li>
+ * </ul>
  *
  * @author Jordan & Michael
  */
 public class ReadInDat {
 
+    // Rows inserted per batch when the database has no bulk load
+    private static final int BATCH_ROWS = 10000;
+
+    // Column types, for columnar snapshots
+    private static final int INT = ColumnarTable.INT,
+            FLOAT = ColumnarTable.FLOAT,
+            STRING = ColumnarTable.STRING;
+
+    // The supported files: file name, table, then the name and type of each required column
+    private static final Object[][] DAT_FILES = {
+        {"user_ratedmovies.dat", "capstone.movie_ratings",
+            new String[]{"USER_ID", "MOVIE_ID", "RATING_VAL"}, new int[]{INT, INT, FLOAT}},
+        {"user_taggedmovies.dat", "capstone.movie_tags",
+            new String[]{"USER_ID", "MOVIE_ID", "TAG_ID"}, new int[]{INT, INT, INT}},
+        {"tags.dat", "capstone.tags",
+            new String[]{"TAG_ID", "TAG_VAL"}, new int[]{INT, STRING}},
+        {"movie_genres.dat", "capstone.movie_genres",
+            new String[]{"MOVIE_ID", "GENRE_VAL"}, new int[]{INT, STRING}}};
+
+    // Indexes within DAT_FILES
+    private static final int FILE_NAME = 0,
+            TABLE_NAME = 1,
+            COLUMN_NAMES = 2,
+            COLUMN_TYPES = 3;
+
     // Connection to the database
     private CapstoneDBConnection con;
 
+    // Directory snapshots are written to, when not using the database
+    private File snapshotDirectory;
+
     /**
      * Read in an array of .dat files and close connection to db when done
      *
@@ -30,112 +73,361 @@ public class ReadInDat {
         }
     }
 
+    /**
+     * Read in an array of .dat files into columnar snapshots, without a database. Each snapshot
+     * is named after its table, eg. capstone.movie_ratings.cols.
+     *
+     * @param files all the files to be read in as Strings
+     * @param snapshotDirectory the directory to write the snapshots to
+     */
+    public ReadInDat(String[] files, File snapshotDirectory) {
+        this.snapshotDirectory = snapshotDirectory;
+        snapshotDirectory.mkdirs();
+
+        for (String thisFile : files) {
+            readData(thisFile);
+        }
+    }
+
     /**
      * Read in data from file, split on tab character into array and insert required columns only
      *
      * @param location The location of the file to be read
      */
     public void readData(String location) {
-        try {
-            // PreparedStatement to pass query string to the database
-            PreparedStatement prepStatement = null;
-
-            // Depending on the provided name and path of the file, read differently
-            switch (location) {
-                case "user_taggedmovies.dat":
-                    prepStatement = setupPreparedStatement("INSERT INTO "
-                            + "capstone.movie_tags(USER_ID, MOVIE_ID, TAG_ID) "
-                            + "VALUES (?, ?, ?)", location, prepStatement);
-                    break;
-
-                case "tags.dat":
-                    prepStatement = setupPreparedStatement("INSERT INTO "
-                            + "capstone.tags(TAG_ID, TAG_VAL) "
-                            + "VALUES (?, ?)", location, prepStatement);
-                    break;
-
-                case "movie_genres.dat":
-                    prepStatement = setupPreparedStatement("INSERT INTO "
-                            + "capstone.movie_genres(MOVIE_ID, GENRE_VAL) "
-                            + "VALUES (?, ?)", location, prepStatement);
-                    break;
-                case "user_ratedmovies.dat":
-                    prepStatement = setupPreparedStatement("INSERT INTO "
-                            + "capstone.movie_ratings(USER_ID, MOVIE_ID, RATING_VAL) "
-                            + "VALUES (?, ?, ?)", location, prepStatement);
-                    break;
+        Object[] format = null;
+
+        // Depending on the provided name and path of the file, read differently
+        for (Object[] datFile : DAT_FILES) {
+            if (datFile[FILE_NAME].equals(location)) {
+                format = datFile;
             }
+        }
 
-            prepStatement.executeBatch();
+        if (format == null) {
+            System.err.println("Unknown data file: " + location);
+            return;
+        }
 
-        } catch (SQLException ex) {
+        String table = (String) format[TABLE_NAME];
+        String[] columns = (String[]) format[COLUMN_NAMES];
+        int[] types = (int[]) format[COLUMN_TYPES];
+
+        try (RowSink sink = createSink(table, columns, types)) {
+            readRows(location, columns.length, sink);
+            sink.finish();
+        } catch (SQLException | IOException ex) {
             ex.printStackTrace();
         }
+    }
+
+    /**
+     * Chooses how to load a table's rows.
+     */
+    private RowSink createSink(String table, String[] columns, int[] types)
+            throws SQLException, IOException {
+        if (snapshotDirectory != null) {
+            return new SnapshotSink(new File(snapshotDirectory, table + ".cols"), columns, types);
+        }
 
+        // Tables are named in the capstone schema, the connection may keep them in another
+        Connection connection = con.getConnection();
+        table = con.getSchema() + table.substring(table.indexOf('.'));
+
+        if (connection.getMetaData().getDatabaseProductName().equals("MySQL")) {
+            return new BulkLoadSink(connection, table, columns);
+        }
+        return new BatchSink(connection, table, columns);
     }
 
     /**
-     * Sets up and returns a prepared statement for batch queries on the database by reading in data
-     * from file
-     *
-     * @param query the query to execute
+     * Streams a file, passing the first columns of each line after the header to a sink.
      *
      * @param location the location of the file to be read from
-     * @param prepStatement the prepared statement object
-     * @return The correct prepared statement
+     * @param columns the number of columns required
+     * @param sink receives the normalised columns of each line
      */
-    private PreparedStatement setupPreparedStatement(String query, String location,
-            PreparedStatement prepStatement) {
-        try {
-            // String to represent each line of the file as it is read
-            String line;
+    private void readRows(String location, int columns, RowSink sink)
+            throws SQLException, IOException {
 
-            // BufferedReader to parse over file text
-            BufferedReader reader = new BufferedReader(new FileReader(location));
+        // Reused for every row
+        CharSequence[] cells = new CharSequence[columns];
+        StringBuilder[] buffers = new StringBuilder[columns];
 
-            // count the number of columns that require data (ie. count of "?" in query)
-            int columns = query.length() - query.replace("?", "").length();
+        for (int i = 0; i < columns; i++) {
+            buffers[i] = new StringBuilder();
+            cells[i] = buffers[i];
+        }
 
-            // Prepared statement for movie tags
-            prepStatement = con.getConnection().prepareStatement(query);
+        // BufferedReader to parse over file text
+        try (BufferedReader reader = new BufferedReader(new FileReader(location), 1 << 16)) {
 
             // Jump to the second line, skipping over column names
-            line = reader.readLine();
+            String line = reader.readLine();
 
-            // Read the file line-by-line, 
-            // creating statements and adding to a batch insertion command
+            // Read the file line-by-line, cutting out and normalising the required columns
             while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\t");
+                int start = 0;
+
+                for (int i = 0; i < columns; i++) {
+                    int end = line.indexOf('\t', start);
 
-                for (int i = 1; i <= columns; i++) {
-                    prepStatement.setString(i, normaliseStrings(parts[i - 1]));
+                    if (end < 0) {
+                        end = line.length();
+                    }
+
+                    normaliseStrings(line, start, end, buffers[i]);
+                    start = end + 1;
                 }
-                
-                prepStatement.addBatch();
+
+                sink.add(cells);
             }
+        }
+    }
+
+    /**
+     * Format strings as required by Mallet: capitalise the first character and remove all
+     * whitespace, as replaceAll("\\s", "") would, without creating any strings.
+     *
+     * @param line The line holding the string
+     * @param start The start of the string in the line
+     * @param end The end of the string in the line
+     * @param output Receives the correctly formatted string
+     */
+    static void normaliseStrings(String line, int start, int end, StringBuilder output) {
+        output.setLength(0);
 
-            return prepStatement;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
 
-        } catch (SQLException | IOException ex) {
-            ex.printStackTrace();
-            return null;
+            // Remove all spaces (the characters matched by \s)
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                continue;
+            }
+
+            // Capitalise first letter (non-ASCII letters may upper case to several characters)
+            if (i != start) {
+                output.append(c);
+            } else if (c < 0x80) {
+                output.append(Character.toUpperCase(c));
+            } else {
+                output.append(String.valueOf(c).toUpperCase());
+            }
         }
     }
 
     /**
-     * Format strings as required by Mallet.
+     * Receives the rows of one table.
+     */
+    private interface RowSink extends AutoCloseable {
+
+        /**
+         * Adds a row. The cells are only valid until the next row.
+         */
+        void add(CharSequence[] cells) throws SQLException, IOException;
+
+        /**
+         * Completes the load once every row has been added.
+         */
+        void finish() throws SQLException, IOException;
+
+        @Override
+        void close() throws SQLException, IOException;
+    }
+
+    /**
+     * Writes rows to a temporary file and loads it with MySQL's LOAD DATA LOCAL INFILE.<p>
      *
-     * @param input Original string
-     * @return Correctly formatted string
+     * With LOCAL, MySQL can't stop the client sending the file, so rows that would fail an INSERT
+     * (duplicate keys, bad values) are always skipped or altered with a warning rather than
+     * aborting the load. IGNORE is given to make that explicit, and the load is then checked: if
+     * any row was skipped or any warning was raised the load fails, as the batch INSERT would
+     * have.
+     */
+    private static class BulkLoadSink implements RowSink {
+
+        private final Connection connection;
+        private final String table;
+        private final String[] columns;
+        private final File file;
+        private final Writer writer;
+
+        // Rows written to the file
+        private long rows;
+
+        BulkLoadSink(Connection connection, String table, String[] columns) throws IOException {
+            this.connection = connection;
+            this.table = table;
+            this.columns = columns;
+
+            file = File.createTempFile("readindat", ".tsv");
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                    StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        @Override
+        public void add(CharSequence[] cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                if (i > 0) {
+                    writer.write('\t');
+                }
+
+                // Backslash is LOAD DATA's escape character, whitespace has been removed
+                CharSequence cell = cells[i];
+
+                for (int j = 0; j < cell.length(); j++) {
+                    char c = cell.charAt(j);
+
+                    if (c == '\\') {
+                        writer.write('\\');
+                    }
+                    writer.write(c);
+                }
+            }
+            writer.write('\n');
+            rows++;
+        }
+
+        @Override
+        public void finish() throws SQLException, IOException {
+            writer.close();
+
+            StringBuilder sql = new StringBuilder("LOAD DATA LOCAL INFILE '")
+                    .append(file.getAbsolutePath().replace('\\', '/').replace("'", "\\'"))
+                    .append("' IGNORE INTO TABLE ").append(table)
+                    .append(" CHARACTER SET utf8 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'"
+                            + " LINES TERMINATED BY '\\n' (");
+
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "" : ", ").append(columns[i]);
+            }
+            sql.append(")");
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql.toString());
+
+                int loaded = statement.getUpdateCount();
+                SQLWarning warning = statement.getWarnings();
+
+                if (loaded != rows || warning != null) {
+                    throw new SQLException("Loaded " + loaded + " of " + rows + " rows into "
+                            + table + (warning == null ? "" : ", first warning: "
+                            + warning.getMessage()), warning);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Inserts rows with a prepared statement, executing the batch every BATCH_ROWS rows.
      */
-    private static String normaliseStrings(String input) {
+    private static class BatchSink implements RowSink {
+
+        private final PreparedStatement prepStatement;
+        private int pending;
 
-        // Capitalise first letter
-        String output = input.substring(0, 1).toUpperCase() + input.substring(1);
+        BatchSink(Connection connection, String table, String[] columns) throws SQLException {
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append("(");
+            StringBuilder values = new StringBuilder();
+
+            for (int i = 0; i < columns.length; i++) {
+                sql.append(i == 0 ? "" : ", ").append(columns[i]);
+                values.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") VALUES (").append(values).append(")");
 
-        // Remove all spaces
-        output = output.replaceAll("\\s", "");
+            prepStatement = connection.prepareStatement(sql.toString());
+        }
+
+        @Override
+        public void add(CharSequence[] cells) throws SQLException {
+            for (int i = 0; i < cells.length; i++) {
+                prepStatement.setString(i + 1, cells[i].toString());
+            }
+            prepStatement.addBatch();
 
-        return output;
+            // Don't let the driver buffer the whole file
+            if (++pending == BATCH_ROWS) {
+                prepStatement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void finish() throws SQLException {
+            if (pending > 0) {
+                prepStatement.executeBatch();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            prepStatement.close();
+        }
+    }
+
+    /**
+     * Writes rows to a columnar snapshot file, in the layout read by ColumnarTable.
+     */
+    private static class SnapshotSink implements RowSink {
+
+        private final int[] types;
+        private final ColumnarTable.Writer writer;
+
+        SnapshotSink(File file, String[] columns, int[] types) throws IOException {
+            this.types = types;
+            writer = new ColumnarTable.Writer(file, columns, types);
+        }
+
+        @Override
+        public void add(CharSequence[] cells) throws IOException {
+            for (int i = 0; i < cells.length; i++) {
+                switch (types[i]) {
+                    case INT:
+                        writer.setInt(i, parseInt(cells[i]));
+                        break;
+                    case FLOAT:
+                        writer.setFloat(i, Float.parseFloat(cells[i].toString()));
+                        break;
+                    default:
+                        writer.setString(i, cells[i].toString());
+                }
+            }
+            writer.endRow();
+        }
+
+        /**
+         * Parses an int without creating a string.
+         */
+        private static int parseInt(CharSequence cell) {
+            int value = 0;
+            boolean negative = cell.length() > 0 && cell.charAt(0) == '-';
+
+            for (int i = negative ? 1 : 0; i < cell.length(); i++) {
+                char c = cell.charAt(i);
+
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Not an integer: " + cell);
+                }
+                value = value * 10 + (c - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.finish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
     }
-}
\ No newline at end of file
+}
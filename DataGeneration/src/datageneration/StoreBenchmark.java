@@ -0,0 +1,130 @@
+package datageneration;
+
+import java.io.File;
+
+/**
+ * Times every stage of the data generation pipeline against MySQL and against the local store of
+ * columnar snapshots, from the same .dat files.<p>
+ *
+ * Each stage is run as DataGeneration runs it with the "all" scope: create the tables, read in the
+ * .dat files, export the tag and category documents, merge them and create the final ratings
+ * table. The documents are written to the working directory, as DataGeneration writes them.<p>
+ *
+ * The tables are dropped and recreated, so the benchmark never touches the live data: MySQL is
+ * only timed when asked for, in the scratch schema capstone_bench, and the snapshots are written
+ * to snapshots-bench rather than the snapshots read by RecommendationEvaluation. MySQL is skipped
+ * if it can't be connected to.<p>
+ *
+ * Run with: java datageneration.StoreBenchmark [snapshot] [mysql] (snapshot only by default),
+ * from a directory holding the .dat files.
+ *
+ * @author Jordan & Michael
+ */
+public class StoreBenchmark {
+
+    // Files read by the pipeline, as in DataGeneration
+    private static final String[] datFiles = {"user_ratedmovies.dat", "user_taggedmovies.dat",
+        "tags.dat", "movie_genres.dat"},
+            foldersToMerge = {"userTags", "userCats"};
+
+    // Scratch schema and snapshot directory the benchmark's tables are written to
+    private static final String BENCH_SCHEMA = "capstone_bench",
+            BENCH_SNAPSHOTS = "snapshots-bench";
+
+    // Names of the pipeline stages
+    private static final String[] STAGES = {"Create", "Load", "Tag documents",
+        "Category documents", "Merge", "Final ratings", "Total"};
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The stores to time, snapshot and/or mysql
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        String[] stores = args.length == 0 ? new String[]{"snapshot"} : args;
+
+        System.out.print("Stage");
+        for (String store : stores) {
+            System.out.print("\t" + store + " (s)");
+        }
+        System.out.println();
+
+        double[][] seconds = new double[stores.length][];
+
+        for (int i = 0; i < stores.length; i++) {
+            seconds[i] = time(stores[i]);
+        }
+
+        for (int stage = 0; stage < STAGES.length; stage++) {
+            System.out.print(STAGES[stage]);
+
+            for (double[] storeSeconds : seconds) {
+                System.out.print(storeSeconds == null ? "\tn/a"
+                        : String.format("\t%.2f", storeSeconds[stage]));
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * Runs the pipeline against a store.
+     *
+     * @param name The store, mysql or snapshot
+     * @return The seconds taken by each stage and in total, or null if the store is unavailable
+     */
+    private static double[] time(String name) throws Exception {
+        CapstoneStore store;
+
+        if (name.equals("mysql")) {
+            CapstoneDBConnection con = new CapstoneDBConnection(BENCH_SCHEMA);
+
+            if (con.getConnection() == null) {
+                System.err.println("MySQL is unavailable, skipping it");
+                return null;
+            }
+            store = new MySQLStore(con);
+        } else {
+            store = new ColumnarStore(new File(BENCH_SNAPSHOTS));
+        }
+
+        double[] seconds = new double[STAGES.length];
+        long start = System.nanoTime();
+        long stageStart = start;
+
+        store.create();
+        seconds[0] = elapsed(stageStart);
+
+        stageStart = System.nanoTime();
+        store.load(datFiles);
+        seconds[1] = elapsed(stageStart);
+
+        stageStart = System.nanoTime();
+        new CreateTagsDocuments("all", store);
+        seconds[2] = elapsed(stageStart);
+
+        stageStart = System.nanoTime();
+        new CreateCategoryDocuments("all", store);
+        seconds[3] = elapsed(stageStart);
+
+        stageStart = System.nanoTime();
+        new MergeDocuments("mergedTagCatProfile", store, foldersToMerge, 20);
+        seconds[4] = elapsed(stageStart);
+
+        stageStart = System.nanoTime();
+        new FinaliseMovieRatings(store).createFinalRatingsTable();
+        seconds[5] = elapsed(stageStart);
+
+        seconds[6] = elapsed(start);
+        store.close();
+
+        return seconds;
+    }
+
+    /**
+     * Gets the seconds since a start time.
+     */
+    private static double elapsed(long start) {
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -1,28 +1,93 @@
 package movielensspike;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
 
 /**
  * Splits MovieLens data into two sections for use with IR metrics (precision/recall). One set of
  * data will be used to generate recommendations, and the other will be used for a comparison. Each
- * data set will be output to the database.
+ * data set will be output to the database, or to CSV or binary files.<p>
+ *
+ * capstone.movielens_total is read once, streamed in user order. Each user's ratings are collected
+ * as their rows arrive and split as soon as the next user starts, so every user is split by the same
+ * percentage (stratified by user). Three split modes are available:
+ * <ul>
+ * <li>RANDOM - a seeded reservoir sample of each user's ratings is held out for comparison</li>
+ * <li>K_FOLD - each user's ratings are dealt into k folds in a seeded random order, and one fold is
+ * held out</li>
+ * <li>TEMPORAL - each user's most recent ratings are held out</li>
+ * </ul>
+ * The random generator is seeded per user from the splitter's seed, so a split can be reproduced
+ * exactly.<p>
+ *
+ * The ratings are always read from MySQL, even when the split is written to files: movielens_total
+ * is only created there, by ReadInMovieLens, and MovieLensSpike has no local store like
+ * DataGeneration's.
  *
  * @author Jordan
  */
 public class MovieLensSplitter {
 
+    // Split modes
+    public static final int RANDOM = 1,
+            K_FOLD = 2,
+            TEMPORAL = 3;
+
+    // File output formats
+    public static final int CSV = 1,
+            BINARY = 2;
+
+    // Header of binary output files, followed by (user int, movie int, rating float) records
+    public static final int BINARY_MAGIC = 0x4D4C5350, // "MLSP"
+            BINARY_VERSION = 1;
+
+    // Seed used when none is given
+    private static final long DEFAULT_SEED = 42;
+
+    // Rows in each multi-row insert statement
+    private static final int INSERT_ROWS = 1000;
+
+    // Table names of the two data sets
+    private static final String COMPARE_TABLE = "movielens_compare",
+            RECOMMEND_TABLE = "movielens_recommend";
+
     // Database connection instance
     private final Connection con;
 
     // % of data that will be used for comparison
     private final double comparisonDataPercentage;
 
+    // Seed for the per user random generators
+    private final long seed;
+
+    // How ratings are chosen for comparison, and the folds for K_FOLD
+    private int mode = RANDOM, folds, heldOutFold;
+
+    // The ratings of the user being read
+    private int currentUser, ratingCount;
+    private int[] movies = new int[256];
+    private double[] ratings = new double[256];
+    private long[] times = new long[256];
+    private boolean[] heldOut = new boolean[256];
+
+    // Reused for each user's split
+    private final Random random = new Random();
+
     /**
      * Constructor sets up private connection field.
      *
@@ -30,8 +95,43 @@ public class MovieLensSplitter {
      * @param percentage The percentage of data to use for comparison
      */
     public MovieLensSplitter(Connection con, double percentage) {
+        this(con, percentage, DEFAULT_SEED);
+    }
+
+    /**
+     * Constructor sets up private connection field and the random seed.
+     *
+     * @param con Database connection instance
+     * @param percentage The percentage of data to use for comparison
+     * @param seed The seed that the random split is made from
+     */
+    public MovieLensSplitter(Connection con, double percentage, long seed) {
         this.con = con;
         this.comparisonDataPercentage = percentage;
+        this.seed = seed;
+    }
+
+    /**
+     * Hold out each user's most recent ratings for comparison, rather than random ratings.
+     */
+    public void useTemporalSplit() {
+        mode = TEMPORAL;
+    }
+
+    /**
+     * Deal each user's ratings into folds and hold out one fold for comparison, rather than a
+     * percentage. Run once per fold, with the same seed, for k-fold cross validation.
+     *
+     * @param folds The number of folds, k
+     * @param fold The fold to hold out, from 0 to k - 1
+     */
+    public void useKFoldSplit(int folds, int fold) {
+        if (folds < 2 || fold < 0 || fold >= folds) {
+            throw new IllegalArgumentException("Fold " + fold + " of " + folds + " is not valid");
+        }
+        this.mode = K_FOLD;
+        this.folds = folds;
+        this.heldOutFold = fold;
     }
 
     /**
@@ -69,170 +169,366 @@ public class MovieLensSplitter {
     }
 
     /**
-     * Fills tables in the database with split rating information.
+     * Fills tables in the database with split rating information, using multi-row inserts.<p>
      *
+     * MySQL can't use a connection for anything else while a result is being streamed from it, so
+     * the split is written through a second connection.
+     *
+     * @param output A second connection to the same database, for the inserts
      * @throws java.sql.SQLException
      */
-    public void fillDb() throws SQLException {
-        // statement to insert all data into two tables
-        PreparedStatement prepStatement = null;
+    public void fillDb(Connection output) throws SQLException {
+        boolean autoCommit = output.getAutoCommit();
+        output.setAutoCommit(false);
+
+        try (DatabaseSink compare = new DatabaseSink(output, COMPARE_TABLE);
+                DatabaseSink recommend = new DatabaseSink(output, RECOMMEND_TABLE)) {
+
+            split(compare, recommend);
+            compare.flush();
+            recommend.flush();
+            output.commit();
+
+        } catch (SQLException | RuntimeException ex) {
+            output.rollback();
+            throw ex;
+        } finally {
+            output.setAutoCommit(autoCommit);
+        }
+    }
 
-        // Get all user ids
-        ResultSet allUsers = getUsers();
+    /**
+     * Writes the split rating information to files named after the tables, movielens_compare and
+     * movielens_recommend, with a .csv or .bin extension.
+     *
+     * @param directory The directory to write the files to
+     * @param format CSV or BINARY
+     * @throws SQLException
+     * @throws IOException
+     */
+    public void fillFiles(File directory, int format) throws SQLException, IOException {
+        String extension = format == BINARY ? ".bin" : ".csv";
+        File compareFile = new File(directory, COMPARE_TABLE + extension),
+                recommendFile = new File(directory, RECOMMEND_TABLE + extension);
 
-        // Iterate over users, collect their data and add to appropriate tables
-        while (allUsers.next()) {
-            ResultSet allData;
-            int currentUser, dataCount;
+        try (FileSink compare = new FileSink(compareFile, format);
+                FileSink recommend = new FileSink(recommendFile, format)) {
 
-            // list for shuffling to access random comparison data pieces
-            ArrayList<Integer> dataPositions = new ArrayList();
+            split(compare, recommend);
+        } catch (SinkException ex) {
+            throw ex.getCause();
+        }
+    }
 
-            // the locations of the comparison data pieces in allData
-            ArrayList<Integer> comparisonLocations = new ArrayList();
+    /**
+     * Streams every rating once in user order, splitting each user's ratings between the sinks.
+     */
+    private void split(Sink compare, Sink recommend) throws SQLException {
+        String sql = "SELECT USER_ID, MOVIE_ID, RATING_VAL, RATED_AT "
+                + "FROM capstone.movielens_total ORDER BY USER_ID";
 
-            ArrayList<MovieRating> comparisonData = new ArrayList(),
-                    recommenderData = new ArrayList(); // two data sets
+        // A forward only, read only statement with this fetch size is streamed by MySQL
+        try (Statement statement = con.createStatement(ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(Integer.MIN_VALUE);
 
-            // Store current user
-            currentUser = allUsers.getInt("USER_ID");
+            try (ResultSet rows = statement.executeQuery(sql)) {
+                ratingCount = 0;
 
-            // Collect all data pieces for that user
-            allData = getDataForUser(currentUser);
+                while (rows.next()) {
+                    int user = rows.getInt(1);
 
-            // count data for user
-            dataCount = countDataForUser(currentUser);
+                    // A new user, so the previous user's ratings are complete
+                    if (ratingCount > 0 && user != currentUser) {
+                        splitUser(compare, recommend);
+                    }
 
-            // initialise indices array for shuffling
-            for (int i = 1; i <= dataCount; i++) {
-                dataPositions.add(i);
+                    currentUser = user;
+                    addRating(rows.getInt(2), rows.getDouble(3), rows.getLong(4));
+                }
+
+                if (ratingCount > 0) {
+                    splitUser(compare, recommend);
+                }
             }
+        }
+    }
+
+    /**
+     * Adds a rating to the current user's ratings.
+     */
+    private void addRating(int movie, double rating, long time) {
+        if (ratingCount == movies.length) {
+            int capacity = movies.length * 2;
+            movies = Arrays.copyOf(movies, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            times = Arrays.copyOf(times, capacity);
+            heldOut = new boolean[capacity];
+        }
+
+        movies[ratingCount] = movie;
+        ratings[ratingCount] = rating;
+        times[ratingCount] = time;
+        ratingCount++;
+    }
 
-            Collections.shuffle(dataPositions); // shuffle array
+    /**
+     * Chooses the current user's comparison ratings, sends every rating to its sink and clears the
+     * user's ratings.
+     */
+    private void splitUser(Sink compare, Sink recommend) throws SQLException {
+        random.setSeed(seed ^ (currentUser * 0x9E3779B97F4A7C15L));
+        Arrays.fill(heldOut, 0, ratingCount, false);
+
+        if (mode == K_FOLD) {
+            chooseFold();
+        } else if (mode == TEMPORAL) {
+            chooseLatest(comparisonCount());
+        } else {
+            chooseReservoir(comparisonCount());
+        }
 
-            // add random data to comparison data using shuffle dataIndices
-            for (int i = 0; i < comparisonDataPercentage / 100 * dataCount; i++) {
-                // move allData result to the first random position
-                allData.absolute(dataPositions.get(i));
+        for (int i = 0; i < ratingCount; i++) {
+            (heldOut[i] ? compare : recommend).add(currentUser, movies[i], ratings[i]);
+        }
 
-                // add this movie rating to the comparison data
-                comparisonData.add(new MovieRating(allData.getInt("USER_ID"),
-                        allData.getInt("MOVIE_ID"), allData.getDouble("RATING_VAL")));
+        ratingCount = 0;
+    }
 
-                // mark this position as a comparison piece of data
-                comparisonLocations.add(dataPositions.get(i) - 1);
-            }
+    /**
+     * Gets the number of the current user's ratings to hold out, rounding up as before.
+     */
+    private int comparisonCount() {
+        return (int) Math.min(ratingCount,
+                Math.ceil(comparisonDataPercentage / 100 * ratingCount));
+    }
+
+    /**
+     * Holds out a uniform random sample of ratings, chosen with a reservoir.
+     */
+    private void chooseReservoir(int count) {
+        int[] reservoir = new int[count];
 
-            // add recommendation data to array
-            for (int i = 0; i < dataCount; i++) {
-                // check if comparison already has this data piece
-                if (!(comparisonLocations).contains(i)) {
-                    allData.absolute(i + 1); // set allData to this location
+        for (int i = 0; i < ratingCount; i++) {
+            if (i < count) {
+                reservoir[i] = i;
+            } else {
+                int slot = random.nextInt(i + 1);
 
-                    // add data to recommender set
-                    recommenderData.add(new MovieRating(allData.getInt("USER_ID"),
-                            allData.getInt("MOVIE_ID"), allData.getDouble("RATING_VAL")));
+                if (slot < count) {
+                    reservoir[slot] = i;
                 }
             }
+        }
 
-            // insert data into tables
-            prepStatement = prepareMovieRatingsInsertion(
-                    "movielens_compare", comparisonData, prepStatement); // comparison
-            prepStatement.executeBatch();
+        for (int position : reservoir) {
+            heldOut[position] = true;
+        }
+    }
 
-            prepStatement = prepareMovieRatingsInsertion(
-                    "movielens_recommend", recommenderData, prepStatement); // recommender
-            prepStatement.executeBatch();
+    /**
+     * Shuffles the ratings and deals them into folds in turn, holding out the chosen fold.
+     */
+    private void chooseFold() {
+        int[] order = new int[ratingCount];
+
+        for (int i = 0; i < ratingCount; i++) {
+            order[i] = i;
         }
 
+        // Fisher-Yates shuffle
+        for (int i = ratingCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+
+        for (int i = heldOutFold; i < ratingCount; i += folds) {
+            heldOut[order[i]] = true;
+        }
     }
 
     /**
-     * Gets all users as a result set.
-     *
-     * @return All the users
-     * @throws SQLException
+     * Holds out the most recent ratings, oldest first on ties by movie.
      */
-    private ResultSet getUsers() throws SQLException {
+    private void chooseLatest(int count) {
+        Integer[] order = new Integer[ratingCount];
 
-        // Prepared statement to collect users
-        PreparedStatement prepStatement;
+        for (int i = 0; i < ratingCount; i++) {
+            order[i] = i;
+        }
 
-        // SQL statement to collect distinct users
-        prepStatement = con.prepareStatement(
-                "SELECT DISTINCT USER_ID FROM capstone.movielens_total");
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byTime = Long.compare(times[a], times[b]);
+                return byTime != 0 ? byTime : Integer.compare(movies[a], movies[b]);
+            }
+        });
 
-        // Execute query and return results
-        return prepStatement.executeQuery();
+        for (int i = ratingCount - count; i < ratingCount; i++) {
+            heldOut[order[i]] = true;
+        }
     }
 
     /**
-     * Gets all the rating data for a user.
-     *
-     * @param userId The user to get data for
-     * @return User's rating data
-     * @throws SQLException
+     * Receives the ratings of one data set.
+     */
+    private interface Sink extends AutoCloseable {
+
+        /**
+         * Adds a rating to the data set.
+         */
+        void add(int user, int movie, double rating) throws SQLException;
+
+        /**
+         * Finishes the data set, only database and file writes can fail.
+         */
+        @Override
+        void close() throws SQLException, IOException;
+    }
+
+    /**
+     * Inserts ratings into a table, many rows per statement.
      */
-    private ResultSet getDataForUser(int userId) throws SQLException {
-        
-        // Prepared statement to collect data
-        PreparedStatement prepStatement;
+    private static class DatabaseSink implements Sink {
+
+        private final Connection con;
+        private final String tableName;
+
+        // Statement for a full set of rows, and the rows waiting to be inserted
+        private final PreparedStatement fullInsert;
+        private final int[] users = new int[INSERT_ROWS], movies = new int[INSERT_ROWS];
+        private final double[] ratings = new double[INSERT_ROWS];
+        private int size;
+
+        DatabaseSink(Connection con, String tableName) throws SQLException {
+            this.con = con;
+            this.tableName = tableName;
+            this.fullInsert = con.prepareStatement(insertSql(INSERT_ROWS));
+        }
 
-        // SQL statement to collect user's data
-        prepStatement = con.prepareStatement(
-                "SELECT * FROM capstone.movielens_total WHERE USER_ID = " + userId);
+        @Override
+        public void add(int user, int movie, double rating) throws SQLException {
+            users[size] = user;
+            movies[size] = movie;
+            ratings[size] = rating;
 
-        // Execute query and return results
-        return prepStatement.executeQuery();
+            if (++size == INSERT_ROWS) {
+                insert(fullInsert);
+            }
+        }
+
+        /**
+         * Inserts any waiting rows.
+         */
+        void flush() throws SQLException {
+            if (size > 0) {
+                try (PreparedStatement partialInsert = con.prepareStatement(insertSql(size))) {
+                    insert(partialInsert);
+                }
+            }
+        }
+
+        /**
+         * Inserts the waiting rows with a statement for exactly that many rows.
+         */
+        private void insert(PreparedStatement statement) throws SQLException {
+            int parameter = 1;
+
+            for (int i = 0; i < size; i++) {
+                statement.setInt(parameter++, users[i]);
+                statement.setInt(parameter++, movies[i]);
+                statement.setDouble(parameter++, ratings[i]);
+            }
+
+            statement.executeUpdate();
+            size = 0;
+        }
+
+        /**
+         * Builds an insert of a number of rows.
+         */
+        private String insertSql(int rows) {
+            StringBuilder sql = new StringBuilder("INSERT INTO capstone." + tableName
+                    + " (USER_ID, MOVIE_ID, RATING_VAL) VALUES ");
+
+            for (int i = 0; i < rows; i++) {
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            }
+            return sql.toString();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            fullInsert.close();
+        }
     }
 
     /**
-     * Counts the number of data pieces a user has
-     *
-     * @param userId The user to count data pieces for
-     * @return The count
-     * @throws SQLException
+     * Writes ratings to a CSV or binary file.
      */
-    private int countDataForUser(int userId) throws SQLException {
-        
-        // Prepared statement to count user's data
-        PreparedStatement prepStatement;
-        ResultSet rs;
+    private static class FileSink implements Sink {
+
+        private final Writer csv;
+        private final DataOutputStream binary;
+
+        FileSink(File file, int format) throws IOException {
+            BufferedOutputStream out = new BufferedOutputStream(new FileOutputStream(file),
+                    1 << 16);
+
+            if (format == BINARY) {
+                csv = null;
+                binary = new DataOutputStream(out);
+                binary.writeInt(BINARY_MAGIC);
+                binary.writeInt(BINARY_VERSION);
+            } else {
+                binary = null;
+                csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                csv.write("USER_ID,MOVIE_ID,RATING_VAL\n");
+            }
+        }
 
-        // SQL statement to count user's data
-        prepStatement = con.prepareStatement(
-                "SELECT COUNT(*) FROM capstone.movielens_total WHERE USER_ID = " + userId);
+        @Override
+        public void add(int user, int movie, double rating) {
+            try {
+                if (binary != null) {
+                    binary.writeInt(user);
+                    binary.writeInt(movie);
+                    binary.writeFloat((float) rating);
+                } else {
+                    csv.write(user + "," + movie + "," + rating + "\n");
+                }
+            } catch (IOException ex) {
+                throw new SinkException(ex);
+            }
+        }
 
-        // Execute query and return count
-        rs = prepStatement.executeQuery();
-        rs.first();
-        return rs.getInt("COUNT(*)");
+        @Override
+        public void close() throws IOException {
+            if (binary != null) {
+                binary.close();
+            } else {
+                csv.close();
+            }
+        }
     }
 
     /**
-     * Adds batch statement to insert movie ratings
-     *
-     * @param tableName The table to insert into
-     * @param ratings The ratings to insert
+     * Carries a file write failure out through split, which only declares SQLException.
      */
-    private PreparedStatement prepareMovieRatingsInsertion(String tableName,
-            ArrayList<MovieRating> ratings, PreparedStatement prepStatement) throws SQLException {
-        // intialise query
-        String query = "INSERT INTO capstone." + tableName
-                + " (USER_ID, MOVIE_ID, RATING_VAL) VALUES (?, ?, ?)";
-
-        prepStatement = con.prepareStatement(query);
+    private static class SinkException extends RuntimeException {
 
-        // add values to query
-        for (MovieRating rating : ratings) {
-            // get column values
-            prepStatement.setInt(1, rating.getUserId());
-            prepStatement.setInt(2, rating.getMovieId());
-            prepStatement.setDouble(3, rating.getRatingValue());
+        private static final long serialVersionUID = 1L;
 
-            prepStatement.addBatch();
+        SinkException(IOException cause) {
+            super(cause);
         }
 
-        return prepStatement;
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
     }
 }
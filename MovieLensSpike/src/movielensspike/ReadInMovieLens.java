@@ -1,6 +1,7 @@
 package movielensspike;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.sql.Connection;
@@ -33,7 +34,10 @@ public class ReadInMovieLens {
     
     
     /**
-     * @param args the command line arguments
+     * @param args the command line arguments, in any order: "csv" or "bin" to write the split to
+     * files in the current directory instead of the database, and "temporal" to hold out each
+     * user's most recent ratings or "kfold &lt;k&gt; &lt;fold&gt;" to hold out one of k folds (from 0)
+     * instead of a random percentage
      * @throws java.lang.ClassNotFoundException
      * @throws java.sql.SQLException
      * @throws java.io.IOException
@@ -46,6 +50,29 @@ public class ReadInMovieLens {
         // Create connection
         con = DriverManager.getConnection(DB_URL, USER, PASS);
 
+        // create splitter with connection and comparison percentage
+        System.out.println("Creating Splitter...");
+        MovieLensSplitter splitter = new MovieLensSplitter(con, comparisonDataPercentage);
+        String target = "db";
+
+        // check the arguments before any data is read
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("csv") || args[i].equals("bin")) {
+                target = args[i];
+            } else if (args[i].equals("temporal")) {
+                splitter.useTemporalSplit();
+            } else if (args[i].equals("kfold") && i + 2 < args.length) {
+                splitter.useKFoldSplit(Integer.parseInt(args[i + 1]),
+                        Integer.parseInt(args[i + 2]));
+                i += 2;
+            } else {
+                con.close();
+                throw new IllegalArgumentException("Unknown argument " + args[i]
+                        + ", expected csv, bin, temporal or kfold <k> <fold>");
+            }
+        }
+        System.out.println("DONE\n");
+
         System.out.println("Setting Up Total Table...");
         createMovieLensTables();
         System.out.println("DONE\n");
@@ -54,20 +81,25 @@ public class ReadInMovieLens {
         setUpData();
         System.out.println("DONE\n");
         
-         // create splitter with connection and comparison percentage
-        System.out.println("Creating Splitter...");
-        MovieLensSplitter splitter = new MovieLensSplitter(con, comparisonDataPercentage);
-        System.out.println("DONE\n");
-        
-        // set up database
-        System.out.println("Setting Up Split Tables..");
-        splitter.createDbTables();
-        System.out.println("DONE\n");
-        
-        // fill database
-        System.out.println("Filling Split Tables..");
-        splitter.fillDb();
-        System.out.println("DONE\n");
+        if (!target.equals("db")) {
+            // write files
+            System.out.println("Writing Split Files..");
+            splitter.fillFiles(new File("."),
+                    target.equals("bin") ? MovieLensSplitter.BINARY : MovieLensSplitter.CSV);
+            System.out.println("DONE\n");
+        } else {
+            // set up database, the split tables are only needed when writing to it
+            System.out.println("Setting Up Split Tables..");
+            splitter.createDbTables();
+            System.out.println("DONE\n");
+
+            // fill database, through a second connection as the first streams the ratings
+            System.out.println("Filling Split Tables..");
+            try (Connection output = DriverManager.getConnection(DB_URL, USER, PASS)) {
+                splitter.fillDb(output);
+            }
+            System.out.println("DONE\n");
+        }
 
         con.close();
     }
@@ -90,6 +122,7 @@ public class ReadInMovieLens {
                 + "(USER_ID INTEGER NOT NULL,"
                 + "MOVIE_ID INTEGER NOT NULL,"
                 + "RATING_VAL DECIMAL(2,1) NOT NULL,"
+                + "RATED_AT BIGINT NOT NULL DEFAULT 0,"
                 + "PRIMARY KEY (USER_ID, MOVIE_ID));";
         statement.executeUpdate(sql);
     }
@@ -102,8 +135,8 @@ public class ReadInMovieLens {
         // String to represent each line of the file as it is read
         String line;
         String query = "INSERT INTO "
-                + "capstone.movielens_total(USER_ID, MOVIE_ID, RATING_VAL) "
-                + "VALUES (?, ?, ?)";
+                + "capstone.movielens_total(USER_ID, MOVIE_ID, RATING_VAL, RATED_AT) "
+                + "VALUES (?, ?, ?, ?)";
         PreparedStatement prepStatement;
 
         // BufferedReader to parse over file text
@@ -121,6 +154,9 @@ public class ReadInMovieLens {
                 prepStatement.setString(i, parts[i - 1]);
             }
 
+            // the timestamp, used for temporal splits
+            prepStatement.setString(4, parts.length > 3 ? parts[3] : "0");
+
             prepStatement.addBatch( );
         }
 
@@ -0,0 +1,783 @@
+package recommendationevaluation;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import org.grouplens.lenskit.collections.LongKeyDomain;
+import org.grouplens.lenskit.collections.LongUtils;
+import org.grouplens.lenskit.cursors.AbstractPollingCursor;
+import org.grouplens.lenskit.cursors.Cursor;
+import org.grouplens.lenskit.cursors.Cursors;
+import org.grouplens.lenskit.data.dao.EventDAO;
+import org.grouplens.lenskit.data.dao.ItemDAO;
+import org.grouplens.lenskit.data.dao.ItemEventDAO;
+import org.grouplens.lenskit.data.dao.SortOrder;
+import org.grouplens.lenskit.data.dao.UserDAO;
+import org.grouplens.lenskit.data.dao.UserEventDAO;
+import org.grouplens.lenskit.data.event.Event;
+import org.grouplens.lenskit.data.event.Rating;
+import org.grouplens.lenskit.data.event.Ratings;
+import org.grouplens.lenskit.data.history.History;
+import org.grouplens.lenskit.data.history.ItemEventCollection;
+import org.grouplens.lenskit.data.history.UserHistory;
+
+/**
+ * A read only rating DAO that holds a whole ratings table in compact columns, so that LensKit can
+ * build models and score users without going back to the database.<p>
+ *
+ * The table is read once and stored as a binary snapshot file which is memory-mapped. Users and
+ * items are stored once as sorted ID arrays, and every rating is stored twice as an (index, float
+ * rating) pair: once sorted by user then item, and once sorted by item then user. An offsets
+ * column gives the range of ratings for each user and each item, so a user's or item's ratings
+ * are found with a binary search for its index and no scanning.<p>
+ *
+ * The snapshot is never modified once mapped, so a single DAO can be shared by any number of
+ * threads. A snapshot of a table from DataGeneration's local store is rebuilt whenever the table
+ * file is newer than it. A snapshot of a database table is only rebuilt when it is missing, so
+ * delete it (or run the evaluation with --refresh) to have it read from the database again.<p>
+ *
+ * Snapshot layout (little endian): magic, version, user count U, item count I, rating count R,
+ * padding, user IDs (long x U), item IDs (long x I), user offsets (int x U + 1), item offsets (int
+ * x I + 1), item indexes by user (int x R), ratings by user (float x R), user indexes by item (int
+ * x R), ratings by item (float x R). The whole snapshot is one mapping addressed by int offsets, so
+ * it can be at most 2GB, about 134 million ratings. Larger tables are rejected when written.
+ *
+ * @author Jordan
+ */
+public class ColumnarRatingDAO implements EventDAO, UserEventDAO, ItemEventDAO, UserDAO, ItemDAO {
+
+    // Snapshot header values
+    private static final int MAGIC = 0x52415443, // "CTAR"
+            VERSION = 1,
+            HEADER_BYTES = 24;
+
+    // Largest snapshot a single mapping can address
+    private static final long MAX_SNAPSHOT_BYTES = Integer.MAX_VALUE;
+
+    // Sorted user and item IDs, the position of an ID is its index
+    private final long[] userIds, itemIds;
+
+    // Ratings [offsets[i], offsets[i + 1]) belong to user or item i
+    private final IntBuffer userOffsets, itemOffsets;
+
+    // Ratings sorted by user then item
+    private final IntBuffer userRatingItems;
+    private final FloatBuffer userRatingValues;
+
+    // Ratings sorted by item then user
+    private final IntBuffer itemRatingUsers;
+    private final FloatBuffer itemRatingValues;
+
+    // The snapshot file this DAO reads
+    private final File file;
+
+    /**
+     * Creates a DAO over a mapped snapshot.
+     */
+    private ColumnarRatingDAO(File file, ByteBuffer buffer) throws IOException {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a rating snapshot");
+        }
+
+        int userCount = buffer.getInt(8);
+        int itemCount = buffer.getInt(12);
+        int ratingCount = buffer.getInt(16);
+
+        // Every section offset below fits an int once the sizes are known to match the file
+        if (userCount < 0 || itemCount < 0 || ratingCount < 0
+                || snapshotBytes(userCount, itemCount, ratingCount) != buffer.capacity()) {
+            throw new IOException(file + " is truncated or corrupt, delete it to rebuild it");
+        }
+
+        this.file = file;
+
+        // IDs are copied to the heap as they are binary searched for every lookup
+        int position = HEADER_BYTES;
+        userIds = new long[userCount];
+        slice(buffer, position, userCount * 8).asLongBuffer().get(userIds);
+        position += userCount * 8;
+
+        itemIds = new long[itemCount];
+        slice(buffer, position, itemCount * 8).asLongBuffer().get(itemIds);
+        position += itemCount * 8;
+
+        // Everything else is read straight from the mapped file
+        userOffsets = slice(buffer, position, (userCount + 1) * 4).asIntBuffer();
+        position += (userCount + 1) * 4;
+
+        itemOffsets = slice(buffer, position, (itemCount + 1) * 4).asIntBuffer();
+        position += (itemCount + 1) * 4;
+
+        userRatingItems = slice(buffer, position, ratingCount * 4).asIntBuffer();
+        position += ratingCount * 4;
+
+        userRatingValues = slice(buffer, position, ratingCount * 4).asFloatBuffer();
+        position += ratingCount * 4;
+
+        itemRatingUsers = slice(buffer, position, ratingCount * 4).asIntBuffer();
+        position += ratingCount * 4;
+
+        itemRatingValues = slice(buffer, position, ratingCount * 4).asFloatBuffer();
+    }
+
+    /**
+     * Opens a snapshot file, creating it from a database table first if it does not exist.
+     *
+     * @param file The snapshot file
+     * @param con Capstone database connection, only used if the snapshot does not exist
+     * @param table The table to read
+     * @param userColumn The column holding user IDs
+     * @param itemColumn The column holding item IDs
+     * @param ratingColumn The column holding rating values
+     * @return The DAO
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static ColumnarRatingDAO openOrCreate(File file, Connection con, String table,
+            String userColumn, String itemColumn, String ratingColumn)
+            throws IOException, SQLException {
+
+        if (!file.exists()) {
+            createSnapshot(file, con, table, userColumn, itemColumn, ratingColumn);
+        }
+        return open(file);
+    }
+
+    /**
+     * Opens a snapshot file, creating it from a table of DataGeneration's local store first if it
+     * does not exist or the table has been written since the snapshot was.
+     *
+     * @param file The snapshot file
+     * @param table The table file
+     * @param userColumn The column holding user IDs
+     * @param itemColumn The column holding item IDs
+     * @param ratingColumn The column holding rating values
+     * @return The DAO
+     * @throws IOException
+     */
+    public static ColumnarRatingDAO openOrCreate(File file, File table, String userColumn,
+            String itemColumn, String ratingColumn) throws IOException {
+
+        if (!file.exists() || table.lastModified() > file.lastModified()) {
+            createSnapshot(file, new ColumnarTable(table), userColumn, itemColumn, ratingColumn);
+        }
+        return open(file);
+    }
+
+    /**
+     * Opens an existing snapshot file.
+     *
+     * @param file The snapshot file
+     * @return The DAO
+     * @throws IOException
+     */
+    public static ColumnarRatingDAO open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            if (channel.size() > MAX_SNAPSHOT_BYTES) {
+                throw new IOException(file + " is " + channel.size()
+                        + " bytes, larger than the 2GB a snapshot can map");
+            }
+
+            // The mapping stays valid after the channel is closed
+            return new ColumnarRatingDAO(file,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads a whole table from the database in one query and writes it to a snapshot file.
+     *
+     * @param file The snapshot file to write
+     * @param con Capstone database connection
+     * @param table The table to read
+     * @param userColumn The column holding user IDs
+     * @param itemColumn The column holding item IDs
+     * @param ratingColumn The column holding rating values
+     * @throws IOException
+     * @throws SQLException
+     */
+    public static void createSnapshot(File file, Connection con, String table,
+            String userColumn, String itemColumn, String ratingColumn)
+            throws IOException, SQLException {
+
+        long[] users = new long[4096], items = new long[4096];
+        float[] ratings = new float[4096];
+        int count = 0;
+
+        // SQL statement to collect the whole table, grouped by user
+        PreparedStatement prepStatement = con.prepareStatement(
+                "SELECT " + userColumn + ", " + itemColumn + ", " + ratingColumn + " FROM "
+                + table + " ORDER BY " + userColumn + ", " + itemColumn);
+
+        try (ResultSet rs = prepStatement.executeQuery()) {
+            while (rs.next()) {
+                if (count == users.length) {
+                    users = Arrays.copyOf(users, count * 2);
+                    items = Arrays.copyOf(items, count * 2);
+                    ratings = Arrays.copyOf(ratings, count * 2);
+                }
+                users[count] = rs.getLong(1);
+                items[count] = rs.getLong(2);
+                ratings[count] = rs.getFloat(3);
+                count++;
+            }
+        }
+        prepStatement.close();
+
+        writeSnapshot(file, users, items, ratings, count);
+    }
+
+    /**
+     * Reads a whole table of DataGeneration's local store and writes it to a snapshot file. The
+     * table's rows may be in any order, and its IDs must not be negative.
+     *
+     * @param file The snapshot file to write
+     * @param table The table to read
+     * @param userColumn The INT column holding user IDs
+     * @param itemColumn The INT column holding item IDs
+     * @param ratingColumn The FLOAT column holding rating values
+     * @throws IOException
+     */
+    public static void createSnapshot(File file, ColumnarTable table, String userColumn,
+            String itemColumn, String ratingColumn) throws IOException {
+
+        int[] tableUsers = table.getInts(userColumn);
+        int[] tableItems = table.getInts(itemColumn);
+        float[] tableRatings = table.getFloats(ratingColumn);
+        int count = table.getRowCount();
+
+        // Order rows by user, as (user << 32 | row)
+        long[] order = new long[count];
+
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) tableUsers[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        // Then order each user's rows by item, as (item << 32 | row)
+        for (int start = 0, end; start < count; start = end) {
+            int user = (int) (order[start] >>> 32);
+
+            for (end = start; end < count && (int) (order[end] >>> 32) == user; end++) {
+                int row = (int) order[end];
+                order[end] = ((long) tableItems[row] << 32) | row;
+            }
+            Arrays.sort(order, start, end);
+        }
+
+        long[] users = new long[count], items = new long[count];
+        float[] ratings = new float[count];
+
+        for (int i = 0; i < count; i++) {
+            int row = (int) order[i];
+            users[i] = tableUsers[row];
+            items[i] = tableItems[row];
+            ratings[i] = tableRatings[row];
+        }
+
+        writeSnapshot(file, users, items, ratings, count);
+    }
+
+    /**
+     * Writes ratings to a snapshot file. The ratings must be sorted by user then item.
+     *
+     * @param file The snapshot file to write
+     * @param users The user ID of each rating
+     * @param items The item ID of each rating
+     * @param ratings The value of each rating
+     * @param count The number of valid ratings in the arrays
+     * @throws IOException
+     */
+    public static void writeSnapshot(File file, long[] users, long[] items, float[] ratings,
+            int count) throws IOException {
+
+        // Distinct users, already in order
+        long[] userIdList = new long[count];
+        int userCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (userCount == 0 || users[i] != userIdList[userCount - 1]) {
+                userIdList[userCount++] = users[i];
+            }
+        }
+
+        // Distinct items, sorted
+        long[] itemIdList = Arrays.copyOf(items, count);
+        Arrays.sort(itemIdList);
+        int itemCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (itemCount == 0 || itemIdList[i] != itemIdList[itemCount - 1]) {
+                itemIdList[itemCount++] = itemIdList[i];
+            }
+        }
+
+        // Columns sorted by user, and the number of ratings for each item
+        int[] userOffsetList = new int[userCount + 1];
+        int[] itemOffsetList = new int[itemCount + 1];
+        int[] userIndexes = new int[count];
+        int[] itemIndexes = new int[count];
+        int user = -1;
+
+        for (int i = 0; i < count; i++) {
+            if (user < 0 || users[i] != userIdList[user]) {
+                user++;
+                userOffsetList[user] = i;
+            }
+            userIndexes[i] = user;
+            itemIndexes[i] = Arrays.binarySearch(itemIdList, 0, itemCount, items[i]);
+            itemOffsetList[itemIndexes[i] + 1]++;
+        }
+        userOffsetList[userCount] = count;
+
+        for (int i = 0; i < itemCount; i++) {
+            itemOffsetList[i + 1] += itemOffsetList[i];
+        }
+
+        // Columns sorted by item, a counting sort keeps users in order within each item
+        int[] itemUsers = new int[count];
+        float[] itemRatings = new float[count];
+        int[] next = Arrays.copyOf(itemOffsetList, itemCount);
+
+        for (int i = 0; i < count; i++) {
+            int position = next[itemIndexes[i]]++;
+            itemUsers[position] = userIndexes[i];
+            itemRatings[position] = ratings[i];
+        }
+
+        long size = snapshotBytes(userCount, itemCount, count);
+
+        if (size > MAX_SNAPSHOT_BYTES) {
+            throw new IOException(count + " ratings of " + userCount + " users and " + itemCount
+                    + " items need a " + size + " byte snapshot, larger than the 2GB one can map");
+        }
+
+        File dir = file.getAbsoluteFile().getParentFile();
+
+        if (dir != null && !dir.exists()) {
+            dir.mkdirs();
+        }
+
+        // Write to a temporary file so a failed write never leaves a broken snapshot
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+                FileChannel channel = raf.getChannel()) {
+            raf.setLength(size);
+
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+
+            out.putInt(MAGIC).putInt(VERSION).putInt(userCount).putInt(itemCount).putInt(count)
+                    .putInt(0);
+
+            for (int i = 0; i < userCount; i++) {
+                out.putLong(userIdList[i]);
+            }
+            for (int i = 0; i < itemCount; i++) {
+                out.putLong(itemIdList[i]);
+            }
+            for (int offset : userOffsetList) {
+                out.putInt(offset);
+            }
+            for (int offset : itemOffsetList) {
+                out.putInt(offset);
+            }
+            for (int i = 0; i < count; i++) {
+                out.putInt(itemIndexes[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.putFloat(ratings[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.putInt(itemUsers[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                out.putFloat(itemRatings[i]);
+            }
+            out.force();
+        }
+
+        if (file.exists() && !file.delete() || !temp.renameTo(file)) {
+            throw new IOException("Could not replace " + file);
+        }
+    }
+
+    /**
+     * Getter for the snapshot file
+     *
+     * @return The snapshot file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Getter for the number of ratings
+     *
+     * @return The rating count
+     */
+    public int getRatingCount() {
+        return userRatingItems.limit();
+    }
+
+    /**
+     * Getter for the number of users
+     *
+     * @return The user count
+     */
+    int getUserCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Gets the ID of a user.
+     *
+     * @param userIndex The user index
+     * @return The user ID
+     */
+    long getUserId(int userIndex) {
+        return userIds[userIndex];
+    }
+
+    /**
+     * Gets the index of a user, for reading its ratings directly.
+     *
+     * @param user The user ID
+     * @return The user index, or a negative number if the user has no ratings
+     */
+    int getUserIndex(long user) {
+        return Arrays.binarySearch(userIds, user);
+    }
+
+    /**
+     * Gets the first row of a user's ratings.
+     *
+     * @param userIndex The user index
+     * @return The first row
+     */
+    int getUserStart(int userIndex) {
+        return userOffsets.get(userIndex);
+    }
+
+    /**
+     * Gets the row after the last of a user's ratings.
+     *
+     * @param userIndex The user index
+     * @return The end row
+     */
+    int getUserEnd(int userIndex) {
+        return userOffsets.get(userIndex + 1);
+    }
+
+    /**
+     * Gets the index of the item rated in a row sorted by user.
+     *
+     * @param row The row
+     * @return The item index
+     */
+    int getRatedItem(int row) {
+        return userRatingItems.get(row);
+    }
+
+    /**
+     * Gets the rating in a row sorted by user.
+     *
+     * @param row The row
+     * @return The rating value
+     */
+    float getUserRating(int row) {
+        return userRatingValues.get(row);
+    }
+
+    /**
+     * Gets the ID of an item.
+     *
+     * @param itemIndex The item index
+     * @return The item ID
+     */
+    long getItemId(int itemIndex) {
+        return itemIds[itemIndex];
+    }
+
+    /**
+     * Gets the index of an item.
+     *
+     * @param item The item ID
+     * @return The item index, or a negative number if the item has no ratings
+     */
+    int getItemIndex(long item) {
+        return Arrays.binarySearch(itemIds, item);
+    }
+
+    /**
+     * Getter for the number of items
+     *
+     * @return The item count
+     */
+    int getItemCount() {
+        return itemIds.length;
+    }
+
+    @Override
+    public LongSet getUserIds() {
+        return LongKeyDomain.wrap(userIds, userIds.length, true).domain();
+    }
+
+    @Override
+    public LongSet getItemIds() {
+        return LongKeyDomain.wrap(itemIds, itemIds.length, true).domain();
+    }
+
+    @Override
+    public Cursor<Event> streamEvents() {
+        return streamEvents(Event.class);
+    }
+
+    @Override
+    public <E extends Event> Cursor<E> streamEvents(Class<E> type) {
+        return streamEvents(type, SortOrder.ANY);
+    }
+
+    @Override
+    public <E extends Event> Cursor<E> streamEvents(Class<E> type, SortOrder order) {
+        if (!type.isAssignableFrom(Rating.class)) {
+            return Cursors.empty();
+        }
+
+        // There are no timestamps, so every order except by item is satisfied by user order
+        if (order == SortOrder.ITEM) {
+            return cast(new RatingCursor(false));
+        }
+        return cast(new RatingCursor(true));
+    }
+
+    @Override
+    public Cursor<UserHistory<Event>> streamEventsByUser() {
+        return streamEventsByUser(Event.class);
+    }
+
+    @Override
+    public <E extends Event> Cursor<UserHistory<E>> streamEventsByUser(final Class<E> type) {
+        if (!type.isAssignableFrom(Rating.class)) {
+            return Cursors.empty();
+        }
+
+        return new AbstractPollingCursor<UserHistory<E>>(userIds.length) {
+            private int user = 0;
+
+            @Override
+            protected UserHistory<E> poll() {
+                return user < userIds.length ? userHistory(user++, type) : null;
+            }
+        };
+    }
+
+    @Override
+    public UserHistory<Event> getEventsForUser(long user) {
+        return getEventsForUser(user, Event.class);
+    }
+
+    @Override
+    public <E extends Event> UserHistory<E> getEventsForUser(long user, Class<E> type) {
+        int index = Arrays.binarySearch(userIds, user);
+
+        if (index < 0) {
+            return null;
+        } else if (!type.isAssignableFrom(Rating.class)) {
+            return History.forUser(user);
+        }
+        return userHistory(index, type);
+    }
+
+    @Override
+    public Cursor<ItemEventCollection<Event>> streamEventsByItem() {
+        return streamEventsByItem(Event.class);
+    }
+
+    @Override
+    public <E extends Event> Cursor<ItemEventCollection<E>> streamEventsByItem(
+            final Class<E> type) {
+        if (!type.isAssignableFrom(Rating.class)) {
+            return Cursors.empty();
+        }
+
+        return new AbstractPollingCursor<ItemEventCollection<E>>(itemIds.length) {
+            private int item = 0;
+
+            @Override
+            protected ItemEventCollection<E> poll() {
+                if (item == itemIds.length) {
+                    return null;
+                }
+                ItemEventCollection<E> events
+                        = History.forItem(itemIds[item], itemRatings(item, type));
+                item++;
+                return events;
+            }
+        };
+    }
+
+    @Override
+    public List<Event> getEventsForItem(long item) {
+        return getEventsForItem(item, Event.class);
+    }
+
+    @Override
+    public <E extends Event> List<E> getEventsForItem(long item, Class<E> type) {
+        int index = Arrays.binarySearch(itemIds, item);
+
+        if (index < 0) {
+            return null;
+        } else if (!type.isAssignableFrom(Rating.class)) {
+            return Arrays.asList();
+        }
+        return itemRatings(index, type);
+    }
+
+    @Override
+    public LongSet getUsersForItem(long item) {
+        int index = Arrays.binarySearch(itemIds, item);
+
+        if (index < 0) {
+            return null;
+        }
+
+        int start = itemOffsets.get(index), end = itemOffsets.get(index + 1);
+        long[] users = new long[end - start];
+
+        for (int i = start; i < end; i++) {
+            users[i - start] = userIds[itemRatingUsers.get(i)];
+        }
+        return LongUtils.packedSet(users);
+    }
+
+    /**
+     * Builds the history of the user at an index.
+     */
+    private <E extends Event> UserHistory<E> userHistory(int user, Class<E> type) {
+        final int start = userOffsets.get(user), end = userOffsets.get(user + 1);
+        final long userId = userIds[user];
+
+        List<E> ratings = new AbstractList<E>() {
+            @Override
+            public E get(int index) {
+                int row = start + index;
+                return cast(Ratings.make(userId, itemIds[userRatingItems.get(row)],
+                        userRatingValues.get(row)));
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+        return History.forUser(userId, ratings);
+    }
+
+    /**
+     * Builds the list of ratings for the item at an index.
+     */
+    private <E extends Event> List<E> itemRatings(int item, Class<E> type) {
+        final int start = itemOffsets.get(item), end = itemOffsets.get(item + 1);
+        final long itemId = itemIds[item];
+
+        return new AbstractList<E>() {
+            @Override
+            public E get(int index) {
+                int row = start + index;
+                return cast(Ratings.make(userIds[itemRatingUsers.get(row)], itemId,
+                        itemRatingValues.get(row)));
+            }
+
+            @Override
+            public int size() {
+                return end - start;
+            }
+        };
+    }
+
+    /**
+     * Casts a rating, or a cursor of ratings, to a requested event type. Only called once the
+     * type has been checked to be a supertype of Rating.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    /**
+     * Gets the size of a snapshot in bytes.
+     */
+    private static long snapshotBytes(int userCount, int itemCount, int ratingCount) {
+        return HEADER_BYTES + (userCount + (long) itemCount) * 8
+                + (userCount + (long) itemCount + 2) * 4 + ratingCount * 16L;
+    }
+
+    /**
+     * Gets a section of a buffer as its own buffer in the snapshot's byte order.
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.limit(position + length);
+        return duplicate.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Streams every rating in user or item order.
+     */
+    private class RatingCursor extends AbstractPollingCursor<Rating> {
+
+        private final boolean byUser;
+        private int row = 0, owner = 0;
+
+        RatingCursor(boolean byUser) {
+            super(getRatingCount());
+            this.byUser = byUser;
+        }
+
+        @Override
+        protected Rating poll() {
+            if (row == getRatingCount()) {
+                return null;
+            }
+
+            Rating rating;
+
+            if (byUser) {
+                // Move on to the user that owns this row, skipping any without ratings
+                while (userOffsets.get(owner + 1) <= row) {
+                    owner++;
+                }
+                rating = Ratings.make(userIds[owner], itemIds[userRatingItems.get(row)],
+                        userRatingValues.get(row));
+            } else {
+                while (itemOffsets.get(owner + 1) <= row) {
+                    owner++;
+                }
+                rating = Ratings.make(userIds[itemRatingUsers.get(row)], itemIds[owner],
+                        itemRatingValues.get(row));
+            }
+            row++;
+            return rating;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package recommendationevaluation;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+/**
+ * Reads a table of the capstone schema from the local store written by DataGeneration, so the
+ * evaluation can run without a database.<p>
+ *
+ * File layout (big endian): magic, version, row count, column count, then for each column its
+ * name (UTF), its type (int) and its values. INT and FLOAT columns are arrays of row count ints
+ * or floats; STRING columns are row count UTF strings, which are skipped.<p>
+ *
+ * The file is memory-mapped, and INT and FLOAT columns are read straight from the mapping.<p>
+ *
+ * This is a read only copy of DataGeneration's ColumnarTable, as the projects are built separately
+ * and neither has the other's classes on its classpath (DataGeneration's checked in jar predates
+ * the local store). The header values and layout must be kept in step with it.
+ *
+ * @author Jordan
+ */
+public class ColumnarTable {
+
+    // Snapshot header values
+    private static final int MAGIC = 0x44415443, // "DATC"
+            VERSION = 1;
+
+    // Column types
+    private static final int INT = 0,
+            FLOAT = 1,
+            STRING = 2;
+
+    private final File file;
+    private final int rowCount;
+
+    // Column name to its type, and to its mapped values
+    private final HashMap<String, Integer> types = new HashMap<>();
+    private final HashMap<String, ByteBuffer> columns = new HashMap<>();
+
+    /**
+     * Opens a table file.
+     *
+     * @param file The table file
+     * @throws IOException
+     */
+    public ColumnarTable(File file) throws IOException {
+        this.file = file;
+
+        final ByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        // Reads the header and string columns, advancing the buffer
+        DataInputStream in = new DataInputStream(new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+        });
+
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException(file + " is not a columnar table");
+        }
+
+        rowCount = in.readInt();
+        int columnCount = in.readInt();
+
+        for (int i = 0; i < columnCount; i++) {
+            String name = in.readUTF();
+            int type = in.readInt();
+
+            types.put(name, type);
+
+            if (type == STRING) {
+                for (int row = 0; row < rowCount; row++) {
+                    in.skipBytes(in.readUnsignedShort());
+                }
+            } else {
+                ByteBuffer column = buffer.duplicate();
+                column.limit(buffer.position() + rowCount * 4);
+                columns.put(name, column.slice());
+                buffer.position(buffer.position() + rowCount * 4);
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of rows
+     *
+     * @return The row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets the values of an INT column.
+     *
+     * @param name The column name
+     * @return The values, in row order
+     * @throws IOException If the table has no such INT column
+     */
+    public int[] getInts(String name) throws IOException {
+        int[] values = new int[rowCount];
+        getColumn(name, INT).asIntBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Gets the values of a FLOAT column.
+     *
+     * @param name The column name
+     * @return The values, in row order
+     * @throws IOException If the table has no such FLOAT column
+     */
+    public float[] getFloats(String name) throws IOException {
+        float[] values = new float[rowCount];
+        getColumn(name, FLOAT).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Gets a numeric column's mapped values.
+     */
+    private ByteBuffer getColumn(String name, int type) throws IOException {
+        Integer actual = types.get(name);
+
+        if (actual == null || actual != type) {
+            throw new IOException(file + " has no column " + name + " of type " + type);
+        }
+        return columns.get(name).duplicate();
+    }
+}
@@ -0,0 +1,84 @@
+package recommendationevaluation;
+
+/**
+ * Holds the comparison data for every user in memory so that evaluation does not need to query the
+ * database once per user.<p>
+ *
+ * The data is taken from the ratings DAO of the movie_ratings_final table, which needs no database
+ * once its snapshot exists. Each user's movie IDs are kept as a sorted primitive array, and the
+ * user's data count is simply the length of that array.
+ *
+ * @author Jordan
+ */
+public class ComparisonData {
+
+    // User IDs in ascending order
+    private final int[] userIds;
+
+    // Sorted movie IDs for each user, same index as userIds
+    private final long[][] movieIds;
+
+    /**
+     * Takes the comparison data for all users from a DAO of the movie_ratings_final table.
+     *
+     * @param dao The ratings DAO
+     */
+    public ComparisonData(ColumnarRatingDAO dao) {
+        int userCount = dao.getUserCount();
+
+        userIds = new int[userCount];
+        movieIds = new long[userCount][];
+
+        // Each user's items are already sorted by ID
+        for (int user = 0; user < userCount; user++) {
+            int start = dao.getUserStart(user);
+            long[] movies = new long[dao.getUserEnd(user) - start];
+
+            for (int i = 0; i < movies.length; i++) {
+                movies[i] = dao.getItemId(dao.getRatedItem(start + i));
+            }
+            userIds[user] = (int) dao.getUserId(user);
+            movieIds[user] = movies;
+        }
+    }
+
+    /**
+     * Gets the number of users with comparison data.
+     *
+     * @return The user count
+     */
+    public int getUserCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Gets the ID of the user at an index.
+     *
+     * @param index The index of the user, between 0 and getUserCount() - 1
+     * @return The user's ID
+     */
+    public int getUserId(int index) {
+        return userIds[index];
+    }
+
+    /**
+     * Gets the comparison movie IDs for the user at an index. The returned array is sorted and
+     * shared, so it must not be modified.
+     *
+     * @param index The index of the user
+     * @return The comparison movie IDs
+     */
+    public long[] getComparisons(int index) {
+        return movieIds[index];
+    }
+
+    /**
+     * Gets the number of data pieces for the user at an index.
+     *
+     * @param index The index of the user
+     * @return The data count
+     */
+    public int getDataCount(int index) {
+        return movieIds[index].length;
+    }
+}
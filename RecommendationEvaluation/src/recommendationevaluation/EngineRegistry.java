@@ -0,0 +1,149 @@
+package recommendationevaluation;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import org.grouplens.lenskit.RecommenderBuildException;
+import org.grouplens.lenskit.core.EngineValidationMode;
+import org.grouplens.lenskit.core.LenskitRecommenderEngine;
+import static recommendationevaluation.MovieRecommenderEngine.*;
+
+/**
+ * Keeps one SharedModel per algorithm in memory for the whole evaluation sweep.<p>
+ *
+ * The first request for an algorithm reads its engine file, or builds the engine and writes the
+ * file if there is none or it is older than the rating snapshot, and then keeps the model. Every later request for that algorithm, for any
+ * neighbourhood size, reuses it. The time spent building and loading each algorithm's engine is
+ * recorded so it can be reported separately from the evaluation time. WPM and LDA have no engine,
+ * their models are the user vectors read from WordBasedPatternMining's file or from each user's
+ * topic distribution instead.
+ *
+ * @author Jordan
+ */
+public class EngineRegistry {
+
+    // Models held in memory, by algorithm
+    private final Map<Integer, SharedModel> models = new HashMap<>();
+
+    // Time taken to build and to load each algorithm's engine, in nanoseconds
+    private final Map<Integer, Long> buildNanos = new HashMap<>(),
+            loadNanos = new HashMap<>();
+
+    /**
+     * Gets the model for an algorithm, building or loading it the first time it is requested.
+     *
+     * @param algorithm The algorithm
+     * @return The shared model
+     * @throws ClassNotFoundException
+     * @throws IOException
+     * @throws SQLException
+     * @throws RecommenderBuildException
+     */
+    public synchronized SharedModel getModel(Integer algorithm) throws ClassNotFoundException,
+            IOException, SQLException, RecommenderBuildException {
+
+        SharedModel model = models.get(algorithm);
+
+        if (model != null) {
+            return model;
+        }
+
+        // WPM has no engine, only the vectors and neighbours written by WordBasedPatternMining
+        if (isWPM(algorithm)) {
+            File vectorFile = new File(WPMUserVectors.DEFAULT_FILE);
+
+            if (!vectorFile.exists()) {
+                throw new FileNotFoundException(vectorFile
+                        + " not found, run WordBasedPatternMining first");
+            }
+
+            // The neighbour index is optional, and out of date if older than the vectors
+            File indexFile = new File(WPMNeighbourIndex.DEFAULT_FILE);
+            long start = System.nanoTime();
+            WPMNeighbourIndex index = null;
+
+            if (indexFile.exists() && indexFile.lastModified() >= vectorFile.lastModified()) {
+                index = new WPMNeighbourIndex(indexFile);
+            }
+
+            model = new SharedModel(new WPMUserVectors(vectorFile), index, createDAO(algorithm));
+            loadNanos.put(algorithm, System.nanoTime() - start);
+
+            models.put(algorithm, model);
+            return model;
+        }
+
+        // LDA compares users by topic distribution, but like every algorithm recommends movies
+        if (isLDA(algorithm)) {
+            long start = System.nanoTime();
+            model = new SharedModel(new LDAUserVectors(createDAO(algorithm)), createItemDAO());
+            loadNanos.put(algorithm, System.nanoTime() - start);
+
+            models.put(algorithm, model);
+            return model;
+        }
+
+        File engineFile = new File(getEngineName(algorithm));
+        LenskitRecommenderEngine engine;
+        long start = System.nanoTime();
+        File snapshot = createDAO(algorithm).getFile();
+
+        // check for existance of file, an engine older than its data's snapshot is out of date
+        if (!engineFile.exists() || engineFile.lastModified() < snapshot.lastModified()) {
+            // Create new engine, and write to file for later runs
+            MovieRecommenderEngine newEngine = new MovieRecommenderEngine(algorithm);
+            newEngine.writeToFile(algorithm);
+            engine = newEngine.getEngine();
+
+            buildNanos.put(algorithm, System.nanoTime() - start);
+            start = System.nanoTime();
+
+        } else {
+            // The DAO is supplied by the model, so don't validate the engine yet
+            engine = LenskitRecommenderEngine.newLoader()
+                    .setValidationMode(EngineValidationMode.DEFERRED)
+                    .load(engineFile);
+        }
+
+        model = new SharedModel(algorithm, engine, createDAO(algorithm));
+        loadNanos.put(algorithm, System.nanoTime() - start);
+
+        models.put(algorithm, model);
+        return model;
+    }
+
+    /**
+     * Drops the model for an algorithm so its memory can be reclaimed. It will be loaded again if
+     * requested.
+     *
+     * @param algorithm The algorithm
+     */
+    public synchronized void release(Integer algorithm) {
+        models.remove(algorithm);
+    }
+
+    /**
+     * Gets the time spent building an algorithm's engine in seconds.
+     *
+     * @param algorithm The algorithm
+     * @return The build time, 0 if the engine was read from file
+     */
+    public synchronized double getBuildSeconds(Integer algorithm) {
+        Long nanos = buildNanos.get(algorithm);
+        return nanos == null ? 0 : nanos / 1e9;
+    }
+
+    /**
+     * Gets the time spent loading an algorithm's engine and attaching its data in seconds.
+     *
+     * @param algorithm The algorithm
+     * @return The load time, 0 if the model has not been requested
+     */
+    public synchronized double getLoadSeconds(Integer algorithm) {
+        Long nanos = loadNanos.get(algorithm);
+        return nanos == null ? 0 : nanos / 1e9;
+    }
+}
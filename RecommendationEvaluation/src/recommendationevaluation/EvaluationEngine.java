@@ -0,0 +1,260 @@
+package recommendationevaluation;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.grouplens.lenskit.ItemRecommender;
+import org.grouplens.lenskit.core.RecommenderConfigurationException;
+import org.grouplens.lenskit.scored.ScoredId;
+
+/**
+ * Evaluates a recommender engine for every user using a pool of worker threads.<p>
+ *
+ * Users are striped across the workers. Each worker creates its own ItemRecommender for the
+ * neighbourhood size from the SharedModel, evaluates its users against the preloaded comparison
+ * data and fills a private MetricsAccumulator. The partial results are merged once all
+ * workers have finished.<p>
+ *
+ * A whole sweep of recommendation counts is evaluated in one pass: each user is asked for the
+ * largest number of recommendations only once, and the metrics for every smaller count are taken
+ * from the prefix of that ranked list.
+ *
+ * @author Jordan
+ */
+public class EvaluationEngine {
+
+    // The model shared by all workers
+    private final SharedModel model;
+
+    // Comparison data for all users
+    private final ComparisonData comparisonData;
+
+    // Number of worker threads
+    private final int workers;
+
+    // Time taken by the last evaluation, in nanoseconds
+    private long lastElapsedNanos;
+
+    /**
+     * Creates an evaluation engine.
+     *
+     * @param model The shared model of the algorithm to evaluate
+     * @param comparisonData The preloaded comparison data
+     * @param workers The number of worker threads to use
+     */
+    public EvaluationEngine(SharedModel model, ComparisonData comparisonData, int workers) {
+        this.model = model;
+        this.comparisonData = comparisonData;
+        this.workers = Math.max(1, Math.min(workers, Math.max(1, comparisonData.getUserCount())));
+    }
+
+    /**
+     * Generates recommendations for every user and calculates their precision and recall.
+     *
+     * @param algorithm The algorithm being evaluated
+     * @param neighbourhoodSize The neighbourhood size of the engine
+     * @param totalRecommendations The number of recommendations to make for each user
+     * @param minIdealDataPieces The data count below which a user is not ideal
+     * @return The metrics for all users
+     * @throws IOException
+     * @throws SQLException
+     * @throws RecommenderConfigurationException
+     * @throws InterruptedException
+     */
+    public MetricsAccumulator evaluate(Integer algorithm, Integer neighbourhoodSize,
+            Integer totalRecommendations, int minIdealDataPieces) throws IOException,
+            SQLException, RecommenderConfigurationException, InterruptedException {
+
+        return evaluateSweep(algorithm, neighbourhoodSize, new int[]{totalRecommendations},
+                minIdealDataPieces)[0];
+    }
+
+    /**
+     * Generates the largest requested number of recommendations once for every user, and
+     * calculates their precision and recall at each requested number of recommendations.
+     *
+     * @param algorithm The algorithm being evaluated
+     * @param neighbourhoodSize The neighbourhood size of the engine
+     * @param allTotalRecommendations The numbers of recommendations to evaluate
+     * @param minIdealDataPieces The data count below which a user is not ideal
+     * @return The metrics for all users, one per number of recommendations in the same order
+     * @throws IOException
+     * @throws SQLException
+     * @throws RecommenderConfigurationException
+     * @throws InterruptedException
+     */
+    public MetricsAccumulator[] evaluateSweep(Integer algorithm, Integer neighbourhoodSize,
+            int[] allTotalRecommendations, int minIdealDataPieces) throws IOException,
+            SQLException, RecommenderConfigurationException, InterruptedException {
+
+        MetricsAccumulator[] totals = new MetricsAccumulator[allTotalRecommendations.length];
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        List<Future<MetricsAccumulator[]>> results = new ArrayList<>();
+
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] = new MetricsAccumulator(minIdealDataPieces);
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            // Start one worker per stripe of users
+            for (int i = 0; i < workers; i++) {
+                results.add(pool.submit(new Worker(i, algorithm, neighbourhoodSize,
+                        allTotalRecommendations, minIdealDataPieces)));
+            }
+
+            // Merge each worker's metrics as it finishes
+            for (Future<MetricsAccumulator[]> result : results) {
+                MetricsAccumulator[] partial = result.get();
+
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i].merge(partial[i]);
+                }
+            }
+
+        } catch (ExecutionException ex) {
+            rethrow(ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        lastElapsedNanos = System.nanoTime() - start;
+
+        return totals;
+    }
+
+    /**
+     * Gets the number of worker threads used.
+     *
+     * @return The worker count
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Gets the time taken by the last evaluation in seconds.
+     *
+     * @return The elapsed seconds
+     */
+    public double getElapsedSeconds() {
+        return lastElapsedNanos / 1e9;
+    }
+
+    /**
+     * Gets the throughput of the last evaluation.
+     *
+     * @return The users evaluated per second
+     */
+    public double getUsersPerSecond() {
+        return lastElapsedNanos == 0 ? 0 : comparisonData.getUserCount() / getElapsedSeconds();
+    }
+
+    /**
+     * Rethrows the cause of a failed worker as one of the checked exceptions of evaluate.
+     *
+     * @param cause The cause of the failure
+     * @throws IOException
+     * @throws SQLException
+     * @throws RecommenderConfigurationException
+     */
+    private static void rethrow(Throwable cause) throws IOException, SQLException,
+            RecommenderConfigurationException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        } else if (cause instanceof SQLException) {
+            throw (SQLException) cause;
+        } else if (cause instanceof RecommenderConfigurationException) {
+            throw (RecommenderConfigurationException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    /**
+     * Evaluates every user whose index falls in this worker's stripe.
+     */
+    private class Worker implements Callable<MetricsAccumulator[]> {
+
+        private final int stripe;
+        private final Integer algorithm, neighbourhoodSize;
+        private final int[] allTotalRecommendations;
+        private final int minIdealDataPieces;
+
+        Worker(int stripe, Integer algorithm, Integer neighbourhoodSize,
+                int[] allTotalRecommendations, int minIdealDataPieces) {
+            this.stripe = stripe;
+            this.algorithm = algorithm;
+            this.neighbourhoodSize = neighbourhoodSize;
+            this.allTotalRecommendations = allTotalRecommendations;
+            this.minIdealDataPieces = minIdealDataPieces;
+        }
+
+        @Override
+        public MetricsAccumulator[] call() throws Exception {
+            MetricsAccumulator[] metrics = new MetricsAccumulator[allTotalRecommendations.length];
+            RankingMetrics ranking = new RankingMetrics(allTotalRecommendations);
+
+            // Only the largest number of recommendations needs to be requested
+            int maxRecommendations = 0;
+
+            for (int i = 0; i < metrics.length; i++) {
+                metrics[i] = new MetricsAccumulator(minIdealDataPieces);
+                maxRecommendations = Math.max(maxRecommendations, allTotalRecommendations[i]);
+            }
+
+            // Reused for every user's recommendations
+            long[] recs = new long[maxRecommendations];
+
+            ItemRecommender irec = model.createItemRecommender(neighbourhoodSize);
+
+            // We don't want to exclude any results from recommendations
+            HashSet<Long> exclude = new HashSet<>();
+
+            for (int i = stripe; i < comparisonData.getUserCount(); i += workers) {
+                int userId = comparisonData.getUserId(i);
+                int recCount = 0;
+
+                // Pull out just the movie IDs from the ScoredIds
+                for (ScoredId item : irec.recommend(userId, maxRecommendations, null, exclude)) {
+                    if (recCount == recs.length) {
+                        break;
+                    }
+                    recs[recCount++] = item.getId();
+                }
+
+                long[] comparisons = comparisonData.getComparisons(i);
+                int dataCount = comparisonData.getDataCount(i);
+
+                // The top-N list for a smaller N is a prefix of the largest list, so every
+                // cutoff is calculated from one walk of the list
+                ranking.evaluate(recs, recCount, comparisons, comparisons.length);
+
+                for (int j = 0; j < allTotalRecommendations.length; j++) {
+                    int totalRecommendations = allTotalRecommendations[j];
+
+                    // output metrics to file
+                    RecommendationEvaluation.outputUserMetrics(algorithm, userId,
+                            ranking.getPrecision(j), ranking.getRecall(j), dataCount, recs,
+                            Math.min(totalRecommendations, recCount), neighbourhoodSize,
+                            totalRecommendations);
+
+                    metrics[j].add(ranking, j, dataCount);
+                }
+            }
+
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package recommendationevaluation;
+
+/**
+ * The LDA topic distribution of every user, read from the topic DAO.<p>
+ *
+ * Each user's vector holds its topic distributions, with topics as entries, scaled to unit length,
+ * so the similarity of two users is the cosine similarity of their topic distributions. Topics are
+ * only used to compare users; the movies recommended come from the ratings of the most similar
+ * users.
+ *
+ * @author Jordan
+ */
+public class LDAUserVectors extends UserVectors {
+
+    /**
+     * Creates the vectors from the topic distributions in a DAO, where items are topic IDs and
+     * ratings are distributions.
+     *
+     * @param topics The topic DAO
+     */
+    public LDAUserVectors(ColumnarRatingDAO topics) {
+        super(userIds(topics), entries(topics), weights(topics), topics.getItemCount(), 1);
+    }
+
+    /**
+     * Gets the IDs of every user in the DAO, in ascending order.
+     */
+    private static long[] userIds(ColumnarRatingDAO topics) {
+        long[] ids = new long[topics.getUserCount()];
+
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = topics.getUserId(i);
+        }
+        return ids;
+    }
+
+    /**
+     * Gets each user's topic indexes, leaving out topics without a positive distribution as they
+     * add nothing to a similarity.
+     */
+    private static int[][] entries(ColumnarRatingDAO topics) {
+        int[][] entries = new int[topics.getUserCount()][];
+
+        for (int i = 0; i < entries.length; i++) {
+            int count = 0;
+            entries[i] = new int[positiveCount(topics, i)];
+
+            for (int row = topics.getUserStart(i); row < topics.getUserEnd(i); row++) {
+                if (topics.getUserRating(row) > 0) {
+                    entries[i][count++] = topics.getRatedItem(row);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gets each user's positive topic distributions scaled to unit length.
+     */
+    private static float[][] weights(ColumnarRatingDAO topics) {
+        float[][] weights = new float[topics.getUserCount()][];
+
+        for (int i = 0; i < weights.length; i++) {
+            double sumSquares = 0;
+            int count = 0;
+            weights[i] = new float[positiveCount(topics, i)];
+
+            for (int row = topics.getUserStart(i); row < topics.getUserEnd(i); row++) {
+                float distribution = topics.getUserRating(row);
+
+                if (distribution > 0) {
+                    weights[i][count++] = distribution;
+                    sumSquares += (double) distribution * distribution;
+                }
+            }
+
+            double length = Math.sqrt(sumSquares);
+
+            for (int j = 0; j < count; j++) {
+                weights[i][j] = (float) (weights[i][j] / length);
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Counts a user's topics with a positive distribution.
+     */
+    private static int positiveCount(ColumnarRatingDAO topics, int userIndex) {
+        int count = 0;
+
+        for (int row = topics.getUserStart(userIndex); row < topics.getUserEnd(userIndex); row++) {
+            if (topics.getUserRating(row) > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,159 @@
+package recommendationevaluation;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs using open addressing, so that membership checks do not box IDs.<p>
+ *
+ * The set is intended to be reused: clear() only moves to a new generation of slots instead of
+ * wiping the table, and the table only grows, so filling the set again for the next user does not
+ * allocate.
+ *
+ * @author Jordan
+ */
+public class LongHashSet {
+
+    // Multiplier used to spread IDs across the table (golden ratio)
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    // Slot keys, and the generation in which each slot was filled
+    private long[] keys;
+    private int[] generations;
+
+    // The current generation, slots from any other generation are empty
+    private int generation = 1;
+
+    // Number of keys in the set, and the mask and shift used to find slot indexes
+    private int size, mask, shift;
+
+    /**
+     * Creates a set that can hold a number of keys before growing.
+     *
+     * @param expectedSize The expected number of keys
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Removes all keys from the set.
+     */
+    public void clear() {
+        size = 0;
+        generation++;
+
+        // Generation has wrapped around, old slots could look current so wipe them
+        if (generation == 0) {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Ensures the set can hold a number of keys without growing. Existing keys are kept.
+     *
+     * @param expectedSize The expected number of keys
+     */
+    public void ensureCapacity(int expectedSize) {
+        int tableSize = tableSizeFor(expectedSize);
+
+        if (tableSize > keys.length) {
+            long[] oldKeys = keys;
+            int[] oldGenerations = generations;
+            int oldGeneration = generation;
+
+            allocate(tableSize);
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldGenerations[i] == oldGeneration) {
+                    add(oldKeys[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a key to the set.
+     *
+     * @param key The key to add
+     * @return True if the key was not already present
+     */
+    public boolean add(long key) {
+        if ((size + 1) * 2 > keys.length) {
+            ensureCapacity(size + 1);
+        }
+
+        int slot = slotFor(key);
+
+        // Linear probe until the key or an empty slot is found
+        while (generations[slot] == generation) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        generations[slot] = generation;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks if a key is in the set.
+     *
+     * @param key The key to look for
+     * @return True if the key is present
+     */
+    public boolean contains(long key) {
+        int slot = slotFor(key);
+
+        while (generations[slot] == generation) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of keys in the set.
+     *
+     * @return The size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Allocates an empty table of the given size (a power of two).
+     */
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        generations = new int[tableSize];
+        generation = 1;
+        mask = tableSize - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(tableSize);
+    }
+
+    /**
+     * Finds the first slot to probe for a key.
+     */
+    private int slotFor(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift) & mask;
+    }
+
+    /**
+     * Gets a power of two table size that keeps the load factor at or below one half.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int tableSize = 16;
+
+        while (tableSize < expectedSize * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+}
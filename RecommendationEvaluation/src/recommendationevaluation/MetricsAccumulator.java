@@ -0,0 +1,204 @@
+package recommendationevaluation;
+
+/**
+ * Accumulates precision, recall and data count metrics across users.<p>
+ *
+ * Each evaluation worker fills its own accumulator without locking, and the partial results are
+ * merged into a shared accumulator when the worker finishes. All methods are synchronized so that
+ * a shared accumulator can safely be merged into from several threads.
+ *
+ * @author Jordan
+ */
+public class MetricsAccumulator {
+
+    // Users below this data count are not considered ideal
+    private final int minIdealDataPieces;
+
+    // Running totals
+    private int userCount,
+            totalDataPieces,
+            minDataPieces = Integer.MAX_VALUE,
+            totalNotIdealUsers;
+
+    private double totalPrecision,
+            totalRecall,
+            totalNdcg,
+            totalAveragePrecision,
+            totalReciprocalRank,
+            totalHits;
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param minIdealDataPieces The data count below which a user is not ideal
+     */
+    public MetricsAccumulator(int minIdealDataPieces) {
+        this.minIdealDataPieces = minIdealDataPieces;
+    }
+
+    /**
+     * Adds the metrics for a single user.
+     *
+     * @param precision The precision of the user's recommendations
+     * @param recall The recall of the user's recommendations
+     * @param dataCount The number of data pieces for the user
+     */
+    public synchronized void add(double precision, double recall, int dataCount) {
+        // hack for userbasedcf, when no recommendations are made then totalPrecision breaks
+        // not sure why no recommendations would be made for a user
+        if (Double.isNaN(precision)) {
+            precision = 0;
+        }
+
+        userCount++;
+        totalPrecision += precision;
+        totalRecall += recall;
+        totalDataPieces += dataCount;
+
+        if (dataCount < minDataPieces) {
+            minDataPieces = dataCount;
+        }
+
+        if (dataCount < minIdealDataPieces) {
+            totalNotIdealUsers++;
+        }
+    }
+
+    /**
+     * Adds the metrics for a single user from a RankingMetrics calculation.
+     *
+     * @param metrics The metrics calculated for the user
+     * @param index The index of the cutoff to add
+     * @param dataCount The number of data pieces for the user
+     */
+    public synchronized void add(RankingMetrics metrics, int index, int dataCount) {
+        add(metrics.getPrecision(index), metrics.getRecall(index), dataCount);
+
+        totalNdcg += metrics.getNdcg(index);
+        totalAveragePrecision += metrics.getAveragePrecision(index);
+        totalReciprocalRank += metrics.getReciprocalRank(index);
+        totalHits += metrics.getHitRate(index);
+    }
+
+    /**
+     * Merges the totals of another accumulator into this one.
+     *
+     * @param other The accumulator to merge
+     */
+    public synchronized void merge(MetricsAccumulator other) {
+        synchronized (other) {
+            userCount += other.userCount;
+            totalPrecision += other.totalPrecision;
+            totalRecall += other.totalRecall;
+            totalNdcg += other.totalNdcg;
+            totalAveragePrecision += other.totalAveragePrecision;
+            totalReciprocalRank += other.totalReciprocalRank;
+            totalHits += other.totalHits;
+            totalDataPieces += other.totalDataPieces;
+            totalNotIdealUsers += other.totalNotIdealUsers;
+
+            if (other.minDataPieces < minDataPieces) {
+                minDataPieces = other.minDataPieces;
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of users evaluated
+     *
+     * @return The user count
+     */
+    public synchronized int getUserCount() {
+        return userCount;
+    }
+
+    /**
+     * Getter for the total data pieces across all users
+     *
+     * @return The total data pieces
+     */
+    public synchronized int getTotalDataPieces() {
+        return totalDataPieces;
+    }
+
+    /**
+     * Getter for the smallest data count of any user
+     *
+     * @return The min data pieces
+     */
+    public synchronized int getMinDataPieces() {
+        return minDataPieces;
+    }
+
+    /**
+     * Getter for the number of users with less than the ideal data count
+     *
+     * @return The count of non-ideal users
+     */
+    public synchronized int getTotalNotIdealUsers() {
+        return totalNotIdealUsers;
+    }
+
+    /**
+     * Getter for the sum of all user precisions
+     *
+     * @return The total precision
+     */
+    public synchronized double getTotalPrecision() {
+        return totalPrecision;
+    }
+
+    /**
+     * Getter for the sum of all user recalls
+     *
+     * @return The total recall
+     */
+    public synchronized double getTotalRecall() {
+        return totalRecall;
+    }
+
+    /**
+     * Getter for the sum of all user nDCGs
+     *
+     * @return The total nDCG
+     */
+    public synchronized double getTotalNdcg() {
+        return totalNdcg;
+    }
+
+    /**
+     * Getter for the sum of all user average precisions
+     *
+     * @return The total average precision
+     */
+    public synchronized double getTotalAveragePrecision() {
+        return totalAveragePrecision;
+    }
+
+    /**
+     * Getter for the sum of all user reciprocal ranks
+     *
+     * @return The total reciprocal rank
+     */
+    public synchronized double getTotalReciprocalRank() {
+        return totalReciprocalRank;
+    }
+
+    /**
+     * Getter for the number of users with at least one relevant recommendation
+     *
+     * @return The total hits
+     */
+    public synchronized double getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * Getter for the ideal data count
+     *
+     * @return The min ideal data pieces
+     */
+    public int getMinIdealDataPieces() {
+        return minIdealDataPieces;
+    }
+}
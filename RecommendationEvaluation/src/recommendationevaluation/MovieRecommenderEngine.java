@@ -14,10 +14,9 @@ import org.grouplens.lenskit.baseline.UserMeanItemScorer;
 import org.grouplens.lenskit.core.LenskitConfiguration;
 import org.grouplens.lenskit.core.LenskitRecommenderEngine;
 import org.grouplens.lenskit.core.ModelDisposition;
-import org.grouplens.lenskit.data.sql.JDBCRatingDAO;
-import org.grouplens.lenskit.data.sql.JDBCRatingDAOBuilder;
-import org.grouplens.lenskit.knn.NeighborhoodSize;
 import org.grouplens.lenskit.knn.item.ItemItemScorer;
+import org.grouplens.lenskit.knn.user.NeighborFinder;
+import org.grouplens.lenskit.knn.user.SnapshotNeighborFinder;
 import org.grouplens.lenskit.knn.user.UserUserItemScorer;
 import org.grouplens.lenskit.transform.normalize.BaselineSubtractingUserVectorNormalizer;
 import org.grouplens.lenskit.transform.normalize.MeanCenteringVectorNormalizer;
@@ -43,16 +42,16 @@ public class MovieRecommenderEngine {
             LDA = 3, // latent dirichlet allocation
             WPM = 4; // word-based pattern mining
 
-    // Data sources: 1st - ratings data, 2nd - LDA data, 3rd - WPM data
+    // Data sources: 1st - ratings data, 2nd - LDA data. WPM and LDA recommend from the ratings data,
+    // their user similarities come from the vectors written by WordBasedPatternMining
+    // (WPMUserVectors) and from the LDA data (LDAUserVectors)
     private static final String dataSources[][] = new String[][]{
         {"capstone.movie_ratings_final", "MOVIE_ID", "RATING_VAL", "USER_ID"},
-        {"capstone.lda_composition", "TOPIC_ID", "TOPIC_DISTRIBUTION", "USER_ID"},
-        {"capstone.cosine_similarity", "COMPARISON_USER_ID", "SIMILARITY", "USER_ID"}};
+        {"capstone.lda_composition", "TOPIC_ID", "TOPIC_DISTRIBUTION", "USER_ID"}};
 
     // dataSources indexes for algorithms
     private static final int DATA_RATINGS = 0,
-            DATA_LDA = 1,
-            DATA_WPM = 2;
+            DATA_LDA = 1;
 
     // Indexes for items within dataSources
     private static final int TABLE_NAME = 0,
@@ -60,30 +59,53 @@ public class MovieRecommenderEngine {
             RATING_COLUMN = 2,
             USER_COLUMN = 3;
 
+    // Folder holding the rating snapshots read by the DAOs
+    private static final String SNAPSHOT_DIR = "RecommendationEvaluation/snapshots";
+
+    // Folder of DataGeneration's local store, read instead of the database when it has the table
+    private static final String STORE_DIR = "DataGeneration/snapshots";
+
+    // Shared DAOs, same indexes as dataSources
+    private static final ColumnarRatingDAO daos[] = new ColumnarRatingDAO[dataSources.length];
+
+    // Whether snapshots are rebuilt from their source the first time they are used in this run
+    private static boolean refreshSnapshots = false;
+
     // The actual LenskitRecommenderEngine encapsulated
     LenskitRecommenderEngine engine;
 
-    // The size of the neghbourhood
-    Integer neighbourhoodSize;
-
     /**
-     * Constructor for a MovieRecommenderEngine creates a RecommenderEngine based upon a
-     * neighbourhood size.
+     * Constructor for a MovieRecommenderEngine creates a RecommenderEngine for an algorithm. The
+     * neighbourhood size is not part of the engine, it is chosen when a SharedModel creates a
+     * recommender, so one engine serves every neighbourhood size.
      *
-     * @param neighbourhoodSize The size of the neighbourhood for this RecommenderEngine
      * @param algorithm Which algorithm to generate recommendations from
      * @throws java.lang.ClassNotFoundException
      * @throws java.sql.SQLException
      * @throws org.grouplens.lenskit.RecommenderBuildException
+     * @throws java.io.IOException
      */
-    public MovieRecommenderEngine(Integer neighbourhoodSize, Integer algorithm)
-            throws ClassNotFoundException, SQLException, RecommenderBuildException {
+    public MovieRecommenderEngine(Integer algorithm)
+            throws ClassNotFoundException, SQLException, RecommenderBuildException,
+            IOException {
 
-        this.neighbourhoodSize = neighbourhoodSize;
+        this(algorithm, createDAO(algorithm));
+    }
 
-        LenskitConfiguration config = createConfiguration(neighbourhoodSize, algorithm);
+    /**
+     * Constructor for a MovieRecommenderEngine creates a RecommenderEngine for an algorithm from
+     * the data in a DAO.
+     *
+     * @param algorithm Which algorithm to generate recommendations from
+     * @param dao The data to build the engine from
+     * @throws org.grouplens.lenskit.RecommenderBuildException
+     */
+    public MovieRecommenderEngine(Integer algorithm, ColumnarRatingDAO dao)
+            throws RecommenderBuildException {
 
-        engine = createRecommenderEngine(config, algorithm);
+        LenskitConfiguration config = createConfiguration(algorithm);
+
+        engine = createRecommenderEngine(config, dao);
     }
 
     /**
@@ -102,19 +124,48 @@ public class MovieRecommenderEngine {
         }
 
         // Serialise engine
-        engine.write(new File(getEngineName(algorithm, neighbourhoodSize)));
+        engine.write(new File(getEngineName(algorithm)));
     }
 
     /**
-     * Gets the name of an engine file based upon an algorithm and neighbourhood size.
+     * Gets the name of an engine file based upon an algorithm.
      *
      * @param algorithm The algorithm as an index
-     * @param neighbourhoodSize The neighbourhood size
      * @return The name of the engine
      */
-    public static String getEngineName(Integer algorithm, Integer neighbourhoodSize) {
-        return "RecommendationEvaluation/engines/engine-" + getAlgorithmName(algorithm) + 
-                "neighbours" + neighbourhoodSize + ".bin";
+    public static String getEngineName(Integer algorithm) {
+        return "RecommendationEvaluation/engines/engine-" + getAlgorithmName(algorithm) + ".bin";
+    }
+
+    /**
+     * Checks if an algorithm uses the item-item configuration, all others use user-user.
+     *
+     * @param algorithm The algorithm as an index
+     * @return True for item-based CF
+     */
+    public static boolean isItemBased(Integer algorithm) {
+        return algorithm == ITEM_BASED_CF;
+    }
+
+    /**
+     * Checks if an algorithm is word-based pattern mining, which is not built as a LensKit engine.
+     *
+     * @param algorithm The algorithm as an index
+     * @return True for WPM
+     */
+    public static boolean isWPM(Integer algorithm) {
+        return algorithm == WPM;
+    }
+
+    /**
+     * Checks if an algorithm is latent dirichlet allocation, which is not built as a LensKit
+     * engine.
+     *
+     * @param algorithm The algorithm as an index
+     * @return True for LDA
+     */
+    public static boolean isLDA(Integer algorithm) {
+        return algorithm == LDA;
     }
 
     /**
@@ -148,53 +199,66 @@ public class MovieRecommenderEngine {
     }
 
     /**
-     * Creates and returns a Data Access Object for the database
+     * Sets whether each snapshot is rebuilt from its source the first time it is used, rather than
+     * only when it is missing or older than DataGeneration's local store. A database table can only
+     * be checked for changes this way.
+     *
+     * @param refresh True to rebuild the snapshots
+     */
+    public static synchronized void setRefreshSnapshots(boolean refresh) {
+        refreshSnapshots = refresh;
+    }
+
+    /**
+     * Creates and returns a Data Access Object for the database. The chosen table is read once
+     * into a memory-mapped snapshot, and the same read only DAO is returned for every later call
+     * using that table. The table is read from DataGeneration's local store if it is there, and
+     * the snapshot is rebuilt whenever the store's table is newer. Otherwise it is read from the
+     * database, only if there is no snapshot yet or the snapshots are being refreshed.
      *
      * @param algorithm which algorithm to generate recommendations from
      * @return the DAO
      * @throws ClassNotFoundException
      * @throws SQLException
+     * @throws IOException
      */
-    public static JDBCRatingDAO createDAO(Integer algorithm)
-            throws ClassNotFoundException, SQLException {
-
-        // private variables
-        Connection con; // connection to db
-        JDBCRatingDAO dao; // data access object
-        JDBCRatingDAOBuilder daoBuilder; // data builder        
-
-        // Build data access object (DAO) and set up columns
-        daoBuilder = JDBCRatingDAO.newBuilder();
-
-        // Determine which data source to use and set up daoBuilder
-        if (algorithm == ITEM_BASED_CF || algorithm == USER_BASED_CF) {
-            // both CF methods use ratings data
-            daoBuilder.setTableName(dataSources[DATA_RATINGS][TABLE_NAME]);
-            daoBuilder.setItemColumn(dataSources[DATA_RATINGS][ITEM_COLUMN]);
-            daoBuilder.setRatingColumn(dataSources[DATA_RATINGS][RATING_COLUMN]);
-            daoBuilder.setUserColumn(dataSources[DATA_RATINGS][USER_COLUMN]);
-
-        } else if (algorithm == LDA) {
-            daoBuilder.setTableName(dataSources[DATA_LDA][TABLE_NAME]);
-            daoBuilder.setItemColumn(dataSources[DATA_LDA][ITEM_COLUMN]);
-            daoBuilder.setRatingColumn(dataSources[DATA_LDA][RATING_COLUMN]);
-            daoBuilder.setUserColumn(dataSources[DATA_LDA][USER_COLUMN]);
-
-        } else if (algorithm == WPM) {
-            daoBuilder.setTableName(dataSources[DATA_WPM][TABLE_NAME]);
-            daoBuilder.setItemColumn(dataSources[DATA_WPM][ITEM_COLUMN]);
-            daoBuilder.setRatingColumn(dataSources[DATA_WPM][RATING_COLUMN]);
-            daoBuilder.setUserColumn(dataSources[DATA_WPM][USER_COLUMN]);
-        }
+    public static synchronized ColumnarRatingDAO createDAO(Integer algorithm)
+            throws ClassNotFoundException, SQLException, IOException {
 
-        daoBuilder.setTimestampColumn(null); // no timestamps
+        // Determine which data source to use
+        int source = DATA_RATINGS; // both CF methods and WPM use ratings data
 
-        // Initialise DAO with connection and DAO builder
-        Class.forName(JDBC_DRIVER);
-        con = DriverManager.getConnection(DB_URL, USER, PASS);
-        dao = daoBuilder.build(con);
+        if (algorithm == LDA) {
+            source = DATA_LDA;
+        }
+
+        if (daos[source] == null) {
+            File snapshot = new File(SNAPSHOT_DIR, dataSources[source][TABLE_NAME] + ".bin");
+            File table = new File(STORE_DIR, dataSources[source][TABLE_NAME] + ".cols");
+
+            if (refreshSnapshots && snapshot.exists() && !snapshot.delete()) {
+                throw new IOException("Could not delete " + snapshot);
+            }
+
+            // Only connect to the database if there is no store table and no snapshot yet
+            if (table.exists()) {
+                daos[source] = ColumnarRatingDAO.openOrCreate(snapshot, table,
+                        dataSources[source][USER_COLUMN], dataSources[source][ITEM_COLUMN],
+                        dataSources[source][RATING_COLUMN]);
+            } else if (snapshot.exists()) {
+                daos[source] = ColumnarRatingDAO.open(snapshot);
+            } else {
+                Class.forName(JDBC_DRIVER);
+
+                try (Connection con = DriverManager.getConnection(DB_URL, USER, PASS)) {
+                    daos[source] = ColumnarRatingDAO.openOrCreate(snapshot, con,
+                            dataSources[source][TABLE_NAME], dataSources[source][USER_COLUMN],
+                            dataSources[source][ITEM_COLUMN], dataSources[source][RATING_COLUMN]);
+                }
+            }
+        }
 
-        return dao;
+        return daos[source];
     }
 
     /**
@@ -203,20 +267,20 @@ public class MovieRecommenderEngine {
      * @return The DAO
      * @throws ClassNotFoundException
      * @throws SQLException
+     * @throws IOException
      */
-    public static JDBCRatingDAO createItemDAO() throws ClassNotFoundException, SQLException {
+    public static ColumnarRatingDAO createItemDAO()
+            throws ClassNotFoundException, SQLException, IOException {
         return createDAO(ITEM_BASED_CF); // item-based CF uses ratings data
     }
 
     /**
-     * Sets up and returns a LenskitConfiguration for item-based CF
+     * Sets up and returns a LenskitConfiguration for an algorithm
      *
-     * @param neighbourhoodSize The size of the neighbourhood for this configuration
      * @param algorithm Which algorithm to use
      * @return The configuration
      */
-    private static LenskitConfiguration createConfiguration(Integer neighbourhoodSize,
-            Integer algorithm) throws ClassNotFoundException, SQLException {
+    private static LenskitConfiguration createConfiguration(Integer algorithm) {
 
         LenskitConfiguration config = new LenskitConfiguration(); // config for recommender
 
@@ -228,17 +292,16 @@ public class MovieRecommenderEngine {
             config.bind(UserVectorNormalizer.class).to(BaselineSubtractingUserVectorNormalizer.class);
 
         } else {
-            // User-user configuration for all other algorithms
+            // User-user configuration for user-based CF, the only other algorithm with an engine
             config.bind(ItemScorer.class).to(UserUserItemScorer.class);
             config.bind(BaselineScorer.class, ItemScorer.class).to(UserMeanItemScorer.class);
             config.bind(UserMeanBaseline.class, ItemScorer.class).to(ItemMeanRatingItemScorer.class);
             config.within(UserVectorNormalizer.class).bind(VectorNormalizer.class).to(MeanCenteringVectorNormalizer.class);
 
+            // Find neighbours from a snapshot of user vectors built once with the engine
+            config.bind(NeighborFinder.class).to(SnapshotNeighborFinder.class);
         }
 
-        // Set neighbourhood size
-        config.set(NeighborhoodSize.class).to(neighbourhoodSize);
-
         return config;
     }
 
@@ -246,18 +309,12 @@ public class MovieRecommenderEngine {
      * Builds and returns a RecommenderEngine that is free from a DAO
      *
      * @param config The configuration containing only recommendation configuration (not DAO)
-     * @param algorithm Which algorithm to generate recommendations from
+     * @param dao The data to build the engine from
      * @return The DAO free RecommenderEngine
-     * @throws ClassNotFoundException
-     * @throws SQLException
      * @throws RecommenderBuildException
      */
-    private LenskitRecommenderEngine createRecommenderEngine(LenskitConfiguration config,
-            Integer algorithm) throws ClassNotFoundException, SQLException,
-            RecommenderBuildException {
-
-        // Private variables
-        JDBCRatingDAO dao = createDAO(algorithm);
+    private static LenskitRecommenderEngine createRecommenderEngine(LenskitConfiguration config,
+            ColumnarRatingDAO dao) throws RecommenderBuildException {
 
         // Config to hold DAO
         LenskitConfiguration dataConfig = new LenskitConfiguration();
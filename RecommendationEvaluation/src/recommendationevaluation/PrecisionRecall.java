@@ -9,6 +9,9 @@ import java.util.Objects;
  * 'good' recommendations. If the recommendations includes an item from the comparison data this
  * will be a true positive.<p>
  *
+ * The evaluation engine uses RankingMetrics, which gives the same precision and recall in a single
+ * hash-based pass along with ranking metrics. This class is kept as the reference implementation.<p>
+ *
  * Ref: Collaborative Filtering Recommender Systems<br>
  * By Michael D. Ekstrand, John T. Riedl and Joseph A. Konstan
  *
@@ -0,0 +1,248 @@
+package recommendationevaluation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Calculates precision, recall and ranking metrics for a user's ranked recommendations at one or
+ * more numbers of recommendations (cutoffs).<p>
+ *
+ * This performs the same precision/recall calculation as PrecisionRecall, but the comparison data
+ * is put into a primitive hash set and the ranked recommendations are walked once, so the cost is
+ * O(recommendations + comparisons) rather than O(recommendations x comparisons). Metrics for every
+ * cutoff are recorded during that single walk. An instance keeps its buffers between users, so a
+ * worker can reuse one instance without allocating per user.<p>
+ *
+ * The ranking metrics calculated are:<br>
+ * <li>nDCG - normalised discounted cumulative gain with binary relevance
+ * <li>Average precision - averaged over min(comparisons, cutoff), the mean over users is MAP
+ * <li>Reciprocal rank - of the first relevant item, the mean over users is MRR
+ * <li>Hit rate - 1 if any relevant item was recommended, otherwise 0
+ *
+ * @author Jordan
+ */
+public class RankingMetrics {
+
+    // The cutoffs in the order given, and their indexes sorted by cutoff
+    private final int[] cutoffs;
+    private final int[] sortedOrder;
+    private final int maxCutoff;
+
+    // Metrics for the last user, one entry per cutoff
+    private final double[] precision, recall, ndcg, averagePrecision, reciprocalRank, hitRate;
+
+    // The comparison data for the current user, and the number of entries it was given as
+    private final LongHashSet relevant = new LongHashSet(64);
+    private int comparisonCount;
+
+    // idealGains[i] is the DCG of i relevant items in the top i positions
+    private double[] idealGains = new double[]{0};
+
+    /**
+     * Creates a calculator for a set of cutoffs.
+     *
+     * @param cutoffs The numbers of recommendations to calculate metrics at
+     */
+    public RankingMetrics(int... cutoffs) {
+        this.cutoffs = cutoffs.clone();
+
+        // Sort cutoff indexes by cutoff so they can be recorded in a single walk
+        Integer[] order = new Integer[cutoffs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Integer.compare(RankingMetrics.this.cutoffs[a],
+                        RankingMetrics.this.cutoffs[b]);
+            }
+        });
+
+        sortedOrder = new int[order.length];
+        int max = 0;
+        for (int i = 0; i < order.length; i++) {
+            sortedOrder[i] = order[i];
+            max = Math.max(max, cutoffs[i]);
+        }
+        maxCutoff = max;
+
+        ensureIdealGains(maxCutoff);
+
+        precision = new double[cutoffs.length];
+        recall = new double[cutoffs.length];
+        ndcg = new double[cutoffs.length];
+        averagePrecision = new double[cutoffs.length];
+        reciprocalRank = new double[cutoffs.length];
+        hitRate = new double[cutoffs.length];
+    }
+
+    /**
+     * Calculates the metrics for a user at every cutoff.
+     *
+     * @param recommendations The recommended IDs, best first
+     * @param recommendationCount The number of valid entries in recommendations
+     * @param comparisons The comparison IDs
+     * @param comparisonCount The number of valid entries in comparisons
+     */
+    public void evaluate(long[] recommendations, int recommendationCount, long[] comparisons,
+            int comparisonCount) {
+
+        // Put comparison data into the hash set
+        relevant.clear();
+        relevant.ensureCapacity(comparisonCount);
+        this.comparisonCount = comparisonCount;
+
+        for (int i = 0; i < comparisonCount; i++) {
+            relevant.add(comparisons[i]);
+        }
+
+        int length = Math.min(recommendationCount, maxCutoff);
+        int next = 0; // next cutoff to record, in sortedOrder
+        int hits = 0, firstHit = 0;
+        double dcg = 0, precisionSum = 0;
+
+        // Record any cutoffs of zero
+        while (next < sortedOrder.length && cutoffs[sortedOrder[next]] <= 0) {
+            record(sortedOrder[next++], 0, 0, 0, 0, 0);
+        }
+
+        // Walk the ranked list once, recording metrics each time a cutoff is reached
+        for (int rank = 1; rank <= length; rank++) {
+            if (relevant.contains(recommendations[rank - 1])) {
+                hits++;
+                dcg += idealGains[rank] - idealGains[rank - 1];
+                precisionSum += (double) hits / rank;
+
+                if (firstHit == 0) {
+                    firstHit = rank;
+                }
+            }
+
+            while (next < sortedOrder.length && cutoffs[sortedOrder[next]] == rank) {
+                record(sortedOrder[next++], rank, hits, firstHit, dcg, precisionSum);
+            }
+        }
+
+        // Cutoffs beyond the end of the list use the whole list
+        while (next < sortedOrder.length) {
+            record(sortedOrder[next++], length, hits, firstHit, dcg, precisionSum);
+        }
+    }
+
+    /**
+     * Stores the metrics for one cutoff.
+     */
+    private void record(int index, int length, int hits, int firstHit, double dcg,
+            double precisionSum) {
+        int relevantCount = relevant.size();
+        int idealLength = Math.min(relevantCount, cutoffs[index]);
+
+        // Same definitions as PrecisionRecall, no recommendations means no precision. Its true
+        // positives and false negatives always sum to comparisons.size(), so recall is over every
+        // comparison entry as given, not the distinct relevant items
+        precision[index] = length == 0 ? 0 : (double) hits / length;
+        recall[index] = (double) hits / comparisonCount;
+
+        ndcg[index] = idealLength == 0 ? 0 : dcg / idealGains[idealLength];
+        averagePrecision[index] = idealLength == 0 ? 0 : precisionSum / idealLength;
+        reciprocalRank[index] = firstHit == 0 ? 0 : 1.0 / firstHit;
+        hitRate[index] = hits > 0 ? 1 : 0;
+    }
+
+    /**
+     * Makes sure ideal DCG values exist up to a number of relevant items.
+     */
+    private void ensureIdealGains(int length) {
+        if (length < idealGains.length) {
+            return;
+        }
+
+        int start = idealGains.length;
+        idealGains = Arrays.copyOf(idealGains, length + 1);
+
+        // Gain of a relevant item at rank i is 1 / log2(i + 1)
+        for (int i = start; i < idealGains.length; i++) {
+            idealGains[i] = idealGains[i - 1] + Math.log(2) / Math.log(i + 1);
+        }
+    }
+
+    /**
+     * Gets the cutoff at an index.
+     *
+     * @param index The cutoff index
+     * @return The number of recommendations
+     */
+    public int getCutoff(int index) {
+        return cutoffs[index];
+    }
+
+    /**
+     * Gets the number of cutoffs.
+     *
+     * @return The cutoff count
+     */
+    public int getCutoffCount() {
+        return cutoffs.length;
+    }
+
+    /**
+     * Gets the precision of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return The precision
+     */
+    public double getPrecision(int index) {
+        return precision[index];
+    }
+
+    /**
+     * Gets the recall of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return The recall
+     */
+    public double getRecall(int index) {
+        return recall[index];
+    }
+
+    /**
+     * Gets the nDCG of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return The nDCG
+     */
+    public double getNdcg(int index) {
+        return ndcg[index];
+    }
+
+    /**
+     * Gets the average precision of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return The average precision
+     */
+    public double getAveragePrecision(int index) {
+        return averagePrecision[index];
+    }
+
+    /**
+     * Gets the reciprocal rank of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return The reciprocal rank
+     */
+    public double getReciprocalRank(int index) {
+        return reciprocalRank[index];
+    }
+
+    /**
+     * Gets the hit rate of the last user at a cutoff.
+     *
+     * @param index The cutoff index
+     * @return 1 if there was a hit, otherwise 0
+     */
+    public double getHitRate(int index) {
+        return hitRate[index];
+    }
+}
@@ -7,22 +7,11 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Scanner;
-import org.grouplens.lenskit.ItemRecommender;
 import org.grouplens.lenskit.RecommenderBuildException;
-import org.grouplens.lenskit.core.LenskitConfiguration;
-import org.grouplens.lenskit.core.LenskitRecommenderEngine;
 import org.grouplens.lenskit.core.RecommenderConfigurationException;
-import org.grouplens.lenskit.data.sql.JDBCRatingDAO;
-import org.grouplens.lenskit.scored.ScoredId;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
@@ -31,83 +20,101 @@ import static org.slf4j.LoggerFactory.getLogger;
  *
  * For recommendations will be found for each user. These recommendations will be used to calculate
  * the precision and recall of each user's recommendations, as well as an average for this engine.
- * If a LenskitRecommenderEngine for the requested neighbourhood size does not exist, then one will
- * be created.<p>
+ * If a LenskitRecommenderEngine for the requested algorithm does not exist, then one will be
+ * created. Each algorithm's engine is built or loaded once by an EngineRegistry and kept in memory
+ * while every neighbourhood size is evaluated, as the neighbourhood size is only used when scoring.<p>
  *
  * A number of different recommendation engines can be produced and evaluated by separating the
  * neighbourhood size and total recommendations input with spaces when run (eg. Neighbourhood Size:
- * 10 20 30 40)
+ * 10 20 30 40)<p>
+ *
+ * The comparison data for all users is taken once from the ratings DAO, and users are evaluated in
+ * parallel by an EvaluationEngine using the requested number of worker threads. The DAO only reads
+ * the database when it has no snapshot or is refreshed, and not at all when DataGeneration used its
+ * local store, whose tables are read again whenever they are newer than the snapshot.
  *
  * @author Jordan
  */
 public class RecommendationEvaluation {
 
-    // DB connection
-    private static Connection con;
-    private static final String JDBC_DRIVER = "com.mysql.jdbc.Driver",
-            DB_URL = "jdbc:mysql://localhost:3306/",
-            USER = "root",
-            PASS = "password";
-
     // Parameters for generating recommendations
     private static final ArrayList<Integer> allTotalRecommendations = new ArrayList(),
             allNeighbourhoodSizes = new ArrayList(),
             allAlgorithms = new ArrayList();
 
-    // Metrics
-    private static Integer totalDataPieces,
-            minDataPieces,
-            totalNotIdealUsers;
+    // Number of worker threads used to evaluate users
+    private static int workerThreads = Runtime.getRuntime().availableProcessors();
 
-    private static final Integer minIdealDataPieces = 20;
+    // Comparison data for all users, read in once
+    private static ComparisonData comparisonData;
 
-    private static double totalPrecision,
-            totalRecall;
+    // Engines for each algorithm, kept in memory across neighbourhood sizes
+    private static final EngineRegistry engines = new EngineRegistry();
+
+    // Metrics
+    private static final Integer minIdealDataPieces = 20;
 
     /**
-     * Entry point for the recommender.
+     * Entry point for the recommender. Run with --refresh to rebuild the rating snapshots from the
+     * database or DataGeneration's local store, and with them the engines.
      *
      * @param args
      * @throws java.lang.ClassNotFoundException
      * @throws java.sql.SQLException
      * @throws java.io.IOException
      * @throws org.grouplens.lenskit.core.RecommenderConfigurationException
+     * @throws java.lang.InterruptedException
      */
     public static void main(String[] args) throws ClassNotFoundException, SQLException,
-            IOException, RecommenderConfigurationException, RecommenderBuildException {
+            IOException, RecommenderConfigurationException, RecommenderBuildException,
+            InterruptedException {
 
         // Set slf4j logger to only show errors
         Logger root = (Logger) getLogger(Logger.ROOT_LOGGER_NAME);
         root.setLevel(Level.ERROR);
 
-        // Set up DB connection
-        Class.forName(JDBC_DRIVER);
-        con = DriverManager.getConnection(DB_URL, USER, PASS);
+        for (String arg : args) {
+            if (arg.equals("--refresh")) {
+                setRefreshSnapshots(true);
+            }
+        }
 
         // Get the neighbourhood size and total recommendations
         getUserInput();
 
+        // Read in the comparison data for every user
+        System.out.println("\nReading Comparison Data...");
+        comparisonData = new ComparisonData(createItemDAO());
+        System.out.println("DONE");
+
         // Counters for metrics completed and metrics total
         Integer counterMetrics = 0;
-        Integer totalMetrics = allNeighbourhoodSizes.size() * allTotalRecommendations.size();
+        Integer totalMetrics = allAlgorithms.size() * allNeighbourhoodSizes.size()
+                * allTotalRecommendations.size();
 
-        // Generatics metrics for each neighbourhood size and number of recommendations
+        // Generatics metrics for each neighbourhood size, sweeping all numbers of recommendations
+        // in one pass over the users
         for (Integer algorithm : allAlgorithms) {
+            // Build or load the engine once for every neighbourhood size
+            System.out.println("\nLoading Engine for " + getAlgorithmName(algorithm) + "...");
+            engines.getModel(algorithm);
+            System.out.printf("DONE (built in %.1fs, loaded in %.1fs)%n",
+                    engines.getBuildSeconds(algorithm), engines.getLoadSeconds(algorithm));
+
             for (Integer size : allNeighbourhoodSizes) {
-                for (Integer recommendations : allTotalRecommendations) {
-                    // generate metrics
-                    generateMetrics(size, recommendations, algorithm, con);
+                // generate metrics
+                generateMetrics(size, allTotalRecommendations, algorithm);
 
-                    counterMetrics++; // this metric is done
+                counterMetrics += allTotalRecommendations.size(); // these metrics are done
 
-                    System.out.println("----FINISHED " + counterMetrics + "/" + totalMetrics + ": "
-                            + size + " neighbours and " + recommendations + " recommendations "
-                            + getAlgorithmName(algorithm) + "----");
-                }
+                System.out.println("----FINISHED " + counterMetrics + "/" + totalMetrics + ": "
+                        + size + " neighbours and " + allTotalRecommendations
+                        + " recommendations " + getAlgorithmName(algorithm) + "----");
             }
-        }
 
-        con.close();
+            // This algorithm's model is no longer needed
+            engines.release(algorithm);
+        }
     }
 
     /**
@@ -146,6 +153,12 @@ public class RecommendationEvaluation {
             allTotalRecommendations.add(Integer.parseInt(recommendationSize));
         }
 
+        System.out.print("\nWorker Threads (blank for " + workerThreads + "): ");
+        String threads = in.nextLine().trim();
+
+        if (!threads.isEmpty()) {
+            workerThreads = Integer.parseInt(threads);
+        }
     }
 
     /**
@@ -154,242 +167,71 @@ public class RecommendationEvaluation {
      * @param neighbourhoodSize The size of the neighbourhood for these recommendations
      * @param totalRecommendations The number of recommendations to make
      * @param algorithm The algorithm to perform
-     * @param con Capstone database connection
      * @throws ClassNotFoundException
      * @throws IOException
      * @throws SQLException
      * @throws RecommenderBuildException
+     * @throws InterruptedException
      */
     public static void generateMetrics(Integer neighbourhoodSize, Integer totalRecommendations,
-            Integer algorithm, Connection con) throws ClassNotFoundException, IOException, SQLException,
-            RecommenderBuildException {
-
-        System.out.println("\n\n----Generating Metrics for " + neighbourhoodSize
-                + " neighbours and " + totalRecommendations + " recommendations "
-                + getAlgorithmName(algorithm) + "----");
-
-        resetVariables();
-
-        createEngineIfNecessary(algorithm, neighbourhoodSize);
-
-        // Set up recommender using engine and DAO, and get item recommender   
-        System.out.println("Creating Item Recommender...");
-        ItemRecommender irec = createItemRecommender(algorithm, neighbourhoodSize);
-        System.out.println("DONE\n");
-
-        // Get all users
-        ResultSet users = getUsers();
-
-        System.out.println("Generating Precision/Recall Documents...");
-
-        initialiseDirectories(algorithm, neighbourhoodSize, totalRecommendations);
-
-        // Iterate over all users and calculate precision and recall
-        while (users.next()) {
-            ArrayList<Long> recs = getMovieRecommendations(users.getInt("USER_ID"), irec,
-                    totalRecommendations);
+            Integer algorithm) throws ClassNotFoundException, IOException, SQLException,
+            RecommenderBuildException, InterruptedException {
 
-            // create PrecisionRecall for this user based upon their recommendations 
-            // and a comparison set of data
-            PrecisionRecall pr = new PrecisionRecall(recs,
-                    getComparisonDataSet(users.getInt("USER_ID")));
+        ArrayList<Integer> allRecommendations = new ArrayList<>();
+        allRecommendations.add(totalRecommendations);
 
-            // get precision and recall for this user
-            double precision = pr.getPrecision();
-            double recall = pr.getRecall();
-            Integer dataCount = getUserDataCount(users.getInt("USER_ID"));
-
-            // output metrics to file
-            outputUserMetrics(algorithm, users.getInt("USER_ID"), precision, recall, dataCount, recs,
-                    neighbourhoodSize, totalRecommendations);
-
-            // hack for userbasedcf, when no recommendations are made then totalPrecision breaks
-            // not sure why no recommendations would be made for a user
-            if (Double.isNaN(precision)) {
-                precision = 0;
-            }
-
-            // update metrics
-            totalPrecision += precision;
-            totalRecall += recall;
-            totalDataPieces += dataCount;
-
-            if (dataCount < minDataPieces) {
-                minDataPieces = dataCount;
-            }
-
-            if (dataCount < minIdealDataPieces) {
-                totalNotIdealUsers++;
-            }
-
-        }
-
-        // output the averrage metrics for this recommendation engine
-        outputAverageMetrics(algorithm, neighbourhoodSize, totalRecommendations);
-        System.out.println("DONE");
+        generateMetrics(neighbourhoodSize, allRecommendations, algorithm);
     }
 
     /**
-     * Reset all the variables to their default values.
-     */
-    private static void resetVariables() {
-        totalPrecision = 0;
-        totalRecall = 0;
-        totalDataPieces = 0;
-        minDataPieces = Integer.MAX_VALUE;
-        totalNotIdealUsers = 0;
-    }
-
-    /**
-     * Creates an engine file if one does not already exist.
+     * Generates metrics for a neighbourhood size and several numbers of recommendations. Each user
+     * is only asked for the largest number of recommendations, and the smaller top-N lists are
+     * taken from the start of that list.
      *
+     * @param neighbourhoodSize The size of the neighbourhood for these recommendations
+     * @param allRecommendations The numbers of recommendations to evaluate
+     * @param algorithm The algorithm to perform
      * @throws ClassNotFoundException
      * @throws IOException
      * @throws SQLException
      * @throws RecommenderBuildException
+     * @throws InterruptedException
      */
-    private static void createEngineIfNecessary(Integer algorithm, Integer neighbourhoodSize)
-            throws ClassNotFoundException, IOException, SQLException, RecommenderBuildException {
-
-        // engine file for this CF operation
-        File engineFile = new File(getEngineName(algorithm, neighbourhoodSize));
-
-        // check for existance of file
-        if (!engineFile.exists()) {
-            // Create new engine based on neighbourhood size, and write to file
-            System.out.println("Creating New Engine...");
-
-            MovieRecommenderEngine newEngine
-                    = new MovieRecommenderEngine(neighbourhoodSize, algorithm);
-
-            newEngine.writeToFile(algorithm);
-            System.out.println("DONE\n");
-
-        } else {
-            System.out.println("Engine Already Exists\n");
-        }
-    }
-
-    /**
-     * Creates a recommender, based on engine file, and returns it's item recommender.
-     *
-     * @return The item recommender
-     * @throws IOException
-     * @throws RecommenderConfigurationException
-     * @throws ClassNotFoundException
-     * @throws SQLException
-     */
-    private static ItemRecommender createItemRecommender(Integer algorithm,
-            Integer neighbourhoodSize) throws IOException, RecommenderConfigurationException,
-            ClassNotFoundException, SQLException {
-
-        JDBCRatingDAO dao = MovieRecommenderEngine.createItemDAO(); // data access object
-        LenskitConfiguration dataConfig = new LenskitConfiguration(); // config for DAO free engine
-
-        // Add DAO to config
-        dataConfig.addComponent(dao);
+    public static void generateMetrics(Integer neighbourhoodSize,
+            ArrayList<Integer> allRecommendations, Integer algorithm)
+            throws ClassNotFoundException, IOException, SQLException, RecommenderBuildException,
+            InterruptedException {
 
-        // Read in engine based on file name, and add data config
-        LenskitRecommenderEngine engine
-                = LenskitRecommenderEngine.newLoader().addConfiguration(dataConfig)
-                .load(new File(getEngineName(algorithm, neighbourhoodSize)));
-
-        // create recommender and return item recommender
-        return engine.createRecommender().getItemRecommender();
-    }
-
-    /**
-     * Gets all users as a result set
-     *
-     * @return All the users
-     * @throws SQLException
-     */
-    private static ResultSet getUsers() throws SQLException {
-        // Prepared statement to collect users
-        PreparedStatement prepStatement;
-
-        // SQL statement to collect distinct users
-        prepStatement = con.prepareStatement(
-                "SELECT DISTINCT USER_ID FROM capstone.movie_ratings_final");
-
-        // Execute query and return results
-        return prepStatement.executeQuery();
-    }
-
-    /**
-     * Extracts just the movie IDs to be recommended to a user
-     *
-     * @param userId The user to make recommendations for
-     * @param irec The item recommender for this recommendation
-     * @return The recommended movie's IDs
-     */
-    private static ArrayList<Long> getMovieRecommendations(Integer userId, ItemRecommender irec,
-            Integer totalRecommendations) {
+        System.out.println("\n\n----Generating Metrics for " + neighbourhoodSize
+                + " neighbours and " + allRecommendations + " recommendations "
+                + getAlgorithmName(algorithm) + "----");
 
-        ArrayList<Long> movies = new ArrayList();
+        // The engine is only built or loaded the first time an algorithm is requested
+        EvaluationEngine evaluator = new EvaluationEngine(engines.getModel(algorithm),
+                comparisonData, workerThreads);
 
-        // We don't want to exclude any results from recommendations. By default all previously
-        // rate movies are excluded, however we need these to be recommended to get precision/recall
-        HashSet<Long> exclude = new HashSet();
+        System.out.println("Generating Precision/Recall Documents...");
 
-        // Get ScoredId recommendations
-        List<ScoredId> recs = irec.recommend(userId, totalRecommendations, null, exclude);
+        int[] cutoffs = new int[allRecommendations.size()];
 
-        // Pull out just ratings from ScoredIds
-        for (ScoredId item : recs) {
-            movies.add(item.getId());
+        for (int i = 0; i < cutoffs.length; i++) {
+            cutoffs[i] = allRecommendations.get(i);
+            initialiseDirectories(algorithm, neighbourhoodSize, cutoffs[i]);
         }
 
-        return movies;
-    }
-
-    /**
-     * Gets the comparison data from the DB for a user
-     *
-     * @param userId The id of the user to get the comparison set for
-     * @return the comparison movie's IDs
-     */
-    private static ArrayList<Long> getComparisonDataSet(Integer userId) throws SQLException {
-        ResultSet rs;
-        ArrayList<Long> movieIds = new ArrayList();
-        PreparedStatement prepStatement;
-
-        // SQL statement to collect distinct users
-        prepStatement = con.prepareStatement(
-                "SELECT MOVIE_ID FROM capstone.movie_ratings_final WHERE USER_ID = " + userId);
+        // Calculate precision and recall for all users at every number of recommendations
+        MetricsAccumulator[] metrics = evaluator.evaluateSweep(algorithm, neighbourhoodSize,
+                cutoffs, minIdealDataPieces);
 
-        // Execute query and return results
-        rs = prepStatement.executeQuery();
+        System.out.printf("Evaluated %d users in %.1fs with %d workers (%.1f users/s)%n",
+                comparisonData.getUserCount(), evaluator.getElapsedSeconds(),
+                evaluator.getWorkers(), evaluator.getUsersPerSecond());
 
-        // Iterate over each row in result set and add movie id to array list
-        while (rs.next()) {
-            movieIds.add(rs.getLong("MOVIE_ID"));
+        // output the averrage metrics for each number of recommendations
+        for (int i = 0; i < cutoffs.length; i++) {
+            outputAverageMetrics(algorithm, neighbourhoodSize, cutoffs[i], metrics[i]);
         }
-        return movieIds;
-    }
-
-    /**
-     * Counts the number of data pieces used to recommend content to a user.
-     *
-     * @param userId The ID of the user to retrieve a count for
-     * @return The data count
-     */
-    private static Integer getUserDataCount(int userId) throws SQLException {
-        PreparedStatement prepStatement;
-        ResultSet result;
-
-        // SQL statement to count data for user
-        prepStatement = con.prepareStatement(
-                "SELECT COUNT(*) FROM capstone.movie_ratings_final WHERE USER_ID = " + userId);
-
-        // Execute query and store result
-        result = prepStatement.executeQuery();
-
-        // Ensure resultset is set to the first record
-        result.first();
-
-        // Return the number of data items
-        return result.getInt("COUNT(*)");
+        System.out.println("DONE");
     }
 
     /**
@@ -428,11 +270,13 @@ public class RecommendationEvaluation {
      * @param precision The precision of this users recommendations
      * @param recall The recall of this users recommendations
      * @param dataPieces Pieces of data for this user
+     * @param recs The recommended movie IDs
+     * @param recCount The number of recommendations to output from recs
      * @throws FileNotFoundException
      * @throws IOException
      */
-    private static void outputUserMetrics(Integer algorithm, int userId, double precision,
-            double recall, Integer dataPieces, ArrayList<Long> recs, Integer neighbourhoodSize,
+    static void outputUserMetrics(Integer algorithm, int userId, double precision,
+            double recall, Integer dataPieces, long[] recs, int recCount, Integer neighbourhoodSize,
             Integer totalRecommendations) throws FileNotFoundException, IOException {
 
         // File to be written to for user
@@ -454,8 +298,8 @@ public class RecommendationEvaluation {
 
         // Add recommendations to file
         writer.println("Recommendations:");
-        for (Long rec : recs) {
-            writer.println(rec);
+        for (int i = 0; i < recCount; i++) {
+            writer.println(recs[i]);
         }
 
         writer.close();
@@ -464,13 +308,13 @@ public class RecommendationEvaluation {
     /**
      * Creates a file containing the average metrics for this recommendation engine.
      *
+     * @param metrics The metrics for all users
      * @throws FileNotFoundException
      * @throws IOException
-     * @throws SQLException
      */
     private static void outputAverageMetrics(Integer algorithm, Integer neighbourhoodSize,
-            Integer totalRecommendations)
-            throws FileNotFoundException, IOException, SQLException {
+            Integer totalRecommendations, MetricsAccumulator metrics)
+            throws FileNotFoundException, IOException {
 
         // File to be written to for user
         File metricsDocument = new File("metrics/" + 
@@ -485,46 +329,22 @@ public class RecommendationEvaluation {
         writer = new PrintWriter(metricsDocument);
 
         // Count all users
-        userCount = countUsers();
+        userCount = metrics.getUserCount();
 
         // Add metrics to file
         writer.println("Neighbourhood Size: " + neighbourhoodSize);
         writer.println("Total Recommendations: " + totalRecommendations);
-        writer.println("Avg. Data Pieces Per User: " + totalDataPieces / userCount);
-        writer.println("Min Data Pieces For A User: " + minDataPieces);
+        writer.println("Avg. Data Pieces Per User: " + metrics.getTotalDataPieces() / userCount);
+        writer.println("Min Data Pieces For A User: " + metrics.getMinDataPieces());
         writer.println("Users With Less Than " + minIdealDataPieces + " Pieces Of Data: "
-                + totalNotIdealUsers / userCount * 100 + "%");
-        writer.println("Avg. Precision: " + totalPrecision / userCount);
-        writer.println("Avg. Recall: " + totalRecall / userCount);
+                + metrics.getTotalNotIdealUsers() / userCount * 100 + "%");
+        writer.println("Avg. Precision: " + metrics.getTotalPrecision() / userCount);
+        writer.println("Avg. Recall: " + metrics.getTotalRecall() / userCount);
+        writer.println("Avg. nDCG: " + metrics.getTotalNdcg() / userCount);
+        writer.println("MAP: " + metrics.getTotalAveragePrecision() / userCount);
+        writer.println("MRR: " + metrics.getTotalReciprocalRank() / userCount);
+        writer.println("Hit Rate: " + metrics.getTotalHits() / userCount);
 
         writer.close();
     }
-
-    /**
-     * Counts the number of users found in the movie_ratings_final table
-     *
-     * @return The number of users found
-     * @throws SQLException
-     */
-    private static double countUsers() throws SQLException {
-        // Prepared statement for querying database
-        PreparedStatement prepStatement;
-
-        // Store the results of the query
-        ResultSet result;
-
-        // SQL query to count the number of users
-        prepStatement = con.prepareStatement(
-                "SELECT COUNT(DISTINCT USER_ID) FROM capstone.movie_ratings_final");
-
-        // Execute the query and store the results
-        result = prepStatement.executeQuery();
-
-        // Ensure resultset is set to the first record
-        result.first();
-
-        // Return the number of users
-        return result.getInt("COUNT(DISTINCT USER_ID)");
-    }
-
 }
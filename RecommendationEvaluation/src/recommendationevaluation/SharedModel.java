@@ -0,0 +1,173 @@
+package recommendationevaluation;
+
+import org.grouplens.lenskit.ItemRecommender;
+import org.grouplens.lenskit.ItemScorer;
+import org.grouplens.lenskit.RecommenderBuildException;
+import org.grouplens.lenskit.basic.TopNItemRecommender;
+import org.grouplens.lenskit.core.LenskitConfiguration;
+import org.grouplens.lenskit.core.LenskitRecommender;
+import org.grouplens.lenskit.core.LenskitRecommenderEngine;
+import org.grouplens.lenskit.data.history.UserHistorySummarizer;
+import org.grouplens.lenskit.knn.item.DefaultItemScoreAlgorithm;
+import org.grouplens.lenskit.knn.item.ItemItemScorer;
+import org.grouplens.lenskit.knn.item.NeighborhoodScorer;
+import org.grouplens.lenskit.knn.item.model.ItemItemModel;
+import org.grouplens.lenskit.knn.user.NeighborFinder;
+import org.grouplens.lenskit.knn.user.UserSimilarityThreshold;
+import org.grouplens.lenskit.knn.user.UserUserItemScorer;
+import org.grouplens.lenskit.transform.normalize.UserVectorNormalizer;
+import org.grouplens.lenskit.transform.threshold.Threshold;
+
+/**
+ * The expensive, neighbourhood size independent parts of a recommender, kept in memory so that
+ * recommenders for any neighbourhood size can be created without building or loading an engine.<p>
+ *
+ * For item-based CF this is the item-item similarity matrix. For the user-user algorithms it is the
+ * snapshot of normalised user vectors that neighbours are found from. The neighbourhood size is
+ * only used when scoring, so createItemRecommender just wraps the shared parts in a new scorer.
+ * For WPM it is the user vectors written by WordBasedPatternMining, and for LDA each user's topic
+ * distribution. Both find neighbours from their UserVectors and score movies from the ratings DAO
+ * with a VectorItemRecommender.
+ * Every shared part is read only, so recommenders can be created and used from many threads.
+ *
+ * @author Jordan
+ */
+public class SharedModel {
+
+    // Minimum neighbours needed to score an item, the LensKit default
+    private static final int MIN_NEIGHBOURS = 1;
+
+    // Whether the item-item or the user-user parts are used
+    private final boolean itemBased;
+
+    // The data recommendations are made from
+    private final ColumnarRatingDAO dao;
+
+    // Shared by both configurations
+    private final UserVectorNormalizer normalizer;
+
+    // Item-item parts
+    private final ItemItemModel itemModel;
+    private final UserHistorySummarizer summarizer;
+    private final NeighborhoodScorer neighbourhoodScorer;
+
+    // User-user parts
+    private final NeighborFinder neighbourFinder;
+    private final Threshold threshold;
+
+    // WPM and LDA parts, the neighbour index is only written for WPM
+    private final UserVectors vectors;
+    private final WPMNeighbourIndex index;
+
+    /**
+     * Creates a shared model from a DAO free engine and the DAO it was built from.
+     *
+     * @param algorithm The algorithm of the engine
+     * @param engine The DAO free engine
+     * @param dao The DAO holding the engine's data
+     * @throws RecommenderBuildException
+     */
+    public SharedModel(Integer algorithm, LenskitRecommenderEngine engine, ColumnarRatingDAO dao)
+            throws RecommenderBuildException {
+
+        this.itemBased = MovieRecommenderEngine.isItemBased(algorithm);
+        this.dao = dao;
+        this.vectors = null;
+        this.index = null;
+
+        // Attach the DAO once, then pull the shared parts out of the recommender
+        LenskitConfiguration dataConfig = new LenskitConfiguration();
+        dataConfig.addComponent(dao);
+
+        LenskitRecommender recommender = engine.createRecommender(dataConfig);
+
+        normalizer = require(recommender.get(UserVectorNormalizer.class), "normalizer");
+
+        if (itemBased) {
+            itemModel = require(recommender.get(ItemItemModel.class), "item-item model");
+            summarizer = require(recommender.get(UserHistorySummarizer.class), "summarizer");
+            neighbourhoodScorer = require(recommender.get(NeighborhoodScorer.class),
+                    "neighbourhood scorer");
+            neighbourFinder = null;
+            threshold = null;
+        } else {
+            neighbourFinder = require(recommender.get(NeighborFinder.class), "neighbour finder");
+            threshold = require(recommender.get(UserSimilarityThreshold.class, Threshold.class),
+                    "similarity threshold");
+            itemModel = null;
+            summarizer = null;
+            neighbourhoodScorer = null;
+        }
+    }
+
+    /**
+     * Creates a shared WPM or LDA model from the user vectors and the ratings to recommend from.
+     *
+     * @param vectors The vectors of every user
+     * @param dao The ratings DAO
+     */
+    public SharedModel(UserVectors vectors, ColumnarRatingDAO dao) {
+        this(vectors, null, dao);
+    }
+
+    /**
+     * Creates a shared WPM model that takes neighbours from a precomputed index where it can.
+     *
+     * @param vectors The vectors of every user
+     * @param index The neighbours of every user, or null to always search the vectors
+     * @param dao The ratings DAO
+     */
+    public SharedModel(UserVectors vectors, WPMNeighbourIndex index, ColumnarRatingDAO dao) {
+        this.itemBased = false;
+        this.dao = dao;
+        this.vectors = vectors;
+        this.index = index;
+        normalizer = null;
+        itemModel = null;
+        summarizer = null;
+        neighbourhoodScorer = null;
+        neighbourFinder = null;
+        threshold = null;
+    }
+
+    /**
+     * Creates an item recommender using a neighbourhood size. This is cheap, nothing is built.
+     *
+     * @param neighbourhoodSize The size of the neighbourhood
+     * @return The item recommender
+     */
+    public ItemRecommender createItemRecommender(int neighbourhoodSize) {
+        ItemScorer scorer;
+
+        if (vectors != null) {
+            return new VectorItemRecommender(vectors, index, dao, neighbourhoodSize);
+        } else if (itemBased) {
+            scorer = new ItemItemScorer(dao, itemModel, summarizer, neighbourhoodScorer,
+                    new DefaultItemScoreAlgorithm(neighbourhoodSize, MIN_NEIGHBOURS), normalizer);
+        } else {
+            scorer = new UserUserItemScorer(dao, neighbourFinder, normalizer, neighbourhoodSize,
+                    MIN_NEIGHBOURS, threshold);
+        }
+
+        return new TopNItemRecommender(dao, dao, scorer);
+    }
+
+    /**
+     * Getter for the DAO
+     *
+     * @return The DAO recommendations are made from
+     */
+    public ColumnarRatingDAO getDAO() {
+        return dao;
+    }
+
+    /**
+     * Checks that a part was found in the recommender.
+     */
+    private static <T> T require(T part, String name) throws RecommenderBuildException {
+        if (part == null) {
+            throw new RecommenderBuildException("Engine has no " + name);
+        }
+        return part;
+    }
+}
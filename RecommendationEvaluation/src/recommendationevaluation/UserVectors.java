@@ -0,0 +1,145 @@
+package recommendationevaluation;
+
+import java.util.Arrays;
+
+/**
+ * Sparse, positive vectors describing every user, with an inverted index for finding similar users
+ * without comparing every pair of users.<p>
+ *
+ * Each user's vector is a list of entry indexes and weights. The similarity of two users is the dot
+ * product of their vectors divided by a constant, so vectors scaled to unit length give the cosine
+ * similarity. The inverted index lists, for each entry, the users that have it. A user's similarity
+ * to every other user is found by walking only the lists of the entries that user has.<p>
+ *
+ * The vectors are never modified once built, so they can be shared by any number of threads.
+ *
+ * @author Jordan
+ */
+public class UserVectors {
+
+    // User IDs in ascending order, the position of an ID is its index
+    private final long[] userIds;
+
+    // Each user's entries and their weights
+    private final int[][] entries;
+    private final float[][] weights;
+
+    // Users [postingOffsets[e], postingOffsets[e + 1]) in postingUsers have entry e
+    private final int[] postingOffsets, postingUsers;
+    private final float[] postingWeights;
+
+    // Dot products are divided by this to give similarities
+    private final double divisor;
+
+    /**
+     * Creates the vectors and their inverted index.
+     *
+     * @param userIds The user IDs in ascending order
+     * @param entries Each user's entry indexes, all below entryCount
+     * @param weights Each user's entry weights, all above zero
+     * @param entryCount The number of distinct entries
+     * @param divisor The number dot products are divided by to give similarities
+     */
+    protected UserVectors(long[] userIds, int[][] entries, float[][] weights, int entryCount,
+            double divisor) {
+        this.userIds = userIds;
+        this.entries = entries;
+        this.weights = weights;
+        this.divisor = divisor;
+
+        // Count the users of each entry
+        postingOffsets = new int[entryCount + 1];
+        int total = 0;
+
+        for (int[] userEntries : entries) {
+            for (int entry : userEntries) {
+                postingOffsets[entry + 1]++;
+            }
+            total += userEntries.length;
+        }
+
+        for (int i = 0; i < entryCount; i++) {
+            postingOffsets[i + 1] += postingOffsets[i];
+        }
+
+        // Fill the inverted index
+        postingUsers = new int[total];
+        postingWeights = new float[total];
+        int[] next = Arrays.copyOf(postingOffsets, entryCount);
+
+        for (int i = 0; i < userIds.length; i++) {
+            for (int j = 0; j < entries[i].length; j++) {
+                int slot = next[entries[i][j]]++;
+                postingUsers[slot] = i;
+                postingWeights[slot] = weights[i][j];
+            }
+        }
+    }
+
+    /**
+     * Adds the similarity of a user to every other user into an accumulator. Users that share no
+     * entries with the user are left untouched.
+     *
+     * @param userIndex The user index
+     * @param similarities The accumulator, one slot per user, must be zero for untouched users
+     * @param touched Receives the indexes of users that were added to
+     * @return The number of users in touched
+     */
+    public int accumulateSimilarities(int userIndex, double[] similarities, int[] touched) {
+        int touchedCount = 0;
+        int[] userEntries = entries[userIndex];
+        float[] userWeights = weights[userIndex];
+
+        for (int i = 0; i < userEntries.length; i++) {
+            int entry = userEntries[i];
+            double weight = userWeights[i];
+
+            for (int p = postingOffsets[entry]; p < postingOffsets[entry + 1]; p++) {
+                int other = postingUsers[p];
+
+                if (other == userIndex) {
+                    continue;
+                }
+                // Weights are positive, so a slot is only zero before it is first touched
+                if (similarities[other] == 0) {
+                    touched[touchedCount++] = other;
+                }
+                similarities[other] += weight * postingWeights[p];
+            }
+        }
+
+        for (int i = 0; i < touchedCount; i++) {
+            similarities[touched[i]] /= divisor;
+        }
+        return touchedCount;
+    }
+
+    /**
+     * Gets the index of a user.
+     *
+     * @param user The user ID
+     * @return The user index, or a negative number if the user has no vector
+     */
+    public int getUserIndex(long user) {
+        return Arrays.binarySearch(userIds, user);
+    }
+
+    /**
+     * Gets the ID of the user at an index.
+     *
+     * @param index The user index
+     * @return The user ID
+     */
+    public long getUserId(int index) {
+        return userIds[index];
+    }
+
+    /**
+     * Getter for the number of users
+     *
+     * @return The user count
+     */
+    public int getUserCount() {
+        return userIds.length;
+    }
+}
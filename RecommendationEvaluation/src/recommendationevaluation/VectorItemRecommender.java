@@ -0,0 +1,396 @@
+package recommendationevaluation;
+
+import it.unimi.dsi.fastutil.longs.LongSet;
+import java.util.List;
+import org.grouplens.lenskit.basic.AbstractItemRecommender;
+import org.grouplens.lenskit.scored.ScoredId;
+import org.grouplens.lenskit.scored.ScoredIdListBuilder;
+import org.grouplens.lenskit.scored.ScoredIds;
+
+/**
+ * User-user recommender for algorithms that find neighbours from UserVectors rather than from the
+ * ratings: word-based pattern mining, where the similarity of two users is the average cosine
+ * similarity of their WPM topic-word distributions, and LDA, where it is the cosine similarity of
+ * their topic distributions.<p>
+ *
+ * The neighbours of a user are found directly from the vectors instead of from a table of every
+ * pair of users. When WordBasedPatternMining's neighbour index is given and lists enough
+ * neighbours with ratings, they are taken from it and the vectors aren't searched at all. Items are then scored in the same way as LensKit's user-user scorer: the user's
+ * mean rating plus the similarity weighted average of the neighbours' mean-centred ratings for that
+ * item.<p>
+ *
+ * An instance keeps its buffers between users, so it is not thread safe. Each evaluation worker
+ * creates its own.
+ *
+ * @author Jordan
+ */
+public class VectorItemRecommender extends AbstractItemRecommender {
+
+    // User vectors and the ratings to recommend from
+    private final UserVectors vectors;
+    private final ColumnarRatingDAO dao;
+
+    // Precomputed neighbours of every user, or null to always search the vectors
+    private final WPMNeighbourIndex index;
+
+    // The maximum number of neighbours to score with
+    private final int neighbourhoodSize;
+
+    // Similarity accumulator over all users, and the users touched for the current user
+    private final double[] similarities;
+    private final int[] touched;
+
+    // Neighbour heap of rating indexes (smallest similarity at the root)
+    private final int[] neighbours;
+    private final double[] neighbourSims;
+
+    // Score accumulators over all items, and the items touched for the current user
+    private final double[] weightedSums, similaritySums;
+    private final int[] scoredItems;
+
+    // Top-N heap of item indexes (smallest score at the root)
+    private int[] topItems = new int[16];
+
+    /**
+     * Creates a recommender for a neighbourhood size.
+     *
+     * @param vectors The vectors of every user
+     * @param dao The ratings to recommend items from
+     * @param neighbourhoodSize The maximum number of neighbours for each user
+     */
+    public VectorItemRecommender(UserVectors vectors, ColumnarRatingDAO dao,
+            int neighbourhoodSize) {
+        this(vectors, null, dao, neighbourhoodSize);
+    }
+
+    /**
+     * Creates a recommender that takes neighbours from a precomputed index where it can.
+     *
+     * @param vectors The vectors of every user
+     * @param index The neighbours of every user, or null to always search the vectors
+     * @param dao The ratings to recommend items from
+     * @param neighbourhoodSize The maximum number of neighbours for each user
+     */
+    public VectorItemRecommender(UserVectors vectors, WPMNeighbourIndex index,
+            ColumnarRatingDAO dao, int neighbourhoodSize) {
+        this.vectors = vectors;
+        this.index = index;
+        this.dao = dao;
+        this.neighbourhoodSize = Math.max(1, neighbourhoodSize);
+
+        similarities = new double[vectors.getUserCount()];
+        touched = new int[vectors.getUserCount()];
+
+        neighbours = new int[this.neighbourhoodSize];
+        neighbourSims = new double[this.neighbourhoodSize];
+
+        weightedSums = new double[dao.getItemCount()];
+        similaritySums = new double[dao.getItemCount()];
+        scoredItems = new int[dao.getItemCount()];
+    }
+
+    @Override
+    protected List<ScoredId> recommend(long user, int n, LongSet candidates, LongSet exclude) {
+        int userIndex = vectors.getUserIndex(user);
+        int ratingIndex = dao.getUserIndex(user);
+
+        // Without a vector there are no neighbours, and so nothing to recommend
+        if (userIndex < 0) {
+            return ScoredIds.newListBuilder().build();
+        }
+
+        int neighbourCount = indexedNeighbours(user);
+
+        if (neighbourCount < 0) {
+            neighbourCount = findNeighbours(userIndex);
+        }
+        int scoredCount = accumulateScores(neighbourCount);
+
+        double userMean = ratingIndex < 0 ? 0 : meanRating(ratingIndex);
+        int limit = n < 0 ? scoredCount : n;
+        int topCount = 0;
+
+        if (topItems.length < Math.min(limit, scoredCount)) {
+            topItems = new int[Math.min(limit, scoredCount)];
+        }
+
+        // Keep the best n scores
+        for (int i = 0; i < scoredCount; i++) {
+            int item = scoredItems[i];
+            long itemId = dao.getItemId(item);
+
+            if ((candidates != null && !candidates.contains(itemId))
+                    || (exclude == null ? isRatedBy(ratingIndex, item)
+                    : exclude.contains(itemId))) {
+                continue;
+            }
+
+            if (topCount < limit) {
+                topItems[topCount++] = item;
+                siftUp(topCount - 1);
+            } else if (limit > 0 && score(item) > score(topItems[0])) {
+                topItems[0] = item;
+                siftDown(0, topCount);
+            }
+        }
+
+        // Pop the heap to order the items best first
+        int[] ordered = new int[topCount];
+
+        for (int i = topCount - 1; i >= 0; i--) {
+            ordered[i] = topItems[0];
+            topItems[0] = topItems[i];
+            siftDown(0, i);
+        }
+
+        ScoredIdListBuilder builder = ScoredIds.newListBuilder(topCount);
+
+        for (int item : ordered) {
+            builder.add(dao.getItemId(item), userMean + score(item));
+        }
+
+        // Clear the accumulators for the next user
+        for (int i = 0; i < scoredCount; i++) {
+            weightedSums[scoredItems[i]] = 0;
+            similaritySums[scoredItems[i]] = 0;
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Takes the most similar users with ratings from the index, leaving them in neighbours. The
+     * index only lists k neighbours, so its list can't be used if the neighbourhood is larger or
+     * if too few of a full list have ratings, as the users left out might.
+     *
+     * @return The number of neighbours found, or -1 if the vectors have to be searched
+     */
+    private int indexedNeighbours(long user) {
+        if (index == null || neighbourhoodSize > index.getK()) {
+            return -1;
+        }
+
+        long[] listed = index.getNeighbours(user);
+        float[] listedSims = index.getSimilarities(user);
+
+        if (listed == null) {
+            return -1;
+        }
+
+        int count = 0;
+
+        // The list is most similar first, so the first rated users are the best
+        for (int i = 0; i < listed.length && count < neighbourhoodSize; i++) {
+            int ratingIndex = dao.getUserIndex(listed[i]);
+
+            if (ratingIndex >= 0) {
+                neighbours[count] = ratingIndex;
+                neighbourSims[count] = listedSims[i];
+                count++;
+            }
+        }
+
+        // A full list may have left out rated users, a shorter one holds every similar user
+        if (count < neighbourhoodSize && listed.length >= index.getK()) {
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Finds the most similar users to a user, leaving them in neighbours.
+     *
+     * @return The number of neighbours found
+     */
+    private int findNeighbours(int userIndex) {
+        int touchedCount = vectors.accumulateSimilarities(userIndex, similarities, touched);
+        int count = 0;
+
+        for (int i = 0; i < touchedCount; i++) {
+            int other = touched[i];
+            double similarity = similarities[other];
+            similarities[other] = 0;
+
+            int ratingIndex = dao.getUserIndex(vectors.getUserId(other));
+
+            // Only users with ratings can contribute scores
+            if (ratingIndex < 0) {
+                continue;
+            }
+
+            if (count < neighbourhoodSize) {
+                neighbours[count] = ratingIndex;
+                neighbourSims[count] = similarity;
+                count++;
+                siftUpNeighbour(count - 1);
+            } else if (similarity > neighbourSims[0]) {
+                neighbours[0] = ratingIndex;
+                neighbourSims[0] = similarity;
+                siftDownNeighbour(0, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds every neighbour's mean-centred ratings into the score accumulators.
+     *
+     * @return The number of items scored
+     */
+    private int accumulateScores(int neighbourCount) {
+        int scoredCount = 0;
+
+        for (int i = 0; i < neighbourCount; i++) {
+            int ratingIndex = neighbours[i];
+            double similarity = neighbourSims[i];
+            double mean = meanRating(ratingIndex);
+
+            for (int row = dao.getUserStart(ratingIndex); row < dao.getUserEnd(ratingIndex);
+                    row++) {
+                int item = dao.getRatedItem(row);
+
+                if (similaritySums[item] == 0) {
+                    scoredItems[scoredCount++] = item;
+                }
+                weightedSums[item] += similarity * (dao.getUserRating(row) - mean);
+                similaritySums[item] += Math.abs(similarity);
+            }
+        }
+        return scoredCount;
+    }
+
+    /**
+     * Gets the mean-centred score of an item from the accumulators.
+     */
+    private double score(int item) {
+        return weightedSums[item] / similaritySums[item];
+    }
+
+    /**
+     * Gets the mean rating of a user.
+     */
+    private double meanRating(int ratingIndex) {
+        int start = dao.getUserStart(ratingIndex), end = dao.getUserEnd(ratingIndex);
+        double sum = 0;
+
+        for (int row = start; row < end; row++) {
+            sum += dao.getUserRating(row);
+        }
+        return end == start ? 0 : sum / (end - start);
+    }
+
+    /**
+     * Checks if a user has rated an item. Ratings are sorted by item within a user.
+     */
+    private boolean isRatedBy(int ratingIndex, int item) {
+        if (ratingIndex < 0) {
+            return false;
+        }
+
+        int low = dao.getUserStart(ratingIndex), high = dao.getUserEnd(ratingIndex) - 1;
+
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleItem = dao.getRatedItem(middle);
+
+            if (middleItem < item) {
+                low = middle + 1;
+            } else if (middleItem > item) {
+                high = middle - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves a top item up the heap until its parent scores lower.
+     */
+    private void siftUp(int index) {
+        int item = topItems[index];
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (score(topItems[parent]) <= score(item)) {
+                break;
+            }
+            topItems[index] = topItems[parent];
+            index = parent;
+        }
+        topItems[index] = item;
+    }
+
+    /**
+     * Moves a top item down the heap until its children score higher.
+     */
+    private void siftDown(int index, int size) {
+        int item = topItems[index];
+
+        while (true) {
+            int child = 2 * index + 1;
+
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && score(topItems[child + 1]) < score(topItems[child])) {
+                child++;
+            }
+            if (score(item) <= score(topItems[child])) {
+                break;
+            }
+            topItems[index] = topItems[child];
+            index = child;
+        }
+        topItems[index] = item;
+    }
+
+    /**
+     * Moves a neighbour up the heap until its parent is less similar.
+     */
+    private void siftUpNeighbour(int index) {
+        int neighbour = neighbours[index];
+        double similarity = neighbourSims[index];
+
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+
+            if (neighbourSims[parent] <= similarity) {
+                break;
+            }
+            neighbours[index] = neighbours[parent];
+            neighbourSims[index] = neighbourSims[parent];
+            index = parent;
+        }
+        neighbours[index] = neighbour;
+        neighbourSims[index] = similarity;
+    }
+
+    /**
+     * Moves a neighbour down the heap until its children are more similar.
+     */
+    private void siftDownNeighbour(int index, int size) {
+        int neighbour = neighbours[index];
+        double similarity = neighbourSims[index];
+
+        while (true) {
+            int child = 2 * index + 1;
+
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && neighbourSims[child + 1] < neighbourSims[child]) {
+                child++;
+            }
+            if (similarity <= neighbourSims[child]) {
+                break;
+            }
+            neighbours[index] = neighbours[child];
+            neighbourSims[index] = neighbourSims[child];
+            index = child;
+        }
+        neighbours[index] = neighbour;
+        neighbourSims[index] = similarity;
+    }
+}
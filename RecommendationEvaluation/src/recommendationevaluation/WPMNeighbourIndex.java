@@ -0,0 +1,111 @@
+package recommendationevaluation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The k most similar users to every user, read from the neighbour index written by
+ * WordBasedPatternMining.<p>
+ *
+ * The index is worked out once when the vectors are written, so a recommender with a neighbourhood
+ * no larger than k can take a user's neighbours from it instead of comparing the user with every
+ * other user. Each list is sorted most similar first.
+ *
+ * @author Jordan
+ */
+public class WPMNeighbourIndex {
+
+    // Default location of the index, relative to the repository root
+    public static final String DEFAULT_FILE = "WordBasedPatternMining/wpm-neighbours.bin";
+
+    // File header values, must match NeighbourIndex in WordBasedPatternMining
+    private static final int MAGIC = 0x57504D4E, // "WPMN"
+            VERSION = 1;
+
+    // Maximum neighbours listed for each user
+    private final int k;
+
+    // User IDs in ascending order, the position of an ID is its index
+    private final long[] userIds;
+
+    // Each user's neighbour IDs and similarities, most similar first
+    private final long[][] neighbours;
+    private final float[][] similarities;
+
+    /**
+     * Reads the index from a file.
+     *
+     * @param file The file written by WordBasedPatternMining
+     * @throws IOException
+     */
+    public WPMNeighbourIndex(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file), 1 << 16))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a WPM neighbour index");
+            }
+
+            k = in.readInt();
+            int userCount = in.readInt();
+
+            userIds = new long[userCount];
+            neighbours = new long[userCount][];
+            similarities = new float[userCount][];
+
+            for (int i = 0; i < userCount; i++) {
+                userIds[i] = in.readInt();
+                int count = in.readInt();
+
+                // Lookups search the IDs, so they must be in the order NeighbourIndex writes them
+                if (i > 0 && userIds[i] <= userIds[i - 1]) {
+                    throw new IOException(file + " is not sorted by user ID");
+                }
+
+                neighbours[i] = new long[count];
+                similarities[i] = new float[count];
+
+                for (int j = 0; j < count; j++) {
+                    neighbours[i][j] = in.readInt();
+                    similarities[i][j] = in.readFloat();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the neighbours of a user.
+     *
+     * @param user The user ID
+     * @return The neighbour IDs, most similar first, or null if the user isn't in the index
+     */
+    public long[] getNeighbours(long user) {
+        int index = Arrays.binarySearch(userIds, user);
+        return index < 0 ? null : neighbours[index];
+    }
+
+    /**
+     * Gets the similarities of a user's neighbours.
+     *
+     * @param user The user ID
+     * @return The similarities in the same order as getNeighbours, or null if the user isn't in
+     * the index
+     */
+    public float[] getSimilarities(long user) {
+        int index = Arrays.binarySearch(userIds, user);
+        return index < 0 ? null : similarities[index];
+    }
+
+    /**
+     * Getter for the maximum number of neighbours listed for each user
+     *
+     * @return k
+     */
+    public int getK() {
+        return k;
+    }
+}
@@ -0,0 +1,203 @@
+package recommendationevaluation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The word-based pattern mining vectors of every user, read from the file written by
+ * WordBasedPatternMining.<p>
+ *
+ * Each user's frequency matrix is stored as a sparse vector over (topic, word) entries, with every
+ * topic row scaled to unit length. The cosine similarity of one topic row between two users is then
+ * a dot product, and the WPM similarity of two users (the average of the topic cosine similarities)
+ * is the dot product of their whole vectors divided by the number of topics.
+ *
+ * @author Jordan
+ */
+public class WPMUserVectors extends UserVectors {
+
+    // Default location of the vectors, relative to the repository root
+    public static final String DEFAULT_FILE = "WordBasedPatternMining/wpm-user-vectors.bin";
+
+    // File header values, must match UserVectorFile in WordBasedPatternMining
+    private static final int MAGIC = 0x57504D56, // "WPMV"
+            VERSION = 1;
+
+    // Number of topics, similarities are averaged over these
+    private final int numTopics;
+
+    /**
+     * Reads the vectors from a file.
+     *
+     * @param file The file written by WordBasedPatternMining
+     * @throws IOException
+     */
+    public WPMUserVectors(File file) throws IOException {
+        this(read(file));
+    }
+
+    /**
+     * Creates the vectors from the contents of a file.
+     */
+    private WPMUserVectors(Contents contents) {
+        super(contents.userIds, contents.entries, contents.weights, contents.entryCount,
+                contents.numTopics);
+        numTopics = contents.numTopics;
+    }
+
+    /**
+     * Reads a vector file, sorting its users by ID and giving every (topic, word) key a dense
+     * entry index.
+     */
+    private static Contents read(File file) throws IOException {
+        Contents contents = new Contents();
+        long[][] keys;
+        float[][] values;
+        long[] ids;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file), 1 << 16))) {
+
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a WPM user vector file");
+            }
+
+            contents.numTopics = in.readInt();
+            int userCount = in.readInt();
+
+            ids = new long[userCount];
+            keys = new long[userCount][];
+            values = new float[userCount][];
+
+            for (int i = 0; i < userCount; i++) {
+                ids[i] = in.readInt();
+                int count = in.readInt();
+
+                keys[i] = new long[count];
+                values[i] = new float[count];
+
+                for (int j = 0; j < count; j++) {
+                    int topic = in.readInt();
+                    int word = in.readInt();
+                    keys[i][j] = ((long) topic << 32) | word;
+                    values[i][j] = in.readFloat();
+                }
+            }
+        }
+
+        // Sort users by ID
+        Integer[] order = new Integer[ids.length];
+
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        final long[] unsortedIds = ids;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Long.compare(unsortedIds[a], unsortedIds[b]);
+            }
+        });
+
+        contents.userIds = new long[ids.length];
+        contents.weights = new float[ids.length][];
+        long[][] sortedKeys = new long[ids.length][];
+
+        for (int i = 0; i < order.length; i++) {
+            contents.userIds[i] = ids[order[i]];
+            contents.weights[i] = values[order[i]];
+            sortedKeys[i] = keys[order[i]];
+            normaliseRows(sortedKeys[i], contents.weights[i]);
+        }
+
+        // Give every distinct (topic, word) key a dense index
+        int total = 0;
+
+        for (long[] userKeys : sortedKeys) {
+            total += userKeys.length;
+        }
+
+        long[] allKeys = new long[total];
+        int position = 0;
+
+        for (long[] userKeys : sortedKeys) {
+            System.arraycopy(userKeys, 0, allKeys, position, userKeys.length);
+            position += userKeys.length;
+        }
+        Arrays.sort(allKeys);
+
+        int keyCount = 0;
+
+        for (int i = 0; i < total; i++) {
+            if (keyCount == 0 || allKeys[i] != allKeys[keyCount - 1]) {
+                allKeys[keyCount++] = allKeys[i];
+            }
+        }
+
+        // Convert each user's keys to indexes
+        contents.entries = new int[ids.length][];
+        contents.entryCount = keyCount;
+
+        for (int i = 0; i < ids.length; i++) {
+            contents.entries[i] = new int[sortedKeys[i].length];
+
+            for (int j = 0; j < sortedKeys[i].length; j++) {
+                contents.entries[i][j] = Arrays.binarySearch(allKeys, 0, keyCount,
+                        sortedKeys[i][j]);
+            }
+        }
+
+        return contents;
+    }
+
+    /**
+     * Scales each topic row of a user's vector to unit length. Keys are sorted by topic, so each
+     * row is a contiguous run.
+     */
+    private static void normaliseRows(long[] keys, float[] values) {
+        int start = 0;
+
+        while (start < keys.length) {
+            long topic = keys[start] >>> 32;
+            int end = start;
+            double sumSquares = 0;
+
+            while (end < keys.length && keys[end] >>> 32 == topic) {
+                sumSquares += (double) values[end] * values[end];
+                end++;
+            }
+
+            double length = Math.sqrt(sumSquares);
+
+            for (int i = start; i < end; i++) {
+                values[i] = (float) (values[i] / length);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Getter for the number of topics
+     *
+     * @return The topic count
+     */
+    public int getNumTopics() {
+        return numTopics;
+    }
+
+    /**
+     * The contents of a vector file, before the inverted index is built.
+     */
+    private static class Contents {
+
+        private int numTopics, entryCount;
+        private long[] userIds;
+        private int[][] entries;
+        private float[][] weights;
+    }
+}
@@ -0,0 +1,259 @@
+package itembasedcf;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import org.grouplens.lenskit.ItemRecommender;
+import org.grouplens.lenskit.ItemScorer;
+import org.grouplens.lenskit.baseline.BaselineScorer;
+import org.grouplens.lenskit.baseline.ItemMeanRatingItemScorer;
+import org.grouplens.lenskit.core.LenskitConfiguration;
+import org.grouplens.lenskit.core.LenskitRecommender;
+import org.grouplens.lenskit.cursors.Cursor;
+import org.grouplens.lenskit.data.dao.SortOrder;
+import org.grouplens.lenskit.data.event.Event;
+import org.grouplens.lenskit.data.event.Rating;
+import org.grouplens.lenskit.data.history.UserHistory;
+import org.grouplens.lenskit.knn.item.ItemItemScorer;
+import org.grouplens.lenskit.transform.normalize.BaselineSubtractingUserVectorNormalizer;
+import org.grouplens.lenskit.transform.normalize.UserVectorNormalizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import recommendationevaluation.ColumnarRatingDAO;
+import recommendationevaluation.ColumnarTable;
+import recommendationevaluation.ComparisonData;
+
+/**
+ * Tests the ColumnarRatingDAO against a small snapshot.
+ *
+ * @author Jordan
+ */
+public class ColumnarRatingDAOTest {
+
+    // Ratings sorted by user then item
+    private static final long[] USERS = {1, 1, 1, 2, 2, 5},
+            ITEMS = {10, 20, 30, 10, 40, 20};
+    private static final float[] RATINGS = {5, 3, 4, 2, 1, 4.5f};
+
+    private File snapshot;
+    private ColumnarRatingDAO dao;
+
+    @Before
+    public void setUp() throws IOException {
+        snapshot = File.createTempFile("ratings", ".bin");
+        ColumnarRatingDAO.writeSnapshot(snapshot, USERS, ITEMS, RATINGS, USERS.length);
+        dao = ColumnarRatingDAO.open(snapshot);
+    }
+
+    @After
+    public void tearDown() {
+        snapshot.delete();
+    }
+
+    /**
+     * Test of the user and item ID sets.
+     */
+    @Test
+    public void testIds() {
+        assertEquals(6, dao.getRatingCount());
+        assertArrayEquals(new long[]{1, 2, 5}, dao.getUserIds().toLongArray());
+        assertArrayEquals(new long[]{10, 20, 30, 40}, dao.getItemIds().toLongArray());
+    }
+
+    /**
+     * Test of getting the history of a user.
+     */
+    @Test
+    public void testGetEventsForUser() {
+        UserHistory<Rating> history = dao.getEventsForUser(2, Rating.class);
+
+        assertEquals(2, history.size());
+        assertEquals(10, history.get(0).getItemId());
+        assertEquals(2.0, history.get(0).getValue(), 0);
+        assertEquals(40, history.get(1).getItemId());
+        assertNull(dao.getEventsForUser(3));
+    }
+
+    /**
+     * Test of getting the ratings and users of an item.
+     */
+    @Test
+    public void testGetEventsForItem() {
+        List<Rating> ratings = dao.getEventsForItem(20, Rating.class);
+
+        assertEquals(2, ratings.size());
+        assertEquals(1, ratings.get(0).getUserId());
+        assertEquals(5, ratings.get(1).getUserId());
+        assertEquals(4.5, ratings.get(1).getValue(), 0);
+        assertArrayEquals(new long[]{1, 2}, dao.getUsersForItem(10).toLongArray());
+        assertNull(dao.getUsersForItem(99));
+    }
+
+    /**
+     * Test of streaming every rating in item order.
+     */
+    @Test
+    public void testStreamEventsByItem() {
+        long lastItem = Long.MIN_VALUE;
+        int count = 0;
+
+        try (Cursor<Rating> ratings = dao.streamEvents(Rating.class, SortOrder.ITEM)) {
+            for (Rating rating : ratings) {
+                assertTrue(rating.getItemId() >= lastItem);
+                lastItem = rating.getItemId();
+                count++;
+            }
+        }
+        assertEquals(6, count);
+
+        try (Cursor<Event> events = dao.streamEvents()) {
+            assertEquals(6, events.getRowCount());
+        }
+    }
+
+    /**
+     * Test that LensKit can build and use an item-item recommender over the DAO.
+     */
+    @Test
+    public void testItemItemRecommender() throws Exception {
+        LenskitConfiguration config = new LenskitConfiguration();
+        config.bind(ItemScorer.class).to(ItemItemScorer.class);
+        config.bind(BaselineScorer.class, ItemScorer.class).to(ItemMeanRatingItemScorer.class);
+        config.bind(UserVectorNormalizer.class).to(BaselineSubtractingUserVectorNormalizer.class);
+        config.addComponent(dao);
+
+        ItemRecommender irec = LenskitRecommender.build(config).getItemRecommender();
+
+        assertFalse(irec.recommend(5, 2).isEmpty());
+    }
+
+    /**
+     * Test of creating a snapshot from an unsorted table of DataGeneration's local store.
+     */
+    @Test
+    public void testCreateFromTable() throws IOException {
+        File table = File.createTempFile("ratings", ".cols");
+        File fromTable = File.createTempFile("ratings", ".bin");
+
+        // The same ratings in another order, with a string column between the others
+        int[] order = {4, 0, 5, 2, 3, 1};
+
+        writeTable(table, order);
+
+        try {
+            ColumnarRatingDAO.createSnapshot(fromTable, new ColumnarTable(table), "USER_ID",
+                    "MOVIE_ID", "RATING_VAL");
+            ColumnarRatingDAO tableDao = ColumnarRatingDAO.open(fromTable);
+
+            assertEquals(6, tableDao.getRatingCount());
+            assertArrayEquals(dao.getUserIds().toLongArray(),
+                    tableDao.getUserIds().toLongArray());
+
+            UserHistory<Rating> history = tableDao.getEventsForUser(1, Rating.class);
+            assertEquals(3, history.size());
+            assertEquals(20, history.get(1).getItemId());
+            assertEquals(3.0, history.get(1).getValue(), 0);
+
+            // Comparison data comes from the DAO as sorted movie IDs
+            ComparisonData comparisons = new ComparisonData(tableDao);
+            assertEquals(3, comparisons.getUserCount());
+            assertEquals(2, comparisons.getUserId(1));
+            assertArrayEquals(new long[]{10, 40}, comparisons.getComparisons(1));
+        } finally {
+            table.delete();
+            fromTable.delete();
+        }
+    }
+
+    /**
+     * Test that a snapshot of a table is reused until the table is written again.
+     */
+    @Test
+    public void testRebuildFromNewerTable() throws IOException {
+        File table = File.createTempFile("ratings", ".cols");
+        File fromTable = File.createTempFile("ratings", ".bin");
+
+        try {
+            fromTable.delete();
+            writeTable(table, new int[]{0, 1, 2, 3, 4, 5});
+            table.setLastModified(System.currentTimeMillis() - 60000);
+            assertEquals(6, ColumnarRatingDAO.openOrCreate(fromTable, table, "USER_ID",
+                    "MOVIE_ID", "RATING_VAL").getRatingCount());
+
+            // An older table is not read again
+            writeTable(table, new int[]{0, 1, 2});
+            table.setLastModified(fromTable.lastModified() - 60000);
+            assertEquals(6, ColumnarRatingDAO.openOrCreate(fromTable, table, "USER_ID",
+                    "MOVIE_ID", "RATING_VAL").getRatingCount());
+
+            // A newer table replaces the snapshot
+            table.setLastModified(fromTable.lastModified() + 60000);
+            assertEquals(3, ColumnarRatingDAO.openOrCreate(fromTable, table, "USER_ID",
+                    "MOVIE_ID", "RATING_VAL").getRatingCount());
+        } finally {
+            table.delete();
+            fromTable.delete();
+        }
+    }
+
+    /**
+     * Test that a snapshot whose counts don't match its size is rejected rather than read with
+     * overflowing offsets.
+     */
+    @Test
+    public void testRejectOversizedCounts() throws IOException {
+        // A header claiming 300 million ratings describes a snapshot over 2GB
+        try (RandomAccessFile raf = new RandomAccessFile(snapshot, "rw")) {
+            raf.seek(16);
+            raf.writeInt(Integer.reverseBytes(300000000));
+        }
+
+        try {
+            ColumnarRatingDAO.open(snapshot);
+            fail("Opened a snapshot with the wrong rating count");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("corrupt"));
+        }
+    }
+
+    /**
+     * Writes the ratings, in an order, to a table file of DataGeneration's local store with a
+     * string column between the others.
+     */
+    private static void writeTable(File table, int[] order) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(table)))) {
+            out.writeInt(0x44415443);
+            out.writeInt(1);
+            out.writeInt(order.length);
+            out.writeInt(4);
+
+            out.writeUTF("USER_ID");
+            out.writeInt(0);
+            for (int i : order) {
+                out.writeInt((int) USERS[i]);
+            }
+            out.writeUTF("NOTE");
+            out.writeInt(2);
+            for (int i : order) {
+                out.writeUTF("note " + i);
+            }
+            out.writeUTF("MOVIE_ID");
+            out.writeInt(0);
+            for (int i : order) {
+                out.writeInt((int) ITEMS[i]);
+            }
+            out.writeUTF("RATING_VAL");
+            out.writeInt(1);
+            for (int i : order) {
+                out.writeFloat(RATINGS[i]);
+            }
+        }
+    }
+}
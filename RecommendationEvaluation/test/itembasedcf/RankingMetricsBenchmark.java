@@ -0,0 +1,142 @@
+package itembasedcf;
+
+import java.util.ArrayList;
+import java.util.Random;
+import recommendationevaluation.PrecisionRecall;
+import recommendationevaluation.RankingMetrics;
+
+/**
+ * Compares the time taken by PrecisionRecall and RankingMetrics for users with 10,000 item
+ * histories.<p>
+ *
+ * Each implementation is warmed up before being timed, and the average time per user is output for
+ * several numbers of recommendations. Run with: java itembasedcf.RankingMetricsBenchmark
+ *
+ * @author Jordan
+ */
+public class RankingMetricsBenchmark {
+
+    // Size of each user's comparison data
+    private static final int HISTORY_SIZE = 10000;
+
+    // Numbers of recommendations to benchmark
+    private static final int[] RECOMMENDATION_SIZES = {10, 100, 1000};
+
+    // Number of different users to cycle through
+    private static final int USERS = 16;
+
+    // Iterations for warm up and timing
+    private static final int WARMUP_ITERATIONS = 20,
+            MEASURED_ITERATIONS = 50;
+
+    // Prevents the JIT from removing the benchmarked work
+    private static double sink;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+
+        System.out.println("Recommendations\tPrecisionRecall (us/user)\tRankingMetrics (us/user)"
+                + "\tSpeedup");
+
+        for (int size : RECOMMENDATION_SIZES) {
+            long[][] recs = new long[USERS][];
+            long[][] comps = new long[USERS][];
+            ArrayList<ArrayList<Long>> recLists = new ArrayList<>(),
+                    compLists = new ArrayList<>();
+
+            // Item IDs are drawn from twice the history size, so about half of the
+            // recommendations are relevant
+            for (int u = 0; u < USERS; u++) {
+                recs[u] = randomIds(random, size, HISTORY_SIZE * 2);
+                comps[u] = randomIds(random, HISTORY_SIZE, HISTORY_SIZE * 2);
+                recLists.add(toList(recs[u]));
+                compLists.add(toList(comps[u]));
+            }
+
+            double oldTime = timePrecisionRecall(recLists, compLists);
+            double newTime = timeRankingMetrics(recs, comps, size);
+
+            System.out.printf("%d\t%.1f\t%.1f\t%.0fx%n", size, oldTime / 1000, newTime / 1000,
+                    oldTime / newTime);
+        }
+
+        if (sink == Double.MIN_VALUE) {
+            System.out.println(sink);
+        }
+    }
+
+    /**
+     * Times PrecisionRecall, returning the average nanoseconds per user.
+     */
+    private static double timePrecisionRecall(ArrayList<ArrayList<Long>> recs,
+            ArrayList<ArrayList<Long>> comps) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            for (int u = 0; u < USERS; u++) {
+                PrecisionRecall pr = new PrecisionRecall(recs.get(u), comps.get(u));
+                sink += pr.getPrecision() + pr.getRecall();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            for (int u = 0; u < USERS; u++) {
+                PrecisionRecall pr = new PrecisionRecall(recs.get(u), comps.get(u));
+                sink += pr.getPrecision() + pr.getRecall();
+            }
+        }
+        return (System.nanoTime() - start) / (double) (MEASURED_ITERATIONS * USERS);
+    }
+
+    /**
+     * Times RankingMetrics, returning the average nanoseconds per user.
+     */
+    private static double timeRankingMetrics(long[][] recs, long[][] comps, int cutoff) {
+        RankingMetrics metrics = new RankingMetrics(cutoff);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            for (int u = 0; u < USERS; u++) {
+                metrics.evaluate(recs[u], recs[u].length, comps[u], comps[u].length);
+                sink += metrics.getPrecision(0) + metrics.getRecall(0);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            for (int u = 0; u < USERS; u++) {
+                metrics.evaluate(recs[u], recs[u].length, comps[u], comps[u].length);
+                sink += metrics.getPrecision(0) + metrics.getRecall(0);
+            }
+        }
+        return (System.nanoTime() - start) / (double) (MEASURED_ITERATIONS * USERS);
+    }
+
+    private static long[] randomIds(Random random, int count, int range) {
+        // Shuffle the whole range and take the first count IDs, so IDs are distinct
+        long[] all = new long[range];
+        for (int i = 0; i < range; i++) {
+            all[i] = i;
+        }
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(range - i);
+            long tmp = all[i];
+            all[i] = all[j];
+            all[j] = tmp;
+        }
+        long[] ids = new long[count];
+        System.arraycopy(all, 0, ids, 0, count);
+        return ids;
+    }
+
+    private static ArrayList<Long> toList(long[] ids) {
+        ArrayList<Long> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+}
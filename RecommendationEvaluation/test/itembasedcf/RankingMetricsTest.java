@@ -0,0 +1,134 @@
+package itembasedcf;
+
+import java.util.ArrayList;
+import java.util.Random;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import recommendationevaluation.PrecisionRecall;
+import recommendationevaluation.RankingMetrics;
+
+/**
+ * Tests the RankingMetrics class
+ *
+ * @author Jordan
+ */
+public class RankingMetricsTest {
+
+    /**
+     * Test precision and recall match PrecisionRecall for random data at several cutoffs.
+     */
+    @Test
+    public void testMatchesPrecisionRecall() {
+        Random random = new Random(42);
+        int[] cutoffs = {1, 5, 10, 50};
+        RankingMetrics metrics = new RankingMetrics(cutoffs);
+
+        for (int user = 0; user < 100; user++) {
+            long[] recs = distinctIds(random, 50, 200);
+            long[] comps = distinctIds(random, 1 + random.nextInt(80), 200);
+
+            metrics.evaluate(recs, recs.length, comps, comps.length);
+
+            for (int i = 0; i < cutoffs.length; i++) {
+                PrecisionRecall pr = new PrecisionRecall(toList(recs, cutoffs[i]),
+                        toList(comps, comps.length));
+
+                assertEquals(pr.getPrecision(), metrics.getPrecision(i), 1e-12);
+                assertEquals(pr.getRecall(), metrics.getRecall(i), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * Test recall is over every comparison entry, as in PrecisionRecall, when an unrecommended
+     * item is listed twice.
+     */
+    @Test
+    public void testRecallCountsRepeatedComparisons() {
+        RankingMetrics metrics = new RankingMetrics(2);
+        long[] recs = {7, 8}, comps = {5, 5, 7};
+
+        metrics.evaluate(recs, recs.length, comps, comps.length);
+        PrecisionRecall pr = new PrecisionRecall(toList(recs, 2), toList(comps, comps.length));
+
+        assertEquals(1.0 / 3, pr.getRecall(), 1e-12);
+        assertEquals(pr.getRecall(), metrics.getRecall(0), 1e-12);
+        assertEquals(pr.getPrecision(), metrics.getPrecision(0), 1e-12);
+    }
+
+    /**
+     * Test ranking metrics with a single relevant item at rank 2.
+     */
+    @Test
+    public void testRankingMetricsSingleHit() {
+        RankingMetrics metrics = new RankingMetrics(1, 3);
+
+        metrics.evaluate(new long[]{7, 3, 9}, 3, new long[]{3}, 1);
+
+        // Nothing relevant in the top 1
+        assertEquals(0.0, metrics.getNdcg(0), 0.0);
+        assertEquals(0.0, metrics.getReciprocalRank(0), 0.0);
+        assertEquals(0.0, metrics.getHitRate(0), 0.0);
+
+        // Relevant item at rank 2 in the top 3
+        assertEquals(1 / (Math.log(3) / Math.log(2)), metrics.getNdcg(1), 1e-12);
+        assertEquals(0.5, metrics.getAveragePrecision(1), 1e-12);
+        assertEquals(0.5, metrics.getReciprocalRank(1), 0.0);
+        assertEquals(1.0, metrics.getHitRate(1), 0.0);
+    }
+
+    /**
+     * Test a perfect ranking scores 1 for every ranking metric.
+     */
+    @Test
+    public void testRankingMetricsPerfect() {
+        RankingMetrics metrics = new RankingMetrics(3);
+
+        metrics.evaluate(new long[]{1, 2, 3}, 3, new long[]{3, 2, 1}, 3);
+
+        assertEquals(1.0, metrics.getNdcg(0), 1e-12);
+        assertEquals(1.0, metrics.getAveragePrecision(0), 1e-12);
+        assertEquals(1.0, metrics.getReciprocalRank(0), 0.0);
+        assertEquals(1.0, metrics.getHitRate(0), 0.0);
+    }
+
+    /**
+     * Test no recommendations gives a precision of 0.
+     */
+    @Test
+    public void testNoRecommendations() {
+        RankingMetrics metrics = new RankingMetrics(10);
+
+        metrics.evaluate(new long[0], 0, new long[]{1, 2}, 2);
+
+        assertEquals(0.0, metrics.getPrecision(0), 0.0);
+        assertEquals(0.0, metrics.getRecall(0), 0.0);
+    }
+
+    private static long[] distinctIds(Random random, int count, int range) {
+        ArrayList<Long> ids = new ArrayList<>();
+        while (ids.size() < count) {
+            long id = random.nextInt(range);
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return toArray(ids);
+    }
+
+    private static ArrayList<Long> toList(long[] ids, int count) {
+        ArrayList<Long> list = new ArrayList<>();
+        for (int i = 0; i < Math.min(count, ids.length); i++) {
+            list.add(ids[i]);
+        }
+        return list;
+    }
+
+    private static long[] toArray(ArrayList<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,279 @@
+package itembasedcf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.grouplens.lenskit.ItemRecommender;
+import org.grouplens.lenskit.ItemScorer;
+import org.grouplens.lenskit.baseline.BaselineScorer;
+import org.grouplens.lenskit.baseline.ItemMeanRatingItemScorer;
+import org.grouplens.lenskit.baseline.UserMeanBaseline;
+import org.grouplens.lenskit.baseline.UserMeanItemScorer;
+import org.grouplens.lenskit.core.LenskitConfiguration;
+import org.grouplens.lenskit.core.LenskitRecommender;
+import org.grouplens.lenskit.data.event.Event;
+import org.grouplens.lenskit.data.event.Rating;
+import org.grouplens.lenskit.data.history.UserHistory;
+import org.grouplens.lenskit.knn.NeighborhoodSize;
+import org.grouplens.lenskit.knn.item.ItemItemScorer;
+import org.grouplens.lenskit.knn.user.NeighborFinder;
+import org.grouplens.lenskit.knn.user.SnapshotNeighborFinder;
+import org.grouplens.lenskit.knn.user.UserUserItemScorer;
+import org.grouplens.lenskit.scored.ScoredId;
+import org.grouplens.lenskit.transform.normalize.BaselineSubtractingUserVectorNormalizer;
+import org.grouplens.lenskit.transform.normalize.MeanCenteringVectorNormalizer;
+import org.grouplens.lenskit.transform.normalize.UserVectorNormalizer;
+import org.grouplens.lenskit.transform.normalize.VectorNormalizer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import recommendationevaluation.ColumnarRatingDAO;
+import recommendationevaluation.LDAUserVectors;
+import recommendationevaluation.MovieRecommenderEngine;
+import recommendationevaluation.SharedModel;
+
+/**
+ * Tests that a SharedModel recommends the same items as a LensKit recommender built for a single
+ * neighbourhood size.
+ *
+ * @author Jordan
+ */
+public class SharedModelTest {
+
+    private static final int ITEM_BASED_CF = 1, USER_BASED_CF = 2;
+
+    // Added to topic IDs so that they never collide with movie IDs
+    private static final int TOPIC_OFFSET = 1000;
+
+    private File snapshot, topicSnapshot;
+    private ColumnarRatingDAO dao, topicDao;
+
+    @Before
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        int users = 40, items = 30, count = 0;
+        long[] userIds = new long[users * items], itemIds = new long[users * items];
+        float[] ratings = new float[users * items];
+
+        // Each user rates roughly a third of the items
+        for (int user = 1; user <= users; user++) {
+            for (int item = 1; item <= items; item++) {
+                if (random.nextInt(3) == 0) {
+                    userIds[count] = user;
+                    itemIds[count] = item;
+                    ratings[count] = 1 + random.nextInt(5);
+                    count++;
+                }
+            }
+        }
+
+        snapshot = File.createTempFile("ratings", ".bin");
+        ColumnarRatingDAO.writeSnapshot(snapshot, userIds, itemIds, ratings, count);
+        dao = ColumnarRatingDAO.open(snapshot);
+
+        // Each user has a distribution over a few of 60 topics, whose IDs are not movie IDs
+        int topics = 60;
+        userIds = new long[users * topics];
+        itemIds = new long[users * topics];
+        ratings = new float[users * topics];
+        count = 0;
+
+        for (int user = 1; user <= users; user++) {
+            for (int topic = 1; topic <= topics; topic++) {
+                if (random.nextInt(4) == 0) {
+                    userIds[count] = user;
+                    itemIds[count] = TOPIC_OFFSET + topic;
+                    ratings[count] = random.nextFloat();
+                    count++;
+                }
+            }
+        }
+
+        topicSnapshot = File.createTempFile("topics", ".bin");
+        ColumnarRatingDAO.writeSnapshot(topicSnapshot, userIds, itemIds, ratings, count);
+        topicDao = ColumnarRatingDAO.open(topicSnapshot);
+    }
+
+    @After
+    public void tearDown() {
+        snapshot.delete();
+        topicSnapshot.delete();
+    }
+
+    /**
+     * Test of item-based CF against an item-item recommender.
+     */
+    @Test
+    public void testItemBased() throws Exception {
+        compare(ITEM_BASED_CF);
+    }
+
+    /**
+     * Test of user-based CF against a user-user recommender.
+     */
+    @Test
+    public void testUserBased() throws Exception {
+        compare(USER_BASED_CF);
+    }
+
+    /**
+     * Test that LDA takes each user's neighbour from the topic distributions and recommends that
+     * neighbour's movies, scored from the ratings.
+     */
+    @Test
+    public void testLDANeighbourFromTopics() throws Exception {
+        SharedModel model = new SharedModel(new LDAUserVectors(topicDao), dao);
+        ItemRecommender recommender = model.createItemRecommender(1);
+        LongSet movies = dao.getItemIds();
+        int total = 0;
+
+        for (long user : topicDao.getUserIds()) {
+            // The most similar other user by the cosine of their topic distributions
+            long neighbour = -1;
+            double best = 0;
+
+            for (long other : topicDao.getUserIds()) {
+                double similarity = cosine(topics(user), topics(other));
+
+                // Only users with ratings can be neighbours
+                if (other != user && dao.getUserIds().contains(other) && similarity > best) {
+                    neighbour = other;
+                    best = similarity;
+                }
+            }
+
+            // Every movie the neighbour rated that the user hasn't, scored from the ratings
+            Map<Long, Double> expected = new HashMap<>();
+
+            if (neighbour >= 0) {
+                UserHistory<Event> ratings = dao.getEventsForUser(user);
+                LongSet rated = ratings == null ? null : ratings.itemSet();
+                double userMean = mean(user), neighbourMean = mean(neighbour);
+
+                for (Rating rating : dao.getEventsForUser(neighbour).filter(Rating.class)) {
+                    if (rated == null || !rated.contains(rating.getItemId())) {
+                        expected.put(rating.getItemId(),
+                                userMean + rating.getValue() - neighbourMean);
+                    }
+                }
+            }
+
+            List<ScoredId> recs = recommender.recommend(user, -1);
+            assertEquals("User " + user, expected.size(), recs.size());
+
+            for (ScoredId rec : recs) {
+                assertTrue("Not a movie: " + rec.getId(), movies.contains(rec.getId()));
+                assertTrue("Not from the neighbour: " + rec.getId(),
+                        expected.containsKey(rec.getId()));
+                assertEquals(expected.get(rec.getId()), rec.getScore(), 1e-6);
+                total++;
+            }
+        }
+
+        assertTrue(total > 0);
+    }
+
+    /**
+     * Checks one shared model against a recommender built for each neighbourhood size.
+     */
+    private void compare(int algorithm) throws Exception {
+        SharedModel model = new SharedModel(algorithm,
+                new MovieRecommenderEngine(algorithm, dao).getEngine(), dao);
+
+        for (int size : new int[]{2, 5, 20}) {
+            LenskitConfiguration config = createConfiguration(algorithm);
+            config.bind(NeighborhoodSize.class, Integer.class).to(size);
+            config.addComponent(dao);
+
+            ItemRecommender expected = LenskitRecommender.build(config).getItemRecommender();
+            ItemRecommender actual = model.createItemRecommender(size);
+
+            for (long user = 1; user <= 40; user++) {
+                List<ScoredId> expectedRecs = expected.recommend(user, 10);
+                List<ScoredId> actualRecs = actual.recommend(user, 10);
+
+                assertEquals(expectedRecs.size(), actualRecs.size());
+
+                for (int i = 0; i < expectedRecs.size(); i++) {
+                    assertEquals(expectedRecs.get(i).getScore(), actualRecs.get(i).getScore(),
+                            1e-9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a user's topic distribution.
+     */
+    private Map<Long, Double> topics(long user) {
+        Map<Long, Double> distribution = new HashMap<>();
+
+        for (Rating rating : topicDao.getEventsForUser(user).filter(Rating.class)) {
+            distribution.put(rating.getItemId(), rating.getValue());
+        }
+        return distribution;
+    }
+
+    /**
+     * Calculates the cosine similarity of two topic distributions.
+     */
+    private static double cosine(Map<Long, Double> a, Map<Long, Double> b) {
+        double dot = 0, lengthA = 0, lengthB = 0;
+
+        for (Map.Entry<Long, Double> entry : a.entrySet()) {
+            if (b.containsKey(entry.getKey())) {
+                dot += entry.getValue() * b.get(entry.getKey());
+            }
+            lengthA += entry.getValue() * entry.getValue();
+        }
+        for (double value : b.values()) {
+            lengthB += value * value;
+        }
+        return dot / Math.sqrt(lengthA * lengthB);
+    }
+
+    /**
+     * Gets a user's mean rating, 0 without ratings.
+     */
+    private double mean(long user) {
+        UserHistory<Event> ratings = dao.getEventsForUser(user);
+        double sum = 0;
+        int count = 0;
+
+        if (ratings != null) {
+            for (Rating rating : ratings.filter(Rating.class)) {
+                sum += rating.getValue();
+                count++;
+            }
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Creates the same configuration as MovieRecommenderEngine for an algorithm.
+     */
+    private static LenskitConfiguration createConfiguration(int algorithm) {
+        LenskitConfiguration config = new LenskitConfiguration();
+
+        if (algorithm == ITEM_BASED_CF) {
+            config.bind(ItemScorer.class).to(ItemItemScorer.class);
+            config.bind(BaselineScorer.class, ItemScorer.class).to(ItemMeanRatingItemScorer.class);
+            config.bind(UserVectorNormalizer.class)
+                    .to(BaselineSubtractingUserVectorNormalizer.class);
+        } else {
+            config.bind(ItemScorer.class).to(UserUserItemScorer.class);
+            config.bind(BaselineScorer.class, ItemScorer.class).to(UserMeanItemScorer.class);
+            config.bind(UserMeanBaseline.class, ItemScorer.class)
+                    .to(ItemMeanRatingItemScorer.class);
+            config.within(UserVectorNormalizer.class).bind(VectorNormalizer.class)
+                    .to(MeanCenteringVectorNormalizer.class);
+            config.bind(NeighborFinder.class).to(SnapshotNeighborFinder.class);
+        }
+        return config;
+    }
+}
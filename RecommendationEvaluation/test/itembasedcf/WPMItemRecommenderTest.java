@@ -0,0 +1,208 @@
+package itembasedcf;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.grouplens.lenskit.ItemRecommender;
+import org.grouplens.lenskit.scored.ScoredId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import recommendationevaluation.ColumnarRatingDAO;
+import recommendationevaluation.SharedModel;
+import recommendationevaluation.WPMNeighbourIndex;
+import recommendationevaluation.WPMUserVectors;
+
+/**
+ * Tests the WPM recommender against similarities and scores worked out by hand.
+ *
+ * @author Jordan
+ */
+public class WPMItemRecommenderTest {
+
+    private File vectorFile, snapshot, indexFile;
+    private SharedModel model;
+
+    @Before
+    public void setUp() throws IOException {
+        vectorFile = File.createTempFile("wpm-vectors", ".bin");
+        indexFile = File.createTempFile("wpm-neighbours", ".bin");
+
+        // Two topics. User 2 matches user 1 exactly, user 3 shares half of topic 0 with user 1
+        // and user 4 shares nothing with user 1
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(vectorFile))) {
+            out.writeInt(0x57504D56);
+            out.writeInt(1);
+            out.writeInt(2);
+            out.writeInt(4);
+
+            writeUser(out, 3, new int[][]{{0, 0}, {0, 1}, {1, 1}}, new float[]{0.5f, 0.5f, 1});
+            writeUser(out, 1, new int[][]{{0, 0}, {1, 0}}, new float[]{0.2f, 0.7f});
+            writeUser(out, 4, new int[][]{{0, 1}}, new float[]{1});
+            writeUser(out, 2, new int[][]{{0, 0}, {1, 0}}, new float[]{0.9f, 0.1f});
+        }
+
+        // User means: 1 - 3, 2 - 4, 3 - 3, 4 - 5
+        snapshot = File.createTempFile("ratings", ".bin");
+        ColumnarRatingDAO.writeSnapshot(snapshot,
+                new long[]{1, 1, 2, 2, 3, 3, 4, 4},
+                new long[]{1, 2, 1, 3, 3, 4, 4, 5},
+                new float[]{4, 2, 5, 3, 5, 1, 5, 5}, 8);
+
+        model = new SharedModel(new WPMUserVectors(vectorFile), ColumnarRatingDAO.open(snapshot));
+    }
+
+    @After
+    public void tearDown() {
+        vectorFile.delete();
+        snapshot.delete();
+        indexFile.delete();
+    }
+
+    /**
+     * Test of recommend with only the most similar neighbour.
+     */
+    @Test
+    public void testSingleNeighbour() {
+        List<ScoredId> recs = model.createItemRecommender(1).recommend(1, 10);
+
+        // Only user 2's unrated item 3, scored 3 + (3 - 4)
+        assertEquals(1, recs.size());
+        assertEquals(3, recs.get(0).getId());
+        assertEquals(2, recs.get(0).getScore(), 1e-6);
+    }
+
+    /**
+     * Test of recommend with every similar neighbour, user 4 is never a neighbour.
+     */
+    @Test
+    public void testAllNeighbours() {
+        ItemRecommender recommender = model.createItemRecommender(10);
+        List<ScoredId> recs = recommender.recommend(1, 10);
+
+        // Topic 0 cosine of users 1 and 3 is 1 / sqrt(2), topic 1 is 0
+        double similarity = Math.sqrt(0.5) / 2;
+
+        assertEquals(2, recs.size());
+        assertEquals(3, recs.get(0).getId());
+        assertEquals(3 + (-1 + similarity * 2) / (1 + similarity), recs.get(0).getScore(), 1e-6);
+        assertEquals(4, recs.get(1).getId());
+        assertEquals(1, recs.get(1).getScore(), 1e-6);
+
+        // Same again, the buffers must be cleared between users
+        assertEquals(recs, recommender.recommend(1, 10));
+    }
+
+    /**
+     * Test of recommend for a user without a vector.
+     */
+    @Test
+    public void testUnknownUser() {
+        assertTrue(model.createItemRecommender(5).recommend(99, 10).isEmpty());
+    }
+
+    /**
+     * Test of recommend taking neighbours from the index rather than the vectors.
+     */
+    @Test
+    public void testIndexedNeighbours() throws IOException {
+        // The index disagrees with the vectors, so its use shows in the results
+        writeIndex(2, 1, new int[]{3, 2}, new float[]{0.9f, 0.5f});
+        List<ScoredId> recs = indexedModel().createItemRecommender(1).recommend(1, 10);
+
+        // User 3's unrated items, scored 3 + (5 - 3) and 3 + (1 - 3)
+        assertEquals(2, recs.size());
+        assertEquals(3, recs.get(0).getId());
+        assertEquals(5, recs.get(0).getScore(), 1e-6);
+        assertEquals(4, recs.get(1).getId());
+        assertEquals(1, recs.get(1).getScore(), 1e-6);
+    }
+
+    /**
+     * Test of recommend with an index written from the same vectors giving the same results.
+     */
+    @Test
+    public void testIndexMatchesVectors() throws IOException {
+        writeIndex(2, 1, new int[]{2, 3}, new float[]{1, (float) (Math.sqrt(0.5) / 2)});
+        SharedModel indexed = indexedModel();
+
+        for (int size = 1; size <= 2; size++) {
+            List<ScoredId> expected = model.createItemRecommender(size).recommend(1, 10);
+            List<ScoredId> recs = indexed.createItemRecommender(size).recommend(1, 10);
+
+            assertEquals(expected.size(), recs.size());
+
+            for (int i = 0; i < recs.size(); i++) {
+                assertEquals(expected.get(i).getId(), recs.get(i).getId());
+                assertEquals(expected.get(i).getScore(), recs.get(i).getScore(), 1e-6);
+            }
+        }
+    }
+
+    /**
+     * Test of recommend searching the vectors when the index can't fill the neighbourhood.
+     */
+    @Test
+    public void testIndexFallback() throws IOException {
+        // User 5 has no ratings, so a full list of one neighbour gives no rated neighbour
+        writeIndex(1, 1, new int[]{5}, new float[]{0.9f});
+        SharedModel indexed = indexedModel();
+
+        // As in testSingleNeighbour, user 2 is found from the vectors
+        List<ScoredId> recs = indexed.createItemRecommender(1).recommend(1, 10);
+        assertEquals(1, recs.size());
+        assertEquals(3, recs.get(0).getId());
+        assertEquals(2, recs.get(0).getScore(), 1e-6);
+
+        // A neighbourhood larger than k always searches the vectors
+        assertEquals(model.createItemRecommender(10).recommend(1, 10),
+                indexed.createItemRecommender(10).recommend(1, 10));
+    }
+
+    /**
+     * Creates a model over the test vectors and ratings that reads the index file.
+     */
+    private SharedModel indexedModel() throws IOException {
+        return new SharedModel(new WPMUserVectors(vectorFile), new WPMNeighbourIndex(indexFile),
+                ColumnarRatingDAO.open(snapshot));
+    }
+
+    /**
+     * Writes an index file listing the neighbours of one user.
+     */
+    private void writeIndex(int k, int user, int[] neighbours, float[] similarities)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(indexFile))) {
+            out.writeInt(0x57504D4E);
+            out.writeInt(1);
+            out.writeInt(k);
+            out.writeInt(1);
+
+            out.writeInt(user);
+            out.writeInt(neighbours.length);
+
+            for (int i = 0; i < neighbours.length; i++) {
+                out.writeInt(neighbours[i]);
+                out.writeFloat(similarities[i]);
+            }
+        }
+    }
+
+    /**
+     * Writes one user in the vector file format.
+     */
+    private static void writeUser(DataOutputStream out, int user, int[][] entries, float[] values)
+            throws IOException {
+        out.writeInt(user);
+        out.writeInt(entries.length);
+
+        for (int i = 0; i < entries.length; i++) {
+            out.writeInt(entries[i][0]);
+            out.writeInt(entries[i][1]);
+            out.writeFloat(values[i]);
+        }
+    }
+}
@@ -1,22 +1,81 @@
-/**
- * From http://sujitpal.blogspot.com.au/2008/09/ir-math-with-java-similarity-measures.html
- */
 package wordbasedpatternmining;
 
-import Jama.Matrix;
-
 /**
- * Class to calculate the cosine similarity of two Matrix objects.
- * 
+ * Calculates the cosine similarity of sparse FrequencyMatrix topic rows.<p>
+ *
+ * Rows hold their word IDs in ascending order, so the dot product of two rows is a single merge of
+ * the two word lists, touching only words that either user actually has.
+ *
  * @author Jordan
  */
-public class CosineSimilarity extends AbstractSimilarity {
+public class CosineSimilarity {
 
-    @Override
-    protected double computeSimilarity(Matrix sourceDoc, Matrix targetDoc) {
-        double dotProduct = sourceDoc.arrayTimes(targetDoc).norm1();
-        double eucledianDist = sourceDoc.normF() * targetDoc.normF();
-        return dotProduct / eucledianDist;
+    /**
+     * Calculate the average cosine similarity across all topics of two users. Topics that either
+     * user has no words in add nothing to the sum.
+     *
+     * @param source A user's matrix
+     * @param target A comparison user's matrix
+     * @return The average similarity
+     */
+    public static double averageSimilarity(FrequencyMatrix source, FrequencyMatrix target) {
+        int[] sourceTopics = source.getTopics(), targetTopics = target.getTopics();
+        double sum = 0;
+        int i = 0, j = 0;
+
+        // Only topics both users have words in can add to the similarity
+        while (i < sourceTopics.length && j < targetTopics.length) {
+            if (sourceTopics[i] < targetTopics[j]) {
+                i++;
+            } else if (sourceTopics[i] > targetTopics[j]) {
+                j++;
+            } else {
+                sum += computeSimilarity(source, target, sourceTopics[i]);
+                i++;
+                j++;
+            }
+        }
+        return sum / source.getNumTopics();
     }
 
+    /**
+     * Given two matrices, calculate the cosine similarity of one topic row.
+     *
+     * @param source A matrix object
+     * @param target A comparison matrix object
+     * @param topic The topic ID
+     * @return Similarity calculation, 0 if either row is empty
+     */
+    public static double computeSimilarity(FrequencyMatrix source, FrequencyMatrix target,
+            int topic) {
+        double lengths = source.getLength(topic) * target.getLength(topic);
+
+        if (lengths == 0) {
+            return 0;
+        }
+        return dot(source.getWords(topic), source.getDistributions(topic),
+                target.getWords(topic), target.getDistributions(topic)) / lengths;
+    }
+
+    /**
+     * Calculate the dot product of two sparse rows with ascending word IDs.
+     */
+    private static double dot(int[] sourceWords, float[] sourceValues, int[] targetWords,
+            float[] targetValues) {
+        double sum = 0;
+        int i = 0, j = 0;
+
+        while (i < sourceWords.length && j < targetWords.length) {
+            if (sourceWords[i] < targetWords[j]) {
+                i++;
+            } else if (sourceWords[i] > targetWords[j]) {
+                j++;
+            } else {
+                sum += (double) sourceValues[i] * targetValues[j];
+                i++;
+                j++;
+            }
+        }
+        return sum;
+    }
 }
@@ -1,109 +1,175 @@
 package wordbasedpatternmining;
 
 import java.text.DecimalFormat;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
- * Defines, implements and populates a matrix (two-dimensional array) object based on a
- * parameterised HashMap object passed in construction.
+ * Defines, implements and populates a sparse matrix object based on a parameterised
+ * TopicWordCounts object passed in construction.<p>
+ *
+ * Each topic row only holds the words the user used in that topic, as word IDs in ascending order
+ * with the word distribution of each. A user typically uses a tiny fraction of the vocabulary, so
+ * this is far smaller than a row as wide as the largest word ID.
  *
  * @author Michael
  */
 public class FrequencyMatrix {
 
+    // Shared by every empty topic row
+    private static final int[] NO_WORDS = new int[0];
+    private static final float[] NO_DISTRIBUTIONS = new float[0];
+
     // The parameterised number of topics that are present within model (user-passed parameter)
-    private int numTopics;
+    private final int numTopics;
+
+    // The word IDs in each topic row, ascending, and the distribution of each word
+    private final int[][] words;
+    private final float[][] distributions;
 
-    // The two-dimensional array (matrix) responsible for storing matricies
-    private double[][] matrix;
+    // The Euclidean length of each topic row, for cosine similarity
+    private final double[] lengths;
 
-    // HashMap object (one for each user) containing topics, words and the number of references to 
-    // each word
-    private HashMap<String, HashMap<String, Integer>> in;
+    // The topics that contain words, ascending
+    private final int[] topics;
 
     /**
-     * Constructor. Instantiate two-dimensional array of required size.
+     * Constructor. Build the sparse topic rows from the user's word frequencies.
      *
-     * @param input HashMap of topics & words/frequencies
+     * @param input The user's word counts in each topic
      * @param topics The number of topics intended for model
      */
-    public FrequencyMatrix(HashMap<String, HashMap<String, Integer>> input, int topics, int size) {
-
-        // Assign input to local input variable
-        in = input;//enforceCutoff(input, LOW_END_CUTOFF);
+    public FrequencyMatrix(TopicWordCounts input, int topics) {
 
         // Assign the topic number to local variable
         numTopics = topics;
 
-        // Create two-dimensional array given number of topics (in entire corpus, not just input)
-        matrix = new double[numTopics][size + 1];
+        words = new int[numTopics][];
+        distributions = new float[numTopics][];
+        lengths = new double[numTopics];
+
+        Arrays.fill(words, NO_WORDS);
+        Arrays.fill(distributions, NO_DISTRIBUTIONS);
 
-        // Fill elements of matrix
-        populateMatrix();
+        // Fill rows of matrix
+        this.topics = populateMatrix(input);
     }
 
     /**
-     * Populate the two-dimensional array of integers with word distributions.
+     * Populate the topic rows with word distributions.
+     *
+     * @param in The user's word counts in each topic
+     * @return The topics that contain words
      */
-    private void populateMatrix() {
+    private int[] populateMatrix(TopicWordCounts in) {
+        int[] present = new int[numTopics];
+        int presentCount = 0;
 
-        // Iterate through all topics, adding word distribution to array if present, 0 if not
-        for (int i = 0; i < numTopics; i++) {
+        // Keys are sorted by topic then word, so each topic row is a run of keys
+        long[] keys = in.getSortedKeys();
+        int start = 0;
+
+        while (start < keys.length) {
+            int topic = TopicWordCounts.topicOf(keys[start]);
+            int end = start;
+
+            while (end < keys.length && TopicWordCounts.topicOf(keys[end]) == topic) {
+                end++;
+            }
 
-            // Using i as topic pointer, test if topic is present
-            // If so, iterate through all words, calculate word distribution and insert into array
-            if (in.containsKey(Integer.toString(i))) {
+            // Topics beyond the model's topics are ignored
+            if (topic >= numTopics) {
+                break;
+            }
 
-                // Each word/frequenct combination object
-                HashMap<String, Integer> word = in.get(Integer.toString(i));
+            int total = getNumOccurences(in, keys, start, end);
+            double sumSquares = 0;
 
-                // Keep count of iterations through foreach
-                int wordCount = 0;
+            words[topic] = new int[end - start];
+            distributions[topic] = new float[end - start];
 
-                // Iterate through all words, adding to array
-                for (Map.Entry w : word.entrySet()) {
-                    wordCount++;
-                    matrix[i][Integer.parseInt(w.getKey().toString())]
-                            = new Double(getDist((int) w.getValue(), getNumOccurences(word)));
-                }
-            } else {
+            for (int j = start; j < end; j++) {
+                int word = TopicWordCounts.wordOf(keys[j]);
+                float dist = (float) getDist(in.get(topic, word), total);
 
-                // If not, set all values at array[i][x] to 0
-                for (int j = 0; j < matrix[i].length; j++) {
-                    matrix[i][j] = 0.00;
-                }
+                words[topic][j - start] = word;
+                distributions[topic][j - start] = dist;
+                sumSquares += (double) dist * dist;
             }
+
+            lengths[topic] = Math.sqrt(sumSquares);
+            present[presentCount++] = topic;
+            start = end;
         }
+
+        return Arrays.copyOf(present, presentCount);
     }
 
     /**
-     * Get the two-dimensional array representing the matrix
-     * 
-     * @return The matrix object
+     * Get the number of topics
+     *
+     * @return The number of topic rows
      */
-    public double[][] getMatrix() {
-        return matrix;
+    public int getNumTopics() {
+        return numTopics;
+    }
+
+    /**
+     * Get the topics that contain at least one word
+     *
+     * @return The topic IDs, ascending
+     */
+    public int[] getTopics() {
+        return topics;
+    }
+
+    /**
+     * Get the word IDs in a topic row
+     *
+     * @param topic The topic ID
+     * @return The word IDs, ascending, empty if the topic has no words
+     */
+    public int[] getWords(int topic) {
+        return words[topic];
+    }
+
+    /**
+     * Get the word distributions in a topic row
+     *
+     * @param topic The topic ID
+     * @return The distributions in the same order as getWords
+     */
+    public float[] getDistributions(int topic) {
+        return distributions[topic];
+    }
+
+    /**
+     * Get the Euclidean length of a topic row
+     *
+     * @param topic The topic ID
+     * @return The length, 0 if the topic has no words
+     */
+    public double getLength(int topic) {
+        return lengths[topic];
     }
 
     /**
      * Calculate and return the number of occurrences (non-distinct word items) occurring within a
      * single topic.<p>
-     * 
+     *
      * A single word may be used many times, we want to count every occurrence of this
      * word. This is achieved with frequency information. Result is used to calculate word
      * distribution within a given topic.
      *
-     * @return The number of uses (i.e. not distinct) of words in any topic
+     * @return The number of uses (i.e. not distinct) of words in the topic of keys [start, end)
      */
-    private int getNumOccurences(HashMap<String, Integer> get) {
+    private int getNumOccurences(TopicWordCounts in, long[] keys, int start, int end) {
 
         // Counter for the number of words
         int counter = 0;
 
         // Iterate through all words, adding the number of occurences to counter
-        for (Map.Entry topic : get.entrySet()) {
-            counter += (int) topic.getValue();
+        for (int i = start; i < end; i++) {
+            counter += in.get(TopicWordCounts.topicOf(keys[i]), TopicWordCounts.wordOf(keys[i]));
         }
 
         return counter;
@@ -126,20 +192,21 @@ public class FrequencyMatrix {
         // Enforce a number of decimal places in output
         DecimalFormat df = new DecimalFormat("0.00000");
 
-        // String to accrue output
-        String s = "";
+        // Accrue output
+        StringBuilder s = new StringBuilder();
 
-        // Iterate through entire matrix one level at-a-time, outputting cell information
-        s += "\t\t  WORD DISTRIBUTION\n";
+        // Iterate through each topic row, outputting the word ID and distribution of each word
+        s.append("\t\t  WORD DISTRIBUTION\n");
         for (int i = 0; i < numTopics; i++) {
-            s += "TOPIC " + i + " : ";
-            for (int j = 0; j < matrix[i].length; j++) {
-                s += df.format(matrix[i][j]) + " | ";
+            s.append("TOPIC ").append(i).append(" : ");
+            for (int j = 0; j < words[i].length; j++) {
+                s.append(words[i][j]).append('=').append(df.format(distributions[i][j]))
+                        .append(" | ");
             }
-            s += "\n";
+            s.append("\n");
         }
 
-        return s;
+        return s.toString();
 
     }
 }
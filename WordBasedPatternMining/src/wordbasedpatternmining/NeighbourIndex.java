@@ -0,0 +1,298 @@
+package wordbasedpatternmining;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Finds the k most similar users to every user, where similarity is the average cosine similarity
+ * of two users' topic rows (the measure that used to fill capstone.cosine_similarity).<p>
+ *
+ * Only the best k neighbours of each user are kept, in a bounded heap, so the index holds U * k
+ * entries instead of every pair of users. Similarity is symmetric, so each pair is compared once
+ * and offered to both users' heaps. Users are compared in parallel with fork/join, each task taking
+ * a range of users and comparing them with every later user, so a heap is locked while a neighbour
+ * is offered to it. Only topics both users have words in are compared, using the sparse rows of
+ * each FrequencyMatrix. Equally similar neighbours are ordered by user ID, so the index is the same
+ * however the comparisons are scheduled.<p>
+ *
+ * File layout (big endian): magic, version, k, number of users, then for each user in ascending ID
+ * order its ID, its number of neighbours and each neighbour as user ID (int) and similarity
+ * (float), most similar first.
+ *
+ * @author Michael
+ */
+public class NeighbourIndex {
+
+    // File header values
+    public static final int MAGIC = 0x57504D4E, // "WPMN"
+            VERSION = 1;
+
+    // Users compared by a single task before it stops splitting
+    private static final int TASK_USERS = 64;
+
+    // Maximum neighbours kept for each user
+    private final int k;
+
+    // User IDs in ascending order, the position of an ID is its index
+    private final int[] userIds;
+
+    // Each user's matrix, by index
+    private final FrequencyMatrix[] matrices;
+
+    // Each user's best neighbours so far as a heap of indexes, least similar at the root
+    private final int[][] heaps;
+    private final double[][] heapSims;
+    private final int[] heapSizes;
+
+    // Each user's neighbours and similarities, most similar first
+    private final int[][] neighbours;
+    private final float[][] similarities;
+
+    /**
+     * Builds the index for all users with numeric IDs.
+     *
+     * @param users The frequency matrix of each user, by user ID
+     * @param k The maximum number of neighbours to keep for each user
+     */
+    public NeighbourIndex(Map<String, FrequencyMatrix> users, int k) {
+        this.k = k;
+
+        List<Integer> ids = new ArrayList<>();
+
+        for (String user : users.keySet()) {
+            if (UserVectorFile.isUserId(user)) {
+                ids.add(Integer.parseInt(user));
+            }
+        }
+        Collections.sort(ids);
+
+        int userCount = ids.size();
+        userIds = new int[userCount];
+        matrices = new FrequencyMatrix[userCount];
+        heaps = new int[userCount][k];
+        heapSims = new double[userCount][k];
+        heapSizes = new int[userCount];
+        neighbours = new int[userCount][];
+        similarities = new float[userCount][];
+
+        for (int i = 0; i < userCount; i++) {
+            userIds[i] = ids.get(i);
+            matrices[i] = users.get(String.valueOf(userIds[i]));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+
+        try {
+            pool.invoke(new CompareTask(0, userCount));
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < userCount; i++) {
+            sortNeighbours(i);
+        }
+    }
+
+    /**
+     * Compares a user with every later user, offering each similar pair to both users' heaps.
+     */
+    private void compareLater(int user) {
+        for (int other = user + 1; other < userIds.length; other++) {
+            double sim = CosineSimilarity.averageSimilarity(matrices[user], matrices[other]);
+
+            // Users with nothing in common aren't neighbours
+            if (sim <= 0) {
+                continue;
+            }
+
+            offer(user, other, sim);
+            offer(other, user, sim);
+        }
+    }
+
+    /**
+     * Offers a neighbour to a user's heap, keeping it if it is among the best k so far.
+     */
+    private void offer(int user, int neighbour, double sim) {
+        int[] heap = heaps[user];
+        double[] sims = heapSims[user];
+
+        synchronized (heap) {
+            int size = heapSizes[user];
+
+            if (size < k) {
+                // Sift the new neighbour up from the bottom
+                int index = size;
+                heapSizes[user] = size + 1;
+
+                while (index > 0 && isWorse(neighbour, sim, heap[(index - 1) >>> 1],
+                        sims[(index - 1) >>> 1])) {
+                    heap[index] = heap[(index - 1) >>> 1];
+                    sims[index] = sims[(index - 1) >>> 1];
+                    index = (index - 1) >>> 1;
+                }
+                heap[index] = neighbour;
+                sims[index] = sim;
+
+            } else if (k > 0 && isWorse(heap[0], sims[0], neighbour, sim)) {
+                // Replace the least similar neighbour and sift down from the root
+                siftDown(heap, sims, size, neighbour, sim);
+            }
+        }
+    }
+
+    /**
+     * Checks if one neighbour is less similar than another, the one with the higher index being
+     * the lesser of two equally similar neighbours.
+     */
+    private static boolean isWorse(int neighbour, double sim, int other, double otherSim) {
+        return sim < otherSim || (sim == otherSim && neighbour > other);
+    }
+
+    /**
+     * Places a neighbour at the root of a heap and moves it down until its children are more
+     * similar.
+     */
+    private static void siftDown(int[] heap, double[] heapSims, int size, int neighbour,
+            double sim) {
+        int index = 0;
+
+        while (true) {
+            int child = 2 * index + 1;
+
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWorse(heap[child + 1], heapSims[child + 1], heap[child],
+                    heapSims[child])) {
+                child++;
+            }
+            if (!isWorse(heap[child], heapSims[child], neighbour, sim)) {
+                break;
+            }
+            heap[index] = heap[child];
+            heapSims[index] = heapSims[child];
+            index = child;
+        }
+        heap[index] = neighbour;
+        heapSims[index] = sim;
+    }
+
+    /**
+     * Pops a user's heap so the most similar neighbour is first.
+     */
+    private void sortNeighbours(int user) {
+        int[] heap = heaps[user];
+        double[] sims = heapSims[user];
+        int size = heapSizes[user];
+
+        neighbours[user] = new int[size];
+        similarities[user] = new float[size];
+
+        for (int last = size - 1; last >= 0; last--) {
+            neighbours[user][last] = userIds[heap[0]];
+            similarities[user][last] = (float) sims[0];
+            siftDown(heap, sims, last, heap[last], sims[last]);
+        }
+
+        heaps[user] = null;
+        heapSims[user] = null;
+    }
+
+    /**
+     * Write the neighbours of every user to a file.
+     *
+     * @param path The file to write
+     * @throws IOException
+     */
+    public void write(String path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(k);
+            out.writeInt(userIds.length);
+
+            for (int i = 0; i < userIds.length; i++) {
+                out.writeInt(userIds[i]);
+                out.writeInt(neighbours[i].length);
+
+                for (int j = 0; j < neighbours[i].length; j++) {
+                    out.writeInt(neighbours[i][j]);
+                    out.writeFloat(similarities[i][j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the neighbours of a user.
+     *
+     * @param user The user ID
+     * @return The neighbour IDs, most similar first, or null if the user isn't in the index
+     */
+    public int[] getNeighbours(int user) {
+        int index = Arrays.binarySearch(userIds, user);
+        return index < 0 ? null : neighbours[index];
+    }
+
+    /**
+     * Get the similarities of a user's neighbours.
+     *
+     * @param user The user ID
+     * @return The similarities in the same order as getNeighbours, or null if the user isn't in
+     * the index
+     */
+    public float[] getSimilarities(int user) {
+        int index = Arrays.binarySearch(userIds, user);
+        return index < 0 ? null : similarities[index];
+    }
+
+    /**
+     * Get the number of users in the index.
+     *
+     * @return The number of users
+     */
+    public int getUserCount() {
+        return userIds.length;
+    }
+
+    /**
+     * Compares a range of users with every later user, splitting the range until it is small
+     * enough.
+     */
+    private class CompareTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        // Users [start, end) are handled by this task
+        private final int start, end;
+
+        CompareTask(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= TASK_USERS) {
+                for (int user = start; user < end; user++) {
+                    compareLater(user);
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new CompareTask(start, middle), new CompareTask(middle, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package wordbasedpatternmining;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the parse time and heap use of TopicStateReader with the String.split and nested
+ * HashMap parsing that WordBasedPatternMining used to do.<p>
+ *
+ * A synthetic topic state of the requested number of tokens is generated, or an existing state file
+ * can be given instead. Heap use is the memory still in use after a garbage collection while the
+ * parsed counts are held. The state is also written as shards and read in parallel.<p>
+ *
+ * Run with: java -Xmx8g wordbasedpatternmining.TopicStateBenchmark [tokens | state file] [shards]
+ * (100,000,000 tokens and 4 shards by default).
+ *
+ * @author Michael
+ */
+public class TopicStateBenchmark {
+
+    // Defaults for the generated state
+    private static final long DEFAULT_TOKENS = 100000000L;
+    private static final int DEFAULT_SHARDS = 4;
+
+    // Shape of the generated state
+    private static final int USERS = 20000,
+            TOPICS = 50,
+            VOCABULARY = 50000,
+            TOKENS_PER_DOCUMENT = 500;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args Number of tokens or a state file, then the number of shards
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        int shardCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SHARDS;
+        List<String> shards = new ArrayList<>();
+        String path;
+
+        if (args.length > 0 && new File(args[0]).exists()) {
+            path = args[0];
+        } else {
+            long tokens = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_TOKENS;
+            System.out.println("Generating " + tokens + " tokens...");
+            path = generate(tokens, shardCount, shards);
+        }
+
+        System.out.println("Parser\tTime (s)\tHeap (MB)\tTokens");
+
+        // The old parser may not fit in the heap for large states
+        try {
+            long start = System.nanoTime();
+            HashMap<String, HashMap<String, HashMap<String, Integer>>> legacy = legacyParse(path);
+            long nanos = System.nanoTime() - start;
+            report("split + HashMap", nanos, usedHeap(), countTokens(legacy));
+        } catch (OutOfMemoryError ex) {
+            System.out.println("split + HashMap\tout of memory");
+        }
+
+        long start = System.nanoTime();
+        TopicStateReader reader = new TopicStateReader();
+        reader.read(path);
+        long nanos = System.nanoTime() - start;
+        report("TopicStateReader", nanos, usedHeap(), reader.getTokenCount());
+        reader = null;
+
+        if (!shards.isEmpty()) {
+            start = System.nanoTime();
+            reader = TopicStateReader.readAll(shards, shards.size());
+            nanos = System.nanoTime() - start;
+            report("TopicStateReader x" + shards.size(), nanos, usedHeap(),
+                    reader.getTokenCount());
+        }
+
+        // Clean up generated files
+        if (!shards.isEmpty()) {
+            new File(path).delete();
+
+            for (String shard : shards) {
+                new File(shard).delete();
+            }
+        }
+    }
+
+    /**
+     * Parses a state the way WordBasedPatternMining.populateStructure used to.
+     */
+    private static HashMap<String, HashMap<String, HashMap<String, Integer>>> legacyParse(
+            String path) throws IOException {
+        HashMap<String, HashMap<String, HashMap<String, Integer>>> users = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(
+                new FileInputStream(path))))) {
+
+            // Skip over header lines
+            for (int i = 0; i < 3; i++) {
+                reader.readLine();
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String parts[] = line.split(" ");
+                String user = parts[1].substring((parts[1].lastIndexOf('\\') + 1),
+                        parts[1].lastIndexOf('.'));
+                String typeIndex = parts[3];
+                String topicId = parts[5];
+
+                if (!users.containsKey(user)) {
+                    users.put(user, new HashMap<String, HashMap<String, Integer>>());
+                }
+                if (!(users.get(user).containsKey(topicId))) {
+                    users.get(user).put(topicId, new HashMap<String, Integer>());
+                }
+                if (!(users.get(user).get(topicId).containsKey(typeIndex))) {
+                    users.get(user).get(topicId).put(typeIndex, 0);
+                }
+                users.get(user).get(topicId).put(typeIndex,
+                        users.get(user).get(topicId).get(typeIndex) + 1);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Counts the tokens held by the old structure.
+     */
+    private static long countTokens(
+            HashMap<String, HashMap<String, HashMap<String, Integer>>> users) {
+        long count = 0;
+
+        for (HashMap<String, HashMap<String, Integer>> topics : users.values()) {
+            for (HashMap<String, Integer> words : topics.values()) {
+                for (int frequency : words.values()) {
+                    count += frequency;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a random state as one file and as shards, returning the path of the single file.
+     */
+    private static String generate(long tokens, int shardCount, List<String> shards)
+            throws IOException {
+        File file = File.createTempFile("topic-state", ".gz");
+        OutputStream[] shardOuts = new OutputStream[shardCount];
+
+        for (int i = 0; i < shardCount; i++) {
+            File shard = File.createTempFile("topic-state-" + i + "-", ".gz");
+            shards.add(shard.getPath());
+            shardOuts[i] = new GZIPOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(shard), 1 << 16), 1 << 16);
+        }
+
+        Random random = new Random(42);
+        String header = "#doc source pos typeindex type topic\n#alpha : 0.1\n#beta : 0.01\n";
+
+        try (PrintStream out = new PrintStream(new GZIPOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file), 1 << 16), 1 << 16), false, "UTF-8")) {
+
+            out.print(header);
+            StringBuilder line = new StringBuilder();
+
+            for (long token = 0; token < tokens; token++) {
+                long doc = token / TOKENS_PER_DOCUMENT;
+                int user = (int) (doc % USERS) + 1;
+                int topic = random.nextInt(TOPICS);
+
+                // Skew words towards low IDs, as real vocabularies are
+                int word = (int) (VOCABULARY * Math.pow(random.nextDouble(), 3));
+
+                line.setLength(0);
+                line.append(doc).append(" C:\\data\\").append(user).append(".txt ")
+                        .append(token % TOKENS_PER_DOCUMENT).append(' ').append(word)
+                        .append(" w").append(word).append(' ').append(topic).append('\n');
+
+                byte[] bytes = line.toString().getBytes("UTF-8");
+                out.write(bytes);
+                shardOuts[(int) (doc % shardCount)].write(bytes);
+            }
+        } finally {
+            for (OutputStream shardOut : shardOuts) {
+                shardOut.close();
+            }
+        }
+        return file.getPath();
+    }
+
+    /**
+     * Gets the heap in use after a garbage collection, in megabytes.
+     */
+    private static double usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024.0 * 1024.0);
+    }
+
+    /**
+     * Outputs one line of results.
+     */
+    private static void report(String parser, long nanos, double heap, long tokens) {
+        System.out.printf("%s\t%.1f\t%.0f\t%d%n", parser, nanos / 1e9, heap, tokens);
+    }
+}
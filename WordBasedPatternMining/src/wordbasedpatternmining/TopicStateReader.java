@@ -0,0 +1,324 @@
+package wordbasedpatternmining;
+
+import cc.mallet.topics.ParallelTopicModel;
+import cc.mallet.topics.TopicAssignment;
+import cc.mallet.types.FeatureSequence;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streams a MALLET topic state file (topic-state.gz) and counts each user's words in each topic.<p>
+ *
+ * Every line of the state is one token: "doc source pos typeindex type topic". Lines are parsed
+ * straight from the decompressed bytes into ints, without creating a String per line or splitting
+ * it. The user is only worked out from the source when the document changes, and each token is
+ * then a single increment of that user's TopicWordCounts. Header lines start with '#' and are
+ * skipped.<p>
+ *
+ * A state split into several shard files can be read in parallel with readAll, each shard into
+ * its own reader, and the readers then merged.<p>
+ *
+ * A model trained in the same JVM can be read directly with read(ParallelTopicModel), which takes
+ * the word and topic of each token from the model's data, with no state file at all.
+ *
+ * @author Michael
+ */
+public class TopicStateReader {
+
+    // Size of the buffer decompressed bytes are parsed from
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // Fields of a state line
+    private static final int DOC_FIELD = 0,
+            SOURCE_FIELD = 1,
+            TYPE_INDEX_FIELD = 3,
+            TOPIC_FIELD = 5;
+
+    // The word counts of every user, by user ID
+    private final HashMap<String, TopicWordCounts> users = new HashMap<>();
+
+    // One more than the largest topic ID seen
+    private int numTopics;
+
+    // Number of tokens read
+    private long tokenCount;
+
+    /**
+     * Read every token of a state file into the counts.
+     *
+     * @param path The gzipped state file
+     * @throws IOException
+     */
+    public void read(String path) throws IOException {
+        try (InputStream in = new GZIPInputStream(new FileInputStream(path), BUFFER_SIZE)) {
+            read(in);
+        }
+    }
+
+    /**
+     * Read every token from a decompressed state stream into the counts.
+     *
+     * @param in The state stream
+     * @throws IOException
+     */
+    public void read(InputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] source = new byte[256];
+
+        // State of the line being parsed
+        int field = 0, doc = 0, typeIndex = 0, topic = 0, sourceLength = 0;
+        boolean comment = false, lineStarted = false;
+
+        // The document and user of the previous token
+        int lastDoc = -1;
+        TopicWordCounts counts = null;
+
+        int read;
+
+        while ((read = in.read(buffer)) > 0) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+
+                if (b == '\n') {
+                    // End of a token line, count it
+                    if (lineStarted && !comment) {
+                        if (field < TOPIC_FIELD) {
+                            throw new IOException("Malformed topic state line after "
+                                    + tokenCount + " tokens");
+                        }
+                        if (doc != lastDoc || counts == null) {
+                            counts = getCounts(toUser(source, sourceLength));
+                            lastDoc = doc;
+                        }
+                        counts.increment(topic, typeIndex);
+                        tokenCount++;
+
+                        if (topic >= numTopics) {
+                            numTopics = topic + 1;
+                        }
+                    }
+
+                    field = doc = typeIndex = topic = sourceLength = 0;
+                    comment = lineStarted = false;
+
+                } else if (comment || b == '\r') {
+                    // Nothing to parse in a header line
+
+                } else if (!lineStarted && b == '#') {
+                    comment = lineStarted = true;
+
+                } else if (b == ' ') {
+                    lineStarted = true;
+                    field++;
+
+                } else {
+                    lineStarted = true;
+
+                    switch (field) {
+                        case DOC_FIELD:
+                            doc = doc * 10 + (b - '0');
+                            break;
+                        case SOURCE_FIELD:
+                            if (sourceLength == source.length) {
+                                source = Arrays.copyOf(source, source.length * 2);
+                            }
+                            source[sourceLength++] = b;
+                            break;
+                        case TYPE_INDEX_FIELD:
+                            typeIndex = typeIndex * 10 + (b - '0');
+                            break;
+                        case TOPIC_FIELD:
+                            topic = topic * 10 + (b - '0');
+                            break;
+                        default:
+                            // Position and word text aren't needed
+                    }
+                }
+            }
+        }
+
+        // A final line without a newline
+        if (lineStarted && !comment && field >= TOPIC_FIELD) {
+            if (doc != lastDoc || counts == null) {
+                counts = getCounts(toUser(source, sourceLength));
+            }
+            counts.increment(topic, typeIndex);
+            tokenCount++;
+
+            if (topic >= numTopics) {
+                numTopics = topic + 1;
+            }
+        }
+    }
+
+    /**
+     * Read every token of a trained model into the counts, instead of printing its state to a file
+     * and reading that back.
+     *
+     * @param model The trained topic model
+     */
+    public void read(ParallelTopicModel model) {
+        numTopics = Math.max(numTopics, model.getNumTopics());
+
+        for (TopicAssignment document : model.getData()) {
+            Object source = document.instance.getSource();
+            TopicWordCounts counts = getCounts(toUser(source == null ? "NA" : source.toString()));
+
+            // Word IDs and topics are index arrays, which may be longer than the document
+            FeatureSequence tokens = (FeatureSequence) document.instance.getData();
+            int[] words = tokens.getFeatures();
+            int[] topics = document.topicSequence.getFeatures();
+            int length = document.topicSequence.getLength();
+
+            for (int i = 0; i < length; i++) {
+                counts.increment(topics[i], words[i]);
+            }
+            tokenCount += length;
+        }
+    }
+
+    /**
+     * Get the counts for a user, adding them if the user is new.
+     */
+    private TopicWordCounts getCounts(String user) {
+        TopicWordCounts counts = users.get(user);
+
+        if (counts == null) {
+            counts = new TopicWordCounts();
+            users.put(user, counts);
+        }
+        return counts;
+    }
+
+    /**
+     * Get the user ID from the bytes of a document source.
+     */
+    private static String toUser(byte[] source, int length) {
+        return toUser(new String(source, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Get the user ID from a document source, the file name without its folder or extension.
+     */
+    private static String toUser(String path) {
+        int start = Math.max(path.lastIndexOf('\\'), path.lastIndexOf('/')) + 1;
+        int end = path.lastIndexOf('.');
+
+        return path.substring(start, end < start ? path.length() : end);
+    }
+
+    /**
+     * Add every count of another reader to this reader's counts.
+     *
+     * @param other A reader of another shard
+     */
+    public void merge(TopicStateReader other) {
+        for (Map.Entry<String, TopicWordCounts> user : other.users.entrySet()) {
+            TopicWordCounts counts = users.get(user.getKey());
+
+            if (counts == null) {
+                users.put(user.getKey(), user.getValue());
+            } else {
+                counts.addAll(user.getValue());
+            }
+        }
+
+        numTopics = Math.max(numTopics, other.numTopics);
+        tokenCount += other.tokenCount;
+    }
+
+    /**
+     * Read state shards, in parallel if there are several, and merge their counts.
+     *
+     * @param paths The gzipped state files
+     * @param threads The most shards to read at once
+     * @return A reader holding the counts of every shard
+     * @throws IOException
+     */
+    public static TopicStateReader readAll(List<String> paths, int threads) throws IOException {
+        if (paths.size() == 1 || threads <= 1) {
+            TopicStateReader reader = new TopicStateReader();
+
+            for (String path : paths) {
+                reader.read(path);
+            }
+            return reader;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, paths.size()));
+
+        try {
+            List<Future<TopicStateReader>> shards = new ArrayList<>();
+
+            for (final String path : paths) {
+                shards.add(pool.submit(new Callable<TopicStateReader>() {
+                    @Override
+                    public TopicStateReader call() throws IOException {
+                        TopicStateReader reader = new TopicStateReader();
+                        reader.read(path);
+                        return reader;
+                    }
+                }));
+            }
+
+            // Merge in shard order
+            TopicStateReader merged = new TopicStateReader();
+
+            for (Future<TopicStateReader> shard : shards) {
+                merged.merge(shard.get());
+            }
+            return merged;
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted reading topic state", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException("Failed reading topic state", ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the word counts of every user
+     *
+     * @return The counts, by user ID
+     */
+    public HashMap<String, TopicWordCounts> getUsers() {
+        return users;
+    }
+
+    /**
+     * Get the number of topics
+     *
+     * @return One more than the largest topic ID read
+     */
+    public int getNumTopics() {
+        return numTopics;
+    }
+
+    /**
+     * Get the number of tokens read
+     *
+     * @return The token count
+     */
+    public long getTokenCount() {
+        return tokenCount;
+    }
+}
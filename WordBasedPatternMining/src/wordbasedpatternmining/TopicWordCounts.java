@@ -0,0 +1,220 @@
+package wordbasedpatternmining;
+
+import java.util.Arrays;
+
+/**
+ * Counts how many times a user used each word in each topic.<p>
+ *
+ * The (topic, word) pairs are packed into a single long and counted in an open addressing hash
+ * table of primitive arrays, so counting a token is one probe with no boxing and no nested maps.
+ *
+ * @author Michael
+ */
+public class TopicWordCounts {
+
+    // Marks an unused slot, packed keys are never negative
+    private static final long EMPTY = -1;
+
+    // Initial number of slots, always a power of two
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Packed (topic, word) keys and their counts
+    private long[] keys;
+    private int[] counts;
+
+    // Number of keys in the table
+    private int size;
+
+    /**
+     * Constructor. Create an empty set of counts.
+     */
+    public TopicWordCounts() {
+        keys = new long[INITIAL_CAPACITY];
+        counts = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Add occurrences of a word in a topic.
+     *
+     * @param topic The topic ID
+     * @param word The word ID
+     * @param count The number of occurrences to add
+     */
+    public void add(int topic, int word, int count) {
+        long key = pack(topic, word);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot] += count;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        counts[slot] = count;
+
+        // Keep the table at most half full
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Add one occurrence of a word in a topic.
+     *
+     * @param topic The topic ID
+     * @param word The word ID
+     */
+    public void increment(int topic, int word) {
+        add(topic, word, 1);
+    }
+
+    /**
+     * Add all of another user's counts to these counts.
+     *
+     * @param other The counts to add
+     */
+    public void addAll(TopicWordCounts other) {
+        for (int i = 0; i < other.keys.length; i++) {
+            if (other.keys[i] != EMPTY) {
+                add(topicOf(other.keys[i]), wordOf(other.keys[i]), other.counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Create counts holding only the words used at least a minimum number of times. If no word
+     * reaches the cutoff these counts are returned unchanged, so a user is never left empty.
+     *
+     * @param cutoff The minimum frequency count to retain a place in the counts
+     * @return The trimmed counts
+     */
+    public TopicWordCounts withCutoff(int cutoff) {
+        // If the cutoff is one or less the counts won't change anyway
+        if (cutoff <= 1) {
+            return this;
+        }
+
+        TopicWordCounts output = new TopicWordCounts();
+
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY && counts[i] >= cutoff) {
+                output.add(topicOf(keys[i]), wordOf(keys[i]), counts[i]);
+            }
+        }
+        return output.size == 0 ? this : output;
+    }
+
+    /**
+     * Get the packed keys, sorted by topic then word. Use topicOf and wordOf to unpack them.
+     *
+     * @return The sorted keys
+     */
+    public long[] getSortedKeys() {
+        long[] sorted = new long[size];
+        int next = 0;
+
+        for (long key : keys) {
+            if (key != EMPTY) {
+                sorted[next++] = key;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Get the count of a word in a topic.
+     *
+     * @param topic The topic ID
+     * @param word The word ID
+     * @return The number of occurrences, 0 if the word was never used in the topic
+     */
+    public int get(int topic, int word) {
+        long key = pack(topic, word);
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Get the number of distinct (topic, word) pairs.
+     *
+     * @return The number of pairs counted
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the topic of a packed key.
+     *
+     * @param key The packed key
+     * @return The topic ID
+     */
+    public static int topicOf(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Get the word of a packed key.
+     *
+     * @param key The packed key
+     * @return The word ID
+     */
+    public static int wordOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Packs a topic and word so keys sort by topic then word.
+     */
+    private static long pack(int topic, int word) {
+        return ((long) topic << 32) | (word & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Spreads the bits of a key so that nearby words don't share slots.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Moves every key into a larger table.
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+
+        keys = new long[capacity];
+        counts = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = hash(oldKeys[i]) & mask;
+
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
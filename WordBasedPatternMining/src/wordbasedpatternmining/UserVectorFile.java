@@ -0,0 +1,108 @@
+package wordbasedpatternmining;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes every user's frequency matrix to a compact binary file, so that recommenders can compare
+ * users directly instead of reading every pair of users back from the database.<p>
+ *
+ * Only the non-zero word distributions are written. The file is read by the WPM recommender in
+ * RecommendationEvaluation, which calculates the same average cosine similarity across topics that
+ * used to be stored in capstone.cosine_similarity.<p>
+ *
+ * File layout (big endian): magic, version, number of topics, number of users, then for each user
+ * its ID, its number of entries and each entry as topic (int), word (int) and distribution (float),
+ * sorted by topic then word.
+ *
+ * @author Michael
+ */
+public class UserVectorFile {
+
+    // File header values
+    public static final int MAGIC = 0x57504D56, // "WPMV"
+            VERSION = 1;
+
+    /**
+     * Write the matrices of all users with numeric IDs to a file.
+     *
+     * @param path The file to write
+     * @param matrices The frequency matrix of each user, by user ID
+     * @param numTopics The number of topics in every matrix
+     * @return The number of users written
+     * @throws IOException
+     */
+    public static int write(String path, Map<String, FrequencyMatrix> matrices, int numTopics)
+            throws IOException {
+
+        int userCount = 0;
+
+        // Count users first as the count is written before them
+        for (String user : matrices.keySet()) {
+            if (isUserId(user)) {
+                userCount++;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path), 1 << 16))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(numTopics);
+            out.writeInt(userCount);
+
+            for (Map.Entry<String, FrequencyMatrix> user : matrices.entrySet()) {
+                // Skip anything that isn't a user, such as the metrics document
+                if (!isUserId(user.getKey())) {
+                    continue;
+                }
+
+                FrequencyMatrix matrix = user.getValue();
+                int entries = 0;
+
+                for (int topic : matrix.getTopics()) {
+                    entries += matrix.getWords(topic).length;
+                }
+
+                out.writeInt(Integer.parseInt(user.getKey()));
+                out.writeInt(entries);
+
+                for (int topic : matrix.getTopics()) {
+                    int[] words = matrix.getWords(topic);
+                    float[] distributions = matrix.getDistributions(topic);
+
+                    for (int j = 0; j < words.length; j++) {
+                        out.writeInt(topic);
+                        out.writeInt(words[j]);
+                        out.writeFloat(distributions[j]);
+                    }
+                }
+            }
+        }
+
+        return userCount;
+    }
+
+    /**
+     * Check if a document name is a numeric user ID.
+     *
+     * @param user The document name
+     * @return True if the name is a user ID
+     */
+    static boolean isUserId(String user) {
+        if (user.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < user.length(); i++) {
+            if (!Character.isDigit(user.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}